@@ -0,0 +1,113 @@
+package org.interledger.spsp.server.benchmarks;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.accounts.AccountRelationship;
+import org.interledger.connector.accounts.AccountSettings;
+import org.interledger.link.http.IlpOverHttpLink;
+import org.interledger.link.http.IlpOverHttpLinkSettings;
+import org.interledger.link.http.IncomingLinkSettings;
+import org.interledger.link.http.OutgoingLinkSettings;
+import org.interledger.link.http.SimpleAuthSettings;
+import org.interledger.spsp.server.grpc.CreateAccountResponse;
+import org.interledger.spsp.server.grpc.GetAccountResponse;
+import org.interledger.spsp.server.grpc.SendPaymentResponse;
+import org.interledger.spsp.server.grpc.services.AccountRequestResponseConverter;
+import org.interledger.spsp.server.model.BearerToken;
+import org.interledger.spsp.server.model.CreateAccountRestRequest;
+import org.interledger.stream.SendMoneyResult;
+
+import com.google.common.primitives.UnsignedLong;
+import okhttp3.HttpUrl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the {@link AccountRequestResponseConverter} conversions made on every account and payment request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountRequestResponseConverterBenchmark {
+
+  private HttpUrl spspReceiverUrl;
+  private AccountSettings accountSettings;
+  private OutgoingLinkSettings outgoingLinkSettings;
+  private BearerToken simpleToken;
+  private CreateAccountRestRequest createAccountRequest;
+  private SendMoneyResult sendMoneyResult;
+
+  @Setup
+  public void setUp() {
+    spspReceiverUrl = HttpUrl.parse("https://money.example.com");
+    outgoingLinkSettings = OutgoingLinkSettings.builder()
+      .authType(IlpOverHttpLinkSettings.AuthType.SIMPLE)
+      .url(HttpUrl.parse("https://money.example.com/ilp"))
+      .simpleAuthSettings(SimpleAuthSettings.forAuthToken("spsp-token"))
+      .build();
+
+    final Map<String, Object> customSettings = new HashMap<>();
+    customSettings.put(IncomingLinkSettings.HTTP_INCOMING_AUTH_TYPE, IlpOverHttpLinkSettings.AuthType.SIMPLE.name());
+    customSettings.put(IncomingLinkSettings.HTTP_INCOMING_SIMPLE_AUTH_TOKEN, "password");
+    customSettings.putAll(outgoingLinkSettings.toCustomSettingsMap());
+    accountSettings = AccountSettings.builder()
+      .accountId(AccountId.of("alice"))
+      .accountRelationship(AccountRelationship.CHILD)
+      .assetCode("XRP")
+      .assetScale(9)
+      .linkType(IlpOverHttpLink.LINK_TYPE)
+      .customSettings(customSettings)
+      .build();
+
+    simpleToken = BearerToken.fromRawToken("password");
+    createAccountRequest = CreateAccountRestRequest.builder("XRP", 9).accountId(AccountId.of("alice")).build();
+    sendMoneyResult = SendMoneyResult.builder()
+      .originalAmount(UnsignedLong.valueOf(1000))
+      .amountDelivered(UnsignedLong.valueOf(1000))
+      .amountSent(UnsignedLong.valueOf(1000))
+      .amountLeftToSend(UnsignedLong.ZERO)
+      .numFulfilledPackets(10)
+      .numRejectPackets(0)
+      .sendMoneyDuration(Duration.ofMillis(100))
+      .successfulPayment(true)
+      .build();
+  }
+
+  @Benchmark
+  public GetAccountResponse getAccountResponse() {
+    return AccountRequestResponseConverter.createGetAccountResponseFromAccountSettings(accountSettings, spspReceiverUrl);
+  }
+
+  @Benchmark
+  public CreateAccountResponse createAccountResponse() {
+    return AccountRequestResponseConverter
+      .generateCreateAccountResponseFromAccountSettings(accountSettings, spspReceiverUrl)
+      .build();
+  }
+
+  @Benchmark
+  public AccountSettings accountSettingsFromCreateAccountRequest() {
+    return AccountRequestResponseConverter
+      .accountSettingsFromCreateAccountRequest(simpleToken, createAccountRequest, outgoingLinkSettings);
+  }
+
+  @Benchmark
+  public SendPaymentResponse sendPaymentResponse() {
+    return AccountRequestResponseConverter.sendPaymentResponseFromSendMoneyResult(sendMoneyResult);
+  }
+}
@@ -0,0 +1,44 @@
+package org.interledger.spsp.server.benchmarks;
+
+import org.interledger.spsp.server.model.BearerToken;
+import org.interledger.spsp.server.services.AuthUtils;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link AuthUtils#getJwt(Optional)}, which every payment request goes through. The JWT benchmark
+ * measures the steady state, in which the token has already been decoded and cached.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthUtilsBenchmark {
+
+  private Optional<BearerToken> jwt = Optional.of(BearerToken.fromRawToken(Tokens.JWT));
+  private Optional<BearerToken> simple = Optional.of(BearerToken.fromRawToken(Tokens.SIMPLE));
+
+  @Benchmark
+  public Optional<DecodedJWT> getJwt() {
+    return AuthUtils.getJwt(jwt);
+  }
+
+  @Benchmark
+  public Optional<DecodedJWT> getJwtOfSimpleToken() {
+    return AuthUtils.getJwt(simple);
+  }
+}
@@ -0,0 +1,45 @@
+package org.interledger.spsp.server.benchmarks;
+
+import org.interledger.spsp.server.model.BearerToken;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link BearerToken} parsing, which happens for every authenticated REST and gRPC request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BearerTokenBenchmark {
+
+  private String rawToken = Tokens.JWT;
+  private String headerValue = "Bearer " + Tokens.JWT;
+
+  @Benchmark
+  public BearerToken fromRawToken() {
+    return BearerToken.fromRawToken(rawToken);
+  }
+
+  @Benchmark
+  public BearerToken fromBearerTokenValue() {
+    return BearerToken.fromBearerTokenValue(headerValue);
+  }
+
+  @Benchmark
+  public String rawTokenOfHeader() {
+    return BearerToken.fromBearerTokenValue(headerValue).rawToken();
+  }
+}
@@ -0,0 +1,68 @@
+package org.interledger.spsp.server.benchmarks;
+
+import org.interledger.spsp.server.controllers.filters.CookieAuthenticationFilter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Benchmarks for {@link CookieAuthenticationFilter}, which runs on every REST request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CookieAuthenticationFilterBenchmark {
+
+  private CookieAuthenticationFilter filter;
+  private MockHttpServletRequest cookieRequest;
+  private MockHttpServletRequest headerRequest;
+  private MockHttpServletResponse response;
+
+  @Setup
+  public void setUp() {
+    filter = new CookieAuthenticationFilter();
+    cookieRequest = new MockHttpServletRequest("GET", "/accounts/alice/balance");
+    cookieRequest.setCookies(new Cookie("session", "abc123"), new Cookie("jwt", Tokens.JWT));
+    headerRequest = new MockHttpServletRequest("GET", "/accounts/alice/balance");
+    headerRequest.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + Tokens.JWT);
+    response = new MockHttpServletResponse();
+  }
+
+  @Benchmark
+  public void jwtCookie(final Blackhole blackhole) throws IOException, ServletException {
+    filter.doFilter(cookieRequest, response, chain(blackhole));
+  }
+
+  @Benchmark
+  public void authorizationHeader(final Blackhole blackhole) throws IOException, ServletException {
+    filter.doFilter(headerRequest, response, chain(blackhole));
+  }
+
+  private static FilterChain chain(final Blackhole blackhole) {
+    // Read the header as the controllers would, so the wrapped request's work isn't optimized away.
+    return (request, response) -> blackhole.consume(((HttpServletRequest) request).getHeader(HttpHeaders.AUTHORIZATION));
+  }
+}
@@ -0,0 +1,75 @@
+package org.interledger.spsp.server.benchmarks;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.accounts.AccountNotFoundProblem;
+import org.interledger.spsp.server.config.jackson.ObjectMapperFactory;
+import org.interledger.spsp.server.util.ExceptionHandlerUtils;
+
+import io.grpc.stub.StreamObserver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Benchmarks for {@link ExceptionHandlerUtils#handleException(Throwable, StreamObserver)}, which maps every failed
+ * gRPC call to a status.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExceptionHandlerUtilsBenchmark {
+
+  private ExceptionHandlerUtils exceptionHandlerUtils;
+  private AccountNotFoundProblem accountNotFound;
+  private CompletionException wrappedTimeout;
+
+  @Setup
+  public void setUp() {
+    exceptionHandlerUtils = new ExceptionHandlerUtils(ObjectMapperFactory.create());
+    accountNotFound = new AccountNotFoundProblem(AccountId.of("alice"));
+    wrappedTimeout = new CompletionException(new TimeoutException("Payment timed out before any money was sent"));
+  }
+
+  @Benchmark
+  public void accountNotFound(final Blackhole blackhole) {
+    exceptionHandlerUtils.handleException(accountNotFound, observer(blackhole));
+  }
+
+  @Benchmark
+  public void wrappedTimeout(final Blackhole blackhole) {
+    exceptionHandlerUtils.handleException(wrappedTimeout, observer(blackhole));
+  }
+
+  private static StreamObserver<Object> observer(final Blackhole blackhole) {
+    return new StreamObserver<Object>() {
+      @Override
+      public void onNext(final Object value) {
+        blackhole.consume(value);
+      }
+
+      @Override
+      public void onError(final Throwable throwable) {
+        blackhole.consume(throwable);
+      }
+
+      @Override
+      public void onCompleted() {
+      }
+    };
+  }
+}
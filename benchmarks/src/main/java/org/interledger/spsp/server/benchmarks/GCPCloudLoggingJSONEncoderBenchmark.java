@@ -0,0 +1,83 @@
+package org.interledger.spsp.server.benchmarks;
+
+import org.interledger.spsp.server.controllers.filters.LoggingContextFilter;
+import org.interledger.spsp.server.gcp.GCPCloudLoggingJSONEncoder;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link GCPCloudLoggingJSONEncoder}, which encodes every log line written in the {@code stackdriver}
+ * profile. Compare with {@link GCPCloudLoggingJSONLayoutBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GCPCloudLoggingJSONEncoderBenchmark {
+
+  private GCPCloudLoggingJSONEncoder encoder;
+  private LoggingEvent event;
+  private OutputStream out;
+
+  @Setup
+  public void setUp(final Blackhole blackhole) {
+    final LoggerContext loggerContext = new LoggerContext();
+    encoder = new GCPCloudLoggingJSONEncoder();
+    encoder.setContext(loggerContext);
+    encoder.setProjectId("hermes");
+    encoder.start();
+
+    final Logger logger = loggerContext.getLogger("org.interledger.spsp.server.services.SendMoneyService");
+    event = new LoggingEvent(
+      Logger.class.getName(), logger, Level.INFO, "Sent {} units to {}", null, new Object[] {1000, "$example.com/bob"}
+    );
+    final Map<String, String> mdc = new HashMap<>();
+    mdc.put(LoggingContextFilter.TRACE_ID, "105445aa7843bc8bf206b120001000");
+    mdc.put(LoggingContextFilter.ACCOUNT_ID, "alice");
+    event.setMDCPropertyMap(mdc);
+
+    out = new OutputStream() {
+      @Override
+      public void write(final int b) {
+        blackhole.consume(b);
+      }
+
+      @Override
+      public void write(final byte[] bytes, final int offset, final int length) {
+        blackhole.consume(bytes);
+      }
+    };
+  }
+
+  @Benchmark
+  public byte[] encode() {
+    return encoder.encode(event);
+  }
+
+  @Benchmark
+  public void encodeToStream() throws IOException {
+    encoder.encode(event, out);
+  }
+}
@@ -0,0 +1,56 @@
+package org.interledger.spsp.server.benchmarks;
+
+import org.interledger.spsp.server.gcp.GCPCloudLoggingJSONLayout;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link GCPCloudLoggingJSONLayout}, which formats every log line written in the {@code gcp} profile.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+@SuppressWarnings("deprecation")
+public class GCPCloudLoggingJSONLayoutBenchmark {
+
+  private GCPCloudLoggingJSONLayout layout;
+  private LoggingEvent event;
+
+  @Setup
+  public void setUp() {
+    final LoggerContext loggerContext = new LoggerContext();
+    layout = new GCPCloudLoggingJSONLayout();
+    layout.setContext(loggerContext);
+    // The pattern used by logback-spring.xml
+    layout.setPattern("%-4relative [%thread] %-5level %logger{35} - %msg");
+    layout.start();
+
+    final Logger logger = loggerContext.getLogger("org.interledger.spsp.server.services.SendMoneyService");
+    event = new LoggingEvent(
+      Logger.class.getName(), logger, Level.INFO, "Sent {} units to {}", null, new Object[] {1000, "$example.com/bob"}
+    );
+  }
+
+  @Benchmark
+  public String doLayout() {
+    return layout.doLayout(event);
+  }
+}
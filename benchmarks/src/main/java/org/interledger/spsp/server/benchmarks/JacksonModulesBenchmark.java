@@ -0,0 +1,81 @@
+package org.interledger.spsp.server.benchmarks;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.spsp.PaymentPointer;
+import org.interledger.spsp.server.config.jackson.AccountIdModule;
+import org.interledger.spsp.server.config.jackson.ObjectMapperFactory;
+import org.interledger.spsp.server.config.jackson.PaymentPointerModule;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the {@link PaymentPointerModule} and {@link AccountIdModule} (de)serializers, using the same {@link
+ * ObjectMapper} configuration as the server.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JacksonModulesBenchmark {
+
+  private ObjectWriter paymentPointerWriter;
+  private ObjectReader paymentPointerReader;
+  private ObjectWriter accountIdWriter;
+  private ObjectReader accountIdReader;
+
+  private PaymentPointer paymentPointer;
+  private String paymentPointerJson;
+  private AccountId accountId;
+  private String accountIdJson;
+
+  @Setup
+  public void setUp() throws JsonProcessingException {
+    final ObjectMapper objectMapper = ObjectMapperFactory.create();
+    paymentPointerWriter = objectMapper.writerFor(PaymentPointer.class);
+    paymentPointerReader = objectMapper.readerFor(PaymentPointer.class);
+    accountIdWriter = objectMapper.writerFor(AccountId.class);
+    accountIdReader = objectMapper.readerFor(AccountId.class);
+
+    paymentPointer = PaymentPointer.of("$money.example.com/alice");
+    paymentPointerJson = paymentPointerWriter.writeValueAsString(paymentPointer);
+    accountId = AccountId.of("alice");
+    accountIdJson = accountIdWriter.writeValueAsString(accountId);
+  }
+
+  @Benchmark
+  public String serializePaymentPointer() throws JsonProcessingException {
+    return paymentPointerWriter.writeValueAsString(paymentPointer);
+  }
+
+  @Benchmark
+  public PaymentPointer deserializePaymentPointer() throws JsonProcessingException {
+    return paymentPointerReader.readValue(paymentPointerJson);
+  }
+
+  @Benchmark
+  public String serializeAccountId() throws JsonProcessingException {
+    return accountIdWriter.writeValueAsString(accountId);
+  }
+
+  @Benchmark
+  public AccountId deserializeAccountId() throws JsonProcessingException {
+    return accountIdReader.readValue(accountIdJson);
+  }
+}
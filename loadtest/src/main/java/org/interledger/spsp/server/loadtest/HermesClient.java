@@ -0,0 +1,261 @@
+package org.interledger.spsp.server.loadtest;
+
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.spsp.server.config.jackson.ObjectMapperFactory;
+import org.interledger.spsp.server.grpc.AccountServiceGrpc;
+import org.interledger.spsp.server.grpc.BalanceServiceGrpc;
+import org.interledger.spsp.server.grpc.CreateAccountRequest;
+import org.interledger.spsp.server.grpc.GetAccountRequest;
+import org.interledger.spsp.server.grpc.GetBalanceRequest;
+import org.interledger.spsp.server.grpc.IlpOverHttpServiceGrpc;
+import org.interledger.spsp.server.grpc.SendPaymentRequest;
+import org.interledger.spsp.server.grpc.auth.IlpCallCredentials;
+import org.interledger.spsp.server.model.CreateAccountRestRequest;
+import org.interledger.spsp.server.model.PaymentRequest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.primitives.UnsignedLong;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.grpc.ManagedChannel;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Issues the requests that make up each {@link Workload}, over REST and gRPC, as a wallet would. Every request is
+ * asynchronous, so that a single driver thread can keep any number of them in flight.
+ */
+public class HermesClient {
+
+  private static final MediaType JSON = MediaType.get("application/json");
+
+  private final ObjectMapper objectMapper = ObjectMapperFactory.create();
+
+  private final OkHttpClient httpClient;
+  private final HttpUrl restUrl;
+  private final ManagedChannel grpcChannel;
+  private final List<LoadTestAccount> accounts;
+  private final UnsignedLong paymentAmount;
+  // Numbers the accounts created by the account creation workloads, so that none is created twice.
+  private final AtomicLong createdAccounts = new AtomicLong();
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param httpClient    The {@link OkHttpClient} to make REST requests with.
+   * @param restUrl       The base {@link HttpUrl} of Hermes' REST API.
+   * @param grpcChannel   The {@link ManagedChannel} to Hermes' gRPC API.
+   * @param accounts      The accounts to send requests as. Payments are sent from each account to the next.
+   * @param paymentAmount The amount of each payment.
+   */
+  public HermesClient(
+    final OkHttpClient httpClient,
+    final HttpUrl restUrl,
+    final ManagedChannel grpcChannel,
+    final List<LoadTestAccount> accounts,
+    final UnsignedLong paymentAmount
+  ) {
+    this.httpClient = Objects.requireNonNull(httpClient);
+    this.restUrl = Objects.requireNonNull(restUrl);
+    this.grpcChannel = Objects.requireNonNull(grpcChannel);
+    this.accounts = Objects.requireNonNull(accounts);
+    this.paymentAmount = Objects.requireNonNull(paymentAmount);
+    if (accounts.size() < 2) {
+      throw new IllegalArgumentException("At least two accounts are required");
+    }
+  }
+
+  public CompletableFuture<?> restPayment(final long sequence) {
+    final LoadTestAccount sender = sender(sequence);
+    return rest(new Request.Builder()
+        .url(restUrl.newBuilder().addPathSegments("accounts/" + sender.accountId().value() + "/pay").build())
+        .header(AUTHORIZATION, sender.bearerToken().toString())
+        .post(json(PaymentRequest.builder()
+          .destinationPaymentPointer(receiver(sequence).paymentPointer())
+          .amount(paymentAmount)
+          .build())),
+      body -> requireSuccessfulPayment(objectMapper.readTree(body).path("successfulPayment").asBoolean())
+    );
+  }
+
+  public CompletableFuture<?> grpcPayment(final long sequence) {
+    final LoadTestAccount sender = sender(sequence);
+    return grpc(IlpOverHttpServiceGrpc.newFutureStub(grpcChannel)
+      .withCallCredentials(IlpCallCredentials.build(sender.bearerToken()))
+      .sendMoney(SendPaymentRequest.newBuilder()
+        .setAccountId(sender.accountId().value())
+        .setDestinationPaymentPointer(receiver(sequence).paymentPointer())
+        .setAmount(paymentAmount.longValue())
+        .build())
+    ).thenApply(response -> requireSuccessfulPayment(response.getSuccessfulPayment()));
+  }
+
+  public CompletableFuture<?> restBalance(final long sequence) {
+    final LoadTestAccount account = sender(sequence);
+    return rest(new Request.Builder()
+        .url(restUrl.newBuilder().addPathSegments("accounts/" + account.accountId().value() + "/balance").build())
+        .header(AUTHORIZATION, account.bearerToken().toString())
+        .get(),
+      BodyHandler.identity()
+    );
+  }
+
+  public CompletableFuture<?> grpcBalance(final long sequence) {
+    final LoadTestAccount account = sender(sequence);
+    return grpc(BalanceServiceGrpc.newFutureStub(grpcChannel)
+      .withCallCredentials(IlpCallCredentials.build(account.bearerToken()))
+      .getBalance(GetBalanceRequest.newBuilder().setAccountId(account.accountId().value()).build())
+    );
+  }
+
+  public CompletableFuture<?> restGetAccount(final long sequence) {
+    final LoadTestAccount account = sender(sequence);
+    return rest(new Request.Builder()
+        .url(restUrl.newBuilder().addPathSegments("accounts/" + account.accountId().value()).build())
+        .get(),
+      BodyHandler.identity()
+    );
+  }
+
+  public CompletableFuture<?> grpcGetAccount(final long sequence) {
+    final LoadTestAccount account = sender(sequence);
+    return grpc(AccountServiceGrpc.newFutureStub(grpcChannel)
+      .withCallCredentials(IlpCallCredentials.build(account.bearerToken()))
+      .getAccount(GetAccountRequest.newBuilder().setAccountId(account.accountId().value()).build())
+    );
+  }
+
+  public CompletableFuture<?> restCreateAccount(final long sequence) {
+    return rest(new Request.Builder()
+        .url(restUrl.newBuilder().addPathSegment("accounts").build())
+        .post(json(CreateAccountRestRequest.builder(LoadTestAccount.ASSET_CODE, LoadTestAccount.ASSET_SCALE)
+          .accountId(AccountId.of("load-rest-" + createdAccounts.incrementAndGet()))
+          .build())),
+      BodyHandler.identity()
+    );
+  }
+
+  public CompletableFuture<?> grpcCreateAccount(final long sequence) {
+    return grpc(AccountServiceGrpc.newFutureStub(grpcChannel)
+      .createAccount(CreateAccountRequest.newBuilder()
+        .setAccountId("load-grpc-" + createdAccounts.incrementAndGet())
+        .setAssetCode(LoadTestAccount.ASSET_CODE)
+        .setAssetScale(LoadTestAccount.ASSET_SCALE)
+        .build())
+    );
+  }
+
+  /**
+   * Create {@code account} through Hermes' REST API, blocking until it has been created.
+   *
+   * @param account The {@link LoadTestAccount} to create.
+   */
+  public void createAccount(final LoadTestAccount account) {
+    try (Response response = httpClient.newCall(new Request.Builder()
+      .url(restUrl.newBuilder().addPathSegment("accounts").build())
+      .header(AUTHORIZATION, account.bearerToken().toString())
+      .post(json(CreateAccountRestRequest.builder(LoadTestAccount.ASSET_CODE, LoadTestAccount.ASSET_SCALE)
+        .accountId(account.accountId())
+        .build()))
+      .build()
+    ).execute()) {
+      if (!response.isSuccessful()) {
+        throw new IllegalStateException(
+          "Unable to create account " + account.accountId().value() + ": HTTP " + response.code()
+        );
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private LoadTestAccount sender(final long sequence) {
+    return accounts.get((int) (sequence % accounts.size()));
+  }
+
+  private LoadTestAccount receiver(final long sequence) {
+    return accounts.get((int) ((sequence + 1) % accounts.size()));
+  }
+
+  private RequestBody json(final Object body) {
+    try {
+      return RequestBody.create(objectMapper.writeValueAsBytes(body), JSON);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static Object requireSuccessfulPayment(final boolean successfulPayment) {
+    if (!successfulPayment) {
+      throw new LoadTestException("unsuccessful payment");
+    }
+    return successfulPayment;
+  }
+
+  private <T> CompletableFuture<T> rest(final Request.Builder request, final BodyHandler<T> bodyHandler) {
+    final CompletableFuture<T> result = new CompletableFuture<>();
+    httpClient.newCall(request.build()).enqueue(new Callback() {
+      @Override
+      public void onFailure(final Call call, final IOException e) {
+        result.completeExceptionally(e);
+      }
+
+      @Override
+      public void onResponse(final Call call, final Response response) {
+        try (ResponseBody body = response.body()) {
+          if (!response.isSuccessful()) {
+            throw new LoadTestException("HTTP " + response.code());
+          }
+          result.complete(bodyHandler.apply(body.string()));
+        } catch (Exception e) {
+          result.completeExceptionally(e);
+        }
+      }
+    });
+    return result;
+  }
+
+  private static <T> CompletableFuture<T> grpc(final ListenableFuture<T> call) {
+    final CompletableFuture<T> result = new CompletableFuture<>();
+    Futures.addCallback(call, new FutureCallback<T>() {
+      @Override
+      public void onSuccess(final T value) {
+        result.complete(value);
+      }
+
+      @Override
+      public void onFailure(final Throwable throwable) {
+        result.completeExceptionally(throwable);
+      }
+    }, MoreExecutors.directExecutor());
+    return result;
+  }
+
+  @FunctionalInterface
+  private interface BodyHandler<T> {
+
+    T apply(String body) throws IOException;
+
+    static BodyHandler<String> identity() {
+      return body -> body;
+    }
+  }
+}
@@ -0,0 +1,226 @@
+package org.interledger.spsp.server.loadtest;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.core.InterledgerAddressPrefix;
+import org.interledger.spsp.server.HermesServerApplication;
+import org.interledger.stream.Denomination;
+
+import com.google.common.primitives.UnsignedLong;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * <p>Measures the throughput and latency of a Hermes server, end to end and without any network: Hermes runs
+ * in-process against a {@link StandInConnector} and {@link StandInSpspReceiver} on the loopback interface, and is
+ * driven over its real REST and gRPC endpoints at fixed request rates.</p>
+ *
+ * <p>Each selected {@link Workload} is driven concurrently by its own {@link RateDriver}. After an unmeasured warmup,
+ * a summary of every workload's latency percentiles and error rate is printed.</p>
+ *
+ * @see LoadTestOptions for the available options.
+ */
+public class LoadTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(LoadTest.class);
+
+  private static final InterledgerAddressPrefix SPSP_ADDRESS_PREFIX = InterledgerAddressPrefix.of("test.loadtest.spsp");
+
+  private static final Denomination DENOMINATION = Denomination.builder()
+    .assetCode(LoadTestAccount.ASSET_CODE)
+    .assetScale((short) LoadTestAccount.ASSET_SCALE)
+    .build();
+
+  private static final Duration REST_READ_TIMEOUT = Duration.ofSeconds(90);
+
+  public static void main(String[] args) throws Exception {
+    final LoadTestOptions options = LoadTestOptions.parse(args);
+
+    final List<WorkloadResult> results;
+    try (
+      StandInSpspReceiver spspReceiver = new StandInSpspReceiver(
+        SPSP_ADDRESS_PREFIX, DENOMINATION, options.spspLatency()
+      );
+      StandInConnector connector = new StandInConnector(
+        spspReceiver, SPSP_ADDRESS_PREFIX, options.adminLatency(), options.balanceLatency(), options.packetLatency()
+      )
+    ) {
+      spspReceiver.start();
+      connector.start();
+
+      final int grpcPort = freePort();
+      try (ConfigurableApplicationContext hermes = startHermes(options, connector, spspReceiver, grpcPort)) {
+        final HttpUrl restUrl = new HttpUrl.Builder()
+          .scheme("http")
+          .host(InetAddress.getLoopbackAddress().getHostAddress())
+          .port(((WebServerApplicationContext) hermes).getWebServer().getPort())
+          .build();
+        final OkHttpClient httpClient = httpClient(options);
+        final ManagedChannel grpcChannel = ManagedChannelBuilder
+          .forAddress(InetAddress.getLoopbackAddress().getHostAddress(), grpcPort)
+          .usePlaintext()
+          .build();
+
+        try {
+          final List<LoadTestAccount> accounts = IntStream.range(0, options.accounts())
+            .mapToObj(i -> LoadTestAccount.generate(AccountId.of("load-" + i), spspReceiver.url()))
+            .collect(Collectors.toList());
+          final HermesClient client = new HermesClient(
+            httpClient, restUrl, grpcChannel, accounts, UnsignedLong.valueOf(options.amount())
+          );
+          logger.info("Creating {} accounts", accounts.size());
+          accounts.forEach(client::createAccount);
+
+          if (!options.warmup().isZero()) {
+            logger.info("Warming up for {}", options.warmup());
+            drive(options, client, options.warmup());
+          }
+          logger.info("Measuring for {}", options.duration());
+          results = drive(options, client, options.duration());
+        } finally {
+          grpcChannel.shutdownNow();
+          httpClient.dispatcher().executorService().shutdown();
+          httpClient.connectionPool().evictAll();
+        }
+      }
+    }
+
+    report(options, results, System.out);
+    System.exit(0);
+  }
+
+  private static ConfigurableApplicationContext startHermes(
+    final LoadTestOptions options,
+    final StandInConnector connector,
+    final StandInSpspReceiver spspReceiver,
+    final int grpcPort
+  ) {
+    final Map<String, String> properties = new LinkedHashMap<>();
+    properties.put("server.port", "0");
+    properties.put("grpc.port", String.valueOf(grpcPort));
+    properties.put("spring.profiles.active", "jks");
+    properties.put("spring.main.banner-mode", "off");
+    properties.put("logging.level.org.interledger", "WARN");
+    properties.put("logging.level.org.interledger.spsp.server.loadtest", "INFO");
+    properties.put("interledger.connector.connector-url", connector.url().toString());
+    properties.put("interledger.connector.admin-password", "admin:password");
+    properties.put("interledger.spsp.spsp-url", spspReceiver.url().toString());
+    properties.put("interledger.spsp.auth-token", "loadtest");
+    properties.put("interledger.spsp.address-prefix", SPSP_ADDRESS_PREFIX.getValue());
+    if (options.localSpsp()) {
+      properties.put("interledger.spsp.server-secret", Base64.getEncoder().encodeToString(spspReceiver.serverSecret()));
+    }
+
+    // Passed as command-line arguments so that they take precedence over Hermes' application.yml, and only where not
+    // already overridden by the caller.
+    final List<String> serverArgs = new ArrayList<>(Arrays.asList(options.serverArgs()));
+    properties.forEach((name, value) -> {
+      if (serverArgs.stream().noneMatch(arg -> arg.startsWith("--" + name + "="))) {
+        serverArgs.add("--" + name + "=" + value);
+      }
+    });
+
+    return new SpringApplicationBuilder(HermesServerApplication.class, LoadTestConfig.class)
+      .run(serverArgs.toArray(new String[0]));
+  }
+
+  private static OkHttpClient httpClient(final LoadTestOptions options) {
+    // Never let the client be the bottleneck: allow as many concurrent requests as the drivers may have in flight.
+    final int maxRequests = options.maxInFlight() * Math.max(1, options.workloads().size());
+    final Dispatcher dispatcher = new Dispatcher();
+    dispatcher.setMaxRequests(maxRequests);
+    dispatcher.setMaxRequestsPerHost(maxRequests);
+    return new OkHttpClient.Builder()
+      .dispatcher(dispatcher)
+      .connectionPool(new ConnectionPool(maxRequests, 5, TimeUnit.MINUTES))
+      .readTimeout(REST_READ_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+      .build();
+  }
+
+  private static List<WorkloadResult> drive(
+    final LoadTestOptions options, final HermesClient client, final Duration duration
+  ) {
+    final List<Workload> workloads = options.workloads();
+    final ExecutorService drivers = Executors.newFixedThreadPool(workloads.size(),
+      new ThreadFactoryBuilder().setNameFormat("load-driver-%d").setDaemon(true).build()
+    );
+    try {
+      final List<CompletableFuture<WorkloadResult>> results = workloads.stream()
+        .map(workload -> new RateDriver(
+          workload.id(), sequence -> workload.start(client, sequence), options.rate(workload), options.maxInFlight()
+        ))
+        .map(driver -> CompletableFuture.supplyAsync(() -> driver.run(duration), drivers))
+        .collect(Collectors.toList());
+      return results.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    } finally {
+      drivers.shutdown();
+    }
+  }
+
+  private static void report(
+    final LoadTestOptions options, final List<WorkloadResult> results, final PrintStream out
+  ) throws IOException {
+    out.println();
+    WorkloadResult.printHeader(out);
+    results.forEach(result -> result.printSummary(out));
+
+    for (WorkloadResult result : results) {
+      if (!result.errorCounts().isEmpty() || result.incomplete() > 0) {
+        out.println();
+        out.println(result.name() + " errors:");
+        result.errorCounts().forEach((error, count) -> out.printf("  %-40s %d%n", error, count));
+        if (result.incomplete() > 0) {
+          out.printf("  %-40s %d%n", "still in flight at end of run", result.incomplete());
+        }
+      }
+    }
+
+    if (options.histogramDir().isPresent()) {
+      final Path histogramDir = Files.createDirectories(options.histogramDir().get());
+      for (WorkloadResult result : results) {
+        try (PrintStream histogramOut = new PrintStream(
+          Files.newOutputStream(histogramDir.resolve(result.name() + ".hgrm")), false, "UTF-8"
+        )) {
+          result.printPercentileDistribution(histogramOut);
+        }
+      }
+      out.println();
+      out.println("Latency distributions written to " + histogramDir.toAbsolutePath());
+    }
+  }
+
+  private static int freePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0, 0, InetAddress.getLoopbackAddress())) {
+      return socket.getLocalPort();
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package org.interledger.spsp.server.loadtest;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.spsp.server.model.BearerToken;
+import org.interledger.spsp.server.services.AccountGeneratorService;
+
+import okhttp3.HttpUrl;
+
+import java.util.Objects;
+
+/**
+ * An account that load is sent as, with the credentials it was created with.
+ */
+public class LoadTestAccount {
+
+  static final String ASSET_CODE = "XRP";
+  static final int ASSET_SCALE = 9;
+
+  private final AccountId accountId;
+  private final BearerToken bearerToken;
+  private final String paymentPointer;
+
+  private LoadTestAccount(final AccountId accountId, final BearerToken bearerToken, final String paymentPointer) {
+    this.accountId = Objects.requireNonNull(accountId);
+    this.bearerToken = Objects.requireNonNull(bearerToken);
+    this.paymentPointer = Objects.requireNonNull(paymentPointer);
+  }
+
+  /**
+   * Generate an account with its own simple auth token.
+   *
+   * @param accountId       The {@link AccountId} of the account.
+   * @param spspReceiverUrl The {@link HttpUrl} of the SPSP receiver that serves the account's payment pointer.
+   *
+   * @return A {@link LoadTestAccount}.
+   */
+  public static LoadTestAccount generate(final AccountId accountId, final HttpUrl spspReceiverUrl) {
+    return new LoadTestAccount(
+      accountId,
+      BearerToken.fromRawToken(AccountGeneratorService.generateSimpleAuthCredentials()),
+      "$" + spspReceiverUrl.host() + ":" + spspReceiverUrl.port() + "/" + accountId.value()
+    );
+  }
+
+  public AccountId accountId() {
+    return accountId;
+  }
+
+  public BearerToken bearerToken() {
+    return bearerToken;
+  }
+
+  public String paymentPointer() {
+    return paymentPointer;
+  }
+}
@@ -0,0 +1,27 @@
+package org.interledger.spsp.server.loadtest;
+
+import org.interledger.spsp.PaymentPointerResolver;
+
+import okhttp3.HttpUrl;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Adjusts the Hermes server for running against the stand-in SPSP receiver.
+ */
+@Configuration
+public class LoadTestConfig {
+
+  /**
+   * The stand-in SPSP receiver serves plain HTTP on the loopback interface, whereas Hermes otherwise resolves payment
+   * pointers to HTTPS URLs.
+   *
+   * @return A {@link PaymentPointerResolver}.
+   */
+  @Bean
+  @Primary
+  PaymentPointerResolver loadTestPaymentPointerResolver() {
+    return paymentPointer -> HttpUrl.parse("http://" + paymentPointer.host() + paymentPointer.path());
+  }
+}
@@ -0,0 +1,11 @@
+package org.interledger.spsp.server.loadtest;
+
+/**
+ * A request that completed, but not successfully (e.g. an HTTP error status or an unsuccessful payment).
+ */
+public class LoadTestException extends RuntimeException {
+
+  public LoadTestException(final String message) {
+    super(message);
+  }
+}
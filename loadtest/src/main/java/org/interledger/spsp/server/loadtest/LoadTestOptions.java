@@ -0,0 +1,146 @@
+package org.interledger.spsp.server.loadtest;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * <p>The options of a load test, parsed from {@code --name=value} command-line arguments. Any argument that isn't a
+ * load test option is passed on to the Hermes server, so its properties can be overridden the usual Spring Boot way
+ * (e.g. {@code --interledger.hermes.payments.executor.pool-size=50}).</p>
+ *
+ * <ul>
+ *   <li>{@code workloads}: comma-separated {@link Workload} ids to run concurrently.</li>
+ *   <li>{@code rate}: requests started per second, per workload. Override for a single workload with
+ *   {@code rate.<workload>}.</li>
+ *   <li>{@code duration-seconds} and {@code warmup-seconds}: how long to measure for, after an unmeasured warmup.</li>
+ *   <li>{@code accounts}: the number of accounts to send requests as.</li>
+ *   <li>{@code amount}: the amount of each payment.</li>
+ *   <li>{@code max-in-flight}: the most requests of a workload to have in flight before counting new ones as
+ *   errors.</li>
+ *   <li>{@code admin-latency-millis}, {@code balance-latency-millis}, {@code packet-latency-millis} and
+ *   {@code spsp-latency-millis}: simulated latency of the stand-in Connector and SPSP receiver.</li>
+ *   <li>{@code local-spsp}: whether Hermes should resolve the receiver's payment pointers itself rather than query
+ *   the SPSP receiver.</li>
+ *   <li>{@code histogram-dir}: a directory to write each workload's full latency distribution to.</li>
+ * </ul>
+ */
+public class LoadTestOptions {
+
+  private static final String DEFAULT_WORKLOADS =
+    "rest-payment,grpc-payment,rest-balance,grpc-balance,rest-get-account,grpc-get-account";
+
+  private final Map<String, String> options;
+  private final List<String> serverArgs;
+
+  private LoadTestOptions(final Map<String, String> options, final List<String> serverArgs) {
+    this.options = options;
+    this.serverArgs = serverArgs;
+  }
+
+  /**
+   * Parse command-line arguments.
+   *
+   * @param args The arguments passed to {@link LoadTest#main(String[])}.
+   *
+   * @return A {@link LoadTestOptions}.
+   */
+  public static LoadTestOptions parse(final String[] args) {
+    final Map<String, String> options = new HashMap<>();
+    final List<String> serverArgs = new ArrayList<>();
+    for (String arg : args) {
+      final int equals = arg.indexOf('=');
+      final String name = arg.startsWith("--") && equals > 2 ? arg.substring(2, equals) : "";
+      if (isOption(name)) {
+        options.put(name, arg.substring(equals + 1));
+      } else {
+        serverArgs.add(arg);
+      }
+    }
+    return new LoadTestOptions(options, serverArgs);
+  }
+
+  private static boolean isOption(final String name) {
+    return name.startsWith("rate.") || Arrays.asList(
+      "workloads", "rate", "duration-seconds", "warmup-seconds", "accounts", "amount", "max-in-flight",
+      "admin-latency-millis", "balance-latency-millis", "packet-latency-millis", "spsp-latency-millis", "local-spsp",
+      "histogram-dir"
+    ).contains(name);
+  }
+
+  public List<Workload> workloads() {
+    return Arrays.stream(options.getOrDefault("workloads", DEFAULT_WORKLOADS).split(","))
+      .map(String::trim)
+      .filter(id -> !id.isEmpty())
+      .map(Workload::of)
+      .collect(Collectors.toList());
+  }
+
+  public double rate(final Workload workload) {
+    return Double.parseDouble(options.getOrDefault("rate." + workload.id(), options.getOrDefault("rate", "50")));
+  }
+
+  public Duration duration() {
+    return Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration-seconds", "30")));
+  }
+
+  public Duration warmup() {
+    return Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup-seconds", "10")));
+  }
+
+  public int accounts() {
+    return Integer.parseInt(options.getOrDefault("accounts", "20"));
+  }
+
+  public long amount() {
+    return Long.parseLong(options.getOrDefault("amount", "1000"));
+  }
+
+  public int maxInFlight() {
+    return Integer.parseInt(options.getOrDefault("max-in-flight", "1000"));
+  }
+
+  public Duration adminLatency() {
+    return millis("admin-latency-millis", "5");
+  }
+
+  public Duration balanceLatency() {
+    return millis("balance-latency-millis", "5");
+  }
+
+  public Duration packetLatency() {
+    return millis("packet-latency-millis", "1");
+  }
+
+  public Duration spspLatency() {
+    return millis("spsp-latency-millis", "5");
+  }
+
+  public boolean localSpsp() {
+    return Boolean.parseBoolean(options.getOrDefault("local-spsp", "false"));
+  }
+
+  public Optional<Path> histogramDir() {
+    return Optional.ofNullable(options.get("histogram-dir")).map(Paths::get);
+  }
+
+  /**
+   * The arguments that aren't load test options, to pass on to the Hermes server.
+   *
+   * @return An array of arguments.
+   */
+  public String[] serverArgs() {
+    return serverArgs.toArray(new String[0]);
+  }
+
+  private Duration millis(final String name, final String defaultValue) {
+    return Duration.ofMillis(Long.parseLong(options.getOrDefault(name, defaultValue)));
+  }
+}
@@ -0,0 +1,131 @@
+package org.interledger.spsp.server.loadtest;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.HdrHistogram.Recorder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+/**
+ * <p>Starts requests at a fixed rate, whether or not earlier requests have completed, as independent clients would
+ * (an "open" workload).</p>
+ *
+ * <p>Each request's latency is measured from when it was scheduled to start rather than when it actually started, so
+ * that a stalled server or driver shows up as latency instead of silently lowering the request rate (coordinated
+ * omission). A request that would exceed the in-flight limit is not started and is counted as an error.</p>
+ */
+public class RateDriver {
+
+  private static final long DRAIN_TIMEOUT_SECONDS = 60;
+
+  private final String name;
+  private final LongFunction<CompletableFuture<?>> request;
+  private final double ratePerSecond;
+  private final int maxInFlight;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param name          The name of the workload being driven.
+   * @param request       Starts the request with the given sequence number.
+   * @param ratePerSecond The number of requests to start per second.
+   * @param maxInFlight   The maximum number of requests to have in flight at once.
+   */
+  public RateDriver(
+    final String name, final LongFunction<CompletableFuture<?>> request, final double ratePerSecond,
+    final int maxInFlight
+  ) {
+    this.name = Objects.requireNonNull(name);
+    this.request = Objects.requireNonNull(request);
+    if (ratePerSecond <= 0) {
+      throw new IllegalArgumentException("ratePerSecond must be positive");
+    }
+    if (maxInFlight < 1) {
+      throw new IllegalArgumentException("maxInFlight must be at least 1");
+    }
+    this.ratePerSecond = ratePerSecond;
+    this.maxInFlight = maxInFlight;
+  }
+
+  /**
+   * Start requests for {@code duration}, then wait for those in flight to complete.
+   *
+   * @param duration How long to start requests for.
+   *
+   * @return The {@link WorkloadResult} of the requests started.
+   */
+  public WorkloadResult run(final Duration duration) {
+    final Recorder latencies = new Recorder(3);
+    final LongAdder errors = new LongAdder();
+    final Map<String, LongAdder> errorCounts = new ConcurrentHashMap<>();
+    final AtomicInteger inFlight = new AtomicInteger();
+
+    final long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+    final long start = System.nanoTime();
+    long sequence = 0;
+    for (long intendedStart = start; intendedStart - start < duration.toNanos(); intendedStart += intervalNanos) {
+      long now;
+      while ((now = System.nanoTime()) < intendedStart) {
+        LockSupport.parkNanos(intendedStart - now);
+      }
+
+      if (inFlight.get() >= maxInFlight) {
+        errors.increment();
+        errorCounts.computeIfAbsent(WorkloadResult.TOO_MANY_IN_FLIGHT, key -> new LongAdder()).increment();
+        continue;
+      }
+      inFlight.incrementAndGet();
+
+      final long scheduledAt = intendedStart;
+      CompletableFuture<?> response;
+      try {
+        response = request.apply(sequence++);
+      } catch (RuntimeException e) {
+        response = new CompletableFuture<>();
+        response.completeExceptionally(e);
+      }
+      response.whenComplete((value, error) -> {
+        latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduledAt));
+        if (error != null) {
+          errors.increment();
+          errorCounts.computeIfAbsent(describe(error), key -> new LongAdder()).increment();
+        }
+        inFlight.decrementAndGet();
+      });
+    }
+    final long sendingNanos = System.nanoTime() - start;
+
+    final long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DRAIN_TIMEOUT_SECONDS);
+    while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+      LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+    }
+
+    return new WorkloadResult(
+      name, ratePerSecond, Duration.ofNanos(sendingNanos), latencies.getIntervalHistogram(), errors.sum(),
+      errorCounts, inFlight.get()
+    );
+  }
+
+  private static String describe(final Throwable error) {
+    final Throwable cause = error instanceof CompletionException && error.getCause() != null
+      ? error.getCause()
+      : error;
+    if (cause instanceof StatusRuntimeException) {
+      final Status status = ((StatusRuntimeException) cause).getStatus();
+      return "gRPC " + status.getCode();
+    } else if (cause instanceof LoadTestException) {
+      return cause.getMessage();
+    }
+    return cause.getClass().getSimpleName();
+  }
+}
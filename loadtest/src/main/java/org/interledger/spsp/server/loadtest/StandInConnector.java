@@ -0,0 +1,194 @@
+package org.interledger.spsp.server.loadtest;
+
+import org.interledger.codecs.ilp.InterledgerCodecContextFactory;
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.jackson.ObjectMapperFactory;
+import org.interledger.core.InterledgerAddressPrefix;
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.core.InterledgerFulfillPacket;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.encoding.asn.framework.CodecContext;
+import org.interledger.spsp.server.client.AccountBalance;
+import org.interledger.spsp.server.client.AccountBalanceResponse;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Stands in for the Connector that Hermes fronts: serves the admin API (accounts and static routes), the balance
+ * API, and each account's ILP-over-HTTP endpoint.</p>
+ *
+ * <p>Packets addressed to the SPSP receiver's prefix are handed straight to a {@link StandInSpspReceiver}, as though
+ * routed there; any other packet is rejected as unreachable. Balances move as packets are fulfilled.</p>
+ *
+ * <p>Accounts and routes are kept as the JSON they were created with and echoed back verbatim, so that the stand-in
+ * answers with exactly what Hermes sent, whatever version of the account model Hermes was built against.</p>
+ */
+public class StandInConnector extends StandInServer {
+
+  static final String ILP_CONTENT_TYPE = "application/octet-stream";
+
+  private final ObjectMapper objectMapper = ObjectMapperFactory.createObjectMapperForProblemsJson();
+  private final CodecContext ilpCodecContext = InterledgerCodecContextFactory.oer();
+
+  private final StandInSpspReceiver spspReceiver;
+  private final InterledgerAddressPrefix spspAddressPrefix;
+  private final Duration adminLatency;
+  private final Duration balanceLatency;
+  private final Duration packetLatency;
+
+  private final ConcurrentMap<AccountId, JsonNode> accounts = new ConcurrentHashMap<>();
+  private final ConcurrentMap<AccountId, AtomicLong> balances = new ConcurrentHashMap<>();
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param spspReceiver      The {@link StandInSpspReceiver} that packets to {@code spspAddressPrefix} are routed to.
+   * @param spspAddressPrefix The {@link InterledgerAddressPrefix} of the SPSP receiver's accounts.
+   * @param adminLatency      How long to take to answer each admin API request.
+   * @param balanceLatency    How long to take to answer each balance request.
+   * @param packetLatency     How long to take to answer each ILP packet.
+   */
+  public StandInConnector(
+    final StandInSpspReceiver spspReceiver,
+    final InterledgerAddressPrefix spspAddressPrefix,
+    final Duration adminLatency,
+    final Duration balanceLatency,
+    final Duration packetLatency
+  ) {
+    super("stand-in-connector");
+    this.spspReceiver = Objects.requireNonNull(spspReceiver);
+    this.spspAddressPrefix = Objects.requireNonNull(spspAddressPrefix);
+    this.adminLatency = Objects.requireNonNull(adminLatency);
+    this.balanceLatency = Objects.requireNonNull(balanceLatency);
+    this.packetLatency = Objects.requireNonNull(packetLatency);
+  }
+
+  /**
+   * The number of accounts created on this Connector.
+   *
+   * @return An int.
+   */
+  public int accountCount() {
+    return accounts.size();
+  }
+
+  @Override
+  protected void handle(final HttpExchange exchange, final List<String> path) throws IOException {
+    final String method = exchange.getRequestMethod();
+    if (path.size() >= 1 && "accounts".equals(path.get(0))) {
+      if (path.size() == 1 && "POST".equals(method)) {
+        createAccount(exchange);
+        return;
+      } else if (path.size() == 2 && "GET".equals(method)) {
+        getAccount(exchange, AccountId.of(path.get(1)));
+        return;
+      } else if (path.size() == 3 && "balance".equals(path.get(2)) && "GET".equals(method)) {
+        getBalance(exchange, AccountId.of(path.get(1)));
+        return;
+      } else if (path.size() == 3 && "ilp".equals(path.get(2)) && "POST".equals(method)) {
+        sendPacket(exchange, AccountId.of(path.get(1)));
+        return;
+      }
+    } else if (path.size() == 3 && "routes".equals(path.get(0)) && "static".equals(path.get(1))
+      && "PUT".equals(method)) {
+      createStaticRoute(exchange);
+      return;
+    }
+    notFound(exchange);
+  }
+
+  private void createAccount(final HttpExchange exchange) throws IOException {
+    simulate(adminLatency);
+    final JsonNode account = objectMapper.readTree(body(exchange));
+    accounts.put(AccountId.of(account.path("accountId").asText()), account);
+    respondJson(exchange, objectMapper, "application/json", account);
+  }
+
+  private void getAccount(final HttpExchange exchange, final AccountId accountId) throws IOException {
+    simulate(adminLatency);
+    final JsonNode account = accounts.get(accountId);
+    if (account == null) {
+      notFound(exchange);
+      return;
+    }
+    respondJson(exchange, objectMapper, "application/json", account);
+  }
+
+  private void createStaticRoute(final HttpExchange exchange) throws IOException {
+    simulate(adminLatency);
+    respond(exchange, 200, "application/json", body(exchange));
+  }
+
+  private void getBalance(final HttpExchange exchange, final AccountId accountId) throws IOException {
+    simulate(balanceLatency);
+    final JsonNode account = accounts.get(accountId);
+    if (account == null) {
+      notFound(exchange);
+      return;
+    }
+    respondJson(exchange, objectMapper, "application/json", AccountBalanceResponse.builder()
+      .assetCode(account.path("assetCode").asText())
+      .assetScale(account.path("assetScale").asInt())
+      .accountBalance(AccountBalance.builder()
+        .accountId(accountId)
+        .clearingBalance(balance(accountId).get())
+        .prepaidAmount(0)
+        .build())
+      .build());
+  }
+
+  private void sendPacket(final HttpExchange exchange, final AccountId accountId) throws IOException {
+    simulate(packetLatency);
+    final InterledgerPreparePacket preparePacket =
+      ilpCodecContext.read(InterledgerPreparePacket.class, new ByteArrayInputStream(body(exchange)));
+
+    final InterledgerResponsePacket responsePacket;
+    if (preparePacket.getDestination().getValue().startsWith(spspAddressPrefix.getValue() + ".")) {
+      responsePacket = spspReceiver.receive(preparePacket);
+      if (responsePacket instanceof InterledgerFulfillPacket) {
+        final long amount = preparePacket.getAmount().longValue();
+        balance(accountId).addAndGet(-amount);
+        receivingAccount(preparePacket).ifPresent(receiver -> balance(receiver).addAndGet(amount));
+      }
+    } else {
+      responsePacket = InterledgerRejectPacket.builder()
+        .code(InterledgerErrorCode.F02_UNREACHABLE)
+        .message("No route to " + preparePacket.getDestination().getValue())
+        .build();
+    }
+
+    final ByteArrayOutputStream responseBody = new ByteArrayOutputStream();
+    ilpCodecContext.write(responsePacket, responseBody);
+    respond(exchange, 200, ILP_CONTENT_TYPE, responseBody.toByteArray());
+  }
+
+  /**
+   * The SPSP receiver's connection addresses are {@code {spspAddressPrefix}.{accountId}.{connectionTag}}.
+   */
+  private Optional<AccountId> receivingAccount(final InterledgerPreparePacket preparePacket) {
+    final String remainder =
+      preparePacket.getDestination().getValue().substring(spspAddressPrefix.getValue().length() + 1);
+    final int end = remainder.indexOf('.');
+    final AccountId accountId = AccountId.of(end == -1 ? remainder : remainder.substring(0, end));
+    return accounts.containsKey(accountId) ? Optional.of(accountId) : Optional.empty();
+  }
+
+  private AtomicLong balance(final AccountId accountId) {
+    return balances.computeIfAbsent(accountId, id -> new AtomicLong());
+  }
+}
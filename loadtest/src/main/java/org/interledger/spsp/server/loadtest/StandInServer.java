@@ -0,0 +1,139 @@
+package org.interledger.spsp.server.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.HttpUrl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * <p>A minimal HTTP server, bound to the loopback interface, that stands in for one of the remote systems Hermes
+ * talks to.</p>
+ *
+ * <p>Each request is handled on its own thread, so simulated latency delays only that request, as it would for a
+ * remote system with plenty of capacity.</p>
+ */
+abstract class StandInServer implements AutoCloseable {
+
+  protected final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+
+  StandInServer(final String name) {
+    try {
+      this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    this.executor = Executors.newCachedThreadPool(
+      new ThreadFactoryBuilder().setNameFormat(name + "-%d").setDaemon(true).build()
+    );
+    server.setExecutor(executor);
+    server.createContext("/", exchange -> {
+      try {
+        final List<String> path = Arrays.stream(exchange.getRequestURI().getPath().split("/"))
+          .filter(segment -> !segment.isEmpty())
+          .collect(Collectors.toList());
+        handle(exchange, path);
+      } catch (Exception e) {
+        logger.warn("Unable to handle {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+        respond(exchange, 500, "text/plain", String.valueOf(e.getMessage()).getBytes());
+      } finally {
+        exchange.close();
+      }
+    });
+  }
+
+  /**
+   * Start accepting requests.
+   */
+  public void start() {
+    server.start();
+  }
+
+  /**
+   * The base URL of this server.
+   *
+   * @return An {@link HttpUrl}.
+   */
+  public HttpUrl url() {
+    return new HttpUrl.Builder()
+      .scheme("http")
+      .host(server.getAddress().getHostString())
+      .port(server.getAddress().getPort())
+      .build();
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  /**
+   * Handle a single request, responding via {@link #respond} or one of its variants.
+   *
+   * @param exchange The {@link HttpExchange} to handle.
+   * @param path     The non-empty segments of the request path.
+   */
+  protected abstract void handle(HttpExchange exchange, List<String> path) throws IOException;
+
+  protected static byte[] body(final HttpExchange exchange) throws IOException {
+    return ByteStreams.toByteArray(exchange.getRequestBody());
+  }
+
+  protected static void respond(
+    final HttpExchange exchange, final int status, final String contentType, final byte[] body
+  ) throws IOException {
+    exchange.getResponseHeaders().set("Content-Type", contentType);
+    exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+    if (body.length > 0) {
+      try (OutputStream outputStream = exchange.getResponseBody()) {
+        outputStream.write(body);
+      }
+    }
+  }
+
+  protected static void respondJson(
+    final HttpExchange exchange, final ObjectMapper objectMapper, final String contentType, final Object body
+  ) throws IOException {
+    respond(exchange, 200, contentType, objectMapper.writeValueAsBytes(body));
+  }
+
+  protected static void notFound(final HttpExchange exchange) throws IOException {
+    respond(exchange, 404, "application/json", new byte[0]);
+  }
+
+  /**
+   * Simulate the time a remote system takes to answer.
+   *
+   * @param latency How long to wait.
+   */
+  protected static void simulate(final Duration latency) {
+    Objects.requireNonNull(latency);
+    if (!latency.isZero()) {
+      try {
+        Thread.sleep(latency.toMillis());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
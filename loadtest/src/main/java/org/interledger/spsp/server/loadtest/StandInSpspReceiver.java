@@ -0,0 +1,107 @@
+package org.interledger.spsp.server.loadtest;
+
+import org.interledger.codecs.stream.StreamCodecContextFactory;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerAddressPrefix;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.spsp.StreamConnectionDetails;
+import org.interledger.spsp.server.config.jackson.ObjectMapperFactory;
+import org.interledger.stream.Denomination;
+import org.interledger.stream.crypto.JavaxStreamEncryptionService;
+import org.interledger.stream.receiver.ServerSecretSupplier;
+import org.interledger.stream.receiver.SpspStreamConnectionGenerator;
+import org.interledger.stream.receiver.StatelessStreamReceiver;
+import org.interledger.stream.receiver.StreamConnectionGenerator;
+import org.interledger.stream.receiver.StreamReceiver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <p>Stands in for the SPSP receiver that payment pointers resolve to: answers SPSP queries with STREAM connection
+ * details, and fulfills the STREAM packets sent to those connections.</p>
+ *
+ * <p>Like a real receiver it is stateless, deriving each connection's shared secret from its server secret, so it
+ * never runs out of connections however long a load test runs.</p>
+ */
+public class StandInSpspReceiver extends StandInServer {
+
+  static final String SPSP_CONTENT_TYPE = "application/spsp4+json";
+
+  private final ObjectMapper objectMapper = ObjectMapperFactory.create();
+  private final InterledgerAddressPrefix addressPrefix;
+  private final Denomination denomination;
+  private final Duration spspLatency;
+
+  private final byte[] serverSecret;
+  private final ServerSecretSupplier serverSecretSupplier;
+  private final StreamConnectionGenerator connectionGenerator;
+  private final StreamReceiver streamReceiver;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param addressPrefix The {@link InterledgerAddressPrefix} of the accounts this receiver serves.
+   * @param denomination  The {@link Denomination} the receiver reports payments in.
+   * @param spspLatency   How long to take to answer each SPSP query.
+   */
+  public StandInSpspReceiver(
+    final InterledgerAddressPrefix addressPrefix, final Denomination denomination, final Duration spspLatency
+  ) {
+    super("stand-in-spsp");
+    this.addressPrefix = Objects.requireNonNull(addressPrefix);
+    this.denomination = Objects.requireNonNull(denomination);
+    this.spspLatency = Objects.requireNonNull(spspLatency);
+
+    this.serverSecret = new byte[32];
+    new SecureRandom().nextBytes(serverSecret);
+    this.serverSecretSupplier = () -> serverSecret.clone();
+    this.connectionGenerator = new SpspStreamConnectionGenerator();
+    this.streamReceiver = new StatelessStreamReceiver(
+      serverSecretSupplier, connectionGenerator, new JavaxStreamEncryptionService(), StreamCodecContextFactory.oer()
+    );
+  }
+
+  /**
+   * The secret that connection details are derived from, so that Hermes can be configured to resolve this receiver's
+   * payment pointers itself.
+   *
+   * @return A copy of the server secret.
+   */
+  public byte[] serverSecret() {
+    return serverSecret.clone();
+  }
+
+  /**
+   * Fulfill (or reject) a STREAM packet addressed to one of this receiver's connections.
+   *
+   * @param preparePacket The {@link InterledgerPreparePacket} to receive.
+   *
+   * @return The {@link InterledgerResponsePacket} to send back to the sender.
+   */
+  public InterledgerResponsePacket receive(final InterledgerPreparePacket preparePacket) {
+    return streamReceiver.receiveMoney(preparePacket, preparePacket.getDestination(), denomination);
+  }
+
+  @Override
+  protected void handle(final HttpExchange exchange, final List<String> path) throws IOException {
+    // GET /{accountId}
+    if (!"GET".equals(exchange.getRequestMethod()) || path.size() != 1) {
+      notFound(exchange);
+      return;
+    }
+
+    simulate(spspLatency);
+    final InterledgerAddress connectionAddress = InterledgerAddress.of(addressPrefix.with(path.get(0)).getValue());
+    final StreamConnectionDetails connectionDetails =
+      connectionGenerator.generateConnectionDetails(serverSecretSupplier, connectionAddress);
+    respondJson(exchange, objectMapper, SPSP_CONTENT_TYPE, connectionDetails);
+  }
+}
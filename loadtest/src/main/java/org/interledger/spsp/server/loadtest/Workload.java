@@ -0,0 +1,58 @@
+package org.interledger.spsp.server.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+
+/**
+ * The kinds of request a load test can drive, each over REST or gRPC.
+ */
+public enum Workload {
+
+  REST_PAYMENT("rest-payment", HermesClient::restPayment),
+  GRPC_PAYMENT("grpc-payment", HermesClient::grpcPayment),
+  REST_BALANCE("rest-balance", HermesClient::restBalance),
+  GRPC_BALANCE("grpc-balance", HermesClient::grpcBalance),
+  REST_GET_ACCOUNT("rest-get-account", HermesClient::restGetAccount),
+  GRPC_GET_ACCOUNT("grpc-get-account", HermesClient::grpcGetAccount),
+  REST_CREATE_ACCOUNT("rest-create-account", HermesClient::restCreateAccount),
+  GRPC_CREATE_ACCOUNT("grpc-create-account", HermesClient::grpcCreateAccount);
+
+  private final String id;
+  private final BiFunction<HermesClient, Long, CompletableFuture<?>> request;
+
+  Workload(final String id, final BiFunction<HermesClient, Long, CompletableFuture<?>> request) {
+    this.id = id;
+    this.request = request;
+  }
+
+  /**
+   * Find a workload by its {@link #id()}.
+   *
+   * @param id The identifier of a workload, e.g. {@code grpc-payment}.
+   *
+   * @return The matching {@link Workload}.
+   */
+  public static Workload of(final String id) {
+    return Arrays.stream(values())
+      .filter(workload -> workload.id.equals(id))
+      .findFirst()
+      .orElseThrow(() -> new IllegalArgumentException("Unknown workload: " + id));
+  }
+
+  public String id() {
+    return id;
+  }
+
+  /**
+   * Start one request of this workload.
+   *
+   * @param client   The {@link HermesClient} to send the request with.
+   * @param sequence The number of requests of this workload started before this one.
+   *
+   * @return A {@link CompletableFuture} that completes when the request does.
+   */
+  public CompletableFuture<?> start(final HermesClient client, final long sequence) {
+    return request.apply(client, sequence);
+  }
+}
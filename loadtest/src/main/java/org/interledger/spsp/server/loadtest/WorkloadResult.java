@@ -0,0 +1,156 @@
+package org.interledger.spsp.server.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The outcome of driving a single workload: how many requests were made, how many failed and why, and the latency
+ * distribution of all of them.
+ */
+public class WorkloadResult {
+
+  static final String TOO_MANY_IN_FLIGHT = "too many requests in flight";
+
+  private static final double MICROS_PER_MILLI = 1000.0;
+
+  private final String name;
+  private final double targetRatePerSecond;
+  private final Duration elapsed;
+  private final Histogram latencies;
+  private final long errors;
+  private final Map<String, Long> errorCounts;
+  private final int incomplete;
+
+  WorkloadResult(
+    final String name,
+    final double targetRatePerSecond,
+    final Duration elapsed,
+    final Histogram latencies,
+    final long errors,
+    final Map<String, LongAdder> errorCounts,
+    final int incomplete
+  ) {
+    this.name = Objects.requireNonNull(name);
+    this.targetRatePerSecond = targetRatePerSecond;
+    this.elapsed = Objects.requireNonNull(elapsed);
+    this.latencies = Objects.requireNonNull(latencies);
+    this.errors = errors;
+    final Map<String, Long> counts = new TreeMap<>();
+    errorCounts.forEach((error, count) -> counts.put(error, count.sum()));
+    this.errorCounts = Collections.unmodifiableMap(counts);
+    this.incomplete = incomplete;
+  }
+
+  public String name() {
+    return name;
+  }
+
+  /**
+   * The number of requests that completed, successfully or not. Requests that were never started because too many
+   * were in flight are counted as errors but have no latency.
+   *
+   * @return A long.
+   */
+  public long completed() {
+    return latencies.getTotalCount();
+  }
+
+  public long errors() {
+    return errors;
+  }
+
+  /**
+   * The errors, keyed by a short description such as {@code HTTP 429} or {@code gRPC RESOURCE_EXHAUSTED}.
+   *
+   * @return A {@link Map} of error description to count.
+   */
+  public Map<String, Long> errorCounts() {
+    return errorCounts;
+  }
+
+  /**
+   * The number of requests still in flight when this result was taken (i.e. that did not complete in time).
+   *
+   * @return An int.
+   */
+  public int incomplete() {
+    return incomplete;
+  }
+
+  /**
+   * The latency distribution of completed requests, in microseconds.
+   *
+   * @return A {@link Histogram}.
+   */
+  public Histogram latencies() {
+    return latencies;
+  }
+
+  /**
+   * The fraction of attempted requests that failed.
+   *
+   * @return A value between 0 and 1.
+   */
+  public double errorRate() {
+    final long attempted = completed() + incomplete + (errors - errorsWithLatency());
+    return attempted == 0 ? 0 : (double) errors / attempted;
+  }
+
+  /**
+   * The rate at which requests completed successfully while requests were being started.
+   *
+   * @return Successful requests per second.
+   */
+  public double achievedRatePerSecond() {
+    return (completed() - errorsWithLatency()) / (elapsed.toNanos() / 1e9);
+  }
+
+  /**
+   * Print a single row of the summary table started by {@link #printHeader(PrintStream)}.
+   *
+   * @param out The {@link PrintStream} to print to.
+   */
+  public void printSummary(final PrintStream out) {
+    out.printf("%-22s %9.1f %10.1f %9d %8d %7.2f%% %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+      name, targetRatePerSecond, achievedRatePerSecond(), completed(), errors, errorRate() * 100,
+      millis(50), millis(90), millis(99), millis(99.9), latencies.getMaxValue() / MICROS_PER_MILLI
+    );
+  }
+
+  /**
+   * Print the header of the summary table.
+   *
+   * @param out The {@link PrintStream} to print to.
+   */
+  public static void printHeader(final PrintStream out) {
+    out.printf("%-22s %9s %10s %9s %8s %8s %9s %9s %9s %9s %9s%n",
+      "workload", "target/s", "achieved/s", "completed", "errors", "error", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms",
+      "max ms"
+    );
+  }
+
+  /**
+   * Print the full latency distribution, in milliseconds, in HdrHistogram's percentile distribution format (which can
+   * be plotted with HdrHistogram's plotter).
+   *
+   * @param out The {@link PrintStream} to print to.
+   */
+  public void printPercentileDistribution(final PrintStream out) {
+    latencies.outputPercentileDistribution(out, MICROS_PER_MILLI);
+  }
+
+  private long errorsWithLatency() {
+    return errors - errorCounts.getOrDefault(TOO_MANY_IN_FLIGHT, 0L);
+  }
+
+  private double millis(final double percentile) {
+    return latencies.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+  }
+}
@@ -0,0 +1,94 @@
+package org.interledger.spsp.server.client;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.accounts.AccountSettings;
+import org.interledger.connector.client.ConnectorAdminClient;
+import org.interledger.connector.routing.StaticRoute;
+import org.interledger.spsp.server.model.BearerToken;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * <p>Non-blocking variants of the calls made to the Connector via {@link ConnectorAdminClient}, {@link
+ * ConnectorBalanceClient} and {@link ConnectorTokensClient}.</p>
+ *
+ * <p>The underlying Feign clients are blocking, so each call runs on a dedicated, bounded executor. Callers such as
+ * gRPC handlers and REST controllers can therefore fan out several Connector calls, or return a {@link
+ * CompletableFuture} to their framework, without holding a request thread per call. A call submitted while the
+ * executor is saturated fails with a {@link java.util.concurrent.RejectedExecutionException}.</p>
+ */
+public class AsyncConnectorClient {
+
+  private final ConnectorAdminClient adminClient;
+  private final ConnectorBalanceClient balanceClient;
+  private final ConnectorTokensClient tokensClient;
+  private final ExecutorService executorService;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param adminClient     A {@link ConnectorAdminClient} to make admin calls with.
+   * @param balanceClient   A {@link ConnectorBalanceClient} to make balance calls with.
+   * @param tokensClient    A {@link ConnectorTokensClient} to make token calls with.
+   * @param executorService The {@link ExecutorService} that blocking calls run on. Owned by this client and shut down
+   *                        with it.
+   */
+  public AsyncConnectorClient(
+    final ConnectorAdminClient adminClient,
+    final ConnectorBalanceClient balanceClient,
+    final ConnectorTokensClient tokensClient,
+    final ExecutorService executorService
+  ) {
+    this.adminClient = Objects.requireNonNull(adminClient);
+    this.balanceClient = Objects.requireNonNull(balanceClient);
+    this.tokensClient = Objects.requireNonNull(tokensClient);
+    this.executorService = Objects.requireNonNull(executorService);
+  }
+
+  @PreDestroy
+  public void destroy() {
+    executorService.shutdown();
+  }
+
+  public CompletableFuture<AccountBalanceResponse> getBalance(
+    final Optional<BearerToken> authorizationHeader, final AccountId accountId
+  ) {
+    return CompletableFuture.supplyAsync(() -> balanceClient.getBalance(authorizationHeader, accountId), executorService);
+  }
+
+  public CompletableFuture<CreateAccessTokenResponse> createToken(
+    final Optional<BearerToken> authorizationHeader, final AccountId accountId
+  ) {
+    return CompletableFuture.supplyAsync(() -> tokensClient.createToken(authorizationHeader, accountId), executorService);
+  }
+
+  public CompletableFuture<List<AccessToken>> getTokens(
+    final Optional<BearerToken> authorizationHeader, final AccountId accountId
+  ) {
+    return CompletableFuture.supplyAsync(() -> tokensClient.getTokens(authorizationHeader, accountId), executorService);
+  }
+
+  public CompletableFuture<Void> deleteTokens(
+    final Optional<BearerToken> authorizationHeader, final AccountId accountId
+  ) {
+    return CompletableFuture.runAsync(() -> tokensClient.deleteTokens(authorizationHeader, accountId), executorService);
+  }
+
+  public CompletableFuture<Optional<AccountSettings>> findAccount(final AccountId accountId) {
+    return CompletableFuture.supplyAsync(() -> adminClient.findAccount(accountId.value()), executorService);
+  }
+
+  public CompletableFuture<AccountSettings> createAccount(final AccountSettings accountSettings) {
+    return CompletableFuture.supplyAsync(() -> adminClient.createAccount(accountSettings), executorService);
+  }
+
+  public CompletableFuture<StaticRoute> createStaticRoute(final String prefix, final StaticRoute staticRoute) {
+    return CompletableFuture.supplyAsync(() -> adminClient.createStaticRoute(prefix, staticRoute), executorService);
+  }
+}
@@ -0,0 +1,89 @@
+package org.interledger.spsp.server.client;
+
+import org.interledger.spsp.PaymentPointer;
+import org.interledger.spsp.PaymentPointerResolver;
+import org.interledger.spsp.StreamConnectionDetails;
+import org.interledger.spsp.client.InvalidReceiverClientException;
+import org.interledger.spsp.client.SpspClient;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import okhttp3.HttpUrl;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * <p>An {@link SpspClient} that caches receivers that respond with a 404 (i.e., {@link
+ * InvalidReceiverClientException}), so that repeated lookups of a bad payment pointer fail fast without a request to
+ * the receiver.</p>
+ *
+ * <p>Successful lookups are deliberately not cached or shared. {@link StreamConnectionDetails} identify a single STREAM
+ * connection (a destination address and shared secret), so handing the same details to more than one payment would
+ * have them send on one connection, where one payment closing the connection, or the receiver's per-connection
+ * accounting, interferes with the other. Every payment therefore gets its own details from the delegate.</p>
+ */
+public class CachingSpspClient implements SpspClient, MeterBinder {
+
+  public static final String INVALID_RECEIVERS_METRIC_NAME = "hermes.spsp.invalid-receivers";
+
+  private final SpspClient delegate;
+  private final PaymentPointerResolver paymentPointerResolver;
+
+  private final Cache<HttpUrl, Boolean> invalidReceivers;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param delegate               The {@link SpspClient} that actually contacts receivers.
+   * @param paymentPointerResolver A {@link PaymentPointerResolver} for turning payment pointers into cache keys.
+   * @param maximumSize            The maximum number of receivers to cache.
+   * @param invalidReceiverTtl     How long receivers that responded with a 404 are cached.
+   */
+  public CachingSpspClient(
+    final SpspClient delegate,
+    final PaymentPointerResolver paymentPointerResolver,
+    final long maximumSize,
+    final Duration invalidReceiverTtl
+  ) {
+    this.delegate = Objects.requireNonNull(delegate);
+    this.paymentPointerResolver = Objects.requireNonNull(paymentPointerResolver);
+    this.invalidReceivers = CacheBuilder.newBuilder()
+      .maximumSize(maximumSize)
+      .expireAfterWrite(Objects.requireNonNull(invalidReceiverTtl))
+      .recordStats()
+      .build();
+  }
+
+  @Override
+  public StreamConnectionDetails getStreamConnectionDetails(final PaymentPointer paymentPointer)
+    throws InvalidReceiverClientException {
+    Objects.requireNonNull(paymentPointer);
+    return getStreamConnectionDetails(paymentPointerResolver.resolveHttpUrl(paymentPointer));
+  }
+
+  @Override
+  public StreamConnectionDetails getStreamConnectionDetails(final HttpUrl receiverUrl)
+    throws InvalidReceiverClientException {
+    Objects.requireNonNull(receiverUrl);
+
+    if (invalidReceivers.getIfPresent(receiverUrl) != null) {
+      throw new InvalidReceiverClientException(receiverUrl.toString());
+    }
+
+    try {
+      return delegate.getStreamConnectionDetails(receiverUrl);
+    } catch (InvalidReceiverClientException e) {
+      invalidReceivers.put(receiverUrl, Boolean.TRUE);
+      throw e;
+    }
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    GuavaCacheMetrics.monitor(registry, invalidReceivers, INVALID_RECEIVERS_METRIC_NAME);
+  }
+}
@@ -0,0 +1,97 @@
+package org.interledger.spsp.server.client;
+
+import org.interledger.connector.client.ConnectorAdminClient;
+import org.interledger.connector.jackson.ObjectMapperFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
+import feign.Client;
+import feign.Feign;
+import feign.FeignException;
+import feign.Request;
+import feign.RequestInterceptor;
+import feign.Response;
+import feign.Retryer;
+import feign.Types;
+import feign.codec.Decoder;
+import feign.jackson.JacksonDecoder;
+import feign.jackson.JacksonEncoder;
+import feign.optionals.OptionalDecoder;
+import okhttp3.HttpUrl;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Builds {@link ConnectorAdminClient}s configured the same way as {@link ConnectorAdminClient#construct(HttpUrl,
+ * RequestInterceptor)}, but with a caller-supplied HTTP client, timeouts and retry policy.
+ */
+public final class ConnectorAdminClientFactory {
+
+  private ConnectorAdminClientFactory() {
+  }
+
+  /**
+   * Build a new {@link ConnectorAdminClient}.
+   *
+   * @param connectorHttpUrl   The {@link HttpUrl} of the Connector.
+   * @param requestInterceptor A {@link RequestInterceptor} that adds admin credentials to each request.
+   * @param httpClient         The {@link Client} to make requests with, typically shared between Connector clients so
+   *                           they share a connection pool.
+   * @param options            The connect and read timeouts to apply to requests made by this client.
+   * @param retryer            The {@link Retryer} deciding whether to retry requests that fail with an I/O error.
+   *
+   * @return A {@link ConnectorAdminClient}.
+   */
+  public static ConnectorAdminClient construct(
+    final HttpUrl connectorHttpUrl,
+    final RequestInterceptor requestInterceptor,
+    final Client httpClient,
+    final Request.Options options,
+    final Retryer retryer
+  ) {
+    Objects.requireNonNull(connectorHttpUrl);
+    Objects.requireNonNull(requestInterceptor);
+    Objects.requireNonNull(httpClient);
+    Objects.requireNonNull(options);
+    Objects.requireNonNull(retryer);
+    final ObjectMapper objectMapper = ObjectMapperFactory.createObjectMapperForProblemsJson();
+    return Feign.builder()
+      .client(httpClient)
+      .options(options)
+      .retryer(retryer)
+      .encoder(new JacksonEncoder(objectMapper))
+      .decode404()
+      .decoder(new NotFoundOnlyAsEmptyDecoder(new OptionalDecoder(new JacksonDecoder(objectMapper))))
+      .requestInterceptor(requestInterceptor)
+      .target(ConnectorAdminClient.class, connectorHttpUrl.toString());
+  }
+
+  /**
+   * {@link Feign.Builder#decode404()} is needed so that {@link ConnectorAdminClient#findAccount(String)} returns
+   * empty for an account that doesn't exist, but it also makes every other method return {@code null} on a 404, which
+   * callers would take for success. A 404 to any method that doesn't return an {@link Optional} is thrown as a {@link
+   * FeignException} instead, just as it would be without {@code decode404()}.
+   */
+  @VisibleForTesting
+  static final class NotFoundOnlyAsEmptyDecoder implements Decoder {
+
+    private final Decoder delegate;
+
+    NotFoundOnlyAsEmptyDecoder(final Decoder delegate) {
+      this.delegate = Objects.requireNonNull(delegate);
+    }
+
+    @Override
+    public Object decode(final Response response, final Type type) throws IOException {
+      if (response.status() == 404 && Types.getRawType(type) != Optional.class) {
+        throw FeignException.errorStatus(
+          response.request().httpMethod() + " " + response.request().url(), response
+        );
+      }
+      return delegate.decode(response, type);
+    }
+  }
+}
@@ -6,10 +6,13 @@ import org.interledger.spsp.server.config.jackson.ObjectMapperFactory;
 import org.interledger.spsp.server.model.BearerToken;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Client;
 import feign.Feign;
 import feign.Headers;
 import feign.Param;
+import feign.Request;
 import feign.RequestLine;
+import feign.Retryer;
 import feign.jackson.JacksonDecoder;
 import feign.jackson.JacksonEncoder;
 import feign.optionals.OptionalDecoder;
@@ -26,16 +29,40 @@ public interface ConnectorBalanceClient {
   String APPLICATION_JSON = "application/json";
 
   /**
-   * Static constructor to build a new instance of this Connector Balance client.
+   * Static constructor to build a new instance of this Connector Balance client using Feign's default HTTP client, timeouts and
+   * retry policy.
    *
    * @param connectorHttpUrl The {@link HttpUrl} of the Connector.
    *
    * @return A {@link ConnectorBalanceClient}.
    */
   static ConnectorBalanceClient construct(final HttpUrl connectorHttpUrl) {
+    return construct(connectorHttpUrl, new Client.Default(null, null), new Request.Options(), new Retryer.Default());
+  }
+
+  /**
+   * Static constructor to build a new instance of this Connector Balance client.
+   *
+   * @param connectorHttpUrl The {@link HttpUrl} of the Connector.
+   * @param httpClient       The {@link Client} to make requests with, typically shared between Connector clients so
+   *                         they share a connection pool.
+   * @param options          The connect and read timeouts to apply to requests made by this client.
+   * @param retryer          The {@link Retryer} deciding whether to retry requests that fail with an I/O error.
+   *
+   * @return A {@link ConnectorBalanceClient}.
+   */
+  static ConnectorBalanceClient construct(
+    final HttpUrl connectorHttpUrl, final Client httpClient, final Request.Options options, final Retryer retryer
+  ) {
     Objects.requireNonNull(connectorHttpUrl);
+    Objects.requireNonNull(httpClient);
+    Objects.requireNonNull(options);
+    Objects.requireNonNull(retryer);
     final ObjectMapper objectMapper = ObjectMapperFactory.createObjectMapperForProblemsJson();
     return Feign.builder()
+      .client(httpClient)
+      .options(options)
+      .retryer(retryer)
       .encoder(new JacksonEncoder(objectMapper))
       .decode404()
       .decoder(new OptionalDecoder(new JacksonDecoder(objectMapper)))
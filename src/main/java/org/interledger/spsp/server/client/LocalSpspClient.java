@@ -0,0 +1,92 @@
+package org.interledger.spsp.server.client;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerAddressPrefix;
+import org.interledger.spsp.PaymentPointer;
+import org.interledger.spsp.StreamConnectionDetails;
+import org.interledger.spsp.client.InvalidReceiverClientException;
+import org.interledger.spsp.client.SpspClient;
+import org.interledger.spsp.server.services.HermesUtils;
+import org.interledger.stream.receiver.ServerSecretSupplier;
+import org.interledger.stream.receiver.SpspStreamConnectionGenerator;
+import org.interledger.stream.receiver.StreamConnectionGenerator;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import okhttp3.HttpUrl;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>An {@link SpspClient} that resolves payment pointers for accounts served by this server's own SPSP receiver
+ * in-process, instead of making an SPSP request back to that receiver.</p>
+ *
+ * <p>The receiver derives each connection's shared secret from its destination address and a server secret, so given
+ * the same server secret this client can generate connection details that the receiver will accept. Payment pointers
+ * for any other receiver are resolved by a delegate client.</p>
+ */
+public class LocalSpspClient implements SpspClient, MeterBinder {
+
+  public static final String METRIC_NAME = "hermes.spsp.local-resolutions";
+
+  private final SpspClient delegate;
+  private final HttpUrl spspReceiverUrl;
+  private final InterledgerAddressPrefix spspAddressPrefix;
+  private final ServerSecretSupplier serverSecretSupplier;
+  private final StreamConnectionGenerator connectionGenerator;
+
+  private final AtomicLong localResolutions = new AtomicLong();
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param delegate             The {@link SpspClient} that resolves payment pointers for other receivers.
+   * @param spspReceiverUrl      The {@link HttpUrl} of this server's SPSP receiver.
+   * @param spspAddressPrefix    The {@link InterledgerAddressPrefix} under which the receiver serves each account.
+   * @param serverSecretSupplier A {@link ServerSecretSupplier} of the receiver's server secret.
+   */
+  public LocalSpspClient(
+    final SpspClient delegate,
+    final HttpUrl spspReceiverUrl,
+    final InterledgerAddressPrefix spspAddressPrefix,
+    final ServerSecretSupplier serverSecretSupplier
+  ) {
+    this.delegate = Objects.requireNonNull(delegate);
+    this.spspReceiverUrl = Objects.requireNonNull(spspReceiverUrl);
+    this.spspAddressPrefix = Objects.requireNonNull(spspAddressPrefix);
+    this.serverSecretSupplier = Objects.requireNonNull(serverSecretSupplier);
+    this.connectionGenerator = new SpspStreamConnectionGenerator();
+  }
+
+  @Override
+  public StreamConnectionDetails getStreamConnectionDetails(final PaymentPointer paymentPointer)
+    throws InvalidReceiverClientException {
+    Objects.requireNonNull(paymentPointer);
+    final Optional<AccountId> localAccountId = HermesUtils.accountIdFromPaymentPointer(spspReceiverUrl, paymentPointer);
+    if (!localAccountId.isPresent()) {
+      return delegate.getStreamConnectionDetails(paymentPointer);
+    }
+
+    localResolutions.incrementAndGet();
+    return connectionGenerator.generateConnectionDetails(
+      serverSecretSupplier, InterledgerAddress.of(spspAddressPrefix.with(localAccountId.get().value()).getValue())
+    );
+  }
+
+  @Override
+  public StreamConnectionDetails getStreamConnectionDetails(final HttpUrl receiverUrl)
+    throws InvalidReceiverClientException {
+    return delegate.getStreamConnectionDetails(receiverUrl);
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    FunctionCounter.builder(METRIC_NAME, localResolutions, AtomicLong::get)
+      .description("Number of payment pointers resolved in-process because they are served by this server")
+      .register(registry);
+  }
+}
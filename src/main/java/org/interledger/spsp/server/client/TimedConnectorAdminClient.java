@@ -0,0 +1,54 @@
+package org.interledger.spsp.server.client;
+
+import org.interledger.connector.accounts.AccountSettings;
+import org.interledger.connector.client.ConnectorAdminClient;
+import org.interledger.connector.routing.StaticRoute;
+import org.interledger.spsp.server.util.DependencyTimer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A {@link ConnectorAdminClient} that times every call made through a delegate client.
+ *
+ * @see DependencyTimer
+ */
+public class TimedConnectorAdminClient implements ConnectorAdminClient {
+
+  public static final String DEPENDENCY = "connector-admin";
+
+  private final ConnectorAdminClient delegate;
+  private final DependencyTimer createAccountTimer;
+  private final DependencyTimer findAccountTimer;
+  private final DependencyTimer createStaticRouteTimer;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param delegate      The {@link ConnectorAdminClient} that actually calls the Connector.
+   * @param meterRegistry The {@link MeterRegistry} to report metrics to.
+   */
+  public TimedConnectorAdminClient(final ConnectorAdminClient delegate, final MeterRegistry meterRegistry) {
+    this.delegate = Objects.requireNonNull(delegate);
+    this.createAccountTimer = DependencyTimer.of(meterRegistry, DEPENDENCY, "createAccount");
+    this.findAccountTimer = DependencyTimer.of(meterRegistry, DEPENDENCY, "findAccount");
+    this.createStaticRouteTimer = DependencyTimer.of(meterRegistry, DEPENDENCY, "createStaticRoute");
+  }
+
+  @Override
+  public AccountSettings createAccount(final AccountSettings accountSettings) {
+    return createAccountTimer.record(() -> delegate.createAccount(accountSettings));
+  }
+
+  @Override
+  public Optional<AccountSettings> findAccount(final String accountId) {
+    return findAccountTimer.record(() -> delegate.findAccount(accountId));
+  }
+
+  @Override
+  public StaticRoute createStaticRoute(final String prefix, final StaticRoute staticRoute) {
+    return createStaticRouteTimer.record(() -> delegate.createStaticRoute(prefix, staticRoute));
+  }
+}
@@ -0,0 +1,39 @@
+package org.interledger.spsp.server.client;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.spsp.server.model.BearerToken;
+import org.interledger.spsp.server.util.DependencyTimer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A {@link ConnectorBalanceClient} that times every call made through a delegate client.
+ *
+ * @see DependencyTimer
+ */
+public class TimedConnectorBalanceClient implements ConnectorBalanceClient {
+
+  public static final String DEPENDENCY = "connector-balance";
+
+  private final ConnectorBalanceClient delegate;
+  private final DependencyTimer getBalanceTimer;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param delegate      The {@link ConnectorBalanceClient} that actually calls the Connector.
+   * @param meterRegistry The {@link MeterRegistry} to report metrics to.
+   */
+  public TimedConnectorBalanceClient(final ConnectorBalanceClient delegate, final MeterRegistry meterRegistry) {
+    this.delegate = Objects.requireNonNull(delegate);
+    this.getBalanceTimer = DependencyTimer.of(meterRegistry, DEPENDENCY, "getBalance");
+  }
+
+  @Override
+  public AccountBalanceResponse getBalance(final Optional<BearerToken> authorizationHeader, final AccountId accountId) {
+    return getBalanceTimer.record(() -> delegate.getBalance(authorizationHeader, accountId));
+  }
+}
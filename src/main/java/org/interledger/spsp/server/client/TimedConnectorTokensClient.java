@@ -0,0 +1,56 @@
+package org.interledger.spsp.server.client;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.spsp.server.model.BearerToken;
+import org.interledger.spsp.server.util.DependencyTimer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A {@link ConnectorTokensClient} that times every call made through a delegate client.
+ *
+ * @see DependencyTimer
+ */
+public class TimedConnectorTokensClient implements ConnectorTokensClient {
+
+  public static final String DEPENDENCY = "connector-tokens";
+
+  private final ConnectorTokensClient delegate;
+  private final DependencyTimer createTokenTimer;
+  private final DependencyTimer deleteTokensTimer;
+  private final DependencyTimer getTokensTimer;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param delegate      The {@link ConnectorTokensClient} that actually calls the Connector.
+   * @param meterRegistry The {@link MeterRegistry} to report metrics to.
+   */
+  public TimedConnectorTokensClient(final ConnectorTokensClient delegate, final MeterRegistry meterRegistry) {
+    this.delegate = Objects.requireNonNull(delegate);
+    this.createTokenTimer = DependencyTimer.of(meterRegistry, DEPENDENCY, "createToken");
+    this.deleteTokensTimer = DependencyTimer.of(meterRegistry, DEPENDENCY, "deleteTokens");
+    this.getTokensTimer = DependencyTimer.of(meterRegistry, DEPENDENCY, "getTokens");
+  }
+
+  @Override
+  public CreateAccessTokenResponse createToken(
+    final Optional<BearerToken> authorizationHeader, final AccountId accountId
+  ) {
+    return createTokenTimer.record(() -> delegate.createToken(authorizationHeader, accountId));
+  }
+
+  @Override
+  public void deleteTokens(final Optional<BearerToken> authorizationHeader, final AccountId accountId) {
+    deleteTokensTimer.record(() -> delegate.deleteTokens(authorizationHeader, accountId));
+  }
+
+  @Override
+  public List<AccessToken> getTokens(final Optional<BearerToken> authorizationHeader, final AccountId accountId) {
+    return getTokensTimer.record(() -> delegate.getTokens(authorizationHeader, accountId));
+  }
+}
@@ -0,0 +1,49 @@
+package org.interledger.spsp.server.client;
+
+import org.interledger.spsp.PaymentPointer;
+import org.interledger.spsp.StreamConnectionDetails;
+import org.interledger.spsp.client.InvalidReceiverClientException;
+import org.interledger.spsp.client.SpspClient;
+import org.interledger.spsp.server.util.DependencyTimer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.HttpUrl;
+
+import java.util.Objects;
+
+/**
+ * An {@link SpspClient} that times every lookup made through a delegate client. Wraps the client that actually makes
+ * SPSP requests, beneath any caching, so that the timings are of round-trips to receivers.
+ *
+ * @see DependencyTimer
+ */
+public class TimedSpspClient implements SpspClient {
+
+  public static final String DEPENDENCY = "spsp";
+
+  private final SpspClient delegate;
+  private final DependencyTimer getStreamConnectionDetailsTimer;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param delegate      The {@link SpspClient} that actually contacts receivers.
+   * @param meterRegistry The {@link MeterRegistry} to report metrics to.
+   */
+  public TimedSpspClient(final SpspClient delegate, final MeterRegistry meterRegistry) {
+    this.delegate = Objects.requireNonNull(delegate);
+    this.getStreamConnectionDetailsTimer = DependencyTimer.of(meterRegistry, DEPENDENCY, "getStreamConnectionDetails");
+  }
+
+  @Override
+  public StreamConnectionDetails getStreamConnectionDetails(final PaymentPointer paymentPointer)
+    throws InvalidReceiverClientException {
+    return getStreamConnectionDetailsTimer.record(() -> delegate.getStreamConnectionDetails(paymentPointer));
+  }
+
+  @Override
+  public StreamConnectionDetails getStreamConnectionDetails(final HttpUrl receiverUrl)
+    throws InvalidReceiverClientException {
+    return getStreamConnectionDetailsTimer.record(() -> delegate.getStreamConnectionDetails(receiverUrl));
+  }
+}
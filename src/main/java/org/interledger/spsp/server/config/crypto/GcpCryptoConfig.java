@@ -9,6 +9,7 @@ import org.interledger.crypto.EncryptionService;
 import org.interledger.crypto.impl.GcpEncryptionService;
 
 import com.google.api.gax.core.CredentialsProvider;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cloud.gcp.core.GcpProjectIdProvider;
@@ -24,8 +25,12 @@ public class GcpCryptoConfig {
 
   @Bean
   EncryptionService encryptionService(GcpProjectIdProvider gcpProjectIdProvider,
-                                      CredentialsProvider credentialsProvider) {
-    return new GcpEncryptionService(gcpProjectIdProvider.getProjectId(), gcpLocationId, credentialsProvider);
+                                      CredentialsProvider credentialsProvider,
+                                      MeterRegistry meterRegistry) {
+    return new TimedEncryptionService(
+      new GcpEncryptionService(gcpProjectIdProvider.getProjectId(), gcpLocationId, credentialsProvider), "gcp-kms",
+      meterRegistry
+    );
   }
 
 }
@@ -13,6 +13,7 @@ import org.interledger.crypto.EncryptionService;
 import org.interledger.crypto.JavaKeystoreLoader;
 import org.interledger.crypto.impl.JksEncryptionService;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
@@ -58,8 +59,9 @@ public class JksCryptoConfig {
   }
 
   @Bean
-  EncryptionService encryptionService(SecretKey secret0Key) throws NoSuchAlgorithmException {
-    return new JksEncryptionService(secret0Key);
+  EncryptionService encryptionService(SecretKey secret0Key, MeterRegistry meterRegistry)
+    throws NoSuchAlgorithmException {
+    return new TimedEncryptionService(new JksEncryptionService(secret0Key), "jks", meterRegistry);
   }
 
 }
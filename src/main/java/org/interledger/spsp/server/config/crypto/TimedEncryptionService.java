@@ -0,0 +1,48 @@
+package org.interledger.spsp.server.config.crypto;
+
+import org.interledger.crypto.EncryptedSecret;
+import org.interledger.crypto.EncryptionService;
+import org.interledger.spsp.server.util.DependencyTimer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Objects;
+
+/**
+ * An {@link EncryptionService} that times every call made through a delegate service, which may be a remote KMS.
+ *
+ * @see DependencyTimer
+ */
+public class TimedEncryptionService implements EncryptionService {
+
+  private final EncryptionService delegate;
+  private final DependencyTimer decryptTimer;
+  private final DependencyTimer encryptTimer;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param delegate      The {@link EncryptionService} that actually encrypts and decrypts.
+   * @param dependency    The name of the keystore backing {@code delegate}, used as the {@code dependency} tag.
+   * @param meterRegistry The {@link MeterRegistry} to report metrics to.
+   */
+  public TimedEncryptionService(
+    final EncryptionService delegate, final String dependency, final MeterRegistry meterRegistry
+  ) {
+    this.delegate = Objects.requireNonNull(delegate);
+    this.decryptTimer = DependencyTimer.of(meterRegistry, dependency, "decrypt");
+    this.encryptTimer = DependencyTimer.of(meterRegistry, dependency, "encrypt");
+  }
+
+  @Override
+  public byte[] decrypt(final EncryptedSecret encryptedSecret) {
+    return decryptTimer.record(() -> delegate.decrypt(encryptedSecret));
+  }
+
+  @Override
+  public EncryptedSecret encrypt(
+    final KeyMetadata keyMetadata, final EncryptionAlgorithm encryptionAlgorithm, final byte[] plainText
+  ) {
+    return encryptTimer.record(() -> delegate.encrypt(keyMetadata, encryptionAlgorithm, plainText));
+  }
+}
@@ -4,27 +4,79 @@ import org.interledger.crypto.EncryptedSecret;
 import org.interledger.crypto.EncryptionService;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 
+import java.time.Duration;
 import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
-public class ConnectorAdminAuthProvider {
+/**
+ * <p>Provides the {@code Authorization} header value used for requests to the Connector's admin API.</p>
+ *
+ * <p>An encrypted ({@code enc:}-prefixed) password is decrypted on first use and the resulting header is cached, as
+ * decryption may be a remote KMS call. If a refresh interval is configured, the header is re-decrypted on the first use
+ * after it has elapsed (e.g. to pick up a rotated key).</p>
+ */
+public class ConnectorAdminAuthProvider implements MeterBinder {
 
-  private final String adminPasswordConfig;
-  private final EncryptionService encryptionService;
+  public static final String DECRYPTS_METRIC_NAME = "hermes.connector.admin-auth.decrypts";
+
+  private final AtomicLong decrypts = new AtomicLong();
+
+  private final Supplier<String> adminAuth;
 
   public ConnectorAdminAuthProvider(String adminPasswordConfig, EncryptionService encryptionService) {
-    this.adminPasswordConfig = Preconditions.checkNotNull(adminPasswordConfig);
-    this.encryptionService = encryptionService;
+    this(adminPasswordConfig, encryptionService, Optional.empty());
   }
 
-  public String getAdminAuth() {
-    if (adminPasswordConfig != null && adminPasswordConfig.startsWith("enc")) {
-      return "Basic " + Base64.getEncoder().encodeToString(
-        encryptionService.decrypt(EncryptedSecret.fromEncodedValue(adminPasswordConfig))
-      );
+  /**
+   * Required-args Constructor.
+   *
+   * @param adminPasswordConfig The admin password, either in plain text or as an encoded {@link EncryptedSecret}.
+   * @param encryptionService   An {@link EncryptionService} to decrypt an encrypted password with.
+   * @param refreshInterval     How long a decrypted header may be used before decrypting the password again, or empty
+   *                            to decrypt it only once.
+   */
+  public ConnectorAdminAuthProvider(
+    String adminPasswordConfig, EncryptionService encryptionService, Optional<Duration> refreshInterval
+  ) {
+    Preconditions.checkNotNull(adminPasswordConfig);
+    Preconditions.checkNotNull(refreshInterval);
+
+    if (adminPasswordConfig.startsWith("enc")) {
+      Preconditions.checkNotNull(encryptionService);
+      final EncryptedSecret encryptedSecret = EncryptedSecret.fromEncodedValue(adminPasswordConfig);
+      final Supplier<String> decrypt = () -> {
+        decrypts.incrementAndGet();
+        return basicAuth(encryptionService.decrypt(encryptedSecret));
+      };
+      this.adminAuth = refreshInterval
+        .map(interval -> Suppliers.memoizeWithExpiration(decrypt, interval.toNanos(), TimeUnit.NANOSECONDS))
+        .orElseGet(() -> Suppliers.memoize(decrypt));
     } else {
-      return "Basic " + Base64.getEncoder().encodeToString(adminPasswordConfig.getBytes());
+      this.adminAuth = Suppliers.ofInstance(basicAuth(adminPasswordConfig.getBytes()));
     }
   }
 
+  public String getAdminAuth() {
+    return adminAuth.get();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder(DECRYPTS_METRIC_NAME, decrypts, AtomicLong::get)
+      .description("Number of times the Connector admin password has been decrypted")
+      .register(registry);
+  }
+
+  private static String basicAuth(byte[] password) {
+    return "Basic " + Base64.getEncoder().encodeToString(password);
+  }
+
 }
@@ -13,30 +13,66 @@ import org.interledger.link.http.SimpleAuthSettings;
 import org.interledger.spsp.PaymentPointerResolver;
 import org.interledger.spsp.client.SimpleSpspClient;
 import org.interledger.spsp.client.SpspClient;
+import org.interledger.spsp.server.client.AsyncConnectorClient;
+import org.interledger.spsp.server.client.CachingSpspClient;
+import org.interledger.spsp.server.client.ConnectorAdminClientFactory;
 import org.interledger.spsp.server.client.ConnectorBalanceClient;
 import org.interledger.spsp.server.client.ConnectorTokensClient;
+import org.interledger.spsp.server.client.LocalSpspClient;
+import org.interledger.spsp.server.client.TimedConnectorAdminClient;
+import org.interledger.spsp.server.client.TimedConnectorBalanceClient;
+import org.interledger.spsp.server.client.TimedConnectorTokensClient;
+import org.interledger.spsp.server.client.TimedSpspClient;
+import org.interledger.spsp.server.grpc.AccountServiceGrpc;
+import org.interledger.spsp.server.grpc.BalanceServiceGrpc;
+import org.interledger.spsp.server.grpc.ConcurrencyLimitInterceptor;
+import org.interledger.spsp.server.grpc.IlpOverHttpServiceGrpc;
 import org.interledger.spsp.server.grpc.auth.IlpGrpcAuthContext;
 import org.interledger.spsp.server.grpc.auth.IlpGrpcAuthContextImpl;
 import org.interledger.spsp.server.grpc.auth.IlpGrpcMetadataReader;
 import org.interledger.spsp.server.grpc.auth.IlpGrpcMetadataReaderImpl;
 import org.interledger.spsp.server.model.BearerToken;
+import org.interledger.spsp.server.services.AccountSettingsCache;
+import org.interledger.spsp.server.services.BalanceCache;
+import org.interledger.spsp.server.services.BalanceWatcher;
+import org.interledger.spsp.server.services.BatchLookupService;
 import org.interledger.spsp.server.services.GimmeMoneyService;
+import org.interledger.spsp.server.services.JwksKeyProvider;
+import org.interledger.spsp.server.services.LocalJwtVerifier;
 import org.interledger.spsp.server.services.NewAccountService;
 import org.interledger.spsp.server.services.SendMoneyService;
+import org.interledger.spsp.server.services.StaticRouteOutbox;
+import org.interledger.spsp.server.services.StreamSenderPool;
+import org.interledger.spsp.server.util.BatchLimits;
+import org.interledger.spsp.server.util.BoundedExecutors;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Client;
+import feign.Request;
+import feign.Retryer;
+import io.grpc.ServerBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
 import okhttp3.ConnectionPool;
 import okhttp3.ConnectionSpec;
 import okhttp3.Dispatcher;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
+import org.lognet.springboot.grpc.GRpcGlobalInterceptor;
+import org.lognet.springboot.grpc.GRpcServerBuilderConfigurer;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.OkHttp3ClientHttpRequestFactory;
 
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -52,6 +88,24 @@ public class IlpOverHttpConfig {
 
   public static final String SPSP = "SPSP";
 
+  public static final String PAYMENTS_EXECUTOR = "hermes-payments";
+
+  public static final String STREAM_EXECUTOR = "hermes-stream-packets";
+
+  public static final String PAYMENT_BATCHES = "PaymentBatches";
+
+  public static final String ACCOUNTS_EXECUTOR = "hermes-account-provisioning";
+
+  public static final String ACCOUNT_BATCHES = "AccountBatches";
+
+  public static final String LOOKUP_BATCHES = "LookupBatches";
+
+  public static final String CONNECTOR_CLIENT = "ConnectorClient";
+
+  public static final String CONNECTOR_CLIENT_EXECUTOR = "hermes-connector-client";
+
+  public static final String GRPC_EXECUTOR = "hermes-grpc";
+
   @Bean
   @Qualifier(ILP_OVER_HTTP)
   protected ConnectionPool ilpOverHttpConnectionPool(
@@ -149,11 +203,45 @@ public class IlpOverHttpConfig {
     return InterledgerAddressPrefix.of(spspAddressPrefix);
   }
 
+  /**
+   * The {@link SpspClient} used to resolve payment pointers into STREAM connection details. Unless disabled, receivers
+   * that respond with a 404 are cached so that repeated payments to a bad payment pointer fail fast; successful lookups
+   * aren't, since each payment needs a STREAM connection of its own (see {@link CachingSpspClient}). If the SPSP
+   * receiver's server secret is configured, payment pointers served by that receiver are resolved in-process without
+   * any SPSP request at all. SPSP requests that are made are timed (see {@link
+   * TimedSpspClient}).
+   */
   @Bean
   SpspClient spspClient(
-    OkHttpClient okHttpClient, PaymentPointerResolver paymentPointerResolver, ObjectMapper objectMapper
+    OkHttpClient okHttpClient, PaymentPointerResolver paymentPointerResolver, ObjectMapper objectMapper,
+    MeterRegistry meterRegistry,
+    @Qualifier(SPSP) HttpUrl spspReceiverUrl,
+    @Qualifier(SPSP) InterledgerAddressPrefix spspAddressPrefix,
+    @Value("${interledger.spsp.server-secret:}") final String serverSecret,
+    @Value("${interledger.spsp.client-cache.enabled:true}") final boolean cacheEnabled,
+    @Value("${interledger.spsp.client-cache.maximum-size:10000}") final long maximumSize,
+    @Value("${interledger.spsp.client-cache.invalid-receiver-ttl-seconds:10}") final long invalidReceiverTtlSeconds
   ) {
-    return new SimpleSpspClient(okHttpClient, paymentPointerResolver, objectMapper);
+    SpspClient spspClient =
+      new TimedSpspClient(new SimpleSpspClient(okHttpClient, paymentPointerResolver, objectMapper), meterRegistry);
+    if (cacheEnabled) {
+      final CachingSpspClient cachingSpspClient = new CachingSpspClient(
+        spspClient, paymentPointerResolver, maximumSize, Duration.ofSeconds(invalidReceiverTtlSeconds)
+      );
+      cachingSpspClient.bindTo(meterRegistry);
+      spspClient = cachingSpspClient;
+    }
+
+    if (!serverSecret.isEmpty()) {
+      // Base64-encoded, and must match the server secret of the SPSP receiver at spspReceiverUrl.
+      final byte[] serverSecretBytes = Base64.getDecoder().decode(serverSecret);
+      final LocalSpspClient localSpspClient = new LocalSpspClient(
+        spspClient, spspReceiverUrl, spspAddressPrefix, () -> serverSecretBytes.clone()
+      );
+      localSpspClient.bindTo(meterRegistry);
+      spspClient = localSpspClient;
+    }
+    return spspClient;
   }
 
   @Bean
@@ -170,26 +258,268 @@ public class IlpOverHttpConfig {
   @Bean
   public NewAccountService newAccountService(
     ConnectorAdminClient adminClient,
+    AccountSettingsCache accountSettingsCache,
     @Qualifier(SPSP) OutgoingLinkSettings spspLinkSettings,
-    @Qualifier(SPSP) InterledgerAddressPrefix spspAddressPrefix
+    StaticRouteOutbox staticRouteOutbox,
+    MeterRegistry meterRegistry,
+    Optional<LocalJwtVerifier> localJwtVerifier,
+    @Value("${interledger.hermes.accounts.executor.pool-size:10}") final int poolSize,
+    @Value("${interledger.hermes.accounts.executor.queue-capacity:1000}") final int queueCapacity
   ) {
-    return new NewAccountService(adminClient, spspLinkSettings, spspAddressPrefix);
+    // Batch account creations beyond what the pool and queue can hold are rejected.
+    return new NewAccountService(
+      adminClient, accountSettingsCache, spspLinkSettings, staticRouteOutbox,
+      BoundedExecutors.newBoundedExecutor(ACCOUNTS_EXECUTOR, poolSize, queueCapacity, meterRegistry),
+      localJwtVerifier
+    );
   }
 
+  /**
+   * Limits for batch account creation requests.
+   *
+   * @param maxSize           The maximum number of accounts in a single batch.
+   * @param maxParallelism    The maximum number of accounts of a single batch to create at once.
+   * @param maxDurationMillis The maximum amount of time to spend on a single batch before responding with the accounts
+   *                          created so far.
+   *
+   * @return A {@link BatchLimits}.
+   */
+  @Bean
+  @Qualifier(ACCOUNT_BATCHES)
+  public BatchLimits accountBatchLimits(
+    @Value("${interledger.hermes.accounts.batch.max-size:1000}") final int maxSize,
+    @Value("${interledger.hermes.accounts.batch.max-parallelism:10}") final int maxParallelism,
+    @Value("${interledger.hermes.accounts.batch.max-duration-millis:60000}") final long maxDurationMillis
+  ) {
+    return new BatchLimits(maxSize, maxParallelism, Duration.ofMillis(maxDurationMillis));
+  }
+
+  /**
+   * Creates each new account's static route in the background, and periodically repairs missing routes for the
+   * accounts currently in the {@link AccountSettingsCache}, i.e. those this instance has recently looked up. Routes of
+   * other accounts are not reconciled.
+   *
+   * @param adminClient              A {@link ConnectorAdminClient} to create routes with.
+   * @param accountSettingsCache     The {@link AccountSettingsCache} whose accounts are reconciled.
+   * @param spspAddressPrefix        The {@link InterledgerAddressPrefix} that route prefixes are built from.
+   * @param initialBackoffMillis     The number of milliseconds to wait before first retrying a failed route.
+   * @param maxBackoffSeconds        The maximum number of seconds to wait between retries of a route.
+   * @param maxClientErrorAttempts   The number of client errors from the Connector after which a route is abandoned.
+   * @param reconcileIntervalSeconds The number of seconds between reconciliations.
+   *
+   * @return A {@link StaticRouteOutbox}.
+   */
+  @Bean
+  public StaticRouteOutbox staticRouteOutbox(
+    ConnectorAdminClient adminClient,
+    AccountSettingsCache accountSettingsCache,
+    @Qualifier(SPSP) InterledgerAddressPrefix spspAddressPrefix,
+    @Value("${interledger.hermes.static-routes.initial-backoff-millis:500}") final long initialBackoffMillis,
+    @Value("${interledger.hermes.static-routes.max-backoff-seconds:60}") final long maxBackoffSeconds,
+    @Value("${interledger.hermes.static-routes.max-client-error-attempts:3}") final int maxClientErrorAttempts,
+    @Value("${interledger.hermes.static-routes.reconcile-interval-seconds:300}") final long reconcileIntervalSeconds
+  ) {
+    final StaticRouteOutbox outbox = new StaticRouteOutbox(
+      adminClient,
+      spspAddressPrefix,
+      Duration.ofMillis(initialBackoffMillis),
+      Duration.ofSeconds(maxBackoffSeconds),
+      maxClientErrorAttempts
+    );
+    outbox.scheduleReconciliation(accountSettingsCache::cachedAccountIds, Duration.ofSeconds(reconcileIntervalSeconds));
+    return outbox;
+  }
+
+  /**
+   * A read-through cache of {@link org.interledger.connector.accounts.AccountSettings} so that payments and account
+   * lookups don't each require a round-trip to the Connector's admin API.
+   *
+   * @param connectorClient     An {@link AsyncConnectorClient} to load account settings with.
+   * @param maximumSize         The maximum number of accounts to cache.
+   * @param ttlSeconds          The number of seconds an entry may be served before it must be reloaded.
+   * @param refreshAfterSeconds The number of seconds after which an entry is reloaded in the background.
+   * @param missingTtlSeconds   The number of seconds an account the Connector doesn't have is remembered as missing.
+   *
+   * @return An {@link AccountSettingsCache}.
+   */
+  @Bean
+  public AccountSettingsCache accountSettingsCache(
+    AsyncConnectorClient connectorClient,
+    @Value("${interledger.hermes.account-settings-cache.maximum-size:10000}") final long maximumSize,
+    @Value("${interledger.hermes.account-settings-cache.ttl-seconds:300}") final long ttlSeconds,
+    @Value("${interledger.hermes.account-settings-cache.refresh-after-seconds:60}") final long refreshAfterSeconds,
+    @Value("${interledger.hermes.account-settings-cache.missing-ttl-seconds:5}") final long missingTtlSeconds
+  ) {
+    return new AccountSettingsCache(
+      connectorClient,
+      maximumSize,
+      Duration.ofSeconds(ttlSeconds),
+      Duration.ofSeconds(refreshAfterSeconds),
+      Duration.ofSeconds(missingTtlSeconds)
+    );
+  }
+
+  /**
+   * A short-lived cache of account balances, so that clients polling for balances don't each hit the Connector.
+   *
+   * @param connectorClient An {@link AsyncConnectorClient} to load balances with.
+   * @param spspReceiverUrl The {@link HttpUrl} of this server's SPSP receiver.
+   * @param maximumSize     The maximum number of balances to cache.
+   * @param ttlMillis       The number of milliseconds a balance may be served after being loaded.
+   *
+   * @return A {@link BalanceCache}.
+   */
+  @Bean
+  public BalanceCache balanceCache(
+    AsyncConnectorClient connectorClient,
+    @Qualifier(SPSP) HttpUrl spspReceiverUrl,
+    @Value("${interledger.hermes.balance-cache.maximum-size:10000}") final long maximumSize,
+    @Value("${interledger.hermes.balance-cache.ttl-millis:1000}") final long ttlMillis
+  ) {
+    return new BalanceCache(connectorClient, spspReceiverUrl, maximumSize, Duration.ofMillis(ttlMillis));
+  }
+
+  /**
+   * Pushes balance changes to watchers, polling each watched account once however many watchers it has.
+   *
+   * @param balanceCache                   The {@link BalanceCache} to read balances through.
+   * @param pollIntervalSeconds            The number of seconds between polls of each watched account's balance.
+   * @param pollerThreads                  The number of threads to poll with.
+   * @param reauthorizationIntervalSeconds The number of seconds between re-checks of each watcher's credentials.
+   * @param maxDurationMinutes             The number of minutes a watch may last before it is ended.
+   *
+   * @return A {@link BalanceWatcher}.
+   */
+  @Bean
+  public BalanceWatcher balanceWatcher(
+    BalanceCache balanceCache,
+    @Value("${interledger.hermes.balance-watch.poll-interval-seconds:5}") final long pollIntervalSeconds,
+    @Value("${interledger.hermes.balance-watch.poller-threads:4}") final int pollerThreads,
+    @Value("${interledger.hermes.balance-watch.reauthorization-interval-seconds:60}")
+    final long reauthorizationIntervalSeconds,
+    @Value("${interledger.hermes.balance-watch.max-duration-minutes:30}") final long maxDurationMinutes
+  ) {
+    return new BalanceWatcher(
+      balanceCache,
+      Duration.ofSeconds(pollIntervalSeconds),
+      pollerThreads,
+      Duration.ofSeconds(reauthorizationIntervalSeconds),
+      Duration.ofMinutes(maxDurationMinutes)
+    );
+  }
+
+  /**
+   * A pool of STREAM senders so that repeat payers reuse a warm sender (and link) instead of constructing new ones for
+   * every payment.
+   *
+   * @param maximumSize              The maximum number of pooled senders.
+   * @param expireAfterAccessSeconds The number of seconds a pooled sender may sit idle before being evicted.
+   *
+   * @return A {@link StreamSenderPool}.
+   */
+  @Bean
+  public StreamSenderPool streamSenderPool(
+    @Value("${interledger.hermes.stream-sender-pool.maximum-size:10000}") final long maximumSize,
+    @Value("${interledger.hermes.stream-sender-pool.expire-after-access-seconds:300}") final long expireAfterAccessSeconds
+  ) {
+    return new StreamSenderPool(maximumSize, Duration.ofSeconds(expireAfterAccessSeconds));
+  }
+
+  /**
+   * Sends payments. New payments are admitted through a bounded executor, and those beyond what its pool and queue
+   * can hold are rejected (HTTP 429 / gRPC {@code RESOURCE_EXHAUSTED}). The packets of payments that have started run
+   * on a separate executor that never rejects them: once it is saturated, each payment sends its next packet on its
+   * own thread, which slows it down instead of failing it part way through.
+   *
+   * @param poolSize            The number of threads that resolve receivers and prepare senders.
+   * @param queueCapacity       The number of payments that may wait for one of those threads.
+   * @param streamPoolSize      The number of threads that send STREAM packets.
+   * @param streamQueueCapacity The number of packets that may wait for one of those threads.
+   *
+   * @return A {@link SendMoneyService}.
+   */
   @Bean
   public SendMoneyService sendMoneyService(
     @Value("${interledger.connector.connector-url}") String connectorUrl,
     ObjectMapper objectMapper,
-    ConnectorAdminClient adminClient,
+    AccountSettingsCache accountSettingsCache,
+    BalanceCache balanceCache,
     OkHttpClient okHttpClient,
     SpspClient spspClient,
-    @Qualifier(SPSP) InterledgerAddressPrefix spspAddressPrefix
+    @Qualifier(SPSP) InterledgerAddressPrefix spspAddressPrefix,
+    StreamSenderPool streamSenderPool,
+    MeterRegistry meterRegistry,
+    @Value("${interledger.hermes.payments.executor.pool-size:20}") final int poolSize,
+    @Value("${interledger.hermes.payments.executor.queue-capacity:1000}") final int queueCapacity,
+    @Value("${interledger.hermes.payments.stream-executor.pool-size:50}") final int streamPoolSize,
+    @Value("${interledger.hermes.payments.stream-executor.queue-capacity:1000}") final int streamQueueCapacity
   ) {
     return new SendMoneyService(
-      HttpUrl.parse(connectorUrl), objectMapper, adminClient, okHttpClient, spspClient, spspAddressPrefix
+      HttpUrl.parse(connectorUrl), objectMapper, accountSettingsCache, balanceCache, okHttpClient, spspClient,
+      spspAddressPrefix, streamSenderPool,
+      BoundedExecutors.newBoundedExecutor(PAYMENTS_EXECUTOR, poolSize, queueCapacity, meterRegistry),
+      BoundedExecutors.newCallerRunsExecutor(STREAM_EXECUTOR, streamPoolSize, streamQueueCapacity, meterRegistry),
+      meterRegistry
     );
   }
 
+  /**
+   * Limits for batch payment requests.
+   *
+   * @param maxSize           The maximum number of payments in a single batch.
+   * @param maxParallelism    The maximum number of payments of a single batch to have in flight at once.
+   * @param maxDurationMillis The maximum amount of time to spend on a single batch before responding with the results
+   *                          of the payments that have finished. This should be longer than a single payment's
+   *                          deadline.
+   *
+   * @return A {@link BatchLimits}.
+   */
+  @Bean
+  @Qualifier(PAYMENT_BATCHES)
+  public BatchLimits paymentBatchLimits(
+    @Value("${interledger.hermes.payments.batch.max-size:10000}") final int maxSize,
+    @Value("${interledger.hermes.payments.batch.max-parallelism:10}") final int maxParallelism,
+    @Value("${interledger.hermes.payments.batch.max-duration-millis:120000}") final long maxDurationMillis
+  ) {
+    return new BatchLimits(maxSize, maxParallelism, Duration.ofMillis(maxDurationMillis));
+  }
+
+  /**
+   * Looks up balances and accounts in bulk.
+   *
+   * @param balanceCache         The {@link BalanceCache} to read balances through.
+   * @param accountSettingsCache The {@link AccountSettingsCache} to read account settings through.
+   *
+   * @return A {@link BatchLookupService}.
+   */
+  @Bean
+  public BatchLookupService batchLookupService(
+    BalanceCache balanceCache,
+    AccountSettingsCache accountSettingsCache
+  ) {
+    return new BatchLookupService(balanceCache, accountSettingsCache);
+  }
+
+  /**
+   * Limits for batch balance and account lookups.
+   *
+   * @param maxSize           The maximum number of accounts in a single batch.
+   * @param maxParallelism    The maximum number of lookups of a single batch to have in flight at once.
+   * @param maxDurationMillis The maximum amount of time to spend on a single batch before responding with the lookups
+   *                          that have finished.
+   *
+   * @return A {@link BatchLimits}.
+   */
+  @Bean
+  @Qualifier(LOOKUP_BATCHES)
+  public BatchLimits lookupBatchLimits(
+    @Value("${interledger.hermes.lookups.batch.max-size:1000}") final int maxSize,
+    @Value("${interledger.hermes.lookups.batch.max-parallelism:20}") final int maxParallelism,
+    @Value("${interledger.hermes.lookups.batch.max-duration-millis:20000}") final long maxDurationMillis
+  ) {
+    return new BatchLimits(maxSize, maxParallelism, Duration.ofMillis(maxDurationMillis));
+  }
+
   @Bean
   public GimmeMoneyService gimmeMoneyService(
     SendMoneyService sendMoneyService, @Qualifier(SPSP) HttpUrl spspUrl
@@ -199,30 +529,170 @@ public class IlpOverHttpConfig {
     );
   }
 
+  @Bean
+  @Qualifier(CONNECTOR_CLIENT)
+  protected ConnectionPool connectorClientConnectionPool(
+    @Value("${interledger.connector.client.maxIdleConnections:10}") final int maxIdleConnections,
+    @Value("${interledger.connector.client.keepAliveSeconds:300}") final long keepAliveSeconds
+  ) {
+    return new ConnectionPool(maxIdleConnections, keepAliveSeconds, TimeUnit.SECONDS);
+  }
+
+  /**
+   * The HTTP client shared by the Connector admin, balance and tokens clients, so that calls to the Connector reuse
+   * pooled (and, where the Connector supports it, HTTP/2) connections instead of opening a socket per request.
+   * Timeouts are applied per Connector client via {@link Request.Options}.
+   *
+   * @param connectorClientConnectionPool A {@link ConnectionPool} as configured above.
+   * @param maxRequests                   Maximum numbers of concurrent http requests.
+   * @param maxRequestsPerHost            Maximum numbers of concurrent http requests per host.
+   *
+   * @return A Feign {@link Client}.
+   */
+  @Bean
+  @Qualifier(CONNECTOR_CLIENT)
+  protected Client connectorFeignClient(
+    @Qualifier(CONNECTOR_CLIENT) final ConnectionPool connectorClientConnectionPool,
+    @Value("${interledger.connector.client.maxRequests:100}") final int maxRequests,
+    @Value("${interledger.connector.client.maxRequestsPerHost:100}") final int maxRequestsPerHost
+  ) {
+    Dispatcher dispatcher = new Dispatcher();
+    dispatcher.setMaxRequests(maxRequests);
+    dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+    return new feign.okhttp.OkHttpClient(new OkHttpClient.Builder()
+      .dispatcher(dispatcher)
+      .connectionPool(connectorClientConnectionPool)
+      .connectionSpecs(Arrays.asList(new ConnectionSpec.Builder(ConnectionSpec.MODERN_TLS).build(),
+        ConnectionSpec.CLEARTEXT))
+      .cookieJar(NO_COOKIES)
+      .build());
+  }
+
   @Bean
   public ConnectorBalanceClient balanceClient(
-    @Value("${interledger.connector.connector-url}") String connectorHttpUrl) {
-    return ConnectorBalanceClient.construct(HttpUrl.parse(connectorHttpUrl));
+    @Value("${interledger.connector.connector-url}") String connectorHttpUrl,
+    @Qualifier(CONNECTOR_CLIENT) Client connectorFeignClient,
+    @Value("${interledger.connector.client.balance.connectTimeoutMillis:1000}") long connectTimeoutMillis,
+    @Value("${interledger.connector.client.balance.readTimeoutMillis:5000}") long readTimeoutMillis,
+    @Value("${interledger.connector.client.balance.maxAttempts:3}") int maxAttempts,
+    MeterRegistry meterRegistry
+  ) {
+    return new TimedConnectorBalanceClient(ConnectorBalanceClient.construct(HttpUrl.parse(connectorHttpUrl),
+      connectorFeignClient, requestOptions(connectTimeoutMillis, readTimeoutMillis), retryer(maxAttempts)),
+      meterRegistry);
+  }
+
+  @Bean
+  public ConnectorTokensClient tokensClient(
+    @Value("${interledger.connector.connector-url}") String connectorHttpUrl,
+    @Qualifier(CONNECTOR_CLIENT) Client connectorFeignClient,
+    @Value("${interledger.connector.client.tokens.connectTimeoutMillis:1000}") long connectTimeoutMillis,
+    @Value("${interledger.connector.client.tokens.readTimeoutMillis:10000}") long readTimeoutMillis,
+    @Value("${interledger.connector.client.tokens.maxAttempts:1}") int maxAttempts,
+    MeterRegistry meterRegistry
+  ) {
+    return new TimedConnectorTokensClient(ConnectorTokensClient.construct(HttpUrl.parse(connectorHttpUrl),
+      connectorFeignClient, requestOptions(connectTimeoutMillis, readTimeoutMillis), retryer(maxAttempts)),
+      meterRegistry);
   }
 
   @Bean
-  public ConnectorTokensClient tokensClient(@Value("${interledger.connector.connector-url}") String connectorHttpUrl) {
-    return ConnectorTokensClient.construct(HttpUrl.parse(connectorHttpUrl));
+  public ConnectorAdminClient adminClient(
+    @Value("${interledger.connector.connector-url}") String connectorHttpUrl,
+    ConnectorAdminAuthProvider connectorAdminAuthProvider,
+    @Qualifier(CONNECTOR_CLIENT) Client connectorFeignClient,
+    @Value("${interledger.connector.client.admin.connectTimeoutMillis:1000}") long connectTimeoutMillis,
+    @Value("${interledger.connector.client.admin.readTimeoutMillis:10000}") long readTimeoutMillis,
+    @Value("${interledger.connector.client.admin.maxAttempts:1}") int maxAttempts,
+    MeterRegistry meterRegistry
+  ) {
+    return new TimedConnectorAdminClient(ConnectorAdminClientFactory.construct(HttpUrl.parse(connectorHttpUrl),
+      template -> {
+        template.header(AUTHORIZATION, connectorAdminAuthProvider.getAdminAuth());
+      }, connectorFeignClient, requestOptions(connectTimeoutMillis, readTimeoutMillis), retryer(maxAttempts)),
+      meterRegistry);
   }
 
   @Bean
-  public ConnectorAdminClient adminClient(@Value("${interledger.connector.connector-url}") String connectorHttpUrl,
-    ConnectorAdminAuthProvider connectorAdminAuthProvider) {
-    return ConnectorAdminClient.construct(HttpUrl.parse(connectorHttpUrl), template -> {
-      template.header(AUTHORIZATION, connectorAdminAuthProvider.getAdminAuth());
-    });
+  public AsyncConnectorClient asyncConnectorClient(
+    ConnectorAdminClient adminClient,
+    ConnectorBalanceClient balanceClient,
+    ConnectorTokensClient tokensClient,
+    MeterRegistry meterRegistry,
+    @Value("${interledger.connector.client.executor.pool-size:20}") int poolSize,
+    @Value("${interledger.connector.client.executor.queue-capacity:1000}") int queueCapacity
+  ) {
+    return new AsyncConnectorClient(adminClient, balanceClient, tokensClient,
+      BoundedExecutors.newBoundedExecutor(CONNECTOR_CLIENT_EXECUTOR, poolSize, queueCapacity, meterRegistry));
+  }
+
+  private static Request.Options requestOptions(long connectTimeoutMillis, long readTimeoutMillis) {
+    return new Request.Options(connectTimeoutMillis, TimeUnit.MILLISECONDS, readTimeoutMillis, TimeUnit.MILLISECONDS,
+      true);
+  }
+
+  /**
+   * Feign only retries requests that failed with an I/O error (or a 503 with Retry-After), but that still includes
+   * non-idempotent calls such as account creation, so retries are opt-in per client.
+   */
+  private static Retryer retryer(int maxAttempts) {
+    return maxAttempts > 1 ? new Retryer.Default(100, TimeUnit.SECONDS.toMillis(1), maxAttempts) : Retryer.NEVER_RETRY;
   }
 
   @Bean
   public ConnectorAdminAuthProvider connectorAdminAuthProvider(
     @Value("${interledger.connector.admin-password}") String adminPasswordConfig,
+    @Value("${interledger.connector.admin-password-refresh-seconds:0}") long refreshSeconds,
     EncryptionService encryptionService) {
-    return new ConnectorAdminAuthProvider(adminPasswordConfig, encryptionService);
+    return new ConnectorAdminAuthProvider(adminPasswordConfig, encryptionService,
+      refreshSeconds > 0 ? Optional.of(Duration.ofSeconds(refreshSeconds)) : Optional.empty());
+  }
+
+  /**
+   * Provides the public keys of the JWT issuer's JWKS, for verifying JWTs locally. Only created if an issuer is
+   * configured.
+   *
+   * @param issuer                   The JWT issuer, e.g. {@code https://example.com/}.
+   * @param jwksUrl                  The issuer's JWKS, if not at {@code {issuer}/.well-known/jwks.json}.
+   * @param refreshIntervalSeconds   How often to refetch the JWKS.
+   * @param maxOnDemandFetchesPerMin How many times a minute the JWKS may be refetched because a token named a key that
+   *                                 isn't in it.
+   *
+   * @return A {@link JwksKeyProvider}.
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "interledger.hermes.auth.jwt", name = "issuer")
+  public JwksKeyProvider jwksKeyProvider(
+    @Value("${interledger.hermes.auth.jwt.issuer}") final String issuer,
+    @Value("${interledger.hermes.auth.jwt.jwks-url:}") final String jwksUrl,
+    @Value("${interledger.hermes.auth.jwt.jwks-refresh-interval-seconds:300}") final long refreshIntervalSeconds,
+    @Value("${interledger.hermes.auth.jwt.jwks-max-fetches-per-minute:10}") final int maxOnDemandFetchesPerMin
+  ) {
+    final HttpUrl url = jwksUrl.isEmpty()
+      ? HttpUrl.get(issuer).newBuilder().addPathSegments(".well-known/jwks.json").build()
+      : HttpUrl.get(jwksUrl);
+    return new JwksKeyProvider(url.url(), Duration.ofSeconds(refreshIntervalSeconds), maxOnDemandFetchesPerMin);
+  }
+
+  /**
+   * Verifies JWTs locally, so that REST and gRPC requests with forged or mis-issued tokens are rejected without a call
+   * to the Connector. Only created if an issuer is configured; otherwise JWTs are only checked for expiry, and left
+   * for the Connector to verify.
+   *
+   * @param jwksKeyProvider The {@link JwksKeyProvider} for the issuer's keys.
+   * @param issuer          The {@code iss} tokens must have.
+   * @param audience        The {@code aud} tokens must have, if any.
+   *
+   * @return A {@link LocalJwtVerifier}.
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "interledger.hermes.auth.jwt", name = "issuer")
+  public LocalJwtVerifier localJwtVerifier(
+    JwksKeyProvider jwksKeyProvider,
+    @Value("${interledger.hermes.auth.jwt.issuer}") final String issuer,
+    @Value("${interledger.hermes.auth.jwt.audience:}") final String audience
+  ) {
+    return new LocalJwtVerifier(jwksKeyProvider, issuer, Optional.of(audience).filter(value -> !value.isEmpty()));
   }
 
   @Bean
@@ -235,4 +705,68 @@ public class IlpOverHttpConfig {
     return new IlpGrpcMetadataReaderImpl();
   }
 
+  /**
+   * The executor that gRPC calls are handled on, in place of gRPC's default unbounded cached thread pool.
+   *
+   * @param meterRegistry The {@link MeterRegistry} to report executor metrics to.
+   * @param poolSize      The number of threads to handle calls on.
+   * @param queueCapacity The number of call events (arrivals, messages, completions) that may wait for a thread. gRPC
+   *                      can't reject these cleanly, so events beyond this are run by the transport thread that
+   *                      delivered them, which stops it reading further calls for a while: {@link
+   *                      #grpcConcurrencyLimits} is what turns excess calls away, with {@code RESOURCE_EXHAUSTED}.
+   *
+   * @return An {@link ExecutorService}.
+   */
+  @Bean
+  @Qualifier(GRPC_EXECUTOR)
+  public ExecutorService grpcExecutor(
+    MeterRegistry meterRegistry,
+    @Value("${interledger.hermes.grpc.executor.pool-size:50}") final int poolSize,
+    @Value("${interledger.hermes.grpc.executor.queue-capacity:10000}") final int queueCapacity
+  ) {
+    return BoundedExecutors.newCallerRunsExecutor(GRPC_EXECUTOR, poolSize, queueCapacity, meterRegistry);
+  }
+
+  @Bean
+  public GRpcServerBuilderConfigurer grpcServerBuilderConfigurer(@Qualifier(GRPC_EXECUTOR) ExecutorService executor) {
+    return new GRpcServerBuilderConfigurer() {
+      @Override
+      public void configure(ServerBuilder<?> serverBuilder) {
+        serverBuilder.executor(executor);
+      }
+    };
+  }
+
+  /**
+   * Limits how many calls each gRPC service may handle at once, so that a service stuck on a slow Connector or STREAM
+   * call fails fast with {@code RESOURCE_EXHAUSTED} instead of taking every gRPC thread. Keep the sum of the service
+   * limits below the gRPC executor's pool size so that each service always has threads to run on. Balance watches are
+   * limited separately: they last for as long as their clients watch, but hold no thread while they do.
+   *
+   * @param accountsMaxConcurrentCalls       The maximum number of account calls to handle at once.
+   * @param balancesMaxConcurrentCalls       The maximum number of balance calls, other than watches, to handle at once.
+   * @param balanceWatchesMaxConcurrentCalls The maximum number of balance watches to serve at once.
+   * @param paymentsMaxConcurrentCalls       The maximum number of payment calls to handle at once.
+   *
+   * @return A {@link ConcurrencyLimitInterceptor}.
+   */
+  @Bean
+  @GRpcGlobalInterceptor
+  public ConcurrencyLimitInterceptor grpcConcurrencyLimits(
+    @Value("${interledger.hermes.grpc.accounts.max-concurrent-calls:16}") final int accountsMaxConcurrentCalls,
+    @Value("${interledger.hermes.grpc.balances.max-concurrent-calls:16}") final int balancesMaxConcurrentCalls,
+    @Value("${interledger.hermes.grpc.balance-watches.max-concurrent-calls:1000}")
+    final int balanceWatchesMaxConcurrentCalls,
+    @Value("${interledger.hermes.grpc.payments.max-concurrent-calls:16}") final int paymentsMaxConcurrentCalls
+  ) {
+    final Map<String, Integer> maxConcurrentCalls = new HashMap<>();
+    maxConcurrentCalls.put(AccountServiceGrpc.SERVICE_NAME, accountsMaxConcurrentCalls);
+    maxConcurrentCalls.put(BalanceServiceGrpc.SERVICE_NAME, balancesMaxConcurrentCalls);
+    maxConcurrentCalls.put(
+      BalanceServiceGrpc.getWatchBalanceMethod().getFullMethodName(), balanceWatchesMaxConcurrentCalls
+    );
+    maxConcurrentCalls.put(IlpOverHttpServiceGrpc.SERVICE_NAME, paymentsMaxConcurrentCalls);
+    return new ConcurrencyLimitInterceptor(maxConcurrentCalls);
+  }
+
 }
@@ -1,5 +1,8 @@
 package org.interledger.spsp.server.config.web;
 
+import org.interledger.spsp.server.controllers.filters.JwtVerificationFilter;
+import org.interledger.spsp.server.services.LocalJwtVerifier;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -8,6 +11,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
 import org.springframework.security.web.servletapi.SecurityContextHolderAwareRequestFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -15,6 +19,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.zalando.problem.spring.web.advice.security.SecurityProblemSupport;
 
 import java.util.Arrays;
+import java.util.Optional;
 
 @Configuration
 @EnableWebSecurity
@@ -24,6 +29,12 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
   @Autowired
   SecurityProblemSupport problemSupport;
 
+  /**
+   * Present if JWTs are verified locally (see {@code interledger.hermes.auth.jwt.issuer}).
+   */
+  @Autowired
+  Optional<LocalJwtVerifier> localJwtVerifier;
+
   /**
    * Required for auto-injection of {@link org.springframework.security.core.Authentication} into controllers.
    *
@@ -72,6 +83,10 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
       .and()
       .exceptionHandling().authenticationEntryPoint(problemSupport).accessDeniedHandler(problemSupport);
 
+    localJwtVerifier.ifPresent(verifier ->
+      http.addFilterBefore(new JwtVerificationFilter(verifier, problemSupport), AnonymousAuthenticationFilter.class)
+    );
+
     // @formatter:on
   }
 
@@ -9,6 +9,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -16,6 +17,7 @@ import org.springframework.format.FormatterRegistry;
 import org.springframework.http.converter.ByteArrayHttpMessageConverter;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.zalando.problem.ProblemModule;
@@ -35,6 +37,16 @@ public class SpringSpspServerWebMvc implements WebMvcConfigurer {
   @Autowired
   private ObjectMapper objectMapper;
 
+  // Applies to asynchronous endpoints that don't set a timeout of their own, in place of the servlet container's default
+  // (30 seconds on Jetty), which is shorter than a payment's deadline.
+  @Value("${interledger.hermes.web.async-request-timeout-millis:90000}")
+  private long asyncRequestTimeoutMillis;
+
+  @Override
+  public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+    configurer.setDefaultTimeout(asyncRequestTimeoutMillis);
+  }
+
   ////////////////////////
   // HttpMessageConverters
   ////////////////////////
@@ -1,18 +1,29 @@
 package org.interledger.spsp.server.controllers;
 
+import static org.interledger.spsp.server.config.ilp.IlpOverHttpConfig.ACCOUNT_BATCHES;
+import static org.interledger.spsp.server.config.ilp.IlpOverHttpConfig.LOOKUP_BATCHES;
 import static org.interledger.spsp.server.services.HermesUtils.paymentPointerFromSpspUrl;
 import static org.springframework.http.HttpHeaders.AUTHORIZATION;
 
 import org.interledger.connector.accounts.AccountId;
 import org.interledger.connector.accounts.AccountNotFoundProblem;
 import org.interledger.connector.accounts.AccountSettings;
-import org.interledger.connector.client.ConnectorAdminClient;
 import org.interledger.spsp.server.client.AccountSettingsResponse;
+import org.interledger.spsp.server.model.BatchAccountResponse;
+import org.interledger.spsp.server.model.BatchAccountResult;
+import org.interledger.spsp.server.model.BatchCreateAccountRequest;
+import org.interledger.spsp.server.model.BatchCreateAccountResponse;
+import org.interledger.spsp.server.model.BatchCreateAccountResult;
+import org.interledger.spsp.server.model.BatchGetRequest;
 import org.interledger.spsp.server.model.BearerToken;
 import org.interledger.spsp.server.model.CreateAccountRestRequest;
+import org.interledger.spsp.server.services.AccountSettingsCache;
+import org.interledger.spsp.server.services.BatchLookupService;
 import org.interledger.spsp.server.services.NewAccountService;
+import org.interledger.spsp.server.util.BatchLimits;
 
 import okhttp3.HttpUrl;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -21,28 +32,43 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.zalando.problem.spring.common.MediaTypes;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 public class AccountController {
 
   private final NewAccountService newAccountService;
 
-  private final ConnectorAdminClient adminClient;
+  private final AccountSettingsCache accountSettingsCache;
 
   private final HttpUrl spspReceiverUrl;
 
+  private final BatchLookupService batchLookupService;
+
+  private final BatchLimits lookupBatchLimits;
+
+  private final BatchLimits accountBatchLimits;
+
   public AccountController(
     NewAccountService newAccountService,
-    ConnectorAdminClient adminClient,
-    HttpUrl spspReceiverUrl
+    AccountSettingsCache accountSettingsCache,
+    HttpUrl spspReceiverUrl,
+    BatchLookupService batchLookupService,
+    @Qualifier(LOOKUP_BATCHES) BatchLimits lookupBatchLimits,
+    @Qualifier(ACCOUNT_BATCHES) BatchLimits accountBatchLimits
   ) {
     this.newAccountService = Objects.requireNonNull(newAccountService);
-    this.adminClient = Objects.requireNonNull(adminClient);
+    this.accountSettingsCache = Objects.requireNonNull(accountSettingsCache);
     this.spspReceiverUrl = Objects.requireNonNull(spspReceiverUrl);
+    this.batchLookupService = Objects.requireNonNull(batchLookupService);
+    this.lookupBatchLimits = Objects.requireNonNull(lookupBatchLimits);
+    this.accountBatchLimits = Objects.requireNonNull(accountBatchLimits);
   }
 
   @RequestMapping(
@@ -64,6 +90,50 @@ public class AccountController {
       .build();
   }
 
+  /**
+   * Creates each of the accounts in {@code batchCreateAccountRequest}, several at a time. Each account is given its own
+   * generated credentials. The response contains one result per account, in request order; an account that could not
+   * be created is reported in its result rather than failing the whole request. If the batch takes longer than its
+   * configured maximum duration, accounts that haven't been created by then are reported as unfinished. Unlike creating
+   * a single account, this requires a JWT that this server verifies.
+   *
+   * @param authToken                 The caller's credentials.
+   * @param batchCreateAccountRequest The accounts to create.
+   *
+   * @return A {@link BatchCreateAccountResponse}, once every account has been attempted or the batch ran out of time.
+   */
+  @RequestMapping(
+    value = "/accounts:batchCreate", method = {RequestMethod.POST},
+    produces = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.PROBLEM_VALUE}
+  )
+  public @ResponseBody
+  DeferredResult<BatchCreateAccountResponse> createAccounts(
+    @RequestHeader(AUTHORIZATION) Optional<BearerToken> authToken,
+    @RequestBody BatchCreateAccountRequest batchCreateAccountRequest
+  ) {
+    accountBatchLimits.checkSize(batchCreateAccountRequest.accounts().size());
+
+    final List<CreateAccountRestRequest> requests = batchCreateAccountRequest.accounts();
+    final List<CompletableFuture<AccountSettings>> creates = newAccountService.createAccountsAsync(
+      authToken, requests, accountBatchLimits.parallelism(batchCreateAccountRequest.parallelism())
+    );
+    return accountBatchLimits.collect(
+      creates,
+      (index, accountSettings) -> BatchCreateAccountResult.builder()
+        .index(index)
+        .accountId(requests.get(index).accountId().value())
+        .account(accountSettingsResponse(accountSettings))
+        .build(),
+      (index, error) -> BatchCreateAccountResult.builder()
+        .index(index)
+        .accountId(requests.get(index).accountId().value())
+        .error(error)
+        .build(),
+      BatchLimits.UNFINISHED + "; the account may still be created",
+      batchResults -> BatchCreateAccountResponse.builder().results(batchResults).build()
+    );
+  }
+
   @RequestMapping(
     value = "/accounts/{accountId}",
     method = {RequestMethod.GET},
@@ -71,8 +141,8 @@ public class AccountController {
   )
   public @ResponseBody
   AccountSettingsResponse getAccount(@PathVariable("accountId") AccountId accountId) {
-    AccountSettings accountSettings = adminClient.findAccount(accountId.value())
-      .orElseThrow(() -> new AccountNotFoundProblem(AccountId.of(accountId.value())));
+    AccountSettings accountSettings = accountSettingsCache.findAccount(accountId)
+      .orElseThrow(() -> new AccountNotFoundProblem(accountId));
 
     // Add a payment pointer to the response
     return AccountSettingsResponse.builder()
@@ -81,6 +151,45 @@ public class AccountController {
       .build();
   }
 
+  /**
+   * Gets each of the accounts in {@code batchGetRequest}, looking them up concurrently. The response contains one
+   * result per account, in request order; a failed lookup (e.g. an unknown account) is reported in its result rather
+   * than failing the whole request. If the batch takes longer than its configured maximum duration, lookups that
+   * haven't finished by then are reported as unfinished.
+   *
+   * @param batchGetRequest The accounts to look up.
+   *
+   * @return A {@link BatchAccountResponse}, once every lookup has finished or the batch ran out of time.
+   */
+  @RequestMapping(
+    value = "/accounts:batchGet", method = {RequestMethod.POST},
+    produces = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.PROBLEM_VALUE}
+  )
+  public @ResponseBody
+  DeferredResult<BatchAccountResponse> getAccounts(@RequestBody BatchGetRequest batchGetRequest) {
+    lookupBatchLimits.checkSize(batchGetRequest.accountIds().size());
+
+    final List<String> accountIds = batchGetRequest.accountIds();
+    final List<CompletableFuture<AccountSettings>> lookups = batchLookupService.getAccounts(
+      accountIds, lookupBatchLimits.parallelism(batchGetRequest.parallelism())
+    );
+    return lookupBatchLimits.collect(
+      lookups,
+      (index, accountSettings) -> BatchAccountResult.builder()
+        .index(index)
+        .accountId(accountIds.get(index))
+        .account(accountSettingsResponse(accountSettings))
+        .build(),
+      (index, error) -> BatchAccountResult.builder()
+        .index(index)
+        .accountId(accountIds.get(index))
+        .error(error)
+        .build(),
+      BatchLimits.UNFINISHED,
+      batchResults -> BatchAccountResponse.builder().results(batchResults).build()
+    );
+  }
+
   @RequestMapping(
     value = "/accounts/rainmaker", method = {RequestMethod.POST},
     produces = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.PROBLEM_VALUE}
@@ -88,4 +197,12 @@ public class AccountController {
   public AccountSettings createRainmaker() {
     return newAccountService.createRainmaker();
   }
+
+  private AccountSettingsResponse accountSettingsResponse(final AccountSettings accountSettings) {
+    // Add a payment pointer to the response
+    return AccountSettingsResponse.builder()
+      .from(accountSettings)
+      .paymentPointer(paymentPointerFromSpspUrl(spspReceiverUrl, accountSettings.accountId()))
+      .build();
+  }
 }
@@ -1,21 +1,38 @@
 package org.interledger.spsp.server.controllers;
 
+import static org.interledger.spsp.server.config.ilp.IlpOverHttpConfig.LOOKUP_BATCHES;
 import static org.springframework.http.HttpHeaders.AUTHORIZATION;
 
 import org.interledger.connector.accounts.AccountId;
 import org.interledger.spsp.server.client.AccountBalanceResponse;
-import org.interledger.spsp.server.client.ConnectorBalanceClient;
+import org.interledger.spsp.server.model.BatchBalanceResponse;
+import org.interledger.spsp.server.model.BatchBalanceResult;
+import org.interledger.spsp.server.model.BatchGetRequest;
 import org.interledger.spsp.server.model.BearerToken;
+import org.interledger.spsp.server.services.BalanceCache;
+import org.interledger.spsp.server.services.BalanceWatcher;
+import org.interledger.spsp.server.services.BatchLookupService;
+import org.interledger.spsp.server.util.BatchLimits;
+import org.interledger.spsp.server.util.ExceptionHandlerUtils;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.zalando.problem.spring.common.MediaTypes;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -23,10 +40,27 @@ import javax.servlet.http.HttpServletRequest;
 @RestController
 public class BalanceController {
 
-  private ConnectorBalanceClient balanceClient;
+  /**
+   * How long a balance event stream stays open. Browsers' {@code EventSource} reconnects automatically, and this bounds
+   * how long a stream whose client silently went away can linger before its watch is cancelled.
+   */
+  private static final Duration WATCH_TIMEOUT = Duration.ofMinutes(30);
 
-  public BalanceController(ConnectorBalanceClient balanceClient) {
-    this.balanceClient = balanceClient;
+  private BalanceCache balanceCache;
+  private BalanceWatcher balanceWatcher;
+  private BatchLookupService batchLookupService;
+  private BatchLimits lookupBatchLimits;
+
+  public BalanceController(
+    BalanceCache balanceCache,
+    BalanceWatcher balanceWatcher,
+    BatchLookupService batchLookupService,
+    @Qualifier(LOOKUP_BATCHES) BatchLimits lookupBatchLimits
+  ) {
+    this.balanceCache = balanceCache;
+    this.balanceWatcher = balanceWatcher;
+    this.batchLookupService = batchLookupService;
+    this.lookupBatchLimits = lookupBatchLimits;
   }
 
   /**
@@ -45,7 +79,94 @@ public class BalanceController {
     @RequestHeader(AUTHORIZATION) Optional<BearerToken> authorizationHeader,
     @PathVariable("accountId") AccountId accountId
   ) {
-    return balanceClient.getBalance(authorizationHeader, accountId);
+    return balanceCache.getBalance(authorizationHeader, accountId);
+  }
+
+  /**
+   * Streams the {@link AccountBalanceResponse} for the given {@code accountId} as Server-Sent Events: a {@code balance}
+   * event with the current balance, then another each time it changes. If the watch fails (e.g. because the
+   * credentials are rejected), an {@code error} event is sent and the stream is closed.
+   *
+   * @param authorizationHeader The Authorization header as taken from the incoming {@link HttpServletRequest}.
+   * @param accountId           The ILP Connector account identifier for this request.
+   *
+   * @return An {@link SseEmitter} of balance events.
+   */
+  @RequestMapping(
+    value = "/accounts/{accountId}/balance", method = {RequestMethod.GET},
+    produces = {MediaType.TEXT_EVENT_STREAM_VALUE}
+  )
+  public SseEmitter watchBalance(
+    @RequestHeader(AUTHORIZATION) Optional<BearerToken> authorizationHeader,
+    @PathVariable("accountId") AccountId accountId
+  ) {
+    final SseEmitter emitter = new SseEmitter(WATCH_TIMEOUT.toMillis());
+    final BalanceWatcher.Subscription subscription = balanceWatcher.watch(
+      accountId,
+      authorizationHeader,
+      balance -> {
+        try {
+          emitter.send(SseEmitter.event().name("balance").data(balance, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      },
+      error -> {
+        try {
+          emitter.send(SseEmitter.event().name("error").data(ExceptionHandlerUtils.describe(error)));
+          emitter.complete();
+        } catch (IOException e) {
+          emitter.completeWithError(e);
+        }
+      },
+      emitter::complete
+    );
+    emitter.onCompletion(subscription::cancel);
+    emitter.onTimeout(subscription::cancel);
+    emitter.onError(error -> subscription.cancel());
+    return emitter;
+  }
+
+  /**
+   * Gets the {@link AccountBalanceResponse} for each of the accounts in {@code batchGetRequest}, looking them up
+   * concurrently. The response contains one result per account, in request order; a failed lookup is reported in its
+   * result rather than failing the whole request. If the batch takes longer than its configured maximum duration,
+   * lookups that haven't finished by then are reported as unfinished.
+   *
+   * @param authorizationHeader The Authorization header as taken from the incoming {@link HttpServletRequest}.
+   * @param batchGetRequest     The accounts to look up.
+   *
+   * @return A {@link BatchBalanceResponse}, once every lookup has finished or the batch ran out of time.
+   */
+  @RequestMapping(
+    value = "/accounts/balances:batchGet", method = {RequestMethod.POST},
+    produces = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.PROBLEM_VALUE}
+  )
+  public DeferredResult<BatchBalanceResponse> getBalances(
+    @RequestHeader(AUTHORIZATION) Optional<BearerToken> authorizationHeader,
+    @RequestBody BatchGetRequest batchGetRequest
+  ) {
+    lookupBatchLimits.checkSize(batchGetRequest.accountIds().size());
+
+    final List<String> accountIds = batchGetRequest.accountIds();
+    final List<CompletableFuture<AccountBalanceResponse>> lookups = batchLookupService.getBalances(
+      authorizationHeader, accountIds, lookupBatchLimits.parallelism(batchGetRequest.parallelism())
+    );
+    return lookupBatchLimits.collect(
+      lookups,
+      (index, balance) -> BatchBalanceResult.builder()
+        .index(index)
+        .accountId(accountIds.get(index))
+        .balance(balance)
+        .build(),
+      (index, error) -> BatchBalanceResult.builder()
+        .index(index)
+        .accountId(accountIds.get(index))
+        .error(error)
+        .build(),
+      BatchLimits.UNFINISHED,
+      batchResults -> BatchBalanceResponse.builder().results(batchResults).build()
+    );
   }
 
 }
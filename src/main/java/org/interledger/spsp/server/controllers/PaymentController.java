@@ -1,18 +1,23 @@
 package org.interledger.spsp.server.controllers;
 
+import static org.interledger.spsp.server.config.ilp.IlpOverHttpConfig.PAYMENT_BATCHES;
 import static org.interledger.spsp.server.services.AuthUtils.getJwt;
 import static org.springframework.http.HttpHeaders.AUTHORIZATION;
 
 import org.interledger.connector.accounts.AccountId;
 import org.interledger.spsp.PaymentPointer;
+import org.interledger.spsp.server.model.BatchPaymentResponse;
+import org.interledger.spsp.server.model.BatchPaymentResult;
 import org.interledger.spsp.server.model.BearerToken;
+import org.interledger.spsp.server.model.ImmutableBatchPaymentRequest;
 import org.interledger.spsp.server.model.ImmutablePaymentRequest;
 import org.interledger.spsp.server.model.PaymentRequest;
 import org.interledger.spsp.server.model.PaymentResponse;
 import org.interledger.spsp.server.services.SendMoneyService;
+import org.interledger.spsp.server.util.BatchLimits;
 import org.interledger.stream.SendMoneyResult;
 
-import org.springframework.http.HttpStatus;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -20,21 +25,43 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.zalando.problem.spring.common.MediaTypes;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 
 import javax.servlet.http.HttpServletRequest;
 
 @RestController
 public class PaymentController {
 
+  /**
+   * How long a request to send a single payment is kept open. The STREAM sender still settles the packets it has in
+   * flight, and closes its connection, once the payment's own deadline has passed, so this leaves it time to do so.
+   * The servlet container's default (30 seconds on Jetty) is shorter than the payment deadline itself, and would fail
+   * the request while the payment carries on.
+   */
+  static final Duration PAYMENT_RESPONSE_TIMEOUT = SendMoneyService.DEFAULT_TIMEOUT.plusSeconds(30);
+
+  static final String UNFINISHED_PAYMENT =
+    "Payment did not finish within the batch's time limit and was abandoned; some of it may have been sent";
+
   private final SendMoneyService sendMoneyService;
 
-  public PaymentController(SendMoneyService sendMoneyService) {
+  private final BatchLimits paymentBatchLimits;
+
+  public PaymentController(
+    SendMoneyService sendMoneyService,
+    @Qualifier(PAYMENT_BATCHES) BatchLimits paymentBatchLimits
+  ) {
     this.sendMoneyService = sendMoneyService;
+    this.paymentBatchLimits = Objects.requireNonNull(paymentBatchLimits);
   }
 
   /**
@@ -51,29 +78,95 @@ public class PaymentController {
     consumes = MediaType.APPLICATION_JSON_VALUE,
     produces = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.PROBLEM_VALUE}
   )
-  public PaymentResponse sendPayment(
+  public DeferredResult<PaymentResponse> sendPayment(
     @RequestHeader(AUTHORIZATION) Optional<BearerToken> authorizationHeader,
     @PathVariable("accountId") AccountId accountId,
     @RequestBody ImmutablePaymentRequest paymentRequest
   ) {
-    try {
-      getJwt(authorizationHeader); // hack to make sure JWT isn't expired
-      SendMoneyResult result = sendMoneyService.sendMoney(
-        accountId,
-        authorizationHeader,
-        paymentRequest.amount(),
-        PaymentPointer.of(paymentRequest.destinationPaymentPointer())
-      );
-
-      return PaymentResponse.builder()
-        .amountDelivered(result.amountDelivered())
-        .amountSent(result.amountSent())
-        .originalAmount(result.originalAmount())
-        .successfulPayment(result.successfulPayment())
-        .build();
-    } catch (ExecutionException | InterruptedException e) {
-      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage(), e);
-    }
+    getJwt(authorizationHeader); // hack to make sure JWT isn't expired
+
+    // The servlet thread is released while the payment is in flight; Spring completes the response asynchronously.
+    final CompletableFuture<SendMoneyResult> payment = sendMoneyService.sendMoneyAsync(
+      accountId,
+      authorizationHeader,
+      paymentRequest.amount(),
+      PaymentPointer.of(paymentRequest.destinationPaymentPointer())
+    );
+
+    final DeferredResult<PaymentResponse> response = new DeferredResult<>(PAYMENT_RESPONSE_TIMEOUT.toMillis());
+    response.onTimeout(() -> {
+      response.setErrorResult(new TimeoutException("Payment did not finish within " + PAYMENT_RESPONSE_TIMEOUT));
+      payment.cancel(true);
+    });
+    payment.whenComplete((result, error) -> {
+      if (error != null) {
+        response.setErrorResult(error instanceof CompletionException && error.getCause() != null
+          ? error.getCause()
+          : error);
+      } else {
+        response.setResult(toPaymentResponse(result));
+      }
+    });
+    return response;
+  }
+
+  /**
+   * Sends a batch of payments from the given account, running up to a configured number of them concurrently. If the
+   * batch takes longer than its configured maximum duration, the response has the results of the payments that have
+   * finished, and every other payment is abandoned and reported as unfinished.
+   *
+   * @param authorizationHeader The Authorization header as taken from the incoming {@link HttpServletRequest}.
+   * @param accountId           The ILP Connector account identifier for this request.
+   * @param batchPaymentRequest A {@link BatchPaymentRequest}.
+   *
+   * @return A {@link BatchPaymentResponse} with a result for every payment, in request order.
+   */
+  @RequestMapping(
+    value = "/accounts/{accountId}/pay/batch", method = {RequestMethod.POST},
+    consumes = MediaType.APPLICATION_JSON_VALUE,
+    produces = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.PROBLEM_VALUE}
+  )
+  public DeferredResult<BatchPaymentResponse> sendPaymentBatch(
+    @RequestHeader(AUTHORIZATION) Optional<BearerToken> authorizationHeader,
+    @PathVariable("accountId") AccountId accountId,
+    @RequestBody ImmutableBatchPaymentRequest batchPaymentRequest
+  ) {
+    getJwt(authorizationHeader); // hack to make sure JWT isn't expired
+    paymentBatchLimits.checkSize(batchPaymentRequest.payments().size());
+
+    final List<PaymentRequest> payments = batchPaymentRequest.payments();
+    final List<CompletableFuture<SendMoneyResult>> sends = sendMoneyService.sendMoneyBatchAsync(
+      accountId,
+      authorizationHeader,
+      payments,
+      paymentBatchLimits.parallelism(batchPaymentRequest.parallelism()),
+      paymentBatchLimits.getMaxDuration()
+    );
+
+    return paymentBatchLimits.collect(
+      sends,
+      (index, result) -> BatchPaymentResult.builder()
+        .index(index)
+        .destinationPaymentPointer(payments.get(index).destinationPaymentPointer())
+        .payment(toPaymentResponse(result))
+        .build(),
+      (index, error) -> BatchPaymentResult.builder()
+        .index(index)
+        .destinationPaymentPointer(payments.get(index).destinationPaymentPointer())
+        .error(error)
+        .build(),
+      UNFINISHED_PAYMENT,
+      batchResults -> BatchPaymentResponse.builder().results(batchResults).build()
+    );
+  }
+
+  private PaymentResponse toPaymentResponse(final SendMoneyResult result) {
+    return PaymentResponse.builder()
+      .amountDelivered(result.amountDelivered())
+      .amountSent(result.amountSent())
+      .originalAmount(result.originalAmount())
+      .successfulPayment(result.successfulPayment())
+      .build();
   }
 
 }
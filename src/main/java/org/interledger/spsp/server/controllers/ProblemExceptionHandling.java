@@ -6,13 +6,20 @@ import feign.FeignException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.zalando.problem.Problem;
+import org.zalando.problem.Status;
 import org.zalando.problem.StatusType;
 import org.zalando.problem.ThrowableProblem;
 import org.zalando.problem.spring.web.advice.ProblemHandling;
 import org.zalando.problem.spring.web.advice.security.SecurityAdviceTrait;
 
 import java.net.URI;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 @ControllerAdvice
 class ProblemExceptionHandling implements ProblemHandling, SecurityAdviceTrait {
@@ -39,4 +46,20 @@ class ProblemExceptionHandling implements ProblemHandling, SecurityAdviceTrait {
       return problem;
     }
   }
+
+  /**
+   * Work that was rejected because a bounded executor is saturated is reported to clients as 429 so that they back
+   * off and retry.
+   */
+  @ExceptionHandler
+  public ResponseEntity<Problem> handleRejectedExecution(
+    final RejectedExecutionException exception, final NativeWebRequest request
+  ) {
+    return create(Status.TOO_MANY_REQUESTS, exception, request);
+  }
+
+  @ExceptionHandler
+  public ResponseEntity<Problem> handleTimeout(final TimeoutException exception, final NativeWebRequest request) {
+    return create(Status.GATEWAY_TIMEOUT, exception, request);
+  }
 }
@@ -0,0 +1,81 @@
+package org.interledger.spsp.server.controllers.filters;
+
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+
+import org.interledger.spsp.server.model.BearerToken;
+import org.interledger.spsp.server.services.AuthUtils;
+import org.interledger.spsp.server.services.LocalJwtVerifier;
+
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Security filter that verifies JWT bearer tokens with a {@link LocalJwtVerifier}, so that forged, mis-issued or
+ * expired tokens are answered with a 401 without reaching a controller (or the Connector). Any bearer token with the
+ * shape of a JWT is verified as one, whether it's in the {@code Authorization} header or a {@code jwt} cookie; other
+ * (SIMPLE) bearer tokens, and requests without one, are passed on as before.
+ */
+public class JwtVerificationFilter extends OncePerRequestFilter {
+
+  private final LocalJwtVerifier jwtVerifier;
+  private final AuthenticationEntryPoint authenticationEntryPoint;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param jwtVerifier              The {@link LocalJwtVerifier} to verify JWTs with.
+   * @param authenticationEntryPoint The {@link AuthenticationEntryPoint} that writes the response to rejected requests.
+   */
+  public JwtVerificationFilter(
+    final LocalJwtVerifier jwtVerifier, final AuthenticationEntryPoint authenticationEntryPoint
+  ) {
+    this.jwtVerifier = Objects.requireNonNull(jwtVerifier);
+    this.authenticationEntryPoint = Objects.requireNonNull(authenticationEntryPoint);
+  }
+
+  @Override
+  protected void doFilterInternal(
+    HttpServletRequest request, HttpServletResponse response, FilterChain filterChain
+  ) throws ServletException, IOException {
+    try {
+      // Parsing rejects malformed (e.g. empty) bearer tokens, which must be answered with a 401 too.
+      bearerToken(request).ifPresent(jwtVerifier::verify);
+    } catch (AuthenticationException e) {
+      authenticationEntryPoint.commence(request, response, e);
+      return;
+    }
+    filterChain.doFilter(request, response);
+  }
+
+  /**
+   * The bearer token the request will be handled with. This filter runs in the security filter chain, before {@link
+   * CookieAuthenticationFilter} copies a JWT cookie into the {@code Authorization} header, so the cookie is read here
+   * too, with the same precedence.
+   */
+  private Optional<BearerToken> bearerToken(final HttpServletRequest request) {
+    final String authorization = request.getHeader(AUTHORIZATION);
+    if (authorization != null) {
+      return Optional.of(authorization)
+        .filter(value -> value.startsWith(BearerToken.BEARER_SPACE))
+        .map(BearerToken::fromBearerTokenValue);
+    }
+    return Optional.ofNullable(request.getCookies())
+      .flatMap(cookies -> Arrays.stream(cookies)
+        .filter(cookie -> cookie.getName().equals(AuthUtils.JWT_COOKIE_NAME))
+        .map(Cookie::getValue)
+        .findFirst())
+      .map(BearerToken::fromRawToken);
+  }
+}
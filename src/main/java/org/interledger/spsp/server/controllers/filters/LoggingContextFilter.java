@@ -0,0 +1,74 @@
+package org.interledger.spsp.server.controllers.filters;
+
+import org.interledger.spsp.server.util.LoggingContext;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpFilter;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Request filter that puts the request's trace id (from the {@value #TRACE_CONTEXT_HEADER} header that GCP load
+ * balancers add) and the account it addresses (from an {@code /accounts/{accountId}} path) into the logging MDC for the
+ * duration of the request, so that every log entry written while handling it can be correlated. Work the request
+ * hands off to a {@link org.interledger.spsp.server.util.BoundedExecutors bounded executor} carries these entries with
+ * it; {@link org.interledger.spsp.server.grpc.LoggingContextInterceptor} does the same for gRPC calls.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class LoggingContextFilter extends HttpFilter implements Filter {
+
+  public static final String TRACE_ID = "traceId";
+  public static final String ACCOUNT_ID = "accountId";
+
+  public static final String TRACE_CONTEXT_HEADER = "X-Cloud-Trace-Context";
+
+  private static final String ACCOUNTS_PATH = "/accounts/";
+
+  @Override
+  public void doFilter(
+    HttpServletRequest servletRequest, HttpServletResponse servletResponse, FilterChain filterChain
+  ) throws IOException, ServletException {
+    final Map<String, String> entries = new HashMap<>();
+    traceId(servletRequest.getHeader(TRACE_CONTEXT_HEADER)).ifPresent(id -> entries.put(TRACE_ID, id));
+    accountId(servletRequest.getRequestURI()).ifPresent(id -> entries.put(ACCOUNT_ID, id));
+    // Restores rather than removes, in case the container runs this filter on a thread that already has these set.
+    try (LoggingContext.Scope ignored = LoggingContext.put(entries)) {
+      filterChain.doFilter(servletRequest, servletResponse);
+    }
+  }
+
+  /**
+   * The trace id of an {@code X-Cloud-Trace-Context: TRACE_ID/SPAN_ID;o=TRACE_TRUE} header.
+   */
+  public static Optional<String> traceId(String traceContext) {
+    if (traceContext == null || traceContext.isEmpty()) {
+      return Optional.empty();
+    }
+    final int end = traceContext.indexOf('/');
+    return Optional.of(end == -1 ? traceContext : traceContext.substring(0, end)).filter(id -> !id.isEmpty());
+  }
+
+  /**
+   * The account id of an {@code /accounts/{accountId}} or {@code /accounts/{accountId}/...} path.
+   */
+  static Optional<String> accountId(String requestUri) {
+    if (requestUri == null || !requestUri.startsWith(ACCOUNTS_PATH)) {
+      return Optional.empty();
+    }
+    final int end = requestUri.indexOf('/', ACCOUNTS_PATH.length());
+    return Optional.of(requestUri.substring(ACCOUNTS_PATH.length(), end == -1 ? requestUri.length() : end))
+      .filter(id -> !id.isEmpty());
+  }
+}
@@ -0,0 +1,221 @@
+package org.interledger.spsp.server.gcp;
+
+import static ch.qos.logback.classic.Level.DEBUG_INT;
+import static ch.qos.logback.classic.Level.ERROR_INT;
+import static ch.qos.logback.classic.Level.INFO_INT;
+import static ch.qos.logback.classic.Level.TRACE_INT;
+import static ch.qos.logback.classic.Level.WARN_INT;
+
+import org.interledger.spsp.server.controllers.filters.LoggingContextFilter;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.encoder.EncoderBase;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * <p>Encodes log events as single-line JSON entries that GCP Cloud Logging (Stackdriver) understands: {@code
+ * severity}, {@code message} (including any stack trace), {@code timestamp}, {@code thread} and {@code logger}.</p>
+ *
+ * <p>The MDC's trace id (see {@link LoggingContextFilter}) is written as the entry's {@code
+ * logging.googleapis.com/trace}, qualified with {@link #setProjectId(String)} if one is configured, and every other
+ * MDC entry (such as the account id) as one of its {@code logging.googleapis.com/labels}, so entries can be filtered
+ * by request or account.</p>
+ *
+ * <p>Unlike {@link GCPCloudLoggingJSONLayout}, nothing is formatted into intermediate strings or objects: fields are
+ * streamed with a {@link JsonGenerator} into a buffer that each thread reuses from one event to the next, so the only
+ * per-event allocations are the message itself and the encoded bytes handed to the appender (which {@link
+ * #encode(ILoggingEvent, OutputStream)} avoids too).</p>
+ */
+public class GCPCloudLoggingJSONEncoder extends EncoderBase<ILoggingEvent> {
+
+  static final String TRACE_FIELD = "logging.googleapis.com/trace";
+  static final String LABELS_FIELD = "logging.googleapis.com/labels";
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+  private static final byte[] EMPTY = new byte[0];
+  private static final char NEWLINE = '\n';
+
+  /**
+   * Buffers that grew beyond this (e.g. for a deep stack trace) are dropped rather than held on to by their thread.
+   */
+  private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+  private final ThreadLocal<Buffer> buffers = ThreadLocal.withInitial(Buffer::new);
+
+  private String traceIdMdcKey = LoggingContextFilter.TRACE_ID;
+  private String projectId;
+
+  /**
+   * Set the MDC key holding the trace id. Defaults to {@link LoggingContextFilter#TRACE_ID}.
+   *
+   * @param traceIdMdcKey An MDC key.
+   */
+  public void setTraceIdMdcKey(String traceIdMdcKey) {
+    this.traceIdMdcKey = traceIdMdcKey;
+  }
+
+  /**
+   * Set the GCP project that traces belong to, so that trace ids are written as {@code projects/{projectId}/traces/{id}}
+   * and linked to Cloud Trace. If not set (or empty), trace ids are written as-is.
+   *
+   * @param projectId A GCP project id.
+   */
+  public void setProjectId(String projectId) {
+    this.projectId = projectId == null || projectId.isEmpty() ? null : projectId;
+  }
+
+  @Override
+  public byte[] headerBytes() {
+    return EMPTY;
+  }
+
+  @Override
+  public byte[] encode(ILoggingEvent event) {
+    final Buffer buffer = buffers.get();
+    try {
+      buffer.write(event);
+      return buffer.bytes.toByteArray();
+    } catch (IOException e) {
+      // Only possible if the event can't be represented as JSON at all.
+      addError("Unable to encode log event", e);
+      return EMPTY;
+    } finally {
+      release(buffer);
+    }
+  }
+
+  /**
+   * Encode {@code event} directly onto {@code out}, without copying it into a new array first.
+   *
+   * @param event The {@link ILoggingEvent} to encode.
+   * @param out   The {@link OutputStream} to write the encoded entry, including its trailing newline, to.
+   *
+   * @throws IOException If {@code out} could not be written to.
+   */
+  public void encode(ILoggingEvent event, OutputStream out) throws IOException {
+    final Buffer buffer = buffers.get();
+    try {
+      buffer.write(event);
+      buffer.bytes.writeTo(out);
+    } finally {
+      release(buffer);
+    }
+  }
+
+  @Override
+  public byte[] footerBytes() {
+    return EMPTY;
+  }
+
+  private void release(Buffer buffer) {
+    // A generator that failed part way through an entry can't be reused.
+    if (buffer.bytes.size() > MAX_RETAINED_BUFFER_SIZE || !buffer.generator.getOutputContext().inRoot()) {
+      buffers.remove();
+    } else {
+      buffer.bytes.reset();
+    }
+  }
+
+  private static String mapLevelToGCPSeverity(Level level) {
+    switch (level.toInt()) {
+      case TRACE_INT:
+      case DEBUG_INT:
+        return "DEBUG";
+      case INFO_INT:
+        return "INFO";
+      case WARN_INT:
+        return "WARNING";
+      case ERROR_INT:
+        return "ERROR";
+      default:
+        return "DEFAULT";
+    }
+  }
+
+  /**
+   * A thread's reusable output buffer, and a generator that writes into it.
+   */
+  private final class Buffer {
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+    private final JsonGenerator generator;
+
+    private Buffer() {
+      try {
+        generator = JSON_FACTORY.createGenerator(bytes);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      // Entries are separated by newlines, which are written explicitly.
+      generator.setRootValueSeparator(null);
+    }
+
+    private void write(ILoggingEvent event) throws IOException {
+      generator.writeStartObject();
+      generator.writeStringField("severity", mapLevelToGCPSeverity(event.getLevel()));
+      writeMessage(event);
+
+      final long millisSinceEpoch = event.getTimeStamp();
+      generator.writeObjectFieldStart("timestamp");
+      generator.writeNumberField("seconds", millisSinceEpoch / 1000L);
+      generator.writeNumberField("nanos", ((int) (millisSinceEpoch % 1000)) * 1_000_000);
+      generator.writeEndObject();
+
+      generator.writeStringField("thread", event.getThreadName());
+      generator.writeStringField("logger", event.getLoggerName());
+      writeMdc(event.getMDCPropertyMap());
+      generator.writeEndObject();
+
+      // JSON string escaping guarantees there are no other newlines, so that each entry is on a line of its own.
+      generator.writeRaw(NEWLINE);
+      generator.flush();
+    }
+
+    private void writeMessage(ILoggingEvent event) throws IOException {
+      final IThrowableProxy throwableProxy = event.getThrowableProxy();
+      if (throwableProxy == null) {
+        generator.writeStringField("message", event.getFormattedMessage());
+      } else {
+        // Cloud Error Reporting picks up stack traces that follow the message.
+        generator.writeStringField("message",
+          event.getFormattedMessage() + NEWLINE + ThrowableProxyUtil.asString(throwableProxy));
+      }
+    }
+
+    private void writeMdc(Map<String, String> mdc) throws IOException {
+      if (mdc == null || mdc.isEmpty()) {
+        return;
+      }
+
+      final String traceId = mdc.get(traceIdMdcKey);
+      if (traceId != null) {
+        generator.writeFieldName(TRACE_FIELD);
+        if (projectId == null) {
+          generator.writeString(traceId);
+        } else {
+          generator.writeString("projects/" + projectId + "/traces/" + traceId);
+        }
+      }
+
+      if (mdc.size() > (traceId == null ? 0 : 1)) {
+        generator.writeObjectFieldStart(LABELS_FIELD);
+        for (Map.Entry<String, String> entry : mdc.entrySet()) {
+          if (!entry.getKey().equals(traceIdMdcKey)) {
+            generator.writeStringField(entry.getKey(), entry.getValue());
+          }
+        }
+        generator.writeEndObject();
+      }
+    }
+  }
+}
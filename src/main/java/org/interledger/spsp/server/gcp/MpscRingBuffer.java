@@ -0,0 +1,95 @@
+package org.interledger.spsp.server.gcp;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>A bounded, lock-free queue for many producers and a single consumer.</p>
+ *
+ * <p>Each slot carries a sequence number that says whose turn it is: producers claim the next slot by advancing the
+ * tail with a CAS, publish their element and then bump the slot's sequence, which is what the consumer waits for. A
+ * producer that finds its slot not yet consumed knows the buffer is full, so neither side ever takes a lock or
+ * allocates.</p>
+ *
+ * @param <E> The type of elements held.
+ */
+final class MpscRingBuffer<E> {
+
+  private final int capacity;
+  private final int mask;
+  private final AtomicReferenceArray<E> elements;
+  private final AtomicLongArray sequences;
+  private final AtomicLong tail = new AtomicLong();
+
+  // Only read and written by the consumer thread.
+  private long head;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param capacity The maximum number of elements held, rounded up to a power of two.
+   */
+  MpscRingBuffer(final int capacity) {
+    if (capacity < 1 || capacity > (1 << 30)) {
+      throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+    }
+    this.capacity = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+    this.mask = this.capacity - 1;
+    this.elements = new AtomicReferenceArray<>(this.capacity);
+    this.sequences = new AtomicLongArray(this.capacity);
+    for (int i = 0; i < this.capacity; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  int capacity() {
+    return capacity;
+  }
+
+  /**
+   * Add {@code element}, if there is room. Safe to call from any thread.
+   *
+   * @param element The element to add.
+   *
+   * @return {@code true} if it was added, or {@code false} if the buffer is full.
+   */
+  boolean offer(final E element) {
+    while (true) {
+      final long position = tail.get();
+      final int index = (int) (position & mask);
+      final long difference = sequences.get(index) - position;
+      if (difference == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          elements.lazySet(index, element);
+          // Publishes the element to the consumer.
+          sequences.set(index, position + 1);
+          return true;
+        }
+      } else if (difference < 0) {
+        // The consumer hasn't freed this slot since the last time around.
+        return false;
+      }
+      // Otherwise another producer claimed this position first; try the next one.
+    }
+  }
+
+  /**
+   * Remove the oldest element. Must only be called from the single consumer thread.
+   *
+   * @return The oldest element, or {@code null} if the buffer is empty (or its oldest element is still being
+   *   published).
+   */
+  E poll() {
+    final int index = (int) (head & mask);
+    if (sequences.get(index) != head + 1) {
+      return null;
+    }
+    final E element = elements.get(index);
+    elements.lazySet(index, null);
+    // Frees the slot for the producer that will claim it on the next lap.
+    sequences.set(index, head + capacity);
+    head++;
+    return element;
+  }
+}
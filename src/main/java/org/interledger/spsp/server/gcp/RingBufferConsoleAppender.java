@@ -0,0 +1,297 @@
+package org.interledger.spsp.server.gcp;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.encoder.Encoder;
+import ch.qos.logback.core.joran.spi.ConsoleTarget;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Metrics;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>Console appender that hands log events to a single writer thread through a lock-free ring buffer, so that
+ * logging threads never contend on a lock or wait on stdout. The writer encodes events in arrival order and writes
+ * them in batches, flushing whenever it catches up.</p>
+ *
+ * <p>When the ring buffer is full, events are either dropped (the default) or their threads wait for room, depending
+ * on {@link #setOverflowPolicy(OverflowPolicy)}. Events at or above {@link #setNeverDropLevel(Level)} (WARN by default)
+ * are never dropped: their threads always wait for room, so a burst of INFO logging can't hide the warnings and errors
+ * that explain it. Dropped events are counted by the {@value #DROPPED_METRIC_NAME}
+ * counter (registered with Micrometer's global registry, which Spring Boot's registries are added to) and reported in
+ * logback's status when the appender stops.</p>
+ *
+ * <p>Stopping the appender, including from the shutdown hook it registers while started, writes out every event
+ * already in the ring buffer (waiting up to {@link #setMaxDrainMillis(long)}) before returning.</p>
+ */
+public class RingBufferConsoleAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+  public static final String DROPPED_METRIC_NAME = "hermes.logging.dropped-events";
+
+  /**
+   * What to do with an event when the ring buffer is full.
+   */
+  public enum OverflowPolicy {
+    /**
+     * Discard the event, so that logging never slows the application down, unless it is at or above the never-drop
+     * level.
+     */
+    DROP,
+    /**
+     * Wait for the writer to make room, so that no event is lost.
+     */
+    BLOCK
+  }
+
+  // How long the writer sleeps when it has nothing to do, unless woken by a new event.
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+  // How long a blocked producer waits before checking for room again.
+  private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+  private final LongAdder dropped = new LongAdder();
+
+  private Encoder<ILoggingEvent> encoder;
+  private OutputStream consoleStream = ConsoleTarget.SystemOut.getStream();
+  private int capacity = 8192;
+  private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+  private Level neverDropLevel = Level.WARN;
+  private int outputBufferSize = 64 * 1024;
+  private long maxDrainMillis = 5000;
+
+  private MpscRingBuffer<ILoggingEvent> ringBuffer;
+  private OutputStream output;
+  private Thread writer;
+  private volatile boolean writerParked;
+  private boolean writeErrorReported;
+  private Thread shutdownHook;
+  private FunctionCounter droppedCounter;
+
+  public void setEncoder(Encoder<ILoggingEvent> encoder) {
+    this.encoder = encoder;
+  }
+
+  /**
+   * Set the number of events the ring buffer holds, rounded up to a power of two. Defaults to 8192.
+   *
+   * @param capacity A number of events.
+   */
+  public void setCapacity(int capacity) {
+    this.capacity = capacity;
+  }
+
+  /**
+   * Set what to do with events when the ring buffer is full. Defaults to {@link OverflowPolicy#DROP}.
+   *
+   * @param overflowPolicy An {@link OverflowPolicy}.
+   */
+  public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+    this.overflowPolicy = overflowPolicy;
+  }
+
+  /**
+   * Set the level at and above which events wait for room instead of being dropped, whatever the overflow policy.
+   * Defaults to WARN; set to OFF to allow events of every level to be dropped.
+   *
+   * @param neverDropLevel A {@link Level}.
+   */
+  public void setNeverDropLevel(Level neverDropLevel) {
+    this.neverDropLevel = neverDropLevel;
+  }
+
+  /**
+   * Set the number of bytes the writer buffers before writing to the console. Defaults to 64KB.
+   *
+   * @param outputBufferSize A buffer size in bytes.
+   */
+  public void setOutputBufferSize(int outputBufferSize) {
+    this.outputBufferSize = outputBufferSize;
+  }
+
+  /**
+   * Set how long stopping the appender waits for events already in the ring buffer to be written. Defaults to 5000ms.
+   *
+   * @param maxDrainMillis A number of milliseconds.
+   */
+  public void setMaxDrainMillis(long maxDrainMillis) {
+    this.maxDrainMillis = maxDrainMillis;
+  }
+
+  protected void setConsoleStream(OutputStream consoleStream) {
+    this.consoleStream = consoleStream;
+  }
+
+  /**
+   * The number of events dropped because the ring buffer was full.
+   *
+   * @return A long.
+   */
+  public long getDroppedCount() {
+    return dropped.sum();
+  }
+
+  @Override
+  public void start() {
+    if (isStarted()) {
+      return;
+    }
+    if (encoder == null) {
+      addError("No encoder set for the appender named \"" + name + "\".");
+      return;
+    }
+
+    ringBuffer = new MpscRingBuffer<>(capacity);
+    output = new BufferedOutputStream(consoleStream, outputBufferSize);
+    writer = new Thread(this::write, "log-writer-" + name);
+    writer.setDaemon(true);
+    super.start();
+    writer.start();
+
+    shutdownHook = new Thread(this::stop, "log-writer-" + name + "-shutdown");
+    Runtime.getRuntime().addShutdownHook(shutdownHook);
+    droppedCounter = FunctionCounter.builder(DROPPED_METRIC_NAME, dropped, LongAdder::sum)
+      .description("Log events dropped because the appender's ring buffer was full")
+      .tag("appender", name)
+      .register(Metrics.globalRegistry);
+  }
+
+  @Override
+  protected void append(ILoggingEvent event) {
+    // Capture everything that depends on the logging thread (MDC, thread name, formatted message) before handing over.
+    event.prepareForDeferredProcessing();
+    if (ringBuffer.offer(event)) {
+      wakeWriter();
+      return;
+    }
+
+    if (overflowPolicy == OverflowPolicy.BLOCK || event.getLevel().isGreaterOrEqual(neverDropLevel)) {
+      while (isStarted() && !Thread.currentThread().isInterrupted()) {
+        wakeWriter();
+        LockSupport.parkNanos(this, FULL_PARK_NANOS);
+        if (ringBuffer.offer(event)) {
+          wakeWriter();
+          return;
+        }
+      }
+    }
+    dropped.increment();
+  }
+
+  @Override
+  public void stop() {
+    if (!isStarted()) {
+      return;
+    }
+    // The writer drains whatever is left once it sees the appender has stopped.
+    super.stop();
+    LockSupport.unpark(writer);
+    try {
+      writer.join(maxDrainMillis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (writer.isAlive()) {
+      addWarn("Gave up waiting for log events to be written after " + maxDrainMillis + "ms");
+    }
+    if (dropped.sum() > 0) {
+      addWarn(dropped.sum() + " log events were dropped because the ring buffer was full");
+    }
+
+    try {
+      Runtime.getRuntime().removeShutdownHook(shutdownHook);
+    } catch (IllegalStateException e) {
+      // Already shutting down, possibly in this very hook.
+    }
+    Metrics.globalRegistry.remove(droppedCounter);
+  }
+
+  private void wakeWriter() {
+    if (writerParked) {
+      LockSupport.unpark(writer);
+    }
+  }
+
+  /**
+   * The writer thread's loop: write events as they arrive, flushing whenever the ring buffer is empty, until the
+   * appender stops and the ring buffer has been drained.
+   */
+  private void write() {
+    writeBytes(encoder.headerBytes());
+    while (true) {
+      ILoggingEvent event = ringBuffer.poll();
+      if (event != null) {
+        write(event);
+        continue;
+      }
+
+      flush();
+      if (!isStarted()) {
+        break;
+      }
+
+      // Producers only unpark the writer if they see it parked, so check for events again after saying so.
+      writerParked = true;
+      event = ringBuffer.poll();
+      if (event == null) {
+        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+      }
+      writerParked = false;
+      if (event != null) {
+        write(event);
+      }
+    }
+
+    // Stopped: anything appended before the appender stopped is in the ring buffer by now.
+    ILoggingEvent event;
+    while ((event = ringBuffer.poll()) != null) {
+      write(event);
+    }
+    writeBytes(encoder.footerBytes());
+    flush();
+  }
+
+  private void write(ILoggingEvent event) {
+    try {
+      if (encoder instanceof GCPCloudLoggingJSONEncoder) {
+        // Skips copying each entry into a new array.
+        ((GCPCloudLoggingJSONEncoder) encoder).encode(event, output);
+      } else {
+        output.write(encoder.encode(event));
+      }
+    } catch (IOException | RuntimeException e) {
+      reportWriteError(e);
+    }
+  }
+
+  private void writeBytes(byte[] bytes) {
+    if (bytes == null || bytes.length == 0) {
+      return;
+    }
+    try {
+      output.write(bytes);
+    } catch (IOException e) {
+      reportWriteError(e);
+    }
+  }
+
+  private void flush() {
+    try {
+      output.flush();
+    } catch (IOException e) {
+      reportWriteError(e);
+    }
+  }
+
+  private void reportWriteError(Exception e) {
+    // Once is enough: if stdout is broken, every subsequent write will fail the same way.
+    if (!writeErrorReported) {
+      writeErrorReported = true;
+      addError("Unable to write log events", e);
+    }
+  }
+}
@@ -1,29 +1,41 @@
 package org.interledger.spsp.server.grpc;
 
+import static org.interledger.spsp.server.config.ilp.IlpOverHttpConfig.ACCOUNT_BATCHES;
+import static org.interledger.spsp.server.config.ilp.IlpOverHttpConfig.LOOKUP_BATCHES;
+
 import org.interledger.connector.accounts.AccountId;
 import org.interledger.connector.accounts.AccountNotFoundProblem;
 import org.interledger.connector.accounts.AccountSettings;
-import org.interledger.connector.client.ConnectorAdminClient;
 import org.interledger.spsp.server.grpc.auth.IlpGrpcAuthContext;
+import org.interledger.spsp.server.grpc.auth.IlpGrpcPrincipal;
 import org.interledger.spsp.server.grpc.services.AccountRequestResponseConverter;
-import org.interledger.spsp.server.model.BearerToken;
 import org.interledger.spsp.server.model.CreateAccountRestRequest;
 import org.interledger.spsp.server.model.ImmutableCreateAccountRestRequest;
+import org.interledger.spsp.server.services.AccountGeneratorService;
+import org.interledger.spsp.server.services.AccountSettingsCache;
+import org.interledger.spsp.server.services.BatchLookupService;
 import org.interledger.spsp.server.services.NewAccountService;
+import org.interledger.spsp.server.util.BatchLimits;
+import org.interledger.spsp.server.util.BatchStreams;
 import org.interledger.spsp.server.util.ExceptionHandlerUtils;
+import org.interledger.spsp.server.util.FlowControlledStreamObserver;
 
 import io.grpc.stub.StreamObserver;
 import okhttp3.HttpUrl;
 import org.lognet.springboot.grpc.GRpcService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 @GRpcService
 public class AccountGrpcHandler extends AccountServiceGrpc.AccountServiceImplBase {
 
   @Autowired
-  protected ConnectorAdminClient adminClient;
+  protected AccountSettingsCache accountSettingsCache;
 
   @Autowired
   protected NewAccountService newAccountService;
@@ -37,10 +49,21 @@ public class AccountGrpcHandler extends AccountServiceGrpc.AccountServiceImplBas
   @Autowired
   protected ExceptionHandlerUtils exceptionHandlerUtils;
 
+  @Autowired
+  protected BatchLookupService batchLookupService;
+
+  @Autowired
+  @Qualifier(LOOKUP_BATCHES)
+  protected BatchLimits lookupBatchLimits;
+
+  @Autowired
+  @Qualifier(ACCOUNT_BATCHES)
+  protected BatchLimits accountBatchLimits;
+
   @Override
   public void getAccount(GetAccountRequest request, StreamObserver<GetAccountResponse> responseObserver) {
     try {
-      GetAccountResponse accountResponse = adminClient.findAccount(request.getAccountId())
+      GetAccountResponse accountResponse = accountSettingsCache.findAccount(AccountId.of(request.getAccountId()))
         .map(account -> AccountRequestResponseConverter
           .createGetAccountResponseFromAccountSettings(account, spspReceiverUrl))
         .orElseThrow(() -> new AccountNotFoundProblem(AccountId.of(request.getAccountId())));
@@ -54,6 +77,39 @@ public class AccountGrpcHandler extends AccountServiceGrpc.AccountServiceImplBas
 
   }
 
+  @Override
+  public void getAccounts(GetAccountsRequest request, StreamObserver<GetAccountsResult> responseObserver) {
+    // Results are streamed back from whichever thread finished each lookup, as fast as the client reads them.
+    final FlowControlledStreamObserver<GetAccountsResult> observer =
+      FlowControlledStreamObserver.buffering(responseObserver);
+    try {
+      lookupBatchLimits.checkSize(request.getAccountIdsCount());
+      final List<String> accountIds = request.getAccountIdsList();
+      final List<CompletableFuture<AccountSettings>> lookups = batchLookupService.getAccounts(
+        accountIds, lookupBatchLimits.parallelism(Optional.of(request.getParallelism()))
+      );
+
+      BatchStreams.stream(
+        lookups,
+        observer,
+        (index, account) -> GetAccountsResult.newBuilder()
+          .setIndex(index)
+          .setAccountId(accountIds.get(index))
+          .setAccount(
+            AccountRequestResponseConverter.createGetAccountResponseFromAccountSettings(account, spspReceiverUrl)
+          )
+          .build(),
+        (index, error) -> GetAccountsResult.newBuilder()
+          .setIndex(index)
+          .setAccountId(accountIds.get(index))
+          .setError(error)
+          .build()
+      );
+    } catch (Exception e) {
+      exceptionHandlerUtils.handleException(e, observer);
+    }
+  }
+
   @Override
   public void createAccount(CreateAccountRequest request, StreamObserver<CreateAccountResponse> responseObserver) {
     try {
@@ -61,7 +117,7 @@ public class AccountGrpcHandler extends AccountServiceGrpc.AccountServiceImplBas
       Optional<CreateAccountRestRequest> convertedRequest = createAccountRestRequestFromGrpc(request);
       AccountSettings returnedAccountSettings = newAccountService
         .createAccount(
-          Optional.ofNullable(ilpGrpcAuthContext.getAuthorizationHeader()).map(BearerToken::fromBearerTokenValue),
+          ilpGrpcAuthContext.getPrincipal().map(IlpGrpcPrincipal::bearerToken),
           convertedRequest
         );
 
@@ -78,6 +134,45 @@ public class AccountGrpcHandler extends AccountServiceGrpc.AccountServiceImplBas
     }
   }
 
+  @Override
+  public void createAccounts(CreateAccountsRequest request, StreamObserver<CreateAccountsResult> responseObserver) {
+    // Results are streamed back from whichever thread created each account, as fast as the client reads them.
+    final FlowControlledStreamObserver<CreateAccountsResult> observer =
+      FlowControlledStreamObserver.buffering(responseObserver);
+    try {
+      accountBatchLimits.checkSize(request.getAccountsCount());
+      // Validate every account before creating any, so a malformed batch fails as a whole.
+      final List<CreateAccountRestRequest> requests = request.getAccountsList().stream()
+        .map(account -> createAccountRestRequestFromGrpc(account)
+          .orElseGet(AccountGeneratorService::newDefaultCreateAccountRequest))
+        .collect(Collectors.toList());
+
+      final List<CompletableFuture<AccountSettings>> creates = newAccountService.createAccountsAsync(
+        ilpGrpcAuthContext.getPrincipal().map(IlpGrpcPrincipal::bearerToken),
+        requests,
+        accountBatchLimits.parallelism(Optional.of(request.getParallelism()))
+      );
+
+      BatchStreams.stream(
+        creates,
+        observer,
+        (index, accountSettings) -> CreateAccountsResult.newBuilder()
+          .setIndex(index)
+          .setAccountId(requests.get(index).accountId().value())
+          .setAccount(AccountRequestResponseConverter
+            .generateCreateAccountResponseFromAccountSettings(accountSettings, spspReceiverUrl))
+          .build(),
+        (index, error) -> CreateAccountsResult.newBuilder()
+          .setIndex(index)
+          .setAccountId(requests.get(index).accountId().value())
+          .setError(error)
+          .build()
+      );
+    } catch (Exception e) {
+      exceptionHandlerUtils.handleException(e, observer);
+    }
+  }
+
   /**
    * Convert a {@link CreateAccountRequest} into a {@link CreateAccountRestRequest} so that our service level code only
    * has one execution path.
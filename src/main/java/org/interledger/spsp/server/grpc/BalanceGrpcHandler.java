@@ -1,53 +1,125 @@
 package org.interledger.spsp.server.grpc;
 
+import static org.interledger.spsp.server.config.ilp.IlpOverHttpConfig.LOOKUP_BATCHES;
+
 import org.interledger.connector.accounts.AccountId;
 import org.interledger.spsp.server.client.AccountBalanceResponse;
-import org.interledger.spsp.server.client.ConnectorBalanceClient;
 import org.interledger.spsp.server.grpc.auth.IlpGrpcAuthContext;
 import org.interledger.spsp.server.model.BearerToken;
+import org.interledger.spsp.server.services.BalanceCache;
+import org.interledger.spsp.server.services.BalanceWatcher;
+import org.interledger.spsp.server.services.BatchLookupService;
+import org.interledger.spsp.server.util.BatchLimits;
+import org.interledger.spsp.server.util.BatchStreams;
 import org.interledger.spsp.server.util.ExceptionHandlerUtils;
+import org.interledger.spsp.server.util.FlowControlledStreamObserver;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import org.lognet.springboot.grpc.GRpcService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @GRpcService
 public class BalanceGrpcHandler extends BalanceServiceGrpc.BalanceServiceImplBase {
 
   @Autowired
-  protected ConnectorBalanceClient balanceClient;
+  protected BalanceCache balanceCache;
   @Autowired
   protected ObjectMapper objectMapper;
   @Autowired
   protected IlpGrpcAuthContext ilpGrpcAuthContext;
   @Autowired
   protected ExceptionHandlerUtils exceptionHandlerUtils;
+  @Autowired
+  protected BalanceWatcher balanceWatcher;
+  @Autowired
+  protected BatchLookupService batchLookupService;
+  @Autowired
+  @Qualifier(LOOKUP_BATCHES)
+  protected BatchLimits lookupBatchLimits;
 
   @Override
   public void getBalance(GetBalanceRequest request, StreamObserver<GetBalanceResponse> responseObserver) {
     try {
-      Optional<BearerToken> bearerToken =
-        Optional.of(BearerToken.fromBearerTokenValue(ilpGrpcAuthContext.getAuthorizationHeader()));
-      AccountBalanceResponse balanceResponse = balanceClient
+      Optional<BearerToken> bearerToken = Optional.of(ilpGrpcAuthContext.getBearerToken());
+      AccountBalanceResponse balanceResponse = balanceCache
         .getBalance(bearerToken, AccountId.of(request.getAccountId()));
 
-      final GetBalanceResponse reply = GetBalanceResponse.newBuilder()
-        .setAssetScale(balanceResponse.assetScale())
-        .setAssetCode(balanceResponse.assetCode())
-        .setNetBalance(balanceResponse.accountBalance().netBalance().longValue())
-        .setPrepaidAmount(balanceResponse.accountBalance().prepaidAmount())
-        .setClearingBalance(balanceResponse.accountBalance().clearingBalance())
-        .setAccountId(balanceResponse.accountBalance().accountId().value())
-        .build();
-
-      responseObserver.onNext(reply);
+      responseObserver.onNext(getBalanceResponse(balanceResponse));
       responseObserver.onCompleted();
     } catch (Exception e) {
       exceptionHandlerUtils.handleException(e, responseObserver);
     }
   }
 
+  @Override
+  public void watchBalance(GetBalanceRequest request, StreamObserver<GetBalanceResponse> responseObserver) {
+    // Balances are pushed from the watcher's poller threads, and only the latest matters to a client that reads slowly.
+    final FlowControlledStreamObserver<GetBalanceResponse> observer =
+      FlowControlledStreamObserver.conflating(responseObserver);
+    try {
+      Optional<BearerToken> bearerToken = Optional.of(ilpGrpcAuthContext.getBearerToken());
+      final BalanceWatcher.Subscription subscription = balanceWatcher.watch(
+        AccountId.of(request.getAccountId()),
+        bearerToken,
+        balance -> observer.onNext(getBalanceResponse(balance)),
+        error -> exceptionHandlerUtils.handleException(error, observer),
+        // Watches last at most a configured maximum duration; clients are expected to watch again.
+        observer::onCompleted
+      );
+      ((ServerCallStreamObserver<GetBalanceResponse>) responseObserver).setOnCancelHandler(subscription::cancel);
+    } catch (Exception e) {
+      exceptionHandlerUtils.handleException(e, observer);
+    }
+  }
+
+  @Override
+  public void getBalances(GetBalancesRequest request, StreamObserver<GetBalancesResult> responseObserver) {
+    // Results are streamed back from whichever thread finished each lookup, as fast as the client reads them.
+    final FlowControlledStreamObserver<GetBalancesResult> observer =
+      FlowControlledStreamObserver.buffering(responseObserver);
+    try {
+      lookupBatchLimits.checkSize(request.getAccountIdsCount());
+      Optional<BearerToken> bearerToken = Optional.of(ilpGrpcAuthContext.getBearerToken());
+      final List<String> accountIds = request.getAccountIdsList();
+      final List<CompletableFuture<AccountBalanceResponse>> lookups = batchLookupService.getBalances(
+        bearerToken, accountIds, lookupBatchLimits.parallelism(Optional.of(request.getParallelism()))
+      );
+
+      BatchStreams.stream(
+        lookups,
+        observer,
+        (index, balance) -> GetBalancesResult.newBuilder()
+          .setIndex(index)
+          .setAccountId(accountIds.get(index))
+          .setBalance(getBalanceResponse(balance))
+          .build(),
+        (index, error) -> GetBalancesResult.newBuilder()
+          .setIndex(index)
+          .setAccountId(accountIds.get(index))
+          .setError(error)
+          .build()
+      );
+    } catch (Exception e) {
+      exceptionHandlerUtils.handleException(e, observer);
+    }
+  }
+
+  private GetBalanceResponse getBalanceResponse(AccountBalanceResponse balanceResponse) {
+    return GetBalanceResponse.newBuilder()
+      .setAssetScale(balanceResponse.assetScale())
+      .setAssetCode(balanceResponse.assetCode())
+      .setNetBalance(balanceResponse.accountBalance().netBalance().longValue())
+      .setPrepaidAmount(balanceResponse.accountBalance().prepaidAmount())
+      .setClearingBalance(balanceResponse.accountBalance().clearingBalance())
+      .setAccountId(balanceResponse.accountBalance().accountId().value())
+      .build();
+  }
+
 }
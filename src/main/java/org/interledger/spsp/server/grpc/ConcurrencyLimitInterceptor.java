@@ -0,0 +1,136 @@
+package org.interledger.spsp.server.grpc;
+
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Limits how many calls each gRPC service may be handling at once, so that one service stuck on a slow dependency
+ * can't take every thread of the gRPC executor. A call that arrives while its service is at its limit is failed
+ * immediately with {@code RESOURCE_EXHAUSTED} rather than queued.</p>
+ *
+ * <p>A call counts against its service's limit from when it arrives until it is closed, i.e. until it completes or is
+ * cancelled. Streaming handlers that hand work off to their own executors, such as batches, therefore keep counting
+ * for as long as that work streams results back. A method can be given a limit of its own, such as long-lived balance
+ * watches, in which case its calls count against that limit instead of their service's.</p>
+ */
+public class ConcurrencyLimitInterceptor implements ServerInterceptor, MeterBinder {
+
+  public static final String METRIC_NAME = "hermes.grpc.calls";
+
+  private final Map<String, Limit> limits;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param maxConcurrentCalls The maximum number of calls each service may handle at once, by fully-qualified service
+   *                           name (e.g. {@link AccountServiceGrpc#SERVICE_NAME}), or each method, by full method name.
+   *                           Services and methods that aren't included are not limited.
+   */
+  public ConcurrencyLimitInterceptor(final Map<String, Integer> maxConcurrentCalls) {
+    Objects.requireNonNull(maxConcurrentCalls);
+    final Map<String, Limit> limits = new HashMap<>();
+    maxConcurrentCalls.forEach((service, max) -> {
+      if (max < 1) {
+        throw new IllegalArgumentException("maxConcurrentCalls for " + service + " must be at least 1");
+      }
+      limits.put(service, new Limit(max));
+    });
+    this.limits = Collections.unmodifiableMap(limits);
+  }
+
+  @Override
+  public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call,
+                                                               Metadata headers,
+                                                               ServerCallHandler<ReqT, RespT> next) {
+    final String method = call.getMethodDescriptor().getFullMethodName();
+    final String limited = limits.containsKey(method) ? method : call.getMethodDescriptor().getServiceName();
+    final Limit limit = limits.get(limited);
+    if (limit == null) {
+      return next.startCall(call, headers);
+    }
+
+    if (!limit.permits.tryAcquire()) {
+      limit.rejected.increment();
+      call.close(
+        Status.RESOURCE_EXHAUSTED.withDescription(limited + " is already handling " + limit.max + " calls"),
+        new Metadata()
+      );
+      return new ServerCall.Listener<ReqT>() {
+      };
+    }
+
+    final AtomicBoolean released = new AtomicBoolean();
+    final Runnable release = () -> {
+      if (released.compareAndSet(false, true)) {
+        limit.permits.release();
+      }
+    };
+    try {
+      // Every call ends with exactly one of onCancel and onComplete, however and whenever it was closed.
+      return new ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT>(next.startCall(call, headers)) {
+        @Override
+        public void onCancel() {
+          try {
+            super.onCancel();
+          } finally {
+            release.run();
+          }
+        }
+
+        @Override
+        public void onComplete() {
+          try {
+            super.onComplete();
+          } finally {
+            release.run();
+          }
+        }
+      };
+    } catch (RuntimeException e) {
+      release.run();
+      throw e;
+    }
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    limits.forEach((service, limit) -> {
+      Gauge.builder(METRIC_NAME + ".active", limit, l -> l.max - l.permits.availablePermits())
+        .description("Number of calls the service is handling")
+        .tag("service", service)
+        .register(registry);
+      FunctionCounter.builder(METRIC_NAME + ".rejected", limit.rejected, LongAdder::sum)
+        .description("Calls rejected with RESOURCE_EXHAUSTED because the service was at its concurrency limit")
+        .tag("service", service)
+        .register(registry);
+    });
+  }
+
+  private static final class Limit {
+
+    private final int max;
+    private final Semaphore permits;
+    private final LongAdder rejected = new LongAdder();
+
+    private Limit(final int max) {
+      this.max = max;
+      this.permits = new Semaphore(max);
+    }
+  }
+}
@@ -1,20 +1,34 @@
 package org.interledger.spsp.server.grpc;
 
+import static org.interledger.spsp.server.config.ilp.IlpOverHttpConfig.PAYMENT_BATCHES;
+
 import org.interledger.connector.accounts.AccountId;
 import org.interledger.spsp.PaymentPointer;
 import org.interledger.spsp.server.grpc.auth.IlpGrpcAuthContext;
 import org.interledger.spsp.server.grpc.services.AccountRequestResponseConverter;
 import org.interledger.spsp.server.model.BearerToken;
+import org.interledger.spsp.server.model.PaymentRequest;
 import org.interledger.spsp.server.services.SendMoneyService;
+import org.interledger.spsp.server.util.BatchLimits;
+import org.interledger.spsp.server.util.BatchStreams;
 import org.interledger.spsp.server.util.ExceptionHandlerUtils;
+import org.interledger.spsp.server.util.FlowControlledStreamObserver;
 import org.interledger.stream.SendMoneyResult;
 
 import com.google.common.primitives.UnsignedLong;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.grpc.Context;
 import io.grpc.stub.StreamObserver;
 import org.lognet.springboot.grpc.GRpcService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @GRpcService
 public class IlpOverHttpGrpcHandler extends IlpOverHttpServiceGrpc.IlpOverHttpServiceImplBase {
@@ -28,24 +42,143 @@ public class IlpOverHttpGrpcHandler extends IlpOverHttpServiceGrpc.IlpOverHttpSe
   @Autowired
   protected ExceptionHandlerUtils exceptionHandlerUtils;
 
+  @Autowired
+  @Qualifier(PAYMENT_BATCHES)
+  protected BatchLimits paymentBatchLimits;
+
   @Override
   public void sendMoney(SendPaymentRequest request, StreamObserver<SendPaymentResponse> responseObserver) {
-    // Send payment using STREAM
+    // Send payment using STREAM, completing the observer once the payment finishes so the gRPC thread isn't held.
     try {
-      final BearerToken bearerToken = BearerToken.fromBearerTokenValue(ilpGrpcAuthContext.getAuthorizationHeader());
-      final SendMoneyResult result = sendMoneyService.sendMoney(
+      final BearerToken bearerToken = ilpGrpcAuthContext.getBearerToken();
+      cancelWhenAbandoned(sendMoneyService.sendMoneyAsync(
         AccountId.of(request.getAccountId()),
         Optional.of(bearerToken),
         UnsignedLong.valueOf(request.getAmount()),
-        PaymentPointer.of(request.getDestinationPaymentPointer())
+        PaymentPointer.of(request.getDestinationPaymentPointer()),
+        paymentTimeout(request)
+      )).whenComplete((result, error) -> {
+        if (error != null) {
+          exceptionHandlerUtils.handleException(error, responseObserver);
+        } else {
+          final SendPaymentResponse sendPaymentResponse = AccountRequestResponseConverter
+            .sendPaymentResponseFromSendMoneyResult(result);
+          responseObserver.onNext(sendPaymentResponse);
+          responseObserver.onCompleted();
+        }
+      });
+    } catch (Exception e) {
+      exceptionHandlerUtils.handleException(e, responseObserver);
+    }
+  }
+
+  @Override
+  public void sendMoneyStream(SendPaymentRequest request, StreamObserver<SendPaymentStreamResponse> responseObserver) {
+    // Progress is reported from whichever thread fulfilled a packet. Each report (and the final result) supersedes the
+    // last, so a client that reads slowly is only ever sent the latest.
+    final FlowControlledStreamObserver<SendPaymentStreamResponse> observer =
+      FlowControlledStreamObserver.conflating(responseObserver);
+    try {
+      final BearerToken bearerToken = ilpGrpcAuthContext.getBearerToken();
+      cancelWhenAbandoned(sendMoneyService.sendMoneyAsync(
+        AccountId.of(request.getAccountId()),
+        Optional.of(bearerToken),
+        UnsignedLong.valueOf(request.getAmount()),
+        PaymentPointer.of(request.getDestinationPaymentPointer()),
+        paymentTimeout(request),
+        progress -> observer.onNext(SendPaymentStreamResponse.newBuilder()
+          .setProgress(AccountRequestResponseConverter.sendPaymentProgressFromPaymentProgress(progress))
+          .build())
+      )).whenComplete((result, error) -> {
+        if (error != null) {
+          exceptionHandlerUtils.handleException(error, observer);
+        } else {
+          // Progress of the last packets may still be on its way from other threads, but must not follow the result.
+          observer.onLast(SendPaymentStreamResponse.newBuilder()
+            .setResult(AccountRequestResponseConverter.sendPaymentResponseFromSendMoneyResult(result))
+            .build());
+        }
+      });
+    } catch (Exception e) {
+      exceptionHandlerUtils.handleException(e, observer);
+    }
+  }
+
+  @Override
+  public void sendMoneyBatch(
+    SendPaymentBatchRequest request, StreamObserver<SendPaymentBatchResult> responseObserver
+  ) {
+    // Results are streamed back from whichever thread finished each payment, as fast as the client reads them.
+    final FlowControlledStreamObserver<SendPaymentBatchResult> observer =
+      FlowControlledStreamObserver.buffering(responseObserver);
+    try {
+      paymentBatchLimits.checkSize(request.getPaymentsCount());
+      final BearerToken bearerToken = ilpGrpcAuthContext.getBearerToken();
+      final List<PaymentRequest> payments = request.getPaymentsList().stream()
+        .map(payment -> PaymentRequest.builder()
+          .destinationPaymentPointer(payment.getDestinationPaymentPointer())
+          .amount(UnsignedLong.valueOf(payment.getAmount()))
+          .build())
+        .collect(Collectors.toList());
+
+      final List<CompletableFuture<SendMoneyResult>> sends = sendMoneyService.sendMoneyBatchAsync(
+        AccountId.of(request.getAccountId()),
+        Optional.of(bearerToken),
+        payments,
+        paymentBatchLimits.parallelism(Optional.of(request.getParallelism())),
+        batchTimeout()
       );
 
-      final SendPaymentResponse sendPaymentResponse = AccountRequestResponseConverter
-        .sendPaymentResponseFromSendMoneyResult(result);
-      responseObserver.onNext(sendPaymentResponse);
-      responseObserver.onCompleted();
+      BatchStreams.stream(
+        sends,
+        observer,
+        (index, result) -> SendPaymentBatchResult.newBuilder()
+          .setIndex(index)
+          .setDestinationPaymentPointer(payments.get(index).destinationPaymentPointer())
+          .setResult(AccountRequestResponseConverter.sendPaymentResponseFromSendMoneyResult(result))
+          .build(),
+        (index, error) -> SendPaymentBatchResult.newBuilder()
+          .setIndex(index)
+          .setDestinationPaymentPointer(payments.get(index).destinationPaymentPointer())
+          .setError(error)
+          .build()
+      );
     } catch (Exception e) {
-      exceptionHandlerUtils.handleException(e, responseObserver);
+      exceptionHandlerUtils.handleException(e, observer);
     }
   }
+
+  /**
+   * The time a payment may take: the request's {@code timeout_seconds} (or the default if unset), but never longer
+   * than the caller's gRPC deadline.
+   */
+  private Duration paymentTimeout(final SendPaymentRequest request) {
+    final Duration requested = request.getTimeoutSeconds() > 0
+      ? Duration.ofSeconds(request.getTimeoutSeconds())
+      : SendMoneyService.DEFAULT_TIMEOUT;
+    return Optional.ofNullable(Context.current().getDeadline())
+      .map(deadline -> Duration.ofNanos(deadline.timeRemaining(TimeUnit.NANOSECONDS)))
+      .filter(remaining -> remaining.compareTo(requested) < 0)
+      .orElse(requested);
+  }
+
+  /**
+   * The time a batch of payments may take: the configured maximum, but never longer than the caller's gRPC deadline.
+   */
+  private Duration batchTimeout() {
+    final Duration maximum = paymentBatchLimits.getMaxDuration();
+    return Optional.ofNullable(Context.current().getDeadline())
+      .map(deadline -> Duration.ofNanos(deadline.timeRemaining(TimeUnit.NANOSECONDS)))
+      .filter(remaining -> remaining.compareTo(maximum) < 0)
+      .orElse(maximum);
+  }
+
+  /**
+   * Cancels {@code payment} if the caller cancels the call or its deadline passes, so an abandoned payment stops
+   * holding executor and Connector capacity.
+   */
+  private <T> CompletableFuture<T> cancelWhenAbandoned(final CompletableFuture<T> payment) {
+    Context.current().addListener(context -> payment.cancel(true), MoreExecutors.directExecutor());
+    return payment;
+  }
 }
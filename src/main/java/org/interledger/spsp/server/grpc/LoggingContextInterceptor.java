@@ -0,0 +1,124 @@
+package org.interledger.spsp.server.grpc;
+
+import org.interledger.spsp.server.controllers.filters.LoggingContextFilter;
+import org.interledger.spsp.server.util.LoggingContext;
+
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Message;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import org.lognet.springboot.grpc.GRpcGlobalInterceptor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The gRPC counterpart of {@link LoggingContextFilter}: puts each call's trace id (from the {@code
+ * x-cloud-trace-context} header) and the account it addresses (from the request's {@code account_id} field, once it
+ * has been received) into the logging MDC while each of the call's events is handled. gRPC may handle a call's events
+ * on different executor threads, so the MDC is put in place (and afterwards restored) around each of them rather than
+ * once per call.
+ */
+@GRpcGlobalInterceptor
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class LoggingContextInterceptor implements ServerInterceptor {
+
+  static final Metadata.Key<String> TRACE_CONTEXT_KEY =
+    Metadata.Key.of(LoggingContextFilter.TRACE_CONTEXT_HEADER, Metadata.ASCII_STRING_MARSHALLER);
+
+  private static final String ACCOUNT_ID_FIELD = "account_id";
+
+  @Override
+  public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call,
+                                                               Metadata headers,
+                                                               ServerCallHandler<ReqT, RespT> next) {
+    final Map<String, String> entries = new HashMap<>();
+    LoggingContextFilter.traceId(headers.get(TRACE_CONTEXT_KEY))
+      .ifPresent(id -> entries.put(LoggingContextFilter.TRACE_ID, id));
+    return new ContextListener<>(startCall(call, headers, next, entries), entries);
+  }
+
+  private static <ReqT, RespT> ServerCall.Listener<ReqT> startCall(
+    ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next, Map<String, String> entries
+  ) {
+    try (LoggingContext.Scope ignored = LoggingContext.put(entries)) {
+      return next.startCall(call, headers);
+    }
+  }
+
+  /**
+   * The {@code account_id} of a request message, if it has one.
+   */
+  static Optional<String> accountId(Object message) {
+    if (!(message instanceof Message)) {
+      return Optional.empty();
+    }
+    final FieldDescriptor field = ((Message) message).getDescriptorForType().findFieldByName(ACCOUNT_ID_FIELD);
+    if (field == null || field.isRepeated() || field.getJavaType() != FieldDescriptor.JavaType.STRING) {
+      return Optional.empty();
+    }
+    return Optional.of((String) ((Message) message).getField(field)).filter(id -> !id.isEmpty());
+  }
+
+  /**
+   * Handles each of a call's events with its MDC entries in place. gRPC never handles two events of the same call at
+   * once, and hands them between threads safely, so the entries need no further synchronization.
+   */
+  private static final class ContextListener<ReqT>
+    extends ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT> {
+
+    private Map<String, String> entries;
+
+    private ContextListener(ServerCall.Listener<ReqT> delegate, Map<String, String> entries) {
+      super(delegate);
+      this.entries = Collections.unmodifiableMap(entries);
+    }
+
+    @Override
+    public void onMessage(ReqT message) {
+      accountId(message).ifPresent(id -> {
+        final Map<String, String> withAccount = new HashMap<>(entries);
+        withAccount.put(LoggingContextFilter.ACCOUNT_ID, id);
+        entries = Collections.unmodifiableMap(withAccount);
+      });
+      try (LoggingContext.Scope ignored = LoggingContext.put(entries)) {
+        super.onMessage(message);
+      }
+    }
+
+    @Override
+    public void onHalfClose() {
+      try (LoggingContext.Scope ignored = LoggingContext.put(entries)) {
+        super.onHalfClose();
+      }
+    }
+
+    @Override
+    public void onCancel() {
+      try (LoggingContext.Scope ignored = LoggingContext.put(entries)) {
+        super.onCancel();
+      }
+    }
+
+    @Override
+    public void onComplete() {
+      try (LoggingContext.Scope ignored = LoggingContext.put(entries)) {
+        super.onComplete();
+      }
+    }
+
+    @Override
+    public void onReady() {
+      try (LoggingContext.Scope ignored = LoggingContext.put(entries)) {
+        super.onReady();
+      }
+    }
+  }
+}
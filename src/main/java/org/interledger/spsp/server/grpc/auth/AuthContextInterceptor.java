@@ -1,25 +1,48 @@
 package org.interledger.spsp.server.grpc.auth;
 
+import org.interledger.spsp.server.services.LocalJwtVerifier;
+
 import io.grpc.Context;
 import io.grpc.Contexts;
 import io.grpc.Metadata;
 import io.grpc.ServerCall;
 import io.grpc.ServerCallHandler;
 import io.grpc.ServerInterceptor;
+import io.grpc.Status;
 import org.lognet.springboot.grpc.GRpcGlobalInterceptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.util.Objects;
+import java.util.Optional;
 
+/**
+ * Parses the credential each call was made with into an {@link IlpGrpcPrincipal}, available to handlers from {@link
+ * IlpGrpcAuthContext}. Calls with a malformed or expired credential, or a JWT that fails local verification (if
+ * configured), are failed with {@code UNAUTHENTICATED} before reaching a handler; calls without one are passed on, as
+ * some (such as creating an account) don't need one.
+ */
 @GRpcGlobalInterceptor
 public class AuthContextInterceptor implements ServerInterceptor {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(AuthContextInterceptor.class);
 
   private final IlpGrpcMetadataReader ilpGrpcMetadataReader;
+  private final Optional<LocalJwtVerifier> localJwtVerifier;
 
   public AuthContextInterceptor(IlpGrpcMetadataReader ilpGrpcMetadataReader) {
+    this(ilpGrpcMetadataReader, Optional.empty());
+  }
+
+  @Autowired
+  public AuthContextInterceptor(
+    IlpGrpcMetadataReader ilpGrpcMetadataReader, Optional<LocalJwtVerifier> localJwtVerifier
+  ) {
     LOGGER.info("JwtContextInterceptor started for GRPC");
     this.ilpGrpcMetadataReader = ilpGrpcMetadataReader;
+    this.localJwtVerifier = Objects.requireNonNull(localJwtVerifier);
   }
 
   @Override
@@ -27,7 +50,21 @@ public class AuthContextInterceptor implements ServerInterceptor {
                                                                Metadata headers,
                                                                ServerCallHandler<ReqT, RespT> next) {
     String authorization = ilpGrpcMetadataReader.authorization(headers);
-    Context context = Context.current().withValue(IlpGrpcAuthConstants.AUTH_KEY, authorization);
+    if (authorization == null) {
+      return next.startCall(call, headers);
+    }
+
+    final IlpGrpcPrincipal principal;
+    try {
+      principal = IlpGrpcPrincipal.fromAuthorization(authorization);
+      localJwtVerifier.ifPresent(verifier -> verifier.verify(principal.bearerToken()));
+    } catch (BadCredentialsException e) {
+      LOGGER.debug("Rejected {} call: {}", call.getMethodDescriptor().getFullMethodName(), e.getMessage());
+      call.close(Status.UNAUTHENTICATED.withDescription(e.getMessage()), new Metadata());
+      return new ServerCall.Listener<ReqT>() {
+      };
+    }
+    Context context = Context.current().withValue(IlpGrpcAuthConstants.PRINCIPAL_KEY, principal);
     return Contexts.interceptCall(context, call, headers, next);
   }
 }
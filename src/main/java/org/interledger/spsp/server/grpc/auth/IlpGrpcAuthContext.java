@@ -1,7 +1,31 @@
 package org.interledger.spsp.server.grpc.auth;
 
+import org.interledger.spsp.server.model.BearerToken;
+
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.util.Optional;
+
 public interface IlpGrpcAuthContext {
 
-  String getAuthorizationHeader();
+  /**
+   * The credential the current call was made with.
+   *
+   * @return An {@link IlpGrpcPrincipal}, or empty if the call was made without credentials.
+   */
+  Optional<IlpGrpcPrincipal> getPrincipal();
+
+  /**
+   * The bearer token the current call was made with, for calls that require one.
+   *
+   * @return A {@link BearerToken}.
+   *
+   * @throws BadCredentialsException If the call was made without credentials.
+   */
+  default BearerToken getBearerToken() {
+    return getPrincipal()
+      .map(IlpGrpcPrincipal::bearerToken)
+      .orElseThrow(() -> new BadCredentialsException("Bearer tokens must not be null"));
+  }
 
 }
@@ -2,11 +2,13 @@ package org.interledger.spsp.server.grpc.auth;
 
 import io.grpc.Context;
 
+import java.util.Optional;
+
 public class IlpGrpcAuthContextImpl implements IlpGrpcAuthContext {
 
   @Override
-  public String getAuthorizationHeader() {
-    return (String) IlpGrpcAuthConstants.AUTH_KEY.get(Context.current());
+  public Optional<IlpGrpcPrincipal> getPrincipal() {
+    return Optional.ofNullable(IlpGrpcAuthConstants.PRINCIPAL_KEY.get(Context.current()));
   }
 
 }
@@ -0,0 +1,65 @@
+package org.interledger.spsp.server.grpc.auth;
+
+import org.interledger.spsp.server.model.BearerToken;
+import org.interledger.spsp.server.services.AuthUtils;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.immutables.value.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.util.Optional;
+
+/**
+ * The credential a gRPC call was made with, parsed and classified once by {@link AuthContextInterceptor} so that
+ * handlers don't have to.
+ */
+@Value.Immutable
+public interface IlpGrpcPrincipal {
+
+  static ImmutableIlpGrpcPrincipal.Builder builder() {
+    return ImmutableIlpGrpcPrincipal.builder();
+  }
+
+  /**
+   * Parse and classify the credential in an {@code Authorization} header value. JWTs are decoded through {@link
+   * AuthUtils#getJwt(Optional)}, which caches them across calls.
+   *
+   * @param authorization An {@code Authorization} header value, including the "Bearer " prefix.
+   *
+   * @return An {@link IlpGrpcPrincipal}.
+   *
+   * @throws BadCredentialsException If {@code authorization} isn't a bearer token, or is an expired JWT.
+   */
+  static IlpGrpcPrincipal fromAuthorization(final String authorization) {
+    final BearerToken bearerToken = BearerToken.fromBearerTokenValue(authorization);
+    return builder()
+      .bearerToken(bearerToken)
+      .jwt(AuthUtils.getJwt(Optional.of(bearerToken)))
+      .build();
+  }
+
+  BearerToken bearerToken();
+
+  /**
+   * The decoded JWT, if the bearer token is one.
+   *
+   * @return An optionally-present {@link DecodedJWT}.
+   */
+  Optional<DecodedJWT> jwt();
+
+  @Value.Derived
+  default CredentialType credentialType() {
+    return jwt().isPresent() ? CredentialType.JWT : CredentialType.SIMPLE;
+  }
+
+  enum CredentialType {
+    /**
+     * A JWT, whose claims are available from {@link #jwt()}.
+     */
+    JWT,
+    /**
+     * An opaque shared secret.
+     */
+    SIMPLE
+  }
+}
@@ -12,9 +12,11 @@ import org.interledger.link.http.IncomingLinkSettings;
 import org.interledger.link.http.OutgoingLinkSettings;
 import org.interledger.spsp.server.grpc.CreateAccountResponse;
 import org.interledger.spsp.server.grpc.GetAccountResponse;
+import org.interledger.spsp.server.grpc.SendPaymentProgress;
 import org.interledger.spsp.server.grpc.SendPaymentResponse;
 import org.interledger.spsp.server.model.BearerToken;
 import org.interledger.spsp.server.model.CreateAccountRestRequest;
+import org.interledger.spsp.server.model.PaymentProgress;
 import org.interledger.spsp.server.services.HermesUtils;
 import org.interledger.stream.SendMoneyResult;
 
@@ -240,4 +242,13 @@ public class AccountRequestResponseConverter {
       .setSuccessfulPayment(result.successfulPayment())
       .build();
   }
+
+  public static SendPaymentProgress sendPaymentProgressFromPaymentProgress(PaymentProgress progress) {
+    return SendPaymentProgress.newBuilder()
+      .setNumFulfilledPackets(progress.numFulfilledPackets())
+      .setAmountSent(progress.amountSent().longValue())
+      .setAmountDelivered(progress.amountDelivered().longValue())
+      .setExchangeRate(progress.exchangeRate())
+      .build();
+  }
 }
@@ -0,0 +1,41 @@
+package org.interledger.spsp.server.model;
+
+import org.interledger.spsp.server.client.AccountSettingsResponse;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.immutables.value.Value;
+
+import java.util.Optional;
+
+/**
+ * The outcome of looking up a single account's settings in a batch. Exactly one of {@link #account()} and {@link
+ * #error()} is present.
+ */
+@Value.Immutable
+@JsonDeserialize(as = ImmutableBatchAccountResult.class)
+@JsonSerialize(as = ImmutableBatchAccountResult.class)
+public interface BatchAccountResult {
+
+  static ImmutableBatchAccountResult.Builder builder() {
+    return ImmutableBatchAccountResult.builder();
+  }
+
+  /**
+   * The position of this account in the original batch request.
+   */
+  int index();
+
+  String accountId();
+
+  Optional<AccountSettingsResponse> account();
+
+  Optional<String> error();
+
+  @Value.Check
+  default void check() {
+    if (account().isPresent() == error().isPresent()) {
+      throw new IllegalStateException("Exactly one of account or error must be present");
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package org.interledger.spsp.server.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.immutables.value.Value;
+
+import java.util.List;
+
+@Value.Immutable
+@JsonDeserialize(as = ImmutableBatchBalanceResponse.class)
+@JsonSerialize(as = ImmutableBatchBalanceResponse.class)
+public interface BatchBalanceResponse {
+
+  static ImmutableBatchBalanceResponse.Builder builder() {
+    return ImmutableBatchBalanceResponse.builder();
+  }
+
+  /**
+   * One result per requested account, in the order they were requested.
+   */
+  List<BatchBalanceResult> results();
+
+}
@@ -0,0 +1,41 @@
+package org.interledger.spsp.server.model;
+
+import org.interledger.spsp.server.client.AccountBalanceResponse;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.immutables.value.Value;
+
+import java.util.Optional;
+
+/**
+ * The outcome of looking up a single account's balance in a batch. Exactly one of {@link #balance()} and {@link
+ * #error()} is present.
+ */
+@Value.Immutable
+@JsonDeserialize(as = ImmutableBatchBalanceResult.class)
+@JsonSerialize(as = ImmutableBatchBalanceResult.class)
+public interface BatchBalanceResult {
+
+  static ImmutableBatchBalanceResult.Builder builder() {
+    return ImmutableBatchBalanceResult.builder();
+  }
+
+  /**
+   * The position of this account in the original batch request.
+   */
+  int index();
+
+  String accountId();
+
+  Optional<AccountBalanceResponse> balance();
+
+  Optional<String> error();
+
+  @Value.Check
+  default void check() {
+    if (balance().isPresent() == error().isPresent()) {
+      throw new IllegalStateException("Exactly one of balance or error must be present");
+    }
+  }
+}
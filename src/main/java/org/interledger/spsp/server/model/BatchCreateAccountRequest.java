@@ -0,0 +1,29 @@
+package org.interledger.spsp.server.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.immutables.value.Value;
+
+import java.util.List;
+import java.util.Optional;
+
+@Value.Immutable
+@JsonDeserialize(as = ImmutableBatchCreateAccountRequest.class)
+@JsonSerialize(as = ImmutableBatchCreateAccountRequest.class)
+public interface BatchCreateAccountRequest {
+
+  static ImmutableBatchCreateAccountRequest.Builder builder() {
+    return ImmutableBatchCreateAccountRequest.builder();
+  }
+
+  /**
+   * The accounts to create. Each is given its own generated credentials.
+   */
+  List<CreateAccountRestRequest> accounts();
+
+  /**
+   * The maximum number of accounts to create at once. Capped by the server's configured limit.
+   */
+  Optional<Integer> parallelism();
+
+}
@@ -0,0 +1,23 @@
+package org.interledger.spsp.server.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.immutables.value.Value;
+
+import java.util.List;
+
+@Value.Immutable
+@JsonDeserialize(as = ImmutableBatchCreateAccountResponse.class)
+@JsonSerialize(as = ImmutableBatchCreateAccountResponse.class)
+public interface BatchCreateAccountResponse {
+
+  static ImmutableBatchCreateAccountResponse.Builder builder() {
+    return ImmutableBatchCreateAccountResponse.builder();
+  }
+
+  /**
+   * One result per requested account, in the order they were requested.
+   */
+  List<BatchCreateAccountResult> results();
+
+}
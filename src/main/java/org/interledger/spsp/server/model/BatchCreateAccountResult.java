@@ -0,0 +1,44 @@
+package org.interledger.spsp.server.model;
+
+import org.interledger.spsp.server.client.AccountSettingsResponse;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.immutables.value.Value;
+
+import java.util.Optional;
+
+/**
+ * The outcome of creating a single account in a batch. Exactly one of {@link #account()} and {@link #error()} is
+ * present.
+ */
+@Value.Immutable
+@JsonDeserialize(as = ImmutableBatchCreateAccountResult.class)
+@JsonSerialize(as = ImmutableBatchCreateAccountResult.class)
+public interface BatchCreateAccountResult {
+
+  static ImmutableBatchCreateAccountResult.Builder builder() {
+    return ImmutableBatchCreateAccountResult.builder();
+  }
+
+  /**
+   * The position of this account in the original batch request.
+   */
+  int index();
+
+  String accountId();
+
+  /**
+   * The created account, including its generated credentials and payment pointer.
+   */
+  Optional<AccountSettingsResponse> account();
+
+  Optional<String> error();
+
+  @Value.Check
+  default void check() {
+    if (account().isPresent() == error().isPresent()) {
+      throw new IllegalStateException("Exactly one of account or error must be present");
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package org.interledger.spsp.server.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.immutables.value.Value;
+
+import java.util.List;
+import java.util.Optional;
+
+@Value.Immutable
+@JsonDeserialize(as = ImmutableBatchGetRequest.class)
+@JsonSerialize(as = ImmutableBatchGetRequest.class)
+public interface BatchGetRequest {
+
+  static ImmutableBatchGetRequest.Builder builder() {
+    return ImmutableBatchGetRequest.builder();
+  }
+
+  /**
+   * The identifiers of the accounts to look up.
+   */
+  List<String> accountIds();
+
+  /**
+   * The maximum number of lookups to have in flight at once. Capped by the server's configured limit.
+   */
+  Optional<Integer> parallelism();
+
+}
@@ -0,0 +1,29 @@
+package org.interledger.spsp.server.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.immutables.value.Value;
+
+import java.util.List;
+import java.util.Optional;
+
+@Value.Immutable
+@JsonDeserialize(as = ImmutableBatchPaymentRequest.class)
+@JsonSerialize(as = ImmutableBatchPaymentRequest.class)
+public interface BatchPaymentRequest {
+
+  static ImmutableBatchPaymentRequest.Builder builder() {
+    return ImmutableBatchPaymentRequest.builder();
+  }
+
+  /**
+   * The payments to send, all from the same account.
+   */
+  List<PaymentRequest> payments();
+
+  /**
+   * The maximum number of payments to have in flight at once. Capped by the server's configured limit.
+   */
+  Optional<Integer> parallelism();
+
+}
@@ -0,0 +1,23 @@
+package org.interledger.spsp.server.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.immutables.value.Value;
+
+import java.util.List;
+
+@Value.Immutable
+@JsonDeserialize(as = ImmutableBatchPaymentResponse.class)
+@JsonSerialize(as = ImmutableBatchPaymentResponse.class)
+public interface BatchPaymentResponse {
+
+  static ImmutableBatchPaymentResponse.Builder builder() {
+    return ImmutableBatchPaymentResponse.builder();
+  }
+
+  /**
+   * One result per requested payment, in the order they were requested.
+   */
+  List<BatchPaymentResult> results();
+
+}
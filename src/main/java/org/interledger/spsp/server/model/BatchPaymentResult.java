@@ -0,0 +1,38 @@
+package org.interledger.spsp.server.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.immutables.value.Value;
+
+import java.util.Optional;
+
+/**
+ * The outcome of a single payment in a batch. Exactly one of {@link #payment()} and {@link #error()} is present.
+ */
+@Value.Immutable
+@JsonDeserialize(as = ImmutableBatchPaymentResult.class)
+@JsonSerialize(as = ImmutableBatchPaymentResult.class)
+public interface BatchPaymentResult {
+
+  static ImmutableBatchPaymentResult.Builder builder() {
+    return ImmutableBatchPaymentResult.builder();
+  }
+
+  /**
+   * The position of this payment in the original batch request.
+   */
+  int index();
+
+  String destinationPaymentPointer();
+
+  Optional<PaymentResponse> payment();
+
+  Optional<String> error();
+
+  @Value.Check
+  default void check() {
+    if (payment().isPresent() == error().isPresent()) {
+      throw new IllegalStateException("Exactly one of payment or error must be present");
+    }
+  }
+}
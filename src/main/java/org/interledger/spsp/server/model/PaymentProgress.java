@@ -0,0 +1,40 @@
+package org.interledger.spsp.server.model;
+
+import com.google.common.primitives.UnsignedLong;
+import org.immutables.value.Value;
+
+/**
+ * A snapshot of an in-flight STREAM payment, taken each time a packet is fulfilled.
+ */
+@Value.Immutable
+public interface PaymentProgress {
+  static ImmutablePaymentProgress.Builder builder() {
+    return ImmutablePaymentProgress.builder();
+  }
+
+  /**
+   * The number of packets fulfilled so far.
+   */
+  long numFulfilledPackets();
+
+  /**
+   * The amount sent so far, in the sender's units.
+   */
+  UnsignedLong amountSent();
+
+  /**
+   * The amount delivered so far, in the receiver's units.
+   */
+  UnsignedLong amountDelivered();
+
+  /**
+   * The ratio of {@link #amountDelivered()} to {@link #amountSent()}, or zero if nothing has been sent yet.
+   */
+  @Value.Derived
+  default double exchangeRate() {
+    if (amountSent().equals(UnsignedLong.ZERO)) {
+      return 0;
+    }
+    return amountDelivered().doubleValue() / amountSent().doubleValue();
+  }
+}
@@ -0,0 +1,187 @@
+package org.interledger.spsp.server.services;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.accounts.AccountSettings;
+import org.interledger.spsp.server.client.AsyncConnectorClient;
+import org.interledger.spsp.server.util.ExceptionHandlerUtils;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * <p>A read-through cache of {@link AccountSettings} loaded from the Connector via {@link
+ * AsyncConnectorClient#findAccount(AccountId)}.</p>
+ *
+ * <p>Account settings such as asset code and scale almost never change, so entries are cached for a configurable
+ * amount of time. Entries older than the refresh interval are reloaded in the background on their next access so that
+ * hot accounts never block on the Connector. Writers (e.g. {@link NewAccountService}) should call {@link
+ * #invalidate(AccountId)} after changing an account.</p>
+ *
+ * <p>Accounts the Connector doesn't have are remembered for a much shorter time, so that repeated lookups of a bad
+ * account id fail fast without a request each, but an account created directly on the Connector is found soon
+ * after.</p>
+ */
+public class AccountSettingsCache implements MeterBinder {
+
+  public static final String METRIC_NAME = "hermes.account-settings";
+  public static final String MISSING_ACCOUNTS_METRIC_NAME = "hermes.account-settings.missing";
+
+  private final AsyncConnectorClient connectorClient;
+
+  private final LoadingCache<AccountId, Optional<AccountSettings>> accountSettings;
+
+  private final Cache<AccountId, Boolean> missingAccounts;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param connectorClient   An {@link AsyncConnectorClient} to load account settings with.
+   * @param maximumSize       The maximum number of accounts to cache.
+   * @param timeToLive        How long an entry may be served before it must be reloaded synchronously.
+   * @param refreshAfter      How long after loading an entry is reloaded in the background on its next access.
+   * @param missingAccountTtl How long an account the Connector doesn't have is remembered as missing.
+   */
+  public AccountSettingsCache(
+    final AsyncConnectorClient connectorClient,
+    final long maximumSize,
+    final Duration timeToLive,
+    final Duration refreshAfter,
+    final Duration missingAccountTtl
+  ) {
+    this.connectorClient = Objects.requireNonNull(connectorClient);
+    this.accountSettings = CacheBuilder.newBuilder()
+      .maximumSize(maximumSize)
+      .expireAfterWrite(Objects.requireNonNull(timeToLive))
+      .refreshAfterWrite(Objects.requireNonNull(refreshAfter))
+      .recordStats()
+      .build(new CacheLoader<AccountId, Optional<AccountSettings>>() {
+        @Override
+        public Optional<AccountSettings> load(final AccountId accountId) {
+          return connectorClient.findAccount(accountId).join();
+        }
+
+        @Override
+        public ListenableFuture<Optional<AccountSettings>> reload(
+          final AccountId accountId, final Optional<AccountSettings> oldValue
+        ) {
+          // Refreshes run on the Connector client's executor rather than the reading thread.
+          final SettableFuture<Optional<AccountSettings>> reloaded = SettableFuture.create();
+          connectorClient.findAccount(accountId).whenComplete((settings, error) -> {
+            if (error != null) {
+              reloaded.setException(ExceptionHandlerUtils.unwrap(error));
+            } else {
+              reloaded.set(settings);
+            }
+          });
+          return reloaded;
+        }
+      });
+    this.missingAccounts = CacheBuilder.newBuilder()
+      .maximumSize(maximumSize)
+      .expireAfterWrite(Objects.requireNonNull(missingAccountTtl))
+      .recordStats()
+      .build();
+  }
+
+  /**
+   * Find the {@link AccountSettings} for {@code accountId}, loading them from the Connector if they are not cached.
+   *
+   * @param accountId The {@link AccountId} of the account to find.
+   *
+   * @return An optionally-present {@link AccountSettings}.
+   */
+  public Optional<AccountSettings> findAccount(final AccountId accountId) {
+    Objects.requireNonNull(accountId);
+    if (missingAccounts.getIfPresent(accountId) != null) {
+      return Optional.empty();
+    }
+    try {
+      return onFound(accountId, accountSettings.get(accountId));
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      final Throwable cause = ExceptionHandlerUtils.unwrap(e.getCause());
+      Throwables.throwIfUnchecked(cause);
+      throw new RuntimeException(cause.getMessage(), cause);
+    }
+  }
+
+  /**
+   * Find the {@link AccountSettings} for {@code accountId} without blocking, loading them from the Connector if they
+   * are not cached.
+   *
+   * @param accountId The {@link AccountId} of the account to find.
+   *
+   * @return A {@link CompletableFuture} of an optionally-present {@link AccountSettings}, which completes exceptionally
+   *   with the Connector's error if the account couldn't be loaded.
+   */
+  public CompletableFuture<Optional<AccountSettings>> findAccountAsync(final AccountId accountId) {
+    Objects.requireNonNull(accountId);
+    if (missingAccounts.getIfPresent(accountId) != null) {
+      return CompletableFuture.completedFuture(Optional.empty());
+    }
+    final Optional<AccountSettings> cached = accountSettings.getIfPresent(accountId);
+    if (cached != null) {
+      return CompletableFuture.completedFuture(cached);
+    }
+    return connectorClient.findAccount(accountId).thenApply(settings -> {
+      if (settings.isPresent()) {
+        accountSettings.put(accountId, settings);
+      }
+      return onFound(accountId, settings);
+    });
+  }
+
+  /**
+   * Discard any cached {@link AccountSettings} for {@code accountId}.
+   *
+   * @param accountId The {@link AccountId} of the account that changed.
+   */
+  public void invalidate(final AccountId accountId) {
+    Objects.requireNonNull(accountId);
+    accountSettings.invalidate(accountId);
+    missingAccounts.invalidate(accountId);
+  }
+
+  /**
+   * The accounts currently cached as existing on the Connector, i.e. the accounts this server is actively serving.
+   *
+   * @return A snapshot {@link Set} of {@link AccountId}s.
+   */
+  public Set<AccountId> cachedAccountIds() {
+    return accountSettings.asMap().entrySet().stream()
+      .filter(entry -> entry.getValue().isPresent())
+      .map(entry -> entry.getKey())
+      .collect(Collectors.toSet());
+  }
+
+  private Optional<AccountSettings> onFound(final AccountId accountId, final Optional<AccountSettings> settings) {
+    if (!settings.isPresent()) {
+      // Only remembered for as long as missing accounts are, rather than for the full time-to-live.
+      missingAccounts.put(accountId, Boolean.TRUE);
+      accountSettings.invalidate(accountId);
+    }
+    return settings;
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    GuavaCacheMetrics.monitor(registry, accountSettings, METRIC_NAME);
+    GuavaCacheMetrics.monitor(registry, missingAccounts, MISSING_ACCOUNTS_METRIC_NAME);
+  }
+}
@@ -4,14 +4,21 @@ import org.interledger.spsp.server.model.BearerToken;
 
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Utils for helping with Auth.
@@ -21,6 +28,15 @@ public class AuthUtils {
   public static final String JWT_COOKIE_NAME = "jwt";
   private static final Logger LOGGER = LoggerFactory.getLogger(AuthUtils.class);
 
+  /**
+   * Decoded JWTs, keyed by a hash of the raw token so tokens aren't held in memory. Entries are evicted once their
+   * {@code exp} has passed (checked on read), and in any case an hour after being decoded.
+   */
+  private static final Cache<HashCode, DecodedJWT> DECODED_JWTS = CacheBuilder.newBuilder()
+    .maximumSize(10_000)
+    .expireAfterWrite(1, TimeUnit.HOURS)
+    .build();
+
   /**
    * Obtain a JWT from the optionally-supplied {@code authorizationHeader} String.
    *
@@ -31,20 +47,89 @@ public class AuthUtils {
    */
   public static Optional<DecodedJWT> getJwt(final Optional<BearerToken> authorizationHeader) {
     Objects.requireNonNull(authorizationHeader);
-    try {
-      final DecodedJWT jwt = JWT.decode(authorizationHeader.map(BearerToken::rawToken).orElse(null));
-      if (jwt.getExpiresAt().before(new Date())) {
-        throw new BadCredentialsException("JWT is expired");
+    return authorizationHeader.flatMap(bearerToken -> decode(bearerToken, false));
+  }
+
+  /**
+   * Obtain a JWT from {@code bearerToken}, like {@link #getJwt(Optional)}, except that a token with the shape of a JWT
+   * that can't be decoded, or that has no expiry, is rejected instead of being treated as a SIMPLE token. Used wherever
+   * JWTs are verified, so that a forged token can't skip verification by passing as a SIMPLE one.
+   *
+   * @param bearerToken A {@link BearerToken}.
+   *
+   * @return The decoded {@link DecodedJWT}, or empty if {@code bearerToken} doesn't have the shape of a JWT.
+   *
+   * @throws BadCredentialsException If {@code bearerToken} has the shape of a JWT but can't be decoded, has no expiry,
+   *                                 or has expired.
+   */
+  public static Optional<DecodedJWT> getJwtStrictly(final BearerToken bearerToken) {
+    Objects.requireNonNull(bearerToken);
+    return decode(bearerToken, true);
+  }
+
+  private static Optional<DecodedJWT> decode(final BearerToken bearerToken, final boolean strict) {
+    final String rawToken = bearerToken.rawToken();
+    if (!looksLikeJwt(rawToken)) {
+      // SIMPLE tokens are common, so don't pay for a failed decode to recognize them.
+      return Optional.empty();
+    }
+
+    final HashCode tokenHash = Hashing.sha256().hashString(rawToken, StandardCharsets.UTF_8);
+    DecodedJWT jwt = DECODED_JWTS.getIfPresent(tokenHash);
+    if (jwt == null) {
+      try {
+        jwt = JWT.decode(rawToken);
+      } catch (Exception e) {
+        if (ResponseStatusException.class.isAssignableFrom(e.getClass())) {
+          throw e;
+        }
+        if (strict) {
+          throw new BadCredentialsException("Bearer token has the shape of a JWT but could not be decoded");
+        }
+        LOGGER.debug("Could not decode bearer token as JWT, assuming it is SIMPLE token");
+        return Optional.empty();
       }
-      return Optional.of(jwt);
-    } catch (BadCredentialsException e) {
-      throw e;
-    } catch (Exception e) {
-      if (ResponseStatusException.class.isAssignableFrom(e.getClass())) {
-        throw e;
+      if (jwt.getExpiresAt() == null) {
+        if (strict) {
+          throw new BadCredentialsException("JWT has no expiry");
+        }
+        // Preserves the historical behavior of treating a JWT without an expiry as a SIMPLE token.
+        LOGGER.debug("Bearer token JWT has no expiry, assuming it is SIMPLE token");
+        return Optional.empty();
+      }
+      DECODED_JWTS.put(tokenHash, jwt);
+    }
+
+    if (jwt.getExpiresAt().before(new Date())) {
+      DECODED_JWTS.invalidate(tokenHash);
+      throw new BadCredentialsException("JWT is expired");
+    }
+    return Optional.of(jwt);
+  }
+
+  /**
+   * Whether {@code token} has the shape of a JWT: three dot-separated base64url segments, the first two non-empty. This
+   * doesn't guarantee the token decodes, but rules out SIMPLE tokens without throwing.
+   */
+  @VisibleForTesting
+  static boolean looksLikeJwt(final String token) {
+    int dots = 0;
+    int segmentLength = 0;
+    for (int i = 0; i < token.length(); i++) {
+      final char c = token.charAt(i);
+      if (c == '.') {
+        if (segmentLength == 0 && dots < 2) {
+          return false;
+        }
+        dots++;
+        segmentLength = 0;
+      } else if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_'
+        || c == '=') {
+        segmentLength++;
+      } else {
+        return false;
       }
-      LOGGER.info("Could not decode bearer token as JWT, assuming it is SIMPLE token");
     }
-    return Optional.empty();
+    return dots == 2;
   }
 }
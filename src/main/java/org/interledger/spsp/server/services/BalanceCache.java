@@ -0,0 +1,289 @@
+package org.interledger.spsp.server.services;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.spsp.PaymentPointer;
+import org.interledger.spsp.server.client.AccountBalanceResponse;
+import org.interledger.spsp.server.client.AsyncConnectorClient;
+import org.interledger.spsp.server.model.BearerToken;
+import org.interledger.spsp.server.util.ExceptionHandlerUtils;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import okhttp3.HttpUrl;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * <p>A short-lived cache of account balances loaded from the Connector via {@link
+ * AsyncConnectorClient#getBalance(Optional, AccountId)}, for clients that poll balances.</p>
+ *
+ * <p>Balances are cached per account <em>and</em> credentials, so the Connector still authorizes every caller: a
+ * caller only ever sees a balance that was loaded with its own token. Concurrent reads of an entry that isn't cached
+ * share a single Connector call. Failed calls are never cached. Entries are keyed by a hash of the token rather than
+ * the token itself, so the cache doesn't hold on to credentials.</p>
+ *
+ * <p>{@link #getBalanceAsync(Optional, AccountId)} never blocks its caller, so callers that look up many balances at
+ * once don't each need a thread of their own.</p>
+ *
+ * <p>Balances change whenever a payment is sent from or delivered to an account, so {@link SendMoneyService}
+ * invalidates the accounts involved as each payment completes. The keys cached for each account are indexed, so that
+ * invalidating an account only touches that account's entries rather than scanning the whole cache.</p>
+ */
+public class BalanceCache implements MeterBinder {
+
+  public static final String METRIC_NAME = "hermes.balances";
+
+  private final HttpUrl spspReceiverUrl;
+
+  private final AsyncConnectorClient connectorClient;
+
+  private final Cache<BalanceKey, AccountBalanceResponse> balances;
+
+  // Balances being loaded, so that concurrent reads of a balance that isn't cached share one Connector call.
+  private final ConcurrentMap<BalanceKey, CompletableFuture<AccountBalanceResponse>> loads = new ConcurrentHashMap<>();
+
+  // The keys of every balance of each account that is cached (or being loaded), maintained under the map's lock.
+  private final ConcurrentMap<AccountId, Set<BalanceKey>> keysByAccount = new ConcurrentHashMap<>();
+
+  private final List<Consumer<AccountId>> invalidationListeners = new CopyOnWriteArrayList<>();
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param connectorClient An {@link AsyncConnectorClient} to load balances with.
+   * @param spspReceiverUrl The {@link HttpUrl} of this server's SPSP receiver, used to recognize payments to local
+   *                        accounts.
+   * @param maximumSize     The maximum number of balances to cache.
+   * @param timeToLive      How long a balance may be served after it was loaded.
+   */
+  public BalanceCache(
+    final AsyncConnectorClient connectorClient,
+    final HttpUrl spspReceiverUrl,
+    final long maximumSize,
+    final Duration timeToLive
+  ) {
+    this.connectorClient = Objects.requireNonNull(connectorClient);
+    this.spspReceiverUrl = Objects.requireNonNull(spspReceiverUrl);
+    this.balances = CacheBuilder.newBuilder()
+      .maximumSize(maximumSize)
+      .expireAfterWrite(Objects.requireNonNull(timeToLive))
+      .<BalanceKey, AccountBalanceResponse>removalListener(this::onRemoval)
+      .recordStats()
+      .build();
+  }
+
+  /**
+   * Get the balance of {@code accountId}, loading it from the Connector with {@code bearerToken} if this caller's view
+   * of it isn't cached.
+   *
+   * @param bearerToken The caller's credentials.
+   * @param accountId   The {@link AccountId} of the account.
+   *
+   * @return The {@link AccountBalanceResponse} for the account.
+   */
+  public AccountBalanceResponse getBalance(final Optional<BearerToken> bearerToken, final AccountId accountId) {
+    try {
+      return getBalanceAsync(bearerToken, accountId).join();
+    } catch (CompletionException e) {
+      // Surface the Connector's error (e.g. a FeignException for a 401) as if there were no cache.
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  /**
+   * Get the balance of {@code accountId} without blocking, loading it from the Connector with {@code bearerToken} if
+   * this caller's view of it isn't cached.
+   *
+   * @param bearerToken The caller's credentials.
+   * @param accountId   The {@link AccountId} of the account.
+   *
+   * @return A {@link CompletableFuture} of the {@link AccountBalanceResponse} for the account, which completes
+   *   exceptionally with the Connector's error if the balance couldn't be loaded.
+   */
+  public CompletableFuture<AccountBalanceResponse> getBalanceAsync(
+    final Optional<BearerToken> bearerToken, final AccountId accountId
+  ) {
+    Objects.requireNonNull(bearerToken);
+    Objects.requireNonNull(accountId);
+    final BalanceKey key = new BalanceKey(accountId, bearerToken);
+    final AccountBalanceResponse cached = balances.getIfPresent(key);
+    if (cached != null) {
+      return CompletableFuture.completedFuture(cached);
+    }
+    final CompletableFuture<AccountBalanceResponse> load = new CompletableFuture<>();
+    final CompletableFuture<AccountBalanceResponse> existing = loads.putIfAbsent(key, load);
+    if (existing != null) {
+      // A copy, so that one caller cancelling its read doesn't cancel everyone else's.
+      return existing.thenApply(Function.identity());
+    }
+    index(key);
+    try {
+      connectorClient.getBalance(bearerToken, accountId)
+        .whenComplete((balance, error) -> onLoaded(key, load, balance, error));
+    } catch (RuntimeException e) {
+      // E.g. the Connector client's executor is saturated.
+      onLoaded(key, load, null, e);
+    }
+    return load.thenApply(Function.identity());
+  }
+
+  /**
+   * Discard every cached balance of {@code accountId}, whichever credentials it was loaded with.
+   *
+   * @param accountId The {@link AccountId} of an account whose balance has changed.
+   */
+  public void invalidate(final AccountId accountId) {
+    Objects.requireNonNull(accountId);
+    final Set<BalanceKey> keys = keysByAccount.remove(accountId);
+    if (keys != null) {
+      // Balances still being loaded may predate the change, so are handed to their callers but never cached.
+      keys.forEach(loads::remove);
+      balances.invalidateAll(keys);
+    }
+    invalidationListeners.forEach(listener -> listener.accept(accountId));
+  }
+
+  /**
+   * Register {@code listener} to be told each time an account's balance may have changed, i.e., whenever {@link
+   * #invalidate(AccountId)} is called. Listeners are called on the invalidating thread, so must not block.
+   *
+   * @param listener A {@link Consumer} of the {@link AccountId} of each invalidated account.
+   */
+  public void addInvalidationListener(final Consumer<AccountId> listener) {
+    invalidationListeners.add(Objects.requireNonNull(listener));
+  }
+
+  /**
+   * Discard every cached balance of the local account that {@code paymentPointer} refers to, if there is one.
+   *
+   * @param paymentPointer The {@link PaymentPointer} of an account whose balance has changed.
+   */
+  public void invalidate(final PaymentPointer paymentPointer) {
+    HermesUtils.accountIdFromPaymentPointer(spspReceiverUrl, paymentPointer).ifPresent(this::invalidate);
+  }
+
+  /**
+   * The number of accounts whose balances are indexed for invalidation.
+   *
+   * @return A count of accounts.
+   */
+  @VisibleForTesting
+  int indexedAccounts() {
+    return keysByAccount.size();
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    GuavaCacheMetrics.monitor(registry, balances, METRIC_NAME);
+  }
+
+  private void index(final BalanceKey key) {
+    keysByAccount.compute(key.accountId, (accountId, keys) -> {
+      final Set<BalanceKey> indexed = keys == null ? new HashSet<>() : keys;
+      indexed.add(key);
+      return indexed;
+    });
+  }
+
+  private void onLoaded(
+    final BalanceKey key,
+    final CompletableFuture<AccountBalanceResponse> load,
+    final AccountBalanceResponse balance,
+    final Throwable error
+  ) {
+    // Only cache (or unindex) this balance if the account wasn't invalidated while it was loading.
+    final boolean current = loads.remove(key, load);
+    if (error != null) {
+      if (current) {
+        // Nothing will be cached, so nothing will be removed.
+        unindex(key);
+      }
+      load.completeExceptionally(ExceptionHandlerUtils.unwrap(error));
+      return;
+    }
+    if (current) {
+      // Index again: removing an earlier entry with this key may have unindexed it while this one was loading.
+      index(key);
+      balances.put(key, balance);
+    }
+    load.complete(balance);
+  }
+
+  private void onRemoval(final RemovalNotification<BalanceKey, AccountBalanceResponse> notification) {
+    if (notification.getCause() == RemovalCause.REPLACED || balances.asMap().containsKey(notification.getKey())) {
+      // Still cached.
+      return;
+    }
+    unindex(notification.getKey());
+  }
+
+  private void unindex(final BalanceKey key) {
+    keysByAccount.computeIfPresent(key.accountId, (accountId, keys) -> {
+      keys.remove(key);
+      return keys.isEmpty() ? null : keys;
+    });
+  }
+
+  /**
+   * Identifies a balance by account and a hash of the credentials it was loaded with.
+   */
+  private static final class BalanceKey {
+
+    private static final HashCode NO_TOKEN = HashCode.fromInt(0);
+
+    private final AccountId accountId;
+    private final HashCode tokenHash;
+
+    private BalanceKey(final AccountId accountId, final Optional<BearerToken> bearerToken) {
+      this.accountId = accountId;
+      this.tokenHash = bearerToken
+        .map(token -> Hashing.sha256().hashString(token.value(), StandardCharsets.UTF_8))
+        .orElse(NO_TOKEN);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final BalanceKey that = (BalanceKey) o;
+      return accountId.equals(that.accountId) && tokenHash.equals(that.tokenHash);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(accountId, tokenHash);
+    }
+
+    @Override
+    public String toString() {
+      return accountId.value();
+    }
+  }
+}
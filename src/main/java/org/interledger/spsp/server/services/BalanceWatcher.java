@@ -0,0 +1,453 @@
+package org.interledger.spsp.server.services;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.spsp.server.client.AccountBalanceResponse;
+import org.interledger.spsp.server.model.BearerToken;
+import org.interledger.spsp.server.util.ExceptionHandlerUtils;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import feign.FeignException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * <p>Pushes account balances to watchers whenever they change, so clients don't have to poll.</p>
+ *
+ * <p>However many watchers an account has, its balance is polled from the Connector by a single task, and
+ * additionally re-read as soon as a local payment to or from the account completes (see {@link
+ * BalanceCache#addInvalidationListener(Consumer)}). Each watcher is only sent a balance if it differs from the last one
+ * it was sent.</p>
+ *
+ * <p>Every watcher's credentials are checked against the Connector when it starts watching. The account's poller then
+ * reads the balance with any one of its watchers' credentials; if the Connector rejects them (e.g. because a token has
+ * expired), that watcher is failed and the next watcher's credentials are tried. Because the balance read with one
+ * watcher's credentials is delivered to all of them, each watcher's own credentials are also re-checked against the
+ * Connector periodically, and a watcher whose credentials are rejected is failed even if it isn't the one being polled
+ * with. A watch made with a JWT is failed as soon as the JWT expires.</p>
+ *
+ * <p>Every watch ends after a maximum duration, so that watches whose clients silently went away don't linger;
+ * clients are expected to start a new one.</p>
+ *
+ * <p>Balances are read with {@link BalanceCache#getBalanceAsync(Optional, AccountId)}, so no poller thread waits on
+ * the Connector. Refreshes of an account never overlap; a refresh requested while one is running is coalesced into a
+ * single follow-up. Each watcher's callbacks run one at a time on a delivery thread, so a client that is slow to read
+ * only holds up its own balances.</p>
+ */
+public class BalanceWatcher implements MeterBinder {
+
+  public static final String METRIC_NAME = "hermes.balance-watch";
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  private final BalanceCache balanceCache;
+  private final Duration pollInterval;
+  private final Duration reauthorizationInterval;
+  private final Duration maxWatchDuration;
+  private final ScheduledExecutorService scheduler;
+  private final ExecutorService deliveryExecutor;
+
+  private final ConcurrentMap<AccountId, AccountWatch> accountWatches = new ConcurrentHashMap<>();
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param balanceCache            The {@link BalanceCache} to read balances through.
+   * @param pollInterval            How often to poll the Connector for the balance of each watched account.
+   * @param pollerThreads           The number of threads to poll with.
+   * @param reauthorizationInterval How often to re-check each watcher's credentials against the Connector.
+   * @param maxWatchDuration        How long a watch may last before it is ended.
+   */
+  public BalanceWatcher(
+    final BalanceCache balanceCache,
+    final Duration pollInterval,
+    final int pollerThreads,
+    final Duration reauthorizationInterval,
+    final Duration maxWatchDuration
+  ) {
+    this.balanceCache = Objects.requireNonNull(balanceCache);
+    this.pollInterval = Objects.requireNonNull(pollInterval);
+    this.reauthorizationInterval = Objects.requireNonNull(reauthorizationInterval);
+    this.maxWatchDuration = Objects.requireNonNull(maxWatchDuration);
+    this.scheduler = Executors.newScheduledThreadPool(pollerThreads,
+      new ThreadFactoryBuilder().setNameFormat("balance-watch-%d").setDaemon(true).build()
+    );
+    // A thread is only held for as long as a watcher's client takes to accept a callback.
+    this.deliveryExecutor = Executors.newCachedThreadPool(
+      new ThreadFactoryBuilder().setNameFormat("balance-watch-delivery-%d").setDaemon(true).build()
+    );
+    balanceCache.addInvalidationListener(this::balanceMayHaveChanged);
+  }
+
+  @PreDestroy
+  public void destroy() {
+    scheduler.shutdownNow();
+    deliveryExecutor.shutdownNow();
+  }
+
+  /**
+   * Start watching the balance of {@code accountId}. The current balance is delivered to {@code onChange} as soon as it
+   * has been read, and then again each time it changes, until the returned {@link Subscription} is cancelled, the
+   * watcher fails, or the watch reaches its maximum duration. Each watcher's callbacks are made one at a time, in
+   * order, from a delivery thread.
+   *
+   * @param accountId   The {@link AccountId} of the account to watch.
+   * @param bearerToken The watcher's credentials.
+   * @param onChange    A {@link Consumer} of each new balance.
+   * @param onError     A {@link Consumer} of the error that ended this watch, e.g. because the credentials were
+   *                    rejected or have expired. Called at most once, after which no more balances are delivered.
+   * @param onEnd       Called instead of {@code onError} if the watch ends because it reached its maximum duration.
+   *
+   * @return A {@link Subscription} to stop watching with.
+   */
+  public Subscription watch(
+    final AccountId accountId,
+    final Optional<BearerToken> bearerToken,
+    final Consumer<AccountBalanceResponse> onChange,
+    final Consumer<Throwable> onError,
+    final Runnable onEnd
+  ) {
+    final Watcher watcher = new Watcher(accountId, bearerToken, onChange, onError, onEnd);
+    start(watcher);
+    return watcher;
+  }
+
+  private void start(final Watcher watcher) {
+    // Join the account's watchers first so no change notification is missed, but only start delivering balances once
+    // the Connector has accepted this watcher's own credentials.
+    accountWatches.compute(watcher.accountId, (accountId, accountWatch) -> {
+      final AccountWatch joined = accountWatch != null ? accountWatch : new AccountWatch(accountId);
+      joined.watchers.add(watcher);
+      return joined;
+    });
+    balanceCache.getBalanceAsync(watcher.bearerToken, watcher.accountId).whenComplete((balance, error) -> {
+      if (error != null) {
+        watcher.fail(ExceptionHandlerUtils.unwrap(error));
+        return;
+      }
+      try {
+        final Optional<Date> expiresAt = AuthUtils.getJwt(watcher.bearerToken).map(DecodedJWT::getExpiresAt);
+        watcher.authorize(balance);
+        watcher.scheduleEnd(expiresAt);
+      } catch (RuntimeException e) {
+        watcher.fail(e);
+      }
+    });
+  }
+
+  private void remove(final Watcher watcher) {
+    watcher.cancelEnd();
+    accountWatches.computeIfPresent(watcher.accountId, (accountId, watch) -> {
+      watch.watchers.remove(watcher);
+      if (watch.watchers.isEmpty()) {
+        watch.poller.cancel(false);
+        return null;
+      }
+      return watch;
+    });
+  }
+
+  private void balanceMayHaveChanged(final AccountId accountId) {
+    final AccountWatch watch = accountWatches.get(accountId);
+    if (watch != null) {
+      scheduler.execute(watch::refresh);
+    }
+  }
+
+  /**
+   * Re-check the credentials of each watcher of {@code watch} that hasn't been checked for a while, failing those the
+   * Connector now rejects, before they are sent a balance read with another watcher's credentials.
+   *
+   * @return A {@link CompletableFuture} of {@code false} if the Connector couldn't be reached, in which case the
+   *   refresh should be skipped.
+   */
+  private CompletableFuture<Boolean> reauthorize(final AccountWatch watch) {
+    final List<CompletableFuture<Boolean>> checks = new ArrayList<>();
+    for (final Watcher watcher : watch.watchers) {
+      final long now = System.nanoTime();
+      if (!watcher.isReauthorizationDue(now)) {
+        continue;
+      }
+      checks.add(balanceCache.getBalanceAsync(watcher.bearerToken, watch.accountId).handle((balance, error) -> {
+        if (error == null) {
+          watcher.reauthorized(now);
+          return true;
+        }
+        final Throwable cause = ExceptionHandlerUtils.unwrap(error);
+        if (isRejected(cause)) {
+          // The Connector no longer accepts this watcher's credentials.
+          watcher.fail(cause);
+          return true;
+        }
+        logger.warn("Unable to re-check credentials of a watcher of account {}: {}", watch.accountId,
+          cause.getMessage());
+        return false;
+      }));
+    }
+    return CompletableFuture.allOf(checks.toArray(new CompletableFuture<?>[0]))
+      .thenApply(ignored -> checks.stream().allMatch(CompletableFuture::join));
+  }
+
+  /**
+   * Read the balance of {@code watch}'s account with the credentials of the first of {@code candidates} that the
+   * Connector accepts, and deliver it to every watcher.
+   */
+  private CompletableFuture<Void> poll(final AccountWatch watch, final Iterator<Watcher> candidates) {
+    while (candidates.hasNext()) {
+      final Watcher poller = candidates.next();
+      if (!poller.isAuthorized()) {
+        continue;
+      }
+      return balanceCache.getBalanceAsync(poller.bearerToken, watch.accountId)
+        .handle((balance, error) -> {
+          if (error == null) {
+            watch.watchers.forEach(watcher -> watcher.deliver(balance));
+            return CompletableFuture.<Void>completedFuture(null);
+          }
+          final Throwable cause = ExceptionHandlerUtils.unwrap(error);
+          if (isRejected(cause)) {
+            // The Connector no longer accepts this watcher's credentials.
+            poller.fail(cause);
+            return poll(watch, candidates);
+          }
+          logger.warn("Unable to refresh balance of account {}: {}", watch.accountId, cause.getMessage());
+          return CompletableFuture.<Void>completedFuture(null);
+        })
+        .thenCompose(Function.identity());
+    }
+    return CompletableFuture.completedFuture(null);
+  }
+
+  private static boolean isRejected(final Throwable error) {
+    return error instanceof FeignException
+      && ((FeignException) error).status() >= 400 && ((FeignException) error).status() < 500;
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    Gauge.builder(METRIC_NAME + ".accounts", accountWatches, ConcurrentMap::size)
+      .description("Number of accounts whose balance is being watched")
+      .register(registry);
+    Gauge.builder(METRIC_NAME + ".watchers", accountWatches,
+      watches -> watches.values().stream().mapToInt(watch -> watch.watchers.size()).sum())
+      .description("Number of balance watchers")
+      .register(registry);
+  }
+
+  /**
+   * A handle on a balance watch.
+   */
+  public interface Subscription {
+
+    /**
+     * Stop watching. No further balances or errors are delivered once this returns, other than one that is already
+     * being delivered.
+     */
+    void cancel();
+  }
+
+  private final class AccountWatch {
+
+    private final AccountId accountId;
+    private final Set<Watcher> watchers = new CopyOnWriteArraySet<>();
+    private final ScheduledFuture<?> poller;
+
+    // 0 while idle, 1 while refreshing, and 2 if another refresh was requested during that one.
+    private final AtomicInteger refreshState = new AtomicInteger();
+
+    private AccountWatch(final AccountId accountId) {
+      this.accountId = accountId;
+      this.poller = scheduler.scheduleWithFixedDelay(
+        this::refresh, pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS
+      );
+    }
+
+    /**
+     * Refresh this account's balance, unless a refresh is already running, in which case it is run again once that
+     * one is done. A scheduled poll and a payment-triggered refresh therefore never interleave.
+     */
+    private void refresh() {
+      if (refreshState.getAndUpdate(state -> Math.min(state + 1, 2)) == 0) {
+        runRefresh();
+      }
+    }
+
+    private void runRefresh() {
+      reauthorize(this)
+        .thenCompose(reachable -> reachable ? poll(this, watchers.iterator()) : CompletableFuture.completedFuture(null))
+        .whenComplete((result, error) -> {
+          if (error != null) {
+            logger.warn("Unable to refresh balance of account {}: {}", accountId, error.getMessage());
+          }
+          if (refreshState.decrementAndGet() != 0) {
+            scheduler.execute(this::runRefresh);
+          }
+        });
+    }
+  }
+
+  private final class Watcher implements Subscription {
+
+    private final AccountId accountId;
+    private final Optional<BearerToken> bearerToken;
+    private final Consumer<AccountBalanceResponse> onChange;
+    private final Consumer<Throwable> onError;
+    private final Runnable onEnd;
+
+    // Runs this watcher's callbacks in order, one at a time.
+    private final Executor deliveries = MoreExecutors.newSequentialExecutor(deliveryExecutor);
+
+    private boolean authorized;
+    private long authorizedAtNanos;
+    // No more balances are queued for delivery once cancelled; none are delivered at all once unsubscribed.
+    private boolean cancelled;
+    private boolean unsubscribed;
+    private AccountBalanceResponse lastDelivered;
+    private ScheduledFuture<?> end;
+
+    private Watcher(
+      final AccountId accountId,
+      final Optional<BearerToken> bearerToken,
+      final Consumer<AccountBalanceResponse> onChange,
+      final Consumer<Throwable> onError,
+      final Runnable onEnd
+    ) {
+      this.accountId = Objects.requireNonNull(accountId);
+      this.bearerToken = Objects.requireNonNull(bearerToken);
+      this.onChange = Objects.requireNonNull(onChange);
+      this.onError = Objects.requireNonNull(onError);
+      this.onEnd = Objects.requireNonNull(onEnd);
+    }
+
+    @Override
+    public void cancel() {
+      synchronized (this) {
+        cancelled = true;
+        unsubscribed = true;
+      }
+      remove(this);
+    }
+
+    private synchronized boolean isUnsubscribed() {
+      return unsubscribed;
+    }
+
+    private synchronized boolean isAuthorized() {
+      return authorized && !cancelled;
+    }
+
+    private synchronized void authorize(final AccountBalanceResponse balance) {
+      authorized = true;
+      authorizedAtNanos = System.nanoTime();
+      deliver(balance);
+    }
+
+    private synchronized boolean isReauthorizationDue(final long nowNanos) {
+      return authorized && !cancelled && nowNanos - authorizedAtNanos >= reauthorizationInterval.toNanos();
+    }
+
+    private synchronized void reauthorized(final long nowNanos) {
+      authorizedAtNanos = nowNanos;
+    }
+
+    /**
+     * End this watch when its JWT expires, or when it reaches its maximum duration, whichever is sooner.
+     */
+    private synchronized void scheduleEnd(final Optional<Date> expiresAt) {
+      if (cancelled) {
+        return;
+      }
+      final long untilExpiry = expiresAt.map(exp -> exp.getTime() - System.currentTimeMillis()).orElse(Long.MAX_VALUE);
+      if (untilExpiry < maxWatchDuration.toMillis()) {
+        end = scheduler.schedule(
+          () -> fail(new BadCredentialsException("JWT is expired")), untilExpiry, TimeUnit.MILLISECONDS
+        );
+      } else {
+        end = scheduler.schedule(this::end, maxWatchDuration.toMillis(), TimeUnit.MILLISECONDS);
+      }
+    }
+
+    private synchronized void cancelEnd() {
+      if (end != null) {
+        end.cancel(false);
+      }
+    }
+
+    private synchronized void deliver(final AccountBalanceResponse balance) {
+      if (!authorized || cancelled || balance.equals(lastDelivered)) {
+        return;
+      }
+      lastDelivered = balance;
+      deliveries.execute(() -> send(balance));
+    }
+
+    private void send(final AccountBalanceResponse balance) {
+      if (isUnsubscribed()) {
+        return;
+      }
+      try {
+        onChange.accept(balance);
+      } catch (RuntimeException e) {
+        // The watcher's client has most likely gone away.
+        logger.debug("Unable to deliver balance of account {}: {}", accountId, e.getMessage());
+        synchronized (this) {
+          cancelled = true;
+        }
+        remove(this);
+      }
+    }
+
+    private void fail(final Throwable error) {
+      finish(() -> onError.accept(error));
+    }
+
+    private void end() {
+      finish(onEnd);
+    }
+
+    private void finish(final Runnable callback) {
+      synchronized (this) {
+        if (cancelled) {
+          return;
+        }
+        cancelled = true;
+      }
+      // After any balances already queued for this watcher.
+      deliveries.execute(() -> {
+        if (!isUnsubscribed()) {
+          callback.run();
+        }
+      });
+      remove(this);
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package org.interledger.spsp.server.services;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.accounts.AccountNotFoundProblem;
+import org.interledger.connector.accounts.AccountSettings;
+import org.interledger.spsp.server.client.AccountBalanceResponse;
+import org.interledger.spsp.server.model.BearerToken;
+import org.interledger.spsp.server.util.BoundedParallelism;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Looks up balances and account settings for many accounts at once, e.g. for dashboards and reconciliation jobs.
+ * Lookups go through {@link BalanceCache} and {@link AccountSettingsCache} like single lookups do, but use their
+ * non-blocking variants, so a batch holds no thread while it waits on the Connector and only a bounded number of its
+ * lookups are in flight at once.
+ */
+public class BatchLookupService {
+
+  private final BalanceCache balanceCache;
+  private final AccountSettingsCache accountSettingsCache;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param balanceCache         The {@link BalanceCache} to read balances through.
+   * @param accountSettingsCache The {@link AccountSettingsCache} to read account settings through.
+   */
+  public BatchLookupService(final BalanceCache balanceCache, final AccountSettingsCache accountSettingsCache) {
+    this.balanceCache = Objects.requireNonNull(balanceCache);
+    this.accountSettingsCache = Objects.requireNonNull(accountSettingsCache);
+  }
+
+  /**
+   * Get the balance of each of {@code accountIds}, running at most {@code parallelism} lookups at a time.
+   *
+   * @param bearerToken The caller's credentials, used for every lookup.
+   * @param accountIds  The account identifiers to look up. An invalid identifier fails only its own lookup.
+   * @param parallelism The maximum number of lookups in this batch to have in flight at once.
+   *
+   * @return A {@link List} of {@link CompletableFuture}s, one per account and in the same order.
+   */
+  public List<CompletableFuture<AccountBalanceResponse>> getBalances(
+    final Optional<BearerToken> bearerToken, final List<String> accountIds, final int parallelism
+  ) {
+    Objects.requireNonNull(bearerToken);
+    Objects.requireNonNull(accountIds);
+    return BoundedParallelism.apply(accountIds, parallelism,
+      accountId -> balanceCache.getBalanceAsync(bearerToken, AccountId.of(accountId)));
+  }
+
+  /**
+   * Get the settings of each of {@code accountIds}, running at most {@code parallelism} lookups at a time. A lookup
+   * for an account that doesn't exist fails with an {@link AccountNotFoundProblem}.
+   *
+   * @param accountIds  The account identifiers to look up. An invalid identifier fails only its own lookup.
+   * @param parallelism The maximum number of lookups in this batch to have in flight at once.
+   *
+   * @return A {@link List} of {@link CompletableFuture}s, one per account and in the same order.
+   */
+  public List<CompletableFuture<AccountSettings>> getAccounts(final List<String> accountIds, final int parallelism) {
+    Objects.requireNonNull(accountIds);
+    return BoundedParallelism.apply(accountIds, parallelism, rawAccountId -> {
+      final AccountId accountId = AccountId.of(rawAccountId);
+      return accountSettingsCache.findAccountAsync(accountId)
+        .thenApply(settings -> settings.orElseThrow(() -> new AccountNotFoundProblem(accountId)));
+    });
+  }
+}
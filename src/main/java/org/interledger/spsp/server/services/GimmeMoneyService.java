@@ -1,7 +1,6 @@
 package org.interledger.spsp.server.services;
 
 import org.interledger.connector.accounts.AccountId;
-import org.interledger.spsp.PaymentPointer;
 import org.interledger.spsp.server.model.BearerToken;
 
 import com.google.common.primitives.UnsignedLong;
@@ -30,6 +29,6 @@ public class GimmeMoneyService {
   public UnsignedLong gimmeMoney(AccountId destinationAccount, UnsignedLong amount)
     throws ExecutionException, InterruptedException {
     return sendMoneyService.sendMoney(rainmakerAccountId, Optional.of(rainmakerBearerToken), amount,
-      PaymentPointer.of("$" + spspUrl.host() + "/" + destinationAccount.value())).amountSent();
+      HermesUtils.paymentPointerFromSpspUrl(spspUrl, destinationAccount)).amountSent();
   }
 }
@@ -5,15 +5,44 @@ import org.interledger.spsp.PaymentPointer;
 
 import okhttp3.HttpUrl;
 
+import java.util.Optional;
+
 public class HermesUtils {
 
   public static PaymentPointer paymentPointerFromSpspUrl(HttpUrl spspUrl, AccountId accountId) {
+    return PaymentPointer.of("$" + paymentPointerHost(spspUrl) + "/" + accountId.value());
+  }
+
+  /**
+   * The inverse of {@link #paymentPointerFromSpspUrl(HttpUrl, AccountId)}: finds the local account that {@code
+   * paymentPointer} refers to, if it is one served by the SPSP receiver at {@code spspUrl}.
+   *
+   * @param spspUrl        The {@link HttpUrl} of this server's SPSP receiver.
+   * @param paymentPointer A {@link PaymentPointer}.
+   *
+   * @return The {@link AccountId} of the local account, or empty if {@code paymentPointer} isn't a local account.
+   */
+  public static Optional<AccountId> accountIdFromPaymentPointer(HttpUrl spspUrl, PaymentPointer paymentPointer) {
+    final String path = paymentPointer.path();
+    if (!paymentPointer.host().equalsIgnoreCase(paymentPointerHost(spspUrl))
+      || path.length() < 2 || path.indexOf('/', 1) != -1) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(AccountId.of(path.substring(1)));
+    } catch (IllegalArgumentException | IllegalStateException e) {
+      // Not a valid account identifier, so can't be a local account.
+      return Optional.empty();
+    }
+  }
+
+  private static String paymentPointerHost(HttpUrl spspUrl) {
     String host = spspUrl.host();
 
     // Don't need port if a no non-default is specified
     if (spspUrl.port() != 80 && spspUrl.port() != 443) {
       host += ":" + spspUrl.port();
     }
-    return PaymentPointer.of("$" + host + "/" + accountId.value());
+    return host;
   }
 }
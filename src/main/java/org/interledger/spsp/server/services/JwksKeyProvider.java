@@ -0,0 +1,154 @@
+package org.interledger.spsp.server.services;
+
+import com.auth0.jwk.InvalidPublicKeyException;
+import com.auth0.jwk.Jwk;
+import com.auth0.jwk.SigningKeyNotFoundException;
+import com.auth0.jwk.UrlJwkProvider;
+import com.auth0.jwt.interfaces.RSAKeyProvider;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URL;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * <p>Provides the RSA public keys of a JWKS (JSON Web Key Set) for verifying JWT signatures.</p>
+ *
+ * <p>Keys are held in memory and the whole set is refetched in the background every {@code refreshInterval}, so that
+ * verifying a token never waits on the JWKS endpoint. A key id that isn't in the set (e.g. just after the issuer
+ * rotated its keys) triggers an immediate refetch, but these are rate-limited so that tokens with made-up key ids can't
+ * turn into a flood of requests to the endpoint. If a refetch fails, the keys already held are kept.</p>
+ */
+public class JwksKeyProvider implements RSAKeyProvider, MeterBinder {
+
+  public static final String METRIC_NAME = "hermes.jwks";
+
+  private static final int CONNECT_TIMEOUT_MILLIS = 1000;
+  private static final int READ_TIMEOUT_MILLIS = 2000;
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  private final UrlJwkProvider jwkProvider;
+  private final RateLimiter onDemandFetches;
+  private final ScheduledExecutorService scheduler;
+
+  private final LongAdder fetches = new LongAdder();
+  private final LongAdder failedFetches = new LongAdder();
+
+  private volatile Map<String, RSAPublicKey> keys = ImmutableMap.of();
+
+  /**
+   * Required-args Constructor. Keys are fetched in the background as soon as this is constructed.
+   *
+   * @param jwksUrl                  The {@link URL} of the JWKS.
+   * @param refreshInterval          How often to refetch the JWKS.
+   * @param maxOnDemandFetchesPerMin The maximum number of times per minute to refetch the JWKS because a token named a
+   *                                 key that isn't in it.
+   */
+  public JwksKeyProvider(final URL jwksUrl, final Duration refreshInterval, final int maxOnDemandFetchesPerMin) {
+    Objects.requireNonNull(jwksUrl);
+    Objects.requireNonNull(refreshInterval);
+    this.jwkProvider = new UrlJwkProvider(jwksUrl, CONNECT_TIMEOUT_MILLIS, READ_TIMEOUT_MILLIS);
+    this.onDemandFetches = RateLimiter.create(maxOnDemandFetchesPerMin / 60d);
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(
+      new ThreadFactoryBuilder().setNameFormat("jwks-refresh-%d").setDaemon(true).build()
+    );
+    scheduler.scheduleWithFixedDelay(this::refresh, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void destroy() {
+    scheduler.shutdownNow();
+  }
+
+  @Override
+  public RSAPublicKey getPublicKeyById(final String keyId) {
+    if (keyId == null) {
+      return null;
+    }
+    final RSAPublicKey key = keys.get(keyId);
+    if (key != null || !onDemandFetches.tryAcquire()) {
+      return key;
+    }
+    refresh();
+    return keys.get(keyId);
+  }
+
+  /**
+   * Not supported: this provider can only be used to verify tokens.
+   *
+   * @return {@code null}.
+   */
+  @Override
+  public RSAPrivateKey getPrivateKey() {
+    return null;
+  }
+
+  /**
+   * Not supported: this provider can only be used to verify tokens.
+   *
+   * @return {@code null}.
+   */
+  @Override
+  public String getPrivateKeyId() {
+    return null;
+  }
+
+  /**
+   * Refetch the JWKS, replacing the keys held if it could be fetched.
+   */
+  private void refresh() {
+    fetches.increment();
+    try {
+      final ImmutableMap.Builder<String, RSAPublicKey> refreshed = ImmutableMap.builder();
+      for (Jwk jwk : jwkProvider.getAll()) {
+        if (jwk.getId() == null) {
+          continue;
+        }
+        try {
+          final PublicKey publicKey = jwk.getPublicKey();
+          if (publicKey instanceof RSAPublicKey) {
+            refreshed.put(jwk.getId(), (RSAPublicKey) publicKey);
+          }
+        } catch (InvalidPublicKeyException e) {
+          logger.warn("Ignoring invalid JWKS key {}: {}", jwk.getId(), e.getMessage());
+        }
+      }
+      keys = refreshed.build();
+    } catch (SigningKeyNotFoundException | RuntimeException e) {
+      failedFetches.increment();
+      logger.warn("Unable to fetch JWKS, keeping the {} keys already held: {}", keys.size(), e.getMessage());
+    }
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    Gauge.builder(METRIC_NAME + ".keys", this, provider -> provider.keys.size())
+      .description("Number of JWKS keys held for verifying JWTs")
+      .register(registry);
+    FunctionCounter.builder(METRIC_NAME + ".fetches", fetches, LongAdder::sum)
+      .description("Number of times the JWKS was fetched")
+      .register(registry);
+    FunctionCounter.builder(METRIC_NAME + ".fetch-failures", failedFetches, LongAdder::sum)
+      .description("Number of times the JWKS could not be fetched")
+      .register(registry);
+  }
+}
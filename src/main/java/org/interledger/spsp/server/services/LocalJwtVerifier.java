@@ -0,0 +1,78 @@
+package org.interledger.spsp.server.services;
+
+import org.interledger.spsp.server.model.BearerToken;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.auth0.jwt.interfaces.RSAKeyProvider;
+import com.auth0.jwt.interfaces.Verification;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Verifies JWTs locally, before anything is sent to the Connector: each token must be signed with RS256 by one of
+ * the issuer's keys, and have the expected issuer (and audience, if configured). Tokens that fail are rejected with
+ * a {@link BadCredentialsException}, which REST and gRPC both report as unauthenticated.
+ *
+ * <p>Any bearer token with the shape of a JWT is treated as one: it must decode and have an expiry, rather than
+ * falling back to being a SIMPLE token (which would skip verification) as it does when JWTs aren't verified locally.</p>
+ */
+public class LocalJwtVerifier {
+
+  private final JWTVerifier verifier;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param keyProvider An {@link RSAKeyProvider} for the issuer's public keys, typically a {@link JwksKeyProvider}.
+   * @param issuer      The {@code iss} tokens must have.
+   * @param audience    The {@code aud} tokens must have, if any.
+   */
+  public LocalJwtVerifier(final RSAKeyProvider keyProvider, final String issuer, final Optional<String> audience) {
+    Objects.requireNonNull(keyProvider);
+    Objects.requireNonNull(issuer);
+    Objects.requireNonNull(audience);
+    final Verification verification = JWT.require(Algorithm.RSA256(keyProvider)).withIssuer(issuer);
+    audience.ifPresent(verification::withAudience);
+    this.verifier = verification.build();
+  }
+
+  /**
+   * Verify {@code bearerToken} if it has the shape of a JWT. Other bearer tokens are SIMPLE tokens, which are left for
+   * the Connector to check.
+   *
+   * @param bearerToken A {@link BearerToken}.
+   *
+   * @return The verified {@link DecodedJWT}, or empty if {@code bearerToken} is a SIMPLE token.
+   *
+   * @throws BadCredentialsException If {@code bearerToken} has the shape of a JWT but can't be decoded, has no expiry,
+   *                                 or fails {@link #verify(DecodedJWT)}.
+   */
+  public Optional<DecodedJWT> verify(final BearerToken bearerToken) {
+    return AuthUtils.getJwtStrictly(bearerToken).map(this::verify);
+  }
+
+  /**
+   * Verify {@code jwt}.
+   *
+   * @param jwt A {@link DecodedJWT}, e.g. from {@link AuthUtils#getJwt(Optional)}.
+   *
+   * @return {@code jwt}, once verified.
+   *
+   * @throws BadCredentialsException If {@code jwt} wasn't signed by the issuer, isn't for this audience, or has
+   *                                 expired.
+   */
+  public DecodedJWT verify(final DecodedJWT jwt) {
+    Objects.requireNonNull(jwt);
+    try {
+      return verifier.verify(jwt);
+    } catch (JWTVerificationException e) {
+      throw new BadCredentialsException("JWT could not be verified: " + e.getMessage(), e);
+    }
+  }
+}
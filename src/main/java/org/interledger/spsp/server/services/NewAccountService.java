@@ -1,13 +1,9 @@
 package org.interledger.spsp.server.services;
 
-import static org.interledger.spsp.server.config.ilp.IlpOverHttpConfig.SPSP;
-
 import org.interledger.connector.accounts.AccountId;
 import org.interledger.connector.accounts.AccountRelationship;
 import org.interledger.connector.accounts.AccountSettings;
 import org.interledger.connector.client.ConnectorAdminClient;
-import org.interledger.connector.routing.StaticRoute;
-import org.interledger.core.InterledgerAddressPrefix;
 import org.interledger.link.http.IlpOverHttpLink;
 import org.interledger.link.http.IlpOverHttpLinkSettings;
 import org.interledger.link.http.IncomingLinkSettings;
@@ -15,14 +11,21 @@ import org.interledger.link.http.OutgoingLinkSettings;
 import org.interledger.spsp.server.grpc.services.AccountRequestResponseConverter;
 import org.interledger.spsp.server.model.BearerToken;
 import org.interledger.spsp.server.model.CreateAccountRestRequest;
+import org.interledger.spsp.server.util.BoundedParallelism;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.authentication.BadCredentialsException;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import javax.annotation.PreDestroy;
 
 public class NewAccountService {
 
@@ -30,18 +33,35 @@ public class NewAccountService {
 
   private final ConnectorAdminClient adminClient;
 
+  private final AccountSettingsCache accountSettingsCache;
+
   private final OutgoingLinkSettings spspLinkSettings;
 
-  private final InterledgerAddressPrefix spspAddressPrefix;
+  private final StaticRouteOutbox staticRouteOutbox;
+
+  private final ExecutorService executorService;
+
+  private final Optional<LocalJwtVerifier> localJwtVerifier;
 
   public NewAccountService(
     final ConnectorAdminClient adminClient,
+    final AccountSettingsCache accountSettingsCache,
     final OutgoingLinkSettings spspLinkSettings,
-    @Qualifier(SPSP) final InterledgerAddressPrefix spspAddressPrefix
+    final StaticRouteOutbox staticRouteOutbox,
+    final ExecutorService executorService,
+    final Optional<LocalJwtVerifier> localJwtVerifier
   ) {
     this.adminClient = adminClient;
+    this.accountSettingsCache = Objects.requireNonNull(accountSettingsCache);
     this.spspLinkSettings = spspLinkSettings;
-    this.spspAddressPrefix = spspAddressPrefix;
+    this.staticRouteOutbox = Objects.requireNonNull(staticRouteOutbox);
+    this.executorService = Objects.requireNonNull(executorService);
+    this.localJwtVerifier = Objects.requireNonNull(localJwtVerifier);
+  }
+
+  @PreDestroy
+  public void destroy() {
+    executorService.shutdown();
   }
 
   public AccountSettings createAccount(Optional<BearerToken> bearerToken, Optional<CreateAccountRestRequest> request) {
@@ -61,28 +81,58 @@ public class NewAccountService {
     return revertSimpleAuthTokenUnencrypted(populatedAccountSettings, createAccount(populatedAccountSettings));
   }
 
+  /**
+   * Create an account for each of {@code requests}, with at most {@code parallelism} being created at a time. Each
+   * account gets its own generated credentials.
+   *
+   * <p>Accounts are created with this server's admin credentials, so a batch is only accepted from a caller with a JWT
+   * that this server verified itself. Otherwise anyone could create a whole batch of accounts per request.</p>
+   *
+   * @param callerToken The credentials of the caller creating the batch.
+   * @param requests    The accounts to create.
+   * @param parallelism The maximum number of accounts in this batch to create at once.
+   *
+   * @return A {@link List} of {@link CompletableFuture}s, one per request and in the same order.
+   *
+   * @throws BadCredentialsException If the caller has no JWT, or JWTs aren't verified locally.
+   */
+  public List<CompletableFuture<AccountSettings>> createAccountsAsync(
+    final Optional<BearerToken> callerToken, final List<CreateAccountRestRequest> requests, final int parallelism
+  ) {
+    Objects.requireNonNull(callerToken);
+    Objects.requireNonNull(requests);
+    requireVerifiedJwt(callerToken);
+    return BoundedParallelism.apply(requests, parallelism, request -> CompletableFuture.supplyAsync(
+      () -> createAccount(Optional.empty(), Optional.of(request)), executorService
+    ));
+  }
+
   public AccountSettings createAccount(AccountSettings request) {
     // Create account on the connector
     AccountSettings returnedAccountSettings = adminClient.createAccount(request);
+    // Don't serve a stale (e.g., not-found) entry for the account that was just written
+    accountSettingsCache.invalidate(returnedAccountSettings.accountId());
 
     logger.info("Account created successfully with accountId: " + request.accountId());
 
-    try {
-      InterledgerAddressPrefix routePrefix = spspAddressPrefix.with(returnedAccountSettings.accountId().value());
-      adminClient.createStaticRoute(
-        routePrefix.getValue(),
-        StaticRoute.builder()
-          .routePrefix(routePrefix)
-          .nextHopAccountId(returnedAccountSettings.accountId())
-          .build()
-      );
-    } catch (Exception e) {
-      logger.warn("Failed to create route", e);
-    }
+    // The route is created (and retried until it succeeds) in the background rather than delaying the response
+    staticRouteOutbox.enqueue(returnedAccountSettings.accountId());
 
     return returnedAccountSettings;
   }
 
+  private void requireVerifiedJwt(final Optional<BearerToken> callerToken) {
+    final LocalJwtVerifier verifier = localJwtVerifier.orElseThrow(
+      () -> new BadCredentialsException("Creating accounts in bulk requires JWTs to be verified locally")
+    );
+    final BearerToken bearerToken = callerToken.orElseThrow(
+      () -> new BadCredentialsException("Bearer tokens must not be null")
+    );
+    if (!verifier.verify(bearerToken).isPresent()) {
+      throw new BadCredentialsException("Creating accounts in bulk requires a JWT");
+    }
+  }
+
   private AccountSettings revertSimpleAuthTokenUnencrypted(AccountSettings populatedAccountSettings,
     AccountSettings returnedAccountSettings) {
     if (returnedAccountSettings.customSettings().get(IncomingLinkSettings.HTTP_INCOMING_AUTH_TYPE)
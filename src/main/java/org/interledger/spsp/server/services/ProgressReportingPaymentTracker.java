@@ -0,0 +1,121 @@
+package org.interledger.spsp.server.services;
+
+import org.interledger.spsp.server.model.PaymentProgress;
+import org.interledger.stream.Denomination;
+import org.interledger.stream.PrepareAmounts;
+import org.interledger.stream.SenderAmountPaymentTracker;
+
+import com.google.common.primitives.UnsignedLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * <p>A {@link SenderAmountPaymentTracker} that delegates all accounting to another tracker, and reports a {@link
+ * PaymentProgress} to a listener every time a packet is fulfilled.</p>
+ *
+ * <p>Packets are fulfilled concurrently, so each snapshot is taken atomically with the commit that it follows, and
+ * the listener is called one snapshot at a time. A snapshot that arrives after a later one has been reported is
+ * skipped rather than reported out of order, so every report has more fulfilled packets, and at least as much sent and
+ * delivered, as the one before it.</p>
+ */
+class ProgressReportingPaymentTracker implements SenderAmountPaymentTracker {
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  private final SenderAmountPaymentTracker delegate;
+  private final Consumer<PaymentProgress> progressListener;
+
+  private final Object commitLock = new Object();
+  // Guarded by commitLock.
+  private long numFulfilledPackets;
+
+  private final Object reportLock = new Object();
+  // Guarded by reportLock.
+  private long numReportedPackets;
+
+  ProgressReportingPaymentTracker(
+    final SenderAmountPaymentTracker delegate, final Consumer<PaymentProgress> progressListener
+  ) {
+    this.delegate = Objects.requireNonNull(delegate);
+    this.progressListener = Objects.requireNonNull(progressListener);
+  }
+
+  @Override
+  public UnsignedLong getOriginalAmount() {
+    return delegate.getOriginalAmount();
+  }
+
+  @Override
+  public UnsignedLong getOriginalAmountLeft() {
+    return delegate.getOriginalAmountLeft();
+  }
+
+  @Override
+  public UnsignedLong getDeliveredAmountInSenderUnits() {
+    return delegate.getDeliveredAmountInSenderUnits();
+  }
+
+  @Override
+  public UnsignedLong getDeliveredAmountInReceiverUnits() {
+    return delegate.getDeliveredAmountInReceiverUnits();
+  }
+
+  @Override
+  public PrepareAmounts getSendPacketAmounts(final UnsignedLong congestionLimit, final Denomination senderDenomination) {
+    return delegate.getSendPacketAmounts(congestionLimit, senderDenomination);
+  }
+
+  @Override
+  public boolean auth(final PrepareAmounts prepareAmounts) {
+    return delegate.auth(prepareAmounts);
+  }
+
+  @Override
+  public void rollback(final PrepareAmounts prepareAmounts, final boolean packetRejected) {
+    delegate.rollback(prepareAmounts, packetRejected);
+  }
+
+  @Override
+  public void commit(final PrepareAmounts prepareAmounts, final UnsignedLong deliveredAmount) {
+    final PaymentProgress progress;
+    synchronized (commitLock) {
+      delegate.commit(prepareAmounts, deliveredAmount);
+      progress = PaymentProgress.builder()
+        .numFulfilledPackets(++numFulfilledPackets)
+        .amountSent(delegate.getDeliveredAmountInSenderUnits())
+        .amountDelivered(delegate.getDeliveredAmountInReceiverUnits())
+        .build();
+    }
+    // Reported outside of commitLock, so that a slow listener doesn't hold up other packets' commits.
+    report(progress);
+  }
+
+  private void report(final PaymentProgress progress) {
+    synchronized (reportLock) {
+      if (progress.numFulfilledPackets() <= numReportedPackets) {
+        // Superseded by a snapshot that has already been reported.
+        return;
+      }
+      numReportedPackets = progress.numFulfilledPackets();
+      try {
+        progressListener.accept(progress);
+      } catch (RuntimeException e) {
+        // A misbehaving listener must never affect the payment itself.
+        logger.warn("Unable to report payment progress: {}", e.getMessage(), e);
+      }
+    }
+  }
+
+  @Override
+  public boolean moreToSend() {
+    return delegate.moreToSend();
+  }
+
+  @Override
+  public boolean successful() {
+    return delegate.successful();
+  }
+}
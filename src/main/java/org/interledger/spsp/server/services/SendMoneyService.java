@@ -4,7 +4,6 @@ import org.interledger.codecs.ilp.InterledgerCodecContextFactory;
 import org.interledger.connector.accounts.AccountId;
 import org.interledger.connector.accounts.AccountNotFoundProblem;
 import org.interledger.connector.accounts.AccountSettings;
-import org.interledger.connector.client.ConnectorAdminClient;
 import org.interledger.core.InterledgerAddress;
 import org.interledger.core.InterledgerAddressPrefix;
 import org.interledger.core.SharedSecret;
@@ -14,39 +13,77 @@ import org.interledger.spsp.PaymentPointer;
 import org.interledger.spsp.StreamConnectionDetails;
 import org.interledger.spsp.client.SpspClient;
 import org.interledger.spsp.server.model.BearerToken;
+import org.interledger.spsp.server.model.PaymentProgress;
+import org.interledger.spsp.server.model.PaymentRequest;
+import org.interledger.spsp.server.util.BoundedParallelism;
+import org.interledger.spsp.server.util.DependencyTimer;
 import org.interledger.stream.Denomination;
 import org.interledger.stream.SendMoneyRequest;
 import org.interledger.stream.SendMoneyResult;
+import org.interledger.stream.SenderAmountPaymentTracker;
 import org.interledger.stream.crypto.JavaxStreamEncryptionService;
 import org.interledger.stream.sender.FixedSenderAmountPaymentTracker;
 import org.interledger.stream.sender.SimpleStreamSender;
 import org.interledger.stream.sender.StreamConnectionManager;
+import org.interledger.stream.sender.StreamSender;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Throwables;
 import com.google.common.primitives.UnsignedLong;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import javax.annotation.PreDestroy;
 
 public class SendMoneyService {
 
   public static final int SEND_TIMEOUT = 60;
+
+  /**
+   * The timeout applied to payments whose caller didn't ask for one.
+   */
+  public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(SEND_TIMEOUT);
+
   private final SpspClient spspClient;
 
   private final HttpUrl connectorUrl;
 
   private final ObjectMapper objectMapper;
 
-  private final ConnectorAdminClient adminClient;
+  private final AccountSettingsCache accountSettingsCache;
+  private final BalanceCache balanceCache;
+  // Admits payments: runs SPSP resolution and sender preparation, and rejects payments once it is saturated.
   private final ExecutorService executorService;
+  // Runs the packets of payments that have already started, which must never be rejected part way through a payment.
+  private final ExecutorService streamExecutorService;
+  // Fires payment deadlines that expire before the STREAM send (which enforces its own timeout) has started.
+  private final ScheduledExecutorService deadlineScheduler;
+  private final StreamSenderPool streamSenderPool;
+  // Times STREAM sends, i.e. the round-trips of every packet of a payment through the Connector to the receiver.
+  private final DependencyTimer streamSendTimer;
   private OkHttpClient okHttpClient;
 
   // Used by STREAM sender to tell the receiver what it's ILP address is so that the receiver can theoretically send
@@ -56,26 +93,40 @@ public class SendMoneyService {
   public SendMoneyService(
     HttpUrl connectorUrl,
     ObjectMapper objectMapper,
-    ConnectorAdminClient adminClient,
+    AccountSettingsCache accountSettingsCache,
+    BalanceCache balanceCache,
     OkHttpClient okHttpClient,
     SpspClient spspClient,
-    InterledgerAddressPrefix spspAddressPrefix) {
+    InterledgerAddressPrefix spspAddressPrefix,
+    StreamSenderPool streamSenderPool,
+    ExecutorService executorService,
+    ExecutorService streamExecutorService,
+    MeterRegistry meterRegistry) {
     this.connectorUrl = connectorUrl;
     this.objectMapper = objectMapper;
-    this.adminClient = adminClient;
+    this.accountSettingsCache = Objects.requireNonNull(accountSettingsCache);
+    this.balanceCache = Objects.requireNonNull(balanceCache);
     this.okHttpClient = okHttpClient;
-    this.executorService = Executors.newFixedThreadPool(20);
+    this.executorService = Objects.requireNonNull(executorService);
+    this.streamExecutorService = Objects.requireNonNull(streamExecutorService);
+    this.deadlineScheduler = Executors.newSingleThreadScheduledExecutor(
+      new ThreadFactoryBuilder().setNameFormat("payment-deadlines-%d").setDaemon(true).build()
+    );
     this.spspClient = spspClient;
     this.spspAddressPrefix = Objects.requireNonNull(spspAddressPrefix);
+    this.streamSenderPool = Objects.requireNonNull(streamSenderPool);
+    this.streamSendTimer = DependencyTimer.of(meterRegistry, "stream", "sendMoney");
   }
 
   @PreDestroy
   private void destroy() {
+    deadlineScheduler.shutdown();
     executorService.shutdown();
+    streamExecutorService.shutdown();
   }
 
   /**
-   * Send money using ILP STREAM and SPSP.
+   * Send money using ILP STREAM and SPSP, blocking until the payment completes.
    *
    * @param senderAccountId The {@link AccountId} of the sender of this payment.
    * @param bearerToken     The {@link BearerToken} for the sender's account to authorize payment sending.
@@ -86,6 +137,7 @@ public class SendMoneyService {
    *
    * @throws ExecutionException
    * @throws InterruptedException
+   * @see #sendMoneyAsync(AccountId, Optional, UnsignedLong, PaymentPointer)
    */
   public SendMoneyResult sendMoney(
     final AccountId senderAccountId,
@@ -93,16 +145,232 @@ public class SendMoneyService {
     final UnsignedLong amount,
     final PaymentPointer destination
   ) throws ExecutionException, InterruptedException {
+    try {
+      return sendMoneyAsync(senderAccountId, bearerToken, amount, destination).get();
+    } catch (ExecutionException e) {
+      // Preserve the behavior of surfacing runtime exceptions (e.g. AccountNotFoundProblem) directly to callers.
+      Throwables.throwIfUnchecked(e.getCause());
+      throw e;
+    }
+  }
+
+  /**
+   * Send money using ILP STREAM and SPSP without blocking the calling thread. SPSP resolution and the sender account
+   * lookup happen on this service's executor, and the returned future completes when the STREAM payment does.
+   *
+   * @param senderAccountId The {@link AccountId} of the sender of this payment.
+   * @param bearerToken     The {@link BearerToken} for the sender's account to authorize payment sending.
+   * @param amount          An {@link UnsignedLong} for the amount of the payment.
+   * @param destination     The {@link PaymentPointer} representing the destination of the payment.
+   *
+   * @return A {@link CompletableFuture} that completes with a {@link SendMoneyResult} with the details of the payment.
+   */
+  public CompletableFuture<SendMoneyResult> sendMoneyAsync(
+    final AccountId senderAccountId,
+    final Optional<BearerToken> bearerToken,
+    final UnsignedLong amount,
+    final PaymentPointer destination
+  ) {
+    return sendMoneyAsync(senderAccountId, bearerToken, amount, destination, DEFAULT_TIMEOUT);
+  }
+
+  /**
+   * Send money using ILP STREAM and SPSP without blocking the calling thread, giving up once {@code timeout} has
+   * elapsed. The timeout covers the whole payment: time spent resolving the receiver and looking up the sender's
+   * account is deducted from the time the STREAM send is allowed to take.
+   *
+   * <p>Cancelling the returned future (e.g., because the caller went away) abandons the payment. A payment that hasn't
+   * started sending money never will, and one that has stops sending new packets, although packets already in flight
+   * are still settled. SPSP and account lookups already under way are interrupted, but a blocked HTTP call may only
+   * give up once its client's own read timeout elapses; whatever it returns is discarded.</p>
+   *
+   * @param senderAccountId The {@link AccountId} of the sender of this payment.
+   * @param bearerToken     The {@link BearerToken} for the sender's account to authorize payment sending.
+   * @param amount          An {@link UnsignedLong} for the amount of the payment.
+   * @param destination     The {@link PaymentPointer} representing the destination of the payment.
+   * @param timeout         The maximum amount of time the payment may take.
+   *
+   * @return A {@link CompletableFuture} that completes with a {@link SendMoneyResult} with the details of the payment,
+   *   or exceptionally with a {@link TimeoutException} if the deadline passes before any money is sent.
+   */
+  public CompletableFuture<SendMoneyResult> sendMoneyAsync(
+    final AccountId senderAccountId,
+    final Optional<BearerToken> bearerToken,
+    final UnsignedLong amount,
+    final PaymentPointer destination,
+    final Duration timeout
+  ) {
+    return sendMoneyAsync(senderAccountId, bearerToken, amount, destination, timeout, Optional.empty());
+  }
+
+  /**
+   * Send money using ILP STREAM and SPSP without blocking the calling thread, reporting a {@link PaymentProgress} to
+   * {@code progressListener} each time a STREAM packet is fulfilled. The listener is called from whichever thread
+   * fulfilled a packet, but never concurrently, and only ever with progress beyond what it was last told of (a packet
+   * whose progress was overtaken by a later one is not reported).
+   *
+   * @param senderAccountId  The {@link AccountId} of the sender of this payment.
+   * @param bearerToken      The {@link BearerToken} for the sender's account to authorize payment sending.
+   * @param amount           An {@link UnsignedLong} for the amount of the payment.
+   * @param destination      The {@link PaymentPointer} representing the destination of the payment.
+   * @param timeout          The maximum amount of time the payment may take.
+   * @param progressListener A {@link Consumer} of {@link PaymentProgress} updates.
+   *
+   * @return A {@link CompletableFuture} that completes with a {@link SendMoneyResult} with the details of the payment.
+   *
+   * @see #sendMoneyAsync(AccountId, Optional, UnsignedLong, PaymentPointer, Duration)
+   */
+  public CompletableFuture<SendMoneyResult> sendMoneyAsync(
+    final AccountId senderAccountId,
+    final Optional<BearerToken> bearerToken,
+    final UnsignedLong amount,
+    final PaymentPointer destination,
+    final Duration timeout,
+    final Consumer<PaymentProgress> progressListener
+  ) {
+    Objects.requireNonNull(progressListener);
+    return sendMoneyAsync(senderAccountId, bearerToken, amount, destination, timeout, Optional.of(progressListener));
+  }
 
+  private CompletableFuture<SendMoneyResult> sendMoneyAsync(
+    final AccountId senderAccountId,
+    final Optional<BearerToken> bearerToken,
+    final UnsignedLong amount,
+    final PaymentPointer destination,
+    final Duration timeout,
+    final Optional<Consumer<PaymentProgress>> progressListener
+  ) {
     Objects.requireNonNull(senderAccountId);
     Objects.requireNonNull(bearerToken);
     Objects.requireNonNull(amount);
     Objects.requireNonNull(destination);
+    Objects.requireNonNull(timeout);
+
+    final Instant deadline = Instant.now().plus(timeout);
+    final CompletableFuture<SendMoneyResult> result = new CompletableFuture<>();
+    // Starting the STREAM send and giving up on the payment (on its deadline, or because the caller abandoned it) race
+    // each other; whichever moves the payment out of PREPARING first wins.
+    final AtomicReference<PaymentState> state = new AtomicReference<>(PaymentState.PREPARING);
+    final StoppablePaymentTracker paymentTracker =
+      new StoppablePaymentTracker(newPaymentTracker(amount, progressListener));
 
-    // Fetch shared secret and destination address using SPSP client
-    StreamConnectionDetails connectionDetails = spspClient.getStreamConnectionDetails(destination);
+    final Future<?> preparation = executorService.submit(() -> {
+      try {
+        // Fetch shared secret and destination address using SPSP client
+        final StreamConnectionDetails connectionDetails = spspClient.getStreamConnectionDetails(destination);
+        final PreparedSender sender = prepareSender(senderAccountId, bearerToken);
+        final Duration remaining = remaining(deadline);
+        if (!state.compareAndSet(PaymentState.PREPARING, PaymentState.SENDING)) {
+          // Timed out or abandoned by the caller while resolving; don't start sending money.
+          return;
+        }
+        send(sender, destination, connectionDetails, amount, remaining, paymentTracker)
+          .whenComplete((sendResult, error) -> complete(result, sendResult, error));
+      } catch (Exception e) {
+        result.completeExceptionally(e);
+      }
+    });
 
-    AccountSettings senderAccountSettings = adminClient.findAccount(senderAccountId.value())
+    // The STREAM sender enforces the deadline once it has started, so this only fires for a stuck preparation.
+    final ScheduledFuture<?> deadlineTimer = deadlineScheduler.schedule(() -> {
+      if (state.compareAndSet(PaymentState.PREPARING, PaymentState.ABANDONED)) {
+        result.completeExceptionally(new TimeoutException("Payment timed out before any money was sent"));
+      }
+    }, timeout.toMillis(), TimeUnit.MILLISECONDS);
+
+    result.whenComplete((sendResult, error) -> {
+      deadlineTimer.cancel(false);
+      if (error != null) {
+        // Stop spending executor and Connector capacity on a payment nobody is waiting for.
+        state.compareAndSet(PaymentState.PREPARING, PaymentState.ABANDONED);
+        preparation.cancel(true);
+        paymentTracker.stop();
+      }
+    });
+    return result;
+  }
+
+  /**
+   * Send a batch of payments from a single account using ILP STREAM and SPSP, running at most {@code parallelism} of
+   * them at a time. The sender's account lookup and STREAM sender (including its link) are shared by every payment in
+   * the batch, but each payment resolves its destination via SPSP itself, as each needs its own STREAM connection
+   * (only failed lookups are shared, by a {@link org.interledger.spsp.server.client.CachingSpspClient}).
+   *
+   * @param senderAccountId The {@link AccountId} of the sender of these payments.
+   * @param bearerToken     The {@link BearerToken} for the sender's account to authorize payment sending.
+   * @param payments        A {@link List} of {@link PaymentRequest}s to send.
+   * @param parallelism     The maximum number of payments in this batch to have in flight at once.
+   * @param timeout         The maximum amount of time the whole batch may take. Each payment may take up to {@link
+   *                        #DEFAULT_TIMEOUT}, but no longer than what is left of this when it starts, and payments that
+   *                        haven't started once it has elapsed fail with a {@link TimeoutException}.
+   *
+   * @return A {@link List} of {@link CompletableFuture}s, one per payment and in the same order, that each complete
+   *   with the {@link SendMoneyResult} of that payment. Cancelling one of them abandons that payment: if it hasn't
+   *   started it never will, and if it has it stops sending new packets.
+   */
+  public List<CompletableFuture<SendMoneyResult>> sendMoneyBatchAsync(
+    final AccountId senderAccountId,
+    final Optional<BearerToken> bearerToken,
+    final List<? extends PaymentRequest> payments,
+    final int parallelism,
+    final Duration timeout
+  ) {
+    Objects.requireNonNull(senderAccountId);
+    Objects.requireNonNull(bearerToken);
+    Objects.requireNonNull(payments);
+    Objects.requireNonNull(timeout);
+
+    final Instant deadline = Instant.now().plus(timeout);
+
+    final CompletableFuture<PreparedSender> preparedSender =
+      CompletableFuture.supplyAsync(() -> prepareSender(senderAccountId, bearerToken), executorService);
+    final List<StoppablePaymentTracker> paymentTrackers = payments.stream()
+      .map(payment -> new StoppablePaymentTracker(newPaymentTracker(payment.amount(), Optional.empty())))
+      .collect(Collectors.toList());
+
+    final List<CompletableFuture<SendMoneyResult>> results = BoundedParallelism.apply(
+      IntStream.range(0, payments.size()).boxed().collect(Collectors.toList()), parallelism, index -> {
+        final PaymentRequest payment = payments.get(index);
+        if (!Instant.now().isBefore(deadline)) {
+          return failedFuture(new TimeoutException("Batch timed out before this payment was started"));
+        }
+        return preparedSender
+          .thenCombine(
+            // Each payment needs a STREAM connection of its own, so its details are never shared with another.
+            CompletableFuture.supplyAsync(
+              () -> spspClient.getStreamConnectionDetails(PaymentPointer.of(payment.destinationPaymentPointer())),
+              executorService
+            ),
+            (sender, details) -> {
+              final Duration remaining;
+              try {
+                remaining = remaining(deadline);
+              } catch (TimeoutException e) {
+                return SendMoneyService.<SendMoneyResult>failedFuture(e);
+              }
+              return send(sender, PaymentPointer.of(payment.destinationPaymentPointer()), details, payment.amount(),
+                remaining.compareTo(DEFAULT_TIMEOUT) < 0 ? remaining : DEFAULT_TIMEOUT, paymentTrackers.get(index));
+            }
+          )
+          .thenCompose(Function.identity());
+      }
+    );
+    for (int i = 0; i < results.size(); i++) {
+      final StoppablePaymentTracker paymentTracker = paymentTrackers.get(i);
+      results.get(i).whenComplete((result, error) -> {
+        if (error instanceof CancellationException) {
+          paymentTracker.stop();
+        }
+      });
+    }
+    return results;
+  }
+
+  /**
+   * Everything about the sending side of a payment that doesn't depend on the destination or amount.
+   */
+  private PreparedSender prepareSender(final AccountId senderAccountId, final Optional<BearerToken> bearerToken) {
+    AccountSettings senderAccountSettings = accountSettingsCache.findAccount(senderAccountId)
       .orElseThrow(() -> new AccountNotFoundProblem(senderAccountId));
 
     // TODO: https://github.com/xpring-eng/hermes-ilp/issues/50
@@ -111,30 +379,91 @@ public class SendMoneyService {
       spspAddressPrefix.with(senderAccountId.value()
       ).with("NotYetImplemented").getValue());
 
-    // Use ILP over HTTP for our underlying link
-    IlpOverHttpLink link = newIlpOverHttpLink(senderAddress, senderAccountId,
-      bearerToken.map(BearerToken::rawToken).orElse(""));
-
-    // Create SimpleStreamSender for sending STREAM payments
-    SimpleStreamSender simpleStreamSender = new SimpleStreamSender(
-      link, Duration.ofMillis(10L), new JavaxStreamEncryptionService(), new StreamConnectionManager(), executorService
+    // Reuse a pooled StreamSender for this account and credentials, if one is warm
+    final StreamSender streamSender = streamSenderPool.getOrCreate(senderAccountId, bearerToken,
+      () -> newStreamSender(senderAddress, senderAccountId, bearerToken.map(BearerToken::rawToken).orElse(""))
     );
 
+    final Denomination denomination = Denomination.builder()
+      .assetCode(senderAccountSettings.assetCode())
+      .assetScale((short) senderAccountSettings.assetScale())
+      .build();
+
+    return new PreparedSender(senderAccountId, senderAddress, denomination, streamSender);
+  }
+
+  private CompletableFuture<SendMoneyResult> send(
+    final PreparedSender sender,
+    final PaymentPointer destination,
+    final StreamConnectionDetails connectionDetails,
+    final UnsignedLong amount,
+    final Duration timeout,
+    final SenderAmountPaymentTracker paymentTracker
+  ) {
     // Send payment using STREAM
-    return simpleStreamSender.sendMoney(
+    final CompletableFuture<SendMoneyResult> result = streamSendTimer.recordAsync(() -> sender.streamSender.sendMoney(
       SendMoneyRequest.builder()
-        .sourceAddress(senderAddress)
+        .sourceAddress(sender.senderAddress)
         .amount(amount)
-        .denomination(Denomination.builder()
-          .assetCode(senderAccountSettings.assetCode())
-          .assetScale((short) senderAccountSettings.assetScale())
-          .build())
+        .denomination(sender.denomination)
         .destinationAddress(connectionDetails.destinationAddress())
-        .timeout(Duration.ofSeconds(SEND_TIMEOUT))
-        .paymentTracker(new FixedSenderAmountPaymentTracker(amount))
+        .timeout(timeout)
+        .paymentTracker(paymentTracker)
         .sharedSecret(SharedSecret.of(connectionDetails.sharedSecret().value()))
         .build()
-    ).get();
+    ), SendMoneyResult::successfulPayment);
+
+    // Even a failed payment may have moved some money, so balances are stale either way.
+    result.whenComplete((sendResult, error) -> {
+      balanceCache.invalidate(sender.accountId);
+      balanceCache.invalidate(destination);
+    });
+    return result;
+  }
+
+  private static SenderAmountPaymentTracker newPaymentTracker(
+    final UnsignedLong amount, final Optional<Consumer<PaymentProgress>> progressListener
+  ) {
+    return progressListener
+      .<SenderAmountPaymentTracker>map(
+        listener -> new ProgressReportingPaymentTracker(new FixedSenderAmountPaymentTracker(amount), listener)
+      )
+      .orElseGet(() -> new FixedSenderAmountPaymentTracker(amount));
+  }
+
+  private static Duration remaining(final Instant deadline) throws TimeoutException {
+    final Duration remaining = Duration.between(Instant.now(), deadline);
+    if (remaining.isNegative() || remaining.isZero()) {
+      throw new TimeoutException("Payment timed out before any money was sent");
+    }
+    return remaining;
+  }
+
+  private static <T> CompletableFuture<T> failedFuture(final Throwable error) {
+    final CompletableFuture<T> future = new CompletableFuture<>();
+    future.completeExceptionally(error);
+    return future;
+  }
+
+  private static <T> void complete(final CompletableFuture<T> future, final T value, final Throwable error) {
+    if (error != null) {
+      future.completeExceptionally(error);
+    } else {
+      future.complete(value);
+    }
+  }
+
+  private StreamSender newStreamSender(InterledgerAddress senderAddress, AccountId senderAccountId,
+    String bearerToken) {
+    // Use ILP over HTTP for our underlying link
+    IlpOverHttpLink link = newIlpOverHttpLink(senderAddress, senderAccountId, bearerToken);
+
+    // Create SimpleStreamSender for sending STREAM payments. Its packets don't go through the payments executor: a
+    // packet rejected there would fail a payment that has already moved money, rather than turn a new one away.
+    return new SimpleStreamSender(
+      link, Duration.ofMillis(10L), new JavaxStreamEncryptionService(), new StreamConnectionManager(),
+      streamExecutorService
+    );
   }
 
   private IlpOverHttpLink newIlpOverHttpLink(InterledgerAddress senderAddress, AccountId senderAccountId,
@@ -159,4 +488,30 @@ public class SendMoneyService {
     link.setLinkId(LinkId.of(senderAccountId.value()));
     return link;
   }
+
+  private enum PaymentState {
+    PREPARING,
+    SENDING,
+    ABANDONED
+  }
+
+  private static final class PreparedSender {
+
+    private final AccountId accountId;
+    private final InterledgerAddress senderAddress;
+    private final Denomination denomination;
+    private final StreamSender streamSender;
+
+    private PreparedSender(
+      final AccountId accountId,
+      final InterledgerAddress senderAddress,
+      final Denomination denomination,
+      final StreamSender streamSender
+    ) {
+      this.accountId = accountId;
+      this.senderAddress = senderAddress;
+      this.denomination = denomination;
+      this.streamSender = streamSender;
+    }
+  }
 }
@@ -0,0 +1,235 @@
+package org.interledger.spsp.server.services;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.client.ConnectorAdminClient;
+import org.interledger.connector.routing.StaticRoute;
+import org.interledger.core.InterledgerAddressPrefix;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import feign.FeignException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * <p>Creates the {@link StaticRoute} that lets each new account receive payments, in the background and with retries,
+ * so that account creation doesn't wait on (or silently lose) the second call to the Connector.</p>
+ *
+ * <p>Each route is keyed by its prefix, which doubles as an idempotency key: enqueuing a route that is already
+ * pending is a no-op, and because the Connector replaces any existing route with the same prefix, delivering a route
+ * more than once is harmless. Failed deliveries are retried with exponential backoff until they succeed, except that
+ * a route the Connector keeps rejecting with a client error (a 4xx other than 408 or 429) is abandoned after a
+ * configured number of attempts, since retrying won't change the answer. Abandoned routes are logged and counted
+ * separately from failed attempts.</p>
+ *
+ * <p>Pending routes are only held in memory. {@link #reconcile(Collection)} re-enqueues the route of each account it
+ * is given that this outbox hasn't confirmed (or abandoned), which repairs routes that were lost to a restart, but only
+ * for those accounts: it doesn't discover accounts on its own, so it is not a reconciler for every account that
+ * exists on the Connector.</p>
+ */
+public class StaticRouteOutbox implements MeterBinder {
+
+  public static final String METRIC_NAME = "hermes.static-routes";
+
+  private static final long MAX_CONFIRMED_ROUTES = 100_000;
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  private final ConnectorAdminClient adminClient;
+  private final InterledgerAddressPrefix spspAddressPrefix;
+  private final Duration initialBackoff;
+  private final Duration maxBackoff;
+  private final int maxClientErrorAttempts;
+  private final ScheduledExecutorService scheduler;
+
+  private final ConcurrentMap<InterledgerAddressPrefix, AccountId> pendingRoutes = new ConcurrentHashMap<>();
+  private final Cache<AccountId, Boolean> confirmedRoutes = CacheBuilder.newBuilder()
+    .maximumSize(MAX_CONFIRMED_ROUTES)
+    .build();
+  private final Cache<AccountId, Boolean> abandonedRoutes = CacheBuilder.newBuilder()
+    .maximumSize(MAX_CONFIRMED_ROUTES)
+    .build();
+
+  private final AtomicLong delivered = new AtomicLong();
+  private final AtomicLong failedAttempts = new AtomicLong();
+  private final AtomicLong abandoned = new AtomicLong();
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param adminClient       A {@link ConnectorAdminClient} to create routes with.
+   * @param spspAddressPrefix The {@link InterledgerAddressPrefix} that each account's route prefix is built from.
+   * @param initialBackoff    How long to wait before retrying a route's first failed delivery. Doubles on each
+   *                          further failure.
+   * @param maxBackoff             The longest to wait between retries of a route.
+   * @param maxClientErrorAttempts The number of times a route may be rejected with a client error before it is
+   *                               abandoned.
+   */
+  public StaticRouteOutbox(
+    final ConnectorAdminClient adminClient,
+    final InterledgerAddressPrefix spspAddressPrefix,
+    final Duration initialBackoff,
+    final Duration maxBackoff,
+    final int maxClientErrorAttempts
+  ) {
+    this.adminClient = Objects.requireNonNull(adminClient);
+    this.spspAddressPrefix = Objects.requireNonNull(spspAddressPrefix);
+    this.initialBackoff = Objects.requireNonNull(initialBackoff);
+    this.maxBackoff = Objects.requireNonNull(maxBackoff);
+    this.maxClientErrorAttempts = maxClientErrorAttempts;
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(
+      new ThreadFactoryBuilder().setNameFormat("static-routes-%d").setDaemon(true).build()
+    );
+  }
+
+  @PreDestroy
+  public void destroy() {
+    scheduler.shutdownNow();
+  }
+
+  /**
+   * Create the route to {@code accountId} in the background. Does nothing if that route is already pending.
+   *
+   * @param accountId The {@link AccountId} of the account to route to.
+   */
+  public void enqueue(final AccountId accountId) {
+    Objects.requireNonNull(accountId);
+    final InterledgerAddressPrefix routePrefix = spspAddressPrefix.with(accountId.value());
+    if (pendingRoutes.putIfAbsent(routePrefix, accountId) == null) {
+      scheduler.execute(() -> deliver(routePrefix, accountId, initialBackoff, 0));
+    }
+  }
+
+  /**
+   * Enqueue a route for each of {@code accountIds} that this outbox hasn't already created or abandoned. Accounts that
+   * aren't in {@code accountIds} are left alone.
+   *
+   * @param accountIds The {@link AccountId}s of accounts that should be routable.
+   */
+  public void reconcile(final Collection<AccountId> accountIds) {
+    Objects.requireNonNull(accountIds);
+    accountIds.stream()
+      .filter(accountId -> confirmedRoutes.getIfPresent(accountId) == null)
+      .filter(accountId -> abandonedRoutes.getIfPresent(accountId) == null)
+      .forEach(this::enqueue);
+  }
+
+  /**
+   * Periodically {@link #reconcile(Collection)} the accounts supplied by {@code accountIds}.
+   *
+   * @param accountIds        A {@link Supplier} of the accounts that should be routable.
+   * @param reconcileInterval How often to reconcile.
+   */
+  public void scheduleReconciliation(final Supplier<Collection<AccountId>> accountIds, final Duration reconcileInterval) {
+    Objects.requireNonNull(accountIds);
+    scheduler.scheduleWithFixedDelay(() -> {
+      try {
+        reconcile(accountIds.get());
+      } catch (RuntimeException e) {
+        // An exception would cancel all future runs.
+        logger.warn("Unable to reconcile static routes: {}", e.getMessage(), e);
+      }
+    }, reconcileInterval.toMillis(), reconcileInterval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * The number of routes that have not yet been created.
+   *
+   * @return The number of pending routes.
+   */
+  public int pending() {
+    return pendingRoutes.size();
+  }
+
+  /**
+   * The number of routes that were abandoned because the Connector kept rejecting them with a client error.
+   *
+   * @return The number of abandoned routes.
+   */
+  public long abandoned() {
+    return abandoned.get();
+  }
+
+  private void deliver(
+    final InterledgerAddressPrefix routePrefix, final AccountId accountId, final Duration backoff, final int clientErrors
+  ) {
+    try {
+      adminClient.createStaticRoute(
+        routePrefix.getValue(),
+        StaticRoute.builder()
+          .routePrefix(routePrefix)
+          .nextHopAccountId(accountId)
+          .build()
+      );
+      confirmedRoutes.put(accountId, Boolean.TRUE);
+      abandonedRoutes.invalidate(accountId);
+      pendingRoutes.remove(routePrefix);
+      delivered.incrementAndGet();
+      logger.debug("Static route {} created for accountId: {}", routePrefix.getValue(), accountId);
+    } catch (RuntimeException e) {
+      failedAttempts.incrementAndGet();
+      final int nextClientErrors = isClientError(e) ? clientErrors + 1 : clientErrors;
+      if (nextClientErrors >= maxClientErrorAttempts) {
+        abandonedRoutes.put(accountId, Boolean.TRUE);
+        pendingRoutes.remove(routePrefix);
+        abandoned.incrementAndGet();
+        logger.error("Abandoned static route {} for accountId: {} after {} client errors from the Connector",
+          routePrefix.getValue(), accountId, nextClientErrors, e);
+        return;
+      }
+      logger.warn("Failed to create static route {} for accountId: {}. Retrying in {}",
+        routePrefix.getValue(), accountId, backoff, e);
+      final Duration nextBackoff = backoff.multipliedBy(2).compareTo(maxBackoff) < 0
+        ? backoff.multipliedBy(2)
+        : maxBackoff;
+      scheduler.schedule(
+        () -> deliver(routePrefix, accountId, nextBackoff, nextClientErrors), backoff.toMillis(), TimeUnit.MILLISECONDS
+      );
+    }
+  }
+
+  /**
+   * Whether {@code e} is a rejection that retrying won't change. Timeouts and rate limiting are worth retrying.
+   */
+  private static boolean isClientError(final RuntimeException e) {
+    if (!(e instanceof FeignException)) {
+      return false;
+    }
+    final int status = ((FeignException) e).status();
+    return status >= 400 && status < 500 && status != 408 && status != 429;
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    Gauge.builder(METRIC_NAME + ".pending", pendingRoutes, ConcurrentMap::size)
+      .description("Number of static routes waiting to be created")
+      .register(registry);
+    FunctionCounter.builder(METRIC_NAME + ".delivered", delivered, AtomicLong::get)
+      .description("Number of static routes created")
+      .register(registry);
+    FunctionCounter.builder(METRIC_NAME + ".failed-attempts", failedAttempts, AtomicLong::get)
+      .description("Number of failed attempts to create a static route")
+      .register(registry);
+    FunctionCounter.builder(METRIC_NAME + ".abandoned", abandoned, AtomicLong::get)
+      .description("Number of static routes abandoned because the Connector rejected them with a client error")
+      .register(registry);
+  }
+}
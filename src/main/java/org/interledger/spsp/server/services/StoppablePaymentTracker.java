@@ -0,0 +1,82 @@
+package org.interledger.spsp.server.services;
+
+import org.interledger.stream.Denomination;
+import org.interledger.stream.PrepareAmounts;
+import org.interledger.stream.SenderAmountPaymentTracker;
+
+import com.google.common.primitives.UnsignedLong;
+
+import java.util.Objects;
+
+/**
+ * A {@link SenderAmountPaymentTracker} that delegates all accounting to another tracker, but reports that there is
+ * nothing more to send once {@link #stop()} has been called. The STREAM sender stops preparing new packets as soon as
+ * this happens, settles the packets it already has in flight, and closes the connection, so this is how a payment that
+ * has already started sending money is abandoned.
+ */
+class StoppablePaymentTracker implements SenderAmountPaymentTracker {
+
+  private final SenderAmountPaymentTracker delegate;
+  private volatile boolean stopped;
+
+  StoppablePaymentTracker(final SenderAmountPaymentTracker delegate) {
+    this.delegate = Objects.requireNonNull(delegate);
+  }
+
+  /**
+   * Stop sending any more packets for this payment.
+   */
+  void stop() {
+    stopped = true;
+  }
+
+  @Override
+  public UnsignedLong getOriginalAmount() {
+    return delegate.getOriginalAmount();
+  }
+
+  @Override
+  public UnsignedLong getOriginalAmountLeft() {
+    return delegate.getOriginalAmountLeft();
+  }
+
+  @Override
+  public UnsignedLong getDeliveredAmountInSenderUnits() {
+    return delegate.getDeliveredAmountInSenderUnits();
+  }
+
+  @Override
+  public UnsignedLong getDeliveredAmountInReceiverUnits() {
+    return delegate.getDeliveredAmountInReceiverUnits();
+  }
+
+  @Override
+  public PrepareAmounts getSendPacketAmounts(final UnsignedLong congestionLimit, final Denomination senderDenomination) {
+    return delegate.getSendPacketAmounts(congestionLimit, senderDenomination);
+  }
+
+  @Override
+  public boolean auth(final PrepareAmounts prepareAmounts) {
+    return delegate.auth(prepareAmounts);
+  }
+
+  @Override
+  public void rollback(final PrepareAmounts prepareAmounts, final boolean packetRejected) {
+    delegate.rollback(prepareAmounts, packetRejected);
+  }
+
+  @Override
+  public void commit(final PrepareAmounts prepareAmounts, final UnsignedLong deliveredAmount) {
+    delegate.commit(prepareAmounts, deliveredAmount);
+  }
+
+  @Override
+  public boolean moreToSend() {
+    return !stopped && delegate.moreToSend();
+  }
+
+  @Override
+  public boolean successful() {
+    return delegate.successful();
+  }
+}
@@ -0,0 +1,141 @@
+package org.interledger.spsp.server.services;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.spsp.server.model.BearerToken;
+import org.interledger.stream.sender.StreamSender;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * <p>A pool of {@link StreamSender}s (and the ILP-over-HTTP links underneath them), keyed by the sending account and
+ * (a hash of) the credentials used to authenticate to the Connector.</p>
+ *
+ * <p>Constructing a sender is not free (a new link, a new connection manager, etc), so repeat payers are handed a
+ * warm sender instead of a fresh one for every payment. Entries that have not been used for a configurable amount of
+ * time are evicted.</p>
+ */
+public class StreamSenderPool implements MeterBinder {
+
+  public static final String METRIC_NAME = "hermes.stream.senders";
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  private final Cache<SenderKey, StreamSender> senders;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param maximumSize       The maximum number of senders to keep in this pool.
+   * @param expireAfterAccess The amount of time a sender may sit idle before it is evicted from this pool.
+   */
+  public StreamSenderPool(final long maximumSize, final Duration expireAfterAccess) {
+    Objects.requireNonNull(expireAfterAccess);
+    this.senders = CacheBuilder.newBuilder()
+      .maximumSize(maximumSize)
+      .expireAfterAccess(expireAfterAccess)
+      .recordStats()
+      .removalListener(notification ->
+        logger.debug("Removed StreamSender for {} from pool: {}", notification.getKey(), notification.getCause())
+      )
+      .build();
+  }
+
+  /**
+   * Obtain the {@link StreamSender} for the supplied account and credentials, constructing one with {@code
+   * senderFactory} if none is pooled yet.
+   *
+   * @param accountId     The {@link AccountId} of the sender.
+   * @param bearerToken   The optionally-present {@link BearerToken} the sender uses to authenticate to the Connector.
+   * @param senderFactory A {@link Supplier} that constructs a new {@link StreamSender} on a pool miss.
+   *
+   * @return A {@link StreamSender}.
+   */
+  public StreamSender getOrCreate(
+    final AccountId accountId,
+    final Optional<BearerToken> bearerToken,
+    final Supplier<StreamSender> senderFactory
+  ) {
+    Objects.requireNonNull(accountId);
+    Objects.requireNonNull(bearerToken);
+    Objects.requireNonNull(senderFactory);
+
+    try {
+      return senders.get(new SenderKey(accountId, bearerToken), senderFactory::get);
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new RuntimeException(e.getCause().getMessage(), e.getCause());
+    }
+  }
+
+  /**
+   * The number of senders currently pooled.
+   *
+   * @return A long.
+   */
+  public long size() {
+    return senders.size();
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    GuavaCacheMetrics.monitor(registry, senders, METRIC_NAME);
+  }
+
+  /**
+   * Keys senders by a hash of the token rather than the token itself, so that credentials aren't kept in memory (or
+   * in heap dumps) for as long as a sender stays pooled. Only the sender itself holds the raw token.
+   */
+  private static final class SenderKey {
+
+    private static final HashCode NO_TOKEN = HashCode.fromInt(0);
+
+    private final AccountId accountId;
+    private final HashCode tokenHash;
+
+    private SenderKey(final AccountId accountId, final Optional<BearerToken> bearerToken) {
+      this.accountId = Objects.requireNonNull(accountId);
+      this.tokenHash = bearerToken
+        .map(token -> Hashing.sha256().hashString(token.value(), StandardCharsets.UTF_8))
+        .orElse(NO_TOKEN);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      SenderKey that = (SenderKey) o;
+      return accountId.equals(that.accountId) && tokenHash.equals(that.tokenHash);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(accountId, tokenHash);
+    }
+
+    @Override
+    public String toString() {
+      return accountId.value();
+    }
+  }
+}
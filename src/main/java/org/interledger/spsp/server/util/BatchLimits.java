@@ -0,0 +1,144 @@
+package org.interledger.spsp.server.util;
+
+import org.springframework.web.context.request.async.DeferredResult;
+import org.zalando.problem.Problem;
+import org.zalando.problem.Status;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * The limits applied to a batch request: how many items it may contain, how many of those items are processed
+ * concurrently, and how long the request may take.
+ */
+public class BatchLimits {
+
+  /**
+   * The error reported for an item that hadn't finished when its batch ran out of time.
+   */
+  public static final String UNFINISHED = "Did not finish within the batch's time limit";
+
+  private final int maxSize;
+  private final int maxParallelism;
+  private final Duration maxDuration;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param maxSize        The maximum number of items in a single batch.
+   * @param maxParallelism The maximum number of items of a single batch to process concurrently.
+   * @param maxDuration    The maximum amount of time to wait for the items of a single batch before responding.
+   */
+  public BatchLimits(final int maxSize, final int maxParallelism, final Duration maxDuration) {
+    if (maxSize < 1 || maxParallelism < 1) {
+      throw new IllegalArgumentException("maxSize and maxParallelism must be at least 1");
+    }
+    Objects.requireNonNull(maxDuration);
+    if (maxDuration.isNegative() || maxDuration.isZero()) {
+      throw new IllegalArgumentException("maxDuration must be positive");
+    }
+    this.maxSize = maxSize;
+    this.maxParallelism = maxParallelism;
+    this.maxDuration = maxDuration;
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  public int getMaxParallelism() {
+    return maxParallelism;
+  }
+
+  public Duration getMaxDuration() {
+    return maxDuration;
+  }
+
+  /**
+   * Reject a batch that is empty or contains more than {@link #getMaxSize()} items.
+   *
+   * @param size The number of items in a batch.
+   *
+   * @throws org.zalando.problem.ThrowableProblem with a status of 400 if {@code size} is out of range.
+   */
+  public void checkSize(final int size) {
+    if (size < 1 || size > maxSize) {
+      throw Problem.valueOf(Status.BAD_REQUEST, String.format("Batches must contain between 1 and %s items", maxSize));
+    }
+  }
+
+  /**
+   * The parallelism to use for a batch, given the parallelism a client asked for (if any).
+   *
+   * @param requested An optionally-present parallelism requested by the client. Values less than 1 are ignored.
+   *
+   * @return The requested parallelism, capped at {@link #getMaxParallelism()}.
+   */
+  public int parallelism(final Optional<Integer> requested) {
+    return requested
+      .filter(parallelism -> parallelism > 0)
+      .map(parallelism -> Math.min(parallelism, maxParallelism))
+      .orElse(maxParallelism);
+  }
+
+  /**
+   * Respond to a batch request once every item has finished, or once {@link #getMaxDuration()} has elapsed, whichever
+   * comes first. In the latter case the response has the results of the items that did finish, items that haven't are
+   * reported as failed with {@code unfinished}, and their work is cancelled so that items that haven't started yet
+   * never will.
+   *
+   * @param work       One future per item, in request order, that completes when the item's work does.
+   * @param success    Builds the result of the item at an index from the value its work completed with.
+   * @param failure    Builds the result of the item at an index from a client-facing description of why its work
+   *                   failed (or didn't finish).
+   * @param unfinished The description of an item that hadn't finished in time.
+   * @param response   Builds the response from the result of every item, in request order.
+   * @param <V>        The type of value each item's work completes with.
+   * @param <T>        The type of each item's result.
+   * @param <R>        The type of response.
+   *
+   * @return A {@link DeferredResult} that times out after {@link #getMaxDuration()}.
+   */
+  public <V, T, R> DeferredResult<R> collect(
+    final List<? extends CompletableFuture<V>> work,
+    final IndexedFunction<? super V, T> success,
+    final IndexedFunction<String, T> failure,
+    final String unfinished,
+    final Function<List<T>, R> response
+  ) {
+    Objects.requireNonNull(work);
+    Objects.requireNonNull(success);
+    Objects.requireNonNull(failure);
+    Objects.requireNonNull(unfinished);
+    Objects.requireNonNull(response);
+
+    final List<CompletableFuture<T>> results = new ArrayList<>(work.size());
+    for (int i = 0; i < work.size(); i++) {
+      final int index = i;
+      results.add(work.get(i).handle((value, error) -> error != null
+        ? failure.apply(index, ExceptionHandlerUtils.describe(error))
+        : success.apply(index, value)));
+    }
+
+    final DeferredResult<R> deferredResult = new DeferredResult<>(maxDuration.toMillis());
+    deferredResult.onTimeout(() -> {
+      final List<T> partialResults = new ArrayList<>(results.size());
+      for (int i = 0; i < results.size(); i++) {
+        partialResults.add(results.get(i).isDone() ? results.get(i).join() : failure.apply(i, unfinished));
+      }
+      deferredResult.setResult(response.apply(partialResults));
+      work.forEach(item -> item.cancel(true));
+    });
+    CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).whenComplete((ignored, error) -> {
+      final List<T> allResults = new ArrayList<>(results.size());
+      results.forEach(result -> allResults.add(result.join()));
+      deferredResult.setResult(response.apply(allResults));
+    });
+    return deferredResult;
+  }
+}
@@ -0,0 +1,56 @@
+package org.interledger.spsp.server.util;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import io.grpc.Context;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The gRPC counterpart of {@link BatchLimits#collect}: streams the result of each item of a batch to the client as soon
+ * as it finishes, rather than responding once they all have.
+ */
+public final class BatchStreams {
+
+  private BatchStreams() {
+  }
+
+  /**
+   * Stream a result for every item of a batch to {@code observer}, in the order they finish, then complete it. If the
+   * caller cancels the call or its deadline passes, every item's work is cancelled, so that items that haven't started
+   * never will. This must be called from the thread handling the call, whose gRPC {@link Context} it listens to.
+   *
+   * @param work     One future per item, in request order, that completes when the item's work does.
+   * @param observer The {@link FlowControlledStreamObserver} for the call's responses.
+   * @param success  Builds the result of the item at an index from the value its work completed with.
+   * @param failure  Builds the result of the item at an index from a client-facing description of why its work failed.
+   * @param <V>      The type of value each item's work completes with.
+   * @param <T>      The type of each item's result.
+   */
+  public static <V, T> void stream(
+    final List<? extends CompletableFuture<V>> work,
+    final FlowControlledStreamObserver<T> observer,
+    final IndexedFunction<? super V, T> success,
+    final IndexedFunction<String, T> failure
+  ) {
+    Objects.requireNonNull(work);
+    Objects.requireNonNull(observer);
+    Objects.requireNonNull(success);
+    Objects.requireNonNull(failure);
+
+    Context.current().addListener(context -> work.forEach(item -> item.cancel(true)), MoreExecutors.directExecutor());
+
+    final CompletableFuture<?>[] streamed = new CompletableFuture<?>[work.size()];
+    for (int i = 0; i < work.size(); i++) {
+      final int index = i;
+      streamed[i] = work.get(i).handle((value, error) -> {
+        observer.onNext(error != null
+          ? failure.apply(index, ExceptionHandlerUtils.describe(error))
+          : success.apply(index, value));
+        return null;
+      });
+    }
+    CompletableFuture.allOf(streamed).whenComplete((ignored, error) -> observer.onCompleted());
+  }
+}
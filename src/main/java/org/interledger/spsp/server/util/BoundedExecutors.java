@@ -0,0 +1,93 @@
+package org.interledger.spsp.server.util;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Factory methods for fixed-size executors with a bounded work queue. Work submitted to a {@link
+ * #newBoundedExecutor bounded executor} while its queue is full is rejected with a {@link RejectedExecutionException},
+ * which callers surface as HTTP 429 or gRPC {@code RESOURCE_EXHAUSTED} so that load spikes push back on clients instead
+ * of queueing without limit.
+ *
+ * <p>Tasks run with the logging MDC of the thread that submitted them (see {@link LoggingContext#propagate}), so that
+ * log entries written while doing work for a request can still be correlated with it.</p>
+ */
+public final class BoundedExecutors {
+
+  private BoundedExecutors() {
+  }
+
+  /**
+   * Construct a new fixed-size executor with named daemon threads and a bounded queue, instrumented with Micrometer
+   * gauges for active threads and queue depth, and timers for task execution and queueing latency (all tagged with
+   * {@code name}).
+   *
+   * @param name          The name of this executor, used for thread names and as the metrics tag.
+   * @param poolSize      The number of threads in the pool.
+   * @param queueCapacity The number of tasks that may wait for a thread before new tasks are rejected.
+   * @param meterRegistry The {@link MeterRegistry} to report metrics to.
+   *
+   * @return An {@link ExecutorService}.
+   */
+  public static ExecutorService newBoundedExecutor(
+    final String name, final int poolSize, final int queueCapacity, final MeterRegistry meterRegistry
+  ) {
+    return newExecutor(name, poolSize, queueCapacity, meterRegistry, new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  /**
+   * Construct a new fixed-size executor like {@link #newBoundedExecutor}, except that work submitted while the queue is
+   * full is run on the submitting thread instead of being rejected. This is for work that must not fail once it has
+   * been admitted (such as the packets of a payment that has already started), where slowing down the submitter is the
+   * right way to push back. Work submitted after the executor is shut down is still rejected.
+   *
+   * @param name          The name of this executor, used for thread names and as the metrics tag.
+   * @param poolSize      The number of threads in the pool.
+   * @param queueCapacity The number of tasks that may wait for a thread before submitters run tasks themselves.
+   * @param meterRegistry The {@link MeterRegistry} to report metrics to.
+   *
+   * @return An {@link ExecutorService}.
+   */
+  public static ExecutorService newCallerRunsExecutor(
+    final String name, final int poolSize, final int queueCapacity, final MeterRegistry meterRegistry
+  ) {
+    return newExecutor(name, poolSize, queueCapacity, meterRegistry, (task, executor) -> {
+      if (executor.isShutdown()) {
+        throw new RejectedExecutionException(name + " has been shut down");
+      }
+      task.run();
+    });
+  }
+
+  private static ExecutorService newExecutor(
+    final String name, final int poolSize, final int queueCapacity, final MeterRegistry meterRegistry,
+    final RejectedExecutionHandler rejectedExecutionHandler
+  ) {
+    Objects.requireNonNull(name);
+    Objects.requireNonNull(meterRegistry);
+
+    final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+      poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(queueCapacity),
+      new ThreadFactoryBuilder().setNameFormat(name + "-%d").setDaemon(true).build(),
+      rejectedExecutionHandler
+    ) {
+      @Override
+      public void execute(final Runnable command) {
+        // Every submit() and invokeAll() comes through here too.
+        super.execute(LoggingContext.propagate(command));
+      }
+    };
+    return ExecutorServiceMetrics.monitor(meterRegistry, executor, name, Tags.empty());
+  }
+}
@@ -0,0 +1,109 @@
+package org.interledger.spsp.server.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs an asynchronous task over a list of items while keeping at most a fixed number of those tasks in flight.
+ */
+public final class BoundedParallelism {
+
+  private BoundedParallelism() {
+  }
+
+  /**
+   * Apply {@code task} to every item in {@code items}, starting a new task only when fewer than {@code parallelism}
+   * are still running. A task that throws is treated as having failed with that exception. Cancelling one of the returned
+   * futures before its task has started means that task is never started.
+   *
+   * @param items       The items to process.
+   * @param parallelism The maximum number of tasks to have in flight at once.
+   * @param task        A {@link Function} that starts processing a single item.
+   * @param <T>         The type of item.
+   * @param <R>         The type of result.
+   *
+   * @return A {@link List} of {@link CompletableFuture}s, one per item and in the same order as {@code items}.
+   */
+  public static <T, R> List<CompletableFuture<R>> apply(
+    final List<? extends T> items, final int parallelism, final Function<? super T, CompletableFuture<R>> task
+  ) {
+    Objects.requireNonNull(items);
+    Objects.requireNonNull(task);
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be at least 1");
+    }
+
+    final List<CompletableFuture<R>> results = new ArrayList<>(items.size());
+    for (int i = 0; i < items.size(); i++) {
+      results.add(new CompletableFuture<>());
+    }
+
+    final Launcher<T, R> launcher = new Launcher<>(items, task, results);
+    for (int i = 0; i < Math.min(parallelism, items.size()); i++) {
+      launcher.launchNext();
+    }
+    return Collections.unmodifiableList(results);
+  }
+
+  private static final class Launcher<T, R> {
+
+    private final List<? extends T> items;
+    private final Function<? super T, CompletableFuture<R>> task;
+    private final List<CompletableFuture<R>> results;
+
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    // Number of launch requests not yet processed. Whoever moves this off zero drains it, so a task that completes
+    // synchronously queues its successor rather than recursing into it.
+    private final AtomicInteger pendingLaunches = new AtomicInteger();
+
+    private Launcher(
+      final List<? extends T> items,
+      final Function<? super T, CompletableFuture<R>> task,
+      final List<CompletableFuture<R>> results
+    ) {
+      this.items = items;
+      this.task = task;
+      this.results = results;
+    }
+
+    void launchNext() {
+      if (pendingLaunches.getAndIncrement() != 0) {
+        return;
+      }
+      do {
+        int index = nextIndex.getAndIncrement();
+        // Skip items whose result was cancelled (e.g. because the caller gave up on them) before they were started.
+        while (index < items.size() && results.get(index).isDone()) {
+          index = nextIndex.getAndIncrement();
+        }
+        if (index < items.size()) {
+          start(index);
+        }
+      } while (pendingLaunches.decrementAndGet() != 0);
+    }
+
+    private void start(final int index) {
+      CompletableFuture<R> future;
+      try {
+        future = task.apply(items.get(index));
+      } catch (RuntimeException e) {
+        future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+      }
+
+      future.whenComplete((result, error) -> {
+        if (error != null) {
+          results.get(index).completeExceptionally(error);
+        } else {
+          results.get(index).complete(result);
+        }
+        launchNext();
+      });
+    }
+  }
+}
@@ -0,0 +1,159 @@
+package org.interledger.spsp.server.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * <p>Times the calls Hermes makes to one operation of a remote dependency (the Connector, SPSP receivers, the KMS or
+ * STREAM receivers), so that when a payment is slow the slow hop can be picked out.</p>
+ *
+ * <p>Every call is recorded in the {@value #METRIC_NAME} timer, tagged with {@code dependency}, {@code operation} and
+ * {@code outcome} ({@value #SUCCESS}, {@value #UNSUCCESSFUL} or {@value #FAILURE}), which publishes its median, 95th
+ * and 99th percentiles. Failures are also counted in {@value #ERRORS_METRIC_NAME}, additionally tagged with the
+ * {@code exception} thrown, so that e.g. timeouts can be told apart from rejections.</p>
+ */
+public final class DependencyTimer {
+
+  public static final String METRIC_NAME = "hermes.dependency.calls";
+  public static final String ERRORS_METRIC_NAME = "hermes.dependency.errors";
+
+  /**
+   * The call completed normally.
+   */
+  public static final String SUCCESS = "success";
+  /**
+   * The call completed normally, but with a result that means it did not achieve what was asked (e.g. a payment that
+   * only delivered part of its amount).
+   */
+  public static final String UNSUCCESSFUL = "unsuccessful";
+  /**
+   * The call threw an exception.
+   */
+  public static final String FAILURE = "failure";
+
+  private final MeterRegistry meterRegistry;
+  private final Tags tags;
+  private final Timer success;
+  private final Timer unsuccessful;
+  private final Timer failure;
+
+  private DependencyTimer(final MeterRegistry meterRegistry, final Tags tags) {
+    this.meterRegistry = meterRegistry;
+    this.tags = tags;
+    this.success = timer(SUCCESS);
+    this.unsuccessful = timer(UNSUCCESSFUL);
+    this.failure = timer(FAILURE);
+  }
+
+  /**
+   * Construct a new timer for calls to {@code operation} of {@code dependency}. The meters are registered up front,
+   * so that recording a call costs no more than a registry-free timer would.
+   *
+   * @param meterRegistry The {@link MeterRegistry} to report metrics to.
+   * @param dependency    The dependency called, e.g. {@code connector-admin}.
+   * @param operation     The operation called, e.g. {@code findAccount}.
+   *
+   * @return A {@link DependencyTimer}.
+   */
+  public static DependencyTimer of(
+    final MeterRegistry meterRegistry, final String dependency, final String operation
+  ) {
+    Objects.requireNonNull(meterRegistry);
+    Objects.requireNonNull(dependency);
+    Objects.requireNonNull(operation);
+    return new DependencyTimer(meterRegistry, Tags.of("dependency", dependency, "operation", operation));
+  }
+
+  /**
+   * Make a blocking call, recording how long it took and whether it threw.
+   *
+   * @param call The call to make.
+   * @param <T>  The type of the call's result.
+   *
+   * @return The result of {@code call}.
+   */
+  public <T> T record(final Supplier<T> call) {
+    final long start = System.nanoTime();
+    try {
+      final T result = call.get();
+      success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      return result;
+    } catch (RuntimeException e) {
+      failed(System.nanoTime() - start, e);
+      throw e;
+    }
+  }
+
+  /**
+   * Make a blocking call that returns nothing, recording how long it took and whether it threw.
+   *
+   * @param call The call to make.
+   */
+  public void record(final Runnable call) {
+    record(() -> {
+      call.run();
+      return null;
+    });
+  }
+
+  /**
+   * Start an asynchronous call, recording how long it takes to complete and whether it completes exceptionally.
+   *
+   * @param call       Starts the call.
+   * @param successful Whether a result of the call counts as {@value #SUCCESS} rather than {@value #UNSUCCESSFUL}.
+   * @param <T>        The type of the call's result.
+   *
+   * @return The future returned by {@code call}.
+   */
+  public <T> CompletableFuture<T> recordAsync(
+    final Supplier<CompletableFuture<T>> call, final Predicate<? super T> successful
+  ) {
+    Objects.requireNonNull(successful);
+    final long start = System.nanoTime();
+    final CompletableFuture<T> result;
+    try {
+      result = call.get();
+    } catch (RuntimeException e) {
+      failed(System.nanoTime() - start, e);
+      throw e;
+    }
+    result.whenComplete((value, error) -> {
+      final long elapsed = System.nanoTime() - start;
+      if (error != null) {
+        failed(elapsed, error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+      } else {
+        (successful.test(value) ? success : unsuccessful).record(elapsed, TimeUnit.NANOSECONDS);
+      }
+    });
+    return result;
+  }
+
+  private void failed(final long elapsedNanos, final Throwable error) {
+    failure.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    // Failures are rare enough that looking the counter up each time is fine.
+    Counter.builder(ERRORS_METRIC_NAME)
+      .description("Calls to remote dependencies that failed, by exception")
+      .tags(tags)
+      .tag("exception", error.getClass().getSimpleName())
+      .register(meterRegistry)
+      .increment();
+  }
+
+  private Timer timer(final String outcome) {
+    return Timer.builder(METRIC_NAME)
+      .description("Latency of calls to remote dependencies")
+      .tags(tags)
+      .tag("outcome", outcome)
+      .publishPercentiles(0.5, 0.95, 0.99)
+      .register(meterRegistry);
+  }
+}
@@ -1,6 +1,7 @@
 package org.interledger.spsp.server.util;
 
 import org.interledger.connector.accounts.AccountNotFoundProblem;
+import org.interledger.spsp.client.InvalidReceiverClientException;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -13,11 +14,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.zalando.problem.Problem;
+import org.zalando.problem.StatusType;
 import org.zalando.problem.ThrowableProblem;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 public class ExceptionHandlerUtils {
 
@@ -29,6 +37,10 @@ public class ExceptionHandlerUtils {
   @Deprecated
   private static final String NOT_FOUND_MESSAGE = "Account not found for principal:";
 
+  private static final String INTERNAL_ERROR = "Internal error";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ExceptionHandlerUtils.class);
+
   private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
   private final ObjectMapper objectMapper;
@@ -40,13 +52,19 @@ public class ExceptionHandlerUtils {
   /**
    * Handle an exception by mapping it to something that gRPC can understand.
    *
-   * @param exception        An {@link Exception} thrown by any code.
+   * @param exception        A {@link Throwable} thrown by any code.
    * @param responseObserver A {@link ResponseObserver} that can return a response back to a gRPC client.
    */
-  public void handleException(final Exception exception, final StreamObserver<?> responseObserver) {
+  public void handleException(final Throwable exception, final StreamObserver<?> responseObserver) {
     Objects.requireNonNull(exception);
     Objects.requireNonNull(responseObserver);
 
+    // Failures from asynchronous operations arrive wrapped, so map the underlying cause instead.
+    if (unwrap(exception) != exception) {
+      handleException(unwrap(exception), responseObserver);
+      return;
+    }
+
     if (FeignException.class.isAssignableFrom(exception.getClass())) {
       Status exceptionStatus;
       final FeignException feignException = (FeignException) exception;
@@ -83,6 +101,18 @@ public class ExceptionHandlerUtils {
     } else if (AccountNotFoundProblem.class.isAssignableFrom(exception.getClass())) {
       logger.info(exception.getMessage(), exception);
       responseObserver.onError(new StatusRuntimeException(Status.NOT_FOUND));
+    } else if (ThrowableProblem.class.isAssignableFrom(exception.getClass())) {
+      logger.info(exception.getMessage(), exception);
+      responseObserver.onError(new StatusRuntimeException(statusForProblem((ThrowableProblem) exception)));
+    } else if (RejectedExecutionException.class.isAssignableFrom(exception.getClass())) {
+      logger.warn(exception.getMessage());
+      responseObserver.onError(new StatusRuntimeException(Status.RESOURCE_EXHAUSTED));
+    } else if (TimeoutException.class.isAssignableFrom(exception.getClass())) {
+      logger.info(exception.getMessage());
+      responseObserver.onError(new StatusRuntimeException(Status.DEADLINE_EXCEEDED));
+    } else if (CancellationException.class.isAssignableFrom(exception.getClass())) {
+      logger.debug("Call abandoned by client: {}", exception.getMessage());
+      responseObserver.onError(new StatusRuntimeException(Status.CANCELLED));
     } else if (NullPointerException.class.isAssignableFrom(exception.getClass())) {
       logger.info(exception.getMessage(), exception);
       responseObserver.onError(new StatusRuntimeException(Status.INVALID_ARGUMENT));
@@ -95,6 +125,108 @@ public class ExceptionHandlerUtils {
     }
   }
 
+  /**
+   * Unwrap the exception that caused an asynchronous operation to fail.
+   *
+   * @param throwable A {@link Throwable} as reported by a {@link java.util.concurrent.CompletableFuture} or {@link
+   *                  java.util.concurrent.Future}.
+   *
+   * @return The cause of {@code throwable} if it is a {@link CompletionException} or {@link ExecutionException},
+   *   otherwise {@code throwable} itself.
+   */
+  public static Throwable unwrap(final Throwable throwable) {
+    Throwable unwrapped = Objects.requireNonNull(throwable);
+    while ((unwrapped instanceof CompletionException || unwrapped instanceof ExecutionException)
+      && unwrapped.getCause() != null) {
+      unwrapped = unwrapped.getCause();
+    }
+    return unwrapped;
+  }
+
+  /**
+   * A short, client-safe description of why an operation failed, for reporting per-item failures in batch responses.
+   * Descriptions come from a fixed set, chosen by the type of failure: exception messages can carry Connector
+   * responses, URLs or other internals, so they are logged here instead of being returned.
+   *
+   * @param throwable A {@link Throwable} thrown by any code.
+   *
+   * @return A {@link String}.
+   */
+  public static String describe(final Throwable throwable) {
+    final Throwable unwrapped = unwrap(throwable);
+    final Optional<String> expected = describeExpected(unwrapped);
+    if (expected.isPresent()) {
+      LOGGER.debug("Reporting failure as \"{}\": {}", expected.get(), unwrapped.getMessage(), unwrapped);
+      return expected.get();
+    }
+    LOGGER.warn("Reporting unexpected failure as \"{}\": {}", INTERNAL_ERROR, unwrapped.getMessage(), unwrapped);
+    return INTERNAL_ERROR;
+  }
+
+  private static Optional<String> describeExpected(final Throwable throwable) {
+    if (FeignException.class.isAssignableFrom(throwable.getClass())) {
+      return Optional.of("Connector responded with HTTP " + ((FeignException) throwable).status());
+    } else if (BadCredentialsException.class.isAssignableFrom(throwable.getClass())) {
+      return Optional.of("Unauthenticated");
+    } else if (AccountNotFoundProblem.class.isAssignableFrom(throwable.getClass())) {
+      return Optional.of("Account not found");
+    } else if (InvalidReceiverClientException.class.isAssignableFrom(throwable.getClass())) {
+      return Optional.of("Receiver not found");
+    } else if (ThrowableProblem.class.isAssignableFrom(throwable.getClass())) {
+      return describeProblem((ThrowableProblem) throwable);
+    } else if (RejectedExecutionException.class.isAssignableFrom(throwable.getClass())) {
+      return Optional.of("Too many requests");
+    } else if (TimeoutException.class.isAssignableFrom(throwable.getClass())) {
+      return Optional.of("Timed out");
+    } else if (CancellationException.class.isAssignableFrom(throwable.getClass())) {
+      return Optional.of("Cancelled");
+    } else if (IllegalArgumentException.class.isAssignableFrom(throwable.getClass())
+      || NullPointerException.class.isAssignableFrom(throwable.getClass())) {
+      return Optional.of("Invalid request");
+    }
+    return Optional.empty();
+  }
+
+  private static Optional<String> describeProblem(final ThrowableProblem problem) {
+    final int status = Optional.ofNullable(problem.getStatus()).map(StatusType::getStatusCode).orElse(500);
+    switch (status) {
+      case 400:
+        return Optional.of("Invalid request");
+      case 401:
+        return Optional.of("Unauthenticated");
+      case 403:
+        return Optional.of("Forbidden");
+      case 404:
+        return Optional.of("Not found");
+      case 409:
+        return Optional.of("Already exists");
+      case 429:
+        return Optional.of("Too many requests");
+      default:
+        return Optional.empty();
+    }
+  }
+
+  private Status statusForProblem(final ThrowableProblem problem) {
+    final int status = Optional.ofNullable(problem.getStatus()).map(StatusType::getStatusCode).orElse(500);
+    switch (status) {
+      case 400:
+        return Status.INVALID_ARGUMENT;
+      case 401:
+        return Status.UNAUTHENTICATED;
+      case 403:
+        return Status.PERMISSION_DENIED;
+      case 404:
+        return Status.NOT_FOUND;
+      case 409:
+        return Status.ALREADY_EXISTS;
+      case 429:
+        return Status.RESOURCE_EXHAUSTED;
+      default:
+        return Status.INTERNAL;
+    }
+  }
+
   /**
    * Map a {@link FeignException} to a {@link Problem}.
    *
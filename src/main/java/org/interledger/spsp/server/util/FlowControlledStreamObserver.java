@@ -0,0 +1,129 @@
+package org.interledger.spsp.server.util;
+
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Queue;
+
+/**
+ * <p>A server-side {@link StreamObserver} that respects the client's flow control. Values are only written to the call
+ * while it {@link ServerCallStreamObserver#isReady() is ready}; otherwise they wait here until the client has read
+ * enough for gRPC to run the call's on-ready handler, and completing the stream waits for them to be written. Without
+ * this, every value is buffered by gRPC itself, however slowly the client reads.</p>
+ *
+ * <p>Streams whose values each supersede the last (balances, payment progress) should be {@link #conflating}, so a
+ * slow client only ever has the latest value waiting for it. Other streams should be {@link #buffering}, which keeps
+ * every value, so callers must bound how many there can be (as batch limits do).</p>
+ *
+ * <p>This may be safely called from multiple threads. Calls are serialized onto the delegate, and any call made after
+ * the stream has been completed or failed is ignored, as gRPC does not permit them.</p>
+ *
+ * @param <V> The type of value observed.
+ */
+public class FlowControlledStreamObserver<V> implements StreamObserver<V> {
+
+  private final ServerCallStreamObserver<V> delegate;
+  private final boolean conflating;
+  private final Queue<V> pending = new ArrayDeque<>();
+
+  private boolean completing;
+  private boolean closed;
+
+  private FlowControlledStreamObserver(final StreamObserver<V> delegate, final boolean conflating) {
+    this.delegate = (ServerCallStreamObserver<V>) Objects.requireNonNull(delegate);
+    this.conflating = conflating;
+    // Must be set before the service method returns, which is where these are created.
+    this.delegate.setOnReadyHandler(this::drain);
+  }
+
+  /**
+   * Wrap a call's response observer, keeping every value until the client is ready for it.
+   *
+   * @param responseObserver The {@link StreamObserver} passed to a server-streaming service method.
+   * @param <V>              The type of value observed.
+   *
+   * @return A {@link FlowControlledStreamObserver}.
+   */
+  public static <V> FlowControlledStreamObserver<V> buffering(final StreamObserver<V> responseObserver) {
+    return new FlowControlledStreamObserver<>(responseObserver, false);
+  }
+
+  /**
+   * Wrap a call's response observer, keeping only the most recent value until the client is ready for it.
+   *
+   * @param responseObserver The {@link StreamObserver} passed to a server-streaming service method.
+   * @param <V>              The type of value observed.
+   *
+   * @return A {@link FlowControlledStreamObserver}.
+   */
+  public static <V> FlowControlledStreamObserver<V> conflating(final StreamObserver<V> responseObserver) {
+    return new FlowControlledStreamObserver<>(responseObserver, true);
+  }
+
+  @Override
+  public synchronized void onNext(final V value) {
+    if (closed || completing) {
+      return;
+    }
+    if (conflating) {
+      pending.clear();
+    }
+    pending.add(value);
+    drain();
+  }
+
+  @Override
+  public synchronized void onError(final Throwable throwable) {
+    if (!closed) {
+      closed = true;
+      pending.clear();
+      delegate.onError(throwable);
+    }
+  }
+
+  @Override
+  public synchronized void onCompleted() {
+    if (!closed && !completing) {
+      completing = true;
+      drain();
+    }
+  }
+
+  /**
+   * Deliver a final value and complete the stream, atomically, so that no value passed to {@link #onNext} from another
+   * thread can be delivered after it (or, if this is conflating, replace it).
+   *
+   * @param value The last value of the stream.
+   */
+  public synchronized void onLast(final V value) {
+    onNext(value);
+    onCompleted();
+  }
+
+  /**
+   * Whether this stream has been completed or failed.
+   *
+   * @return {@code true} if no further values will be delivered.
+   */
+  public synchronized boolean isClosed() {
+    return closed;
+  }
+
+  /**
+   * Write as many pending values as the client is ready for, then complete the stream if asked to and nothing is left.
+   */
+  private synchronized void drain() {
+    if (closed) {
+      return;
+    }
+    while (!pending.isEmpty() && delegate.isReady()) {
+      delegate.onNext(pending.poll());
+    }
+    if (completing && pending.isEmpty()) {
+      closed = true;
+      delegate.onCompleted();
+    }
+  }
+}
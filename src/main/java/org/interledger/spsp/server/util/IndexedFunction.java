@@ -0,0 +1,21 @@
+package org.interledger.spsp.server.util;
+
+/**
+ * Builds the result of a single item of a batch from its position in the batch and a value.
+ *
+ * @param <V> The type of value.
+ * @param <T> The type of result.
+ */
+@FunctionalInterface
+public interface IndexedFunction<V, T> {
+
+  /**
+   * Build the result of an item.
+   *
+   * @param index The position of the item in its batch.
+   * @param value The value to build the result from.
+   *
+   * @return The result of the item.
+   */
+  T apply(int index, V value);
+}
@@ -0,0 +1,81 @@
+package org.interledger.spsp.server.util;
+
+import org.slf4j.MDC;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Helpers for scoping the logging MDC to a piece of work, and for carrying it from the thread that submits work to
+ * the thread that runs it. Threads are shared between requests, so entries are always restored to what they were
+ * before, rather than removed.
+ */
+public final class LoggingContext {
+
+  private LoggingContext() {
+  }
+
+  /**
+   * Put {@code entries} into the MDC until the returned {@link Scope} is closed, which restores whatever values those
+   * keys had before.
+   *
+   * @param entries The MDC entries to put.
+   *
+   * @return A {@link Scope} to close when the work the entries describe is done.
+   */
+  public static Scope put(final Map<String, String> entries) {
+    Objects.requireNonNull(entries);
+    final Map<String, String> previous = new HashMap<>();
+    entries.forEach((key, value) -> {
+      previous.put(key, MDC.get(key));
+      MDC.put(key, value);
+    });
+    return () -> previous.forEach((key, value) -> {
+      if (value == null) {
+        MDC.remove(key);
+      } else {
+        MDC.put(key, value);
+      }
+    });
+  }
+
+  /**
+   * Wrap {@code task} so that it runs with the MDC of the thread calling this method, and leaves the MDC of the thread
+   * that runs it as it found it.
+   *
+   * @param task The {@link Runnable} to wrap.
+   *
+   * @return A {@link Runnable}, which is {@code task} itself if the MDC is empty.
+   */
+  public static Runnable propagate(final Runnable task) {
+    Objects.requireNonNull(task);
+    final Map<String, String> context = MDC.getCopyOfContextMap();
+    if (context == null || context.isEmpty()) {
+      // Tasks always leave the MDC as they found it, so threads that run them have nothing to clear.
+      return task;
+    }
+    return () -> {
+      final Map<String, String> previous = MDC.getCopyOfContextMap();
+      MDC.setContextMap(context);
+      try {
+        task.run();
+      } finally {
+        if (previous == null) {
+          MDC.clear();
+        } else {
+          MDC.setContextMap(previous);
+        }
+      }
+    };
+  }
+
+  /**
+   * MDC entries that are in place until closed.
+   */
+  public interface Scope extends AutoCloseable {
+
+    @Override
+    void close();
+  }
+}
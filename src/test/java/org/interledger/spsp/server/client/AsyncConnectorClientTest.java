@@ -0,0 +1,69 @@
+package org.interledger.spsp.server.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.client.ConnectorAdminClient;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link AsyncConnectorClient}.
+ */
+public class AsyncConnectorClientTest {
+
+  private static final AccountId ALICE = AccountId.of("alice");
+
+  private ConnectorAdminClient adminClient;
+  private ConnectorBalanceClient balanceClient;
+  private ExecutorService executorService;
+  private AsyncConnectorClient asyncClient;
+
+  @Before
+  public void setUp() {
+    adminClient = mock(ConnectorAdminClient.class);
+    balanceClient = mock(ConnectorBalanceClient.class);
+    executorService = Executors.newSingleThreadExecutor();
+    asyncClient = new AsyncConnectorClient(adminClient, balanceClient, mock(ConnectorTokensClient.class),
+      executorService);
+  }
+
+  @After
+  public void tearDown() {
+    asyncClient.destroy();
+  }
+
+  @Test
+  public void runsCallsOnExecutor() throws Exception {
+    AccountBalanceResponse balance = mock(AccountBalanceResponse.class);
+    when(balanceClient.getBalance(Optional.empty(), ALICE)).thenAnswer(invocation -> {
+      assertThat(Thread.currentThread().getName()).startsWith("pool-");
+      return balance;
+    });
+
+    assertThat(asyncClient.getBalance(Optional.empty(), ALICE).get(5, TimeUnit.SECONDS)).isSameAs(balance);
+  }
+
+  @Test
+  public void failuresCompleteExceptionally() {
+    when(adminClient.findAccount("alice")).thenThrow(new IllegalStateException("connector down"));
+
+    CompletableFuture<?> account = asyncClient.findAccount(ALICE);
+
+    assertThatThrownBy(() -> account.get(5, TimeUnit.SECONDS))
+      .isInstanceOf(ExecutionException.class)
+      .hasCauseInstanceOf(IllegalStateException.class);
+  }
+}
@@ -0,0 +1,75 @@
+package org.interledger.spsp.server.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.SharedSecret;
+import org.interledger.spsp.PaymentPointer;
+import org.interledger.spsp.PaymentPointerResolver;
+import org.interledger.spsp.StreamConnectionDetails;
+import org.interledger.spsp.client.InvalidReceiverClientException;
+import org.interledger.spsp.client.SpspClient;
+
+import okhttp3.HttpUrl;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+
+/**
+ * Unit tests for {@link CachingSpspClient}.
+ */
+public class CachingSpspClientTest {
+
+  private static final PaymentPointer RECEIVER = PaymentPointer.of("$example.com/alice");
+  private static final HttpUrl RECEIVER_URL = HttpUrl.parse("https://example.com/alice");
+
+  private SpspClient delegate;
+  private CachingSpspClient client;
+
+  @Before
+  public void setUp() {
+    delegate = mock(SpspClient.class);
+    client = new CachingSpspClient(
+      delegate, PaymentPointerResolver.defaultResolver(), 100, Duration.ofMinutes(1)
+    );
+  }
+
+  @Test
+  public void doesNotShareConnectionDetailsBetweenPayments() {
+    StreamConnectionDetails first = connectionDetails("test.alice.1");
+    StreamConnectionDetails second = connectionDetails("test.alice.2");
+    when(delegate.getStreamConnectionDetails(RECEIVER_URL)).thenReturn(first, second);
+
+    assertThat(client.getStreamConnectionDetails(RECEIVER)).isEqualTo(first);
+    assertThat(client.getStreamConnectionDetails(RECEIVER_URL)).isEqualTo(second);
+
+    verify(delegate, times(2)).getStreamConnectionDetails(RECEIVER_URL);
+  }
+
+  @Test
+  public void cachesInvalidReceivers() {
+    when(delegate.getStreamConnectionDetails(RECEIVER_URL))
+      .thenThrow(new InvalidReceiverClientException(RECEIVER_URL.toString()));
+
+    assertThatThrownBy(() -> client.getStreamConnectionDetails(RECEIVER))
+      .isInstanceOf(InvalidReceiverClientException.class);
+    assertThatThrownBy(() -> client.getStreamConnectionDetails(RECEIVER))
+      .isInstanceOf(InvalidReceiverClientException.class)
+      .hasMessageContaining(RECEIVER_URL.toString());
+
+    verify(delegate, times(1)).getStreamConnectionDetails(RECEIVER_URL);
+  }
+
+  private static StreamConnectionDetails connectionDetails(String destinationAddress) {
+    return StreamConnectionDetails.builder()
+      .destinationAddress(InterledgerAddress.of(destinationAddress))
+      .sharedSecret(SharedSecret.of(new byte[32]))
+      .build();
+  }
+}
@@ -0,0 +1,78 @@
+package org.interledger.spsp.server.client;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.interledger.connector.client.ConnectorAdminClient;
+import org.interledger.connector.routing.StaticRoute;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import feign.Retryer;
+import feign.jackson.JacksonDecoder;
+import feign.okhttp.OkHttpClient;
+import feign.optionals.OptionalDecoder;
+import okhttp3.HttpUrl;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Optional;
+
+/**
+ * Unit tests for {@link ConnectorAdminClientFactory}.
+ */
+public class ConnectorAdminClientFactoryTest {
+
+  @Rule
+  public WireMockRule wireMockRule = new WireMockRule(wireMockConfig().dynamicPort());
+
+  private final ConnectorAdminClientFactory.NotFoundOnlyAsEmptyDecoder decoder =
+    new ConnectorAdminClientFactory.NotFoundOnlyAsEmptyDecoder(new OptionalDecoder(new JacksonDecoder()));
+
+  @Test
+  public void findAccountReturnsEmptyForAccountsThatDontExist() {
+    wireMockRule.stubFor(any(anyUrl()).willReturn(aResponse().withStatus(404)));
+    ConnectorAdminClient adminClient = ConnectorAdminClientFactory.construct(
+      HttpUrl.parse("http://localhost:" + wireMockRule.port()),
+      template -> { },
+      new OkHttpClient(),
+      new Request.Options(),
+      Retryer.NEVER_RETRY
+    );
+
+    assertThat(adminClient.findAccount("alice")).isEmpty();
+  }
+
+  @Test
+  public void decodesNotFoundAsEmptyForMethodsReturningOptionals() throws Exception {
+    Type findAccount = ConnectorAdminClient.class.getMethod("findAccount", String.class).getGenericReturnType();
+
+    assertThat(decoder.decode(notFound(), findAccount)).isEqualTo(Optional.empty());
+  }
+
+  @Test
+  public void throwsNotFoundForOtherMethods() {
+    // Previously decoded as null, which StaticRouteOutbox took to mean the route had been created.
+    assertThatThrownBy(() -> decoder.decode(notFound(), StaticRoute.class))
+      .isInstanceOfSatisfying(FeignException.class, e -> assertThat(e.status()).isEqualTo(404));
+  }
+
+  private Response notFound() {
+    return Response.builder()
+      .status(404)
+      .reason("Not Found")
+      .request(Request.create(Request.HttpMethod.PUT, "http://connector/routes/static/test.alice",
+        Collections.emptyMap(), new byte[0], StandardCharsets.UTF_8))
+      .headers(Collections.emptyMap())
+      .build();
+  }
+}
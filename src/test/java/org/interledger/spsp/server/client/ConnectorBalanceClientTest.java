@@ -0,0 +1,79 @@
+package org.interledger.spsp.server.client;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.interledger.connector.accounts.AccountId;
+
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import feign.Request;
+import feign.RetryableException;
+import feign.Retryer;
+import feign.okhttp.OkHttpClient;
+import okhttp3.HttpUrl;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link ConnectorBalanceClient} built on a pooled OkHttp client.
+ */
+public class ConnectorBalanceClientTest {
+
+  private static final String BALANCE_PATH = "/accounts/alice/balance";
+
+  private static final String BALANCE_JSON = "{\"assetCode\":\"XRP\",\"assetScale\":9,\"accountBalance\":{"
+    + "\"accountId\":\"alice\",\"clearingBalance\":10,\"prepaidAmount\":5}}";
+
+  @Rule
+  public WireMockRule wireMockRule = new WireMockRule(wireMockConfig().dynamicPort());
+
+  private HttpUrl connectorUrl;
+
+  @Before
+  public void setUp() {
+    connectorUrl = HttpUrl.parse("http://localhost:" + wireMockRule.port());
+  }
+
+  @Test
+  public void retriesIoErrors() {
+    wireMockRule.stubFor(get(urlEqualTo(BALANCE_PATH)).inScenario("flaky")
+      .whenScenarioStateIs(Scenario.STARTED)
+      .willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER))
+      .willSetStateTo("recovered"));
+    wireMockRule.stubFor(get(urlEqualTo(BALANCE_PATH)).inScenario("flaky")
+      .whenScenarioStateIs("recovered")
+      .willReturn(aResponse().withHeader("Content-Type", "application/json").withBody(BALANCE_JSON)));
+
+    ConnectorBalanceClient client = ConnectorBalanceClient.construct(connectorUrl,
+      new OkHttpClient(), new Request.Options(), new Retryer.Default(1, 10, 2));
+
+    AccountBalanceResponse balance = client.getBalance(Optional.empty(), AccountId.of("alice"));
+
+    assertThat(balance.assetCode()).isEqualTo("XRP");
+    assertThat(balance.accountBalance().netBalance().longValue()).isEqualTo(15);
+    wireMockRule.verify(2, getRequestedFor(urlEqualTo(BALANCE_PATH)));
+  }
+
+  @Test
+  public void appliesReadTimeout() {
+    wireMockRule.stubFor(get(urlEqualTo(BALANCE_PATH))
+      .willReturn(aResponse().withFixedDelay(2_000).withHeader("Content-Type", "application/json").withBody(BALANCE_JSON)));
+
+    ConnectorBalanceClient client = ConnectorBalanceClient.construct(connectorUrl, new OkHttpClient(),
+      new Request.Options(1, TimeUnit.SECONDS, 100, TimeUnit.MILLISECONDS, true), Retryer.NEVER_RETRY);
+
+    assertThatThrownBy(() -> client.getBalance(Optional.empty(), AccountId.of("alice")))
+      .isInstanceOf(RetryableException.class);
+  }
+}
@@ -0,0 +1,69 @@
+package org.interledger.spsp.server.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerAddressPrefix;
+import org.interledger.core.SharedSecret;
+import org.interledger.spsp.PaymentPointer;
+import org.interledger.spsp.StreamConnectionDetails;
+import org.interledger.spsp.client.SpspClient;
+import org.interledger.stream.receiver.ServerSecretSupplier;
+import org.interledger.stream.receiver.SpspStreamConnectionGenerator;
+
+import okhttp3.HttpUrl;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+/**
+ * Unit tests for {@link LocalSpspClient}.
+ */
+public class LocalSpspClientTest {
+
+  private static final byte[] SERVER_SECRET = new byte[32];
+  private static final ServerSecretSupplier SERVER_SECRET_SUPPLIER = () -> SERVER_SECRET;
+
+  private SpspClient delegate;
+  private LocalSpspClient client;
+
+  @Before
+  public void setUp() {
+    Arrays.fill(SERVER_SECRET, (byte) 7);
+    delegate = mock(SpspClient.class);
+    client = new LocalSpspClient(
+      delegate, HttpUrl.parse("https://money.example.com"), InterledgerAddressPrefix.of("test.money"),
+      SERVER_SECRET_SUPPLIER
+    );
+  }
+
+  @Test
+  public void resolvesLocalAccountsInProcess() {
+    StreamConnectionDetails details = client.getStreamConnectionDetails(PaymentPointer.of("$money.example.com/alice"));
+
+    assertThat(details.destinationAddress().getValue()).startsWith("test.money.alice.");
+    // The receiver must derive the same shared secret from the destination address
+    SharedSecret receiverSecret = new SpspStreamConnectionGenerator()
+      .deriveSecretFromAddress(SERVER_SECRET_SUPPLIER, details.destinationAddress());
+    assertThat(receiverSecret.key()).isEqualTo(details.sharedSecret().key());
+    verify(delegate, never()).getStreamConnectionDetails(any(PaymentPointer.class));
+  }
+
+  @Test
+  public void delegatesOtherReceivers() {
+    PaymentPointer remote = PaymentPointer.of("$other.example.com/alice");
+    StreamConnectionDetails details = StreamConnectionDetails.builder()
+      .destinationAddress(InterledgerAddress.of("test.other.alice.1234"))
+      .sharedSecret(SharedSecret.of(new byte[32]))
+      .build();
+    when(delegate.getStreamConnectionDetails(remote)).thenReturn(details);
+
+    assertThat(client.getStreamConnectionDetails(remote)).isSameAs(details);
+  }
+}
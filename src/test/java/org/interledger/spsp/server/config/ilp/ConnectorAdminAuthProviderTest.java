@@ -1,10 +1,16 @@
 package org.interledger.spsp.server.config.ilp;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
+import org.interledger.crypto.EncryptedSecret;
 import org.interledger.crypto.EncryptionService;
 import org.interledger.spsp.server.config.crypto.CryptoConfig;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -16,8 +22,13 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.time.Duration;
+import java.util.Optional;
+
 @RunWith(SpringRunner.class)
-@ContextConfiguration(initializers = ConfigFileApplicationContextInitializer.class, classes = CryptoConfig.class)
+@ContextConfiguration(
+  initializers = ConfigFileApplicationContextInitializer.class, classes = {CryptoConfig.class, SimpleMeterRegistry.class}
+)
 @ActiveProfiles("jks")
 public class ConnectorAdminAuthProviderTest {
 
@@ -46,4 +57,31 @@ public class ConnectorAdminAuthProviderTest {
       .isEqualTo(BASIC_AUTH_BASE64_PASSWORD);
   }
 
-}
\ No newline at end of file
+  @Test
+  public void getAdminAuthEncryptedDecryptsOnce() {
+    EncryptionService spiedEncryptionService = spy(encryptionService);
+    ConnectorAdminAuthProvider provider = new ConnectorAdminAuthProvider(ENCRYPTED_PASSWORD, spiedEncryptionService);
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    provider.bindTo(registry);
+
+    assertThat(provider.getAdminAuth()).isEqualTo(BASIC_AUTH_BASE64_PASSWORD);
+    assertThat(provider.getAdminAuth()).isEqualTo(BASIC_AUTH_BASE64_PASSWORD);
+
+    verify(spiedEncryptionService, times(1)).decrypt(any(EncryptedSecret.class));
+    assertThat(registry.get(ConnectorAdminAuthProvider.DECRYPTS_METRIC_NAME).functionCounter().count()).isEqualTo(1);
+  }
+
+  @Test
+  public void getAdminAuthEncryptedRefreshes() {
+    EncryptionService spiedEncryptionService = spy(encryptionService);
+    ConnectorAdminAuthProvider provider = new ConnectorAdminAuthProvider(
+      ENCRYPTED_PASSWORD, spiedEncryptionService, Optional.of(Duration.ofNanos(1))
+    );
+
+    assertThat(provider.getAdminAuth()).isEqualTo(BASIC_AUTH_BASE64_PASSWORD);
+    assertThat(provider.getAdminAuth()).isEqualTo(BASIC_AUTH_BASE64_PASSWORD);
+
+    verify(spiedEncryptionService, times(2)).decrypt(any(EncryptedSecret.class));
+  }
+
+}
@@ -5,6 +5,10 @@ import org.interledger.core.InterledgerAddressPrefix;
 import org.interledger.link.http.OutgoingLinkSettings;
 import org.interledger.spsp.server.client.ConnectorBalanceClient;
 import org.interledger.spsp.server.client.ConnectorTokensClient;
+import org.interledger.spsp.server.services.AccountSettingsCache;
+import org.interledger.spsp.server.services.BalanceCache;
+import org.interledger.spsp.server.services.BalanceWatcher;
+import org.interledger.spsp.server.services.BatchLookupService;
 import org.interledger.spsp.server.services.GimmeMoneyService;
 import org.interledger.spsp.server.services.NewAccountService;
 import org.interledger.spsp.server.services.SendMoneyService;
@@ -36,11 +40,19 @@ public abstract class AbstractControllerTest {
   protected NewAccountService accountService;
   @MockBean
   protected ConnectorAdminClient adminClient;
+  @MockBean
+  protected AccountSettingsCache accountSettingsCache;
   @Autowired
   protected HttpUrl spspReceiverUrl;
   @MockBean
   protected ConnectorBalanceClient balanceClient;
   @MockBean
+  protected BalanceCache balanceCache;
+  @MockBean
+  protected BalanceWatcher balanceWatcher;
+  @MockBean
+  protected BatchLookupService batchLookupService;
+  @MockBean
   protected ConnectorTokensClient tokensClient;
   @MockBean
   protected GimmeMoneyService gimmeMoneyService;
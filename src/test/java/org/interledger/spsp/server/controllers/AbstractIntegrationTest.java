@@ -1,6 +1,8 @@
 package org.interledger.spsp.server.controllers;
 
+import static org.interledger.spsp.server.config.ilp.IlpOverHttpConfig.PAYMENTS_EXECUTOR;
 import static org.interledger.spsp.server.config.ilp.IlpOverHttpConfig.SPSP;
+import static org.interledger.spsp.server.config.ilp.IlpOverHttpConfig.STREAM_EXECUTOR;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.HttpHeaders.AUTHORIZATION;
@@ -15,9 +17,14 @@ import org.interledger.spsp.server.client.ConnectorTokensClient;
 import org.interledger.spsp.server.config.jackson.JacksonConfig;
 import org.interledger.spsp.server.model.BearerToken;
 import org.interledger.spsp.server.model.BearerTokenHeaderConverter;
+import org.interledger.spsp.server.services.AccountSettingsCache;
+import org.interledger.spsp.server.services.BalanceCache;
 import org.interledger.spsp.server.services.SendMoneyService;
+import org.interledger.spsp.server.services.StreamSenderPool;
+import org.interledger.spsp.server.util.BoundedExecutors;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import org.junit.AfterClass;
@@ -120,13 +127,18 @@ public abstract class AbstractIntegrationTest {
     @Bean
     @Primary
     public SendMoneyService sendMoneyService(ObjectMapper objectMapper,
-      ConnectorAdminClient adminClient,
+      AccountSettingsCache accountSettingsCache,
+      BalanceCache balanceCache,
       OkHttpClient okHttpClient,
       SpspClient spspClient,
-      @Qualifier(SPSP) InterledgerAddressPrefix spspAddressPrefix
+      @Qualifier(SPSP) InterledgerAddressPrefix spspAddressPrefix,
+      StreamSenderPool streamSenderPool,
+      MeterRegistry meterRegistry
     ) {
       return new SendMoneyService(
-        containers.getNodeBaseUri(), objectMapper, adminClient, okHttpClient, spspClient, spspAddressPrefix
+        containers.getNodeBaseUri(), objectMapper, accountSettingsCache, balanceCache, okHttpClient, spspClient,
+        spspAddressPrefix, streamSenderPool, BoundedExecutors.newBoundedExecutor(PAYMENTS_EXECUTOR, 20, 1000, meterRegistry),
+        BoundedExecutors.newCallerRunsExecutor(STREAM_EXECUTOR, 50, 1000, meterRegistry), meterRegistry
       );
     }
   }
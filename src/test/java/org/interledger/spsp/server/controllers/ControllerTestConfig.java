@@ -1,11 +1,28 @@
 package org.interledger.spsp.server.controllers;
 
+import static org.interledger.spsp.server.config.ilp.IlpOverHttpConfig.ACCOUNT_BATCHES;
+import static org.interledger.spsp.server.config.ilp.IlpOverHttpConfig.LOOKUP_BATCHES;
+import static org.interledger.spsp.server.config.ilp.IlpOverHttpConfig.PAYMENT_BATCHES;
+
+import org.interledger.spsp.server.config.jackson.JacksonConfig;
+import org.interledger.spsp.server.model.BearerTokenHeaderConverter;
+import org.interledger.spsp.server.util.BatchLimits;
+import org.interledger.spsp.server.util.ExceptionHandlerUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 import okhttp3.HttpUrl;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.info.BuildProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Primary;
 
+import java.time.Duration;
+import java.util.Properties;
+
 @Configuration
+@Import(JacksonConfig.class) // The application's ObjectMapper, e.g. for the Guava collections in batch requests.
 public class ControllerTestConfig {
 
   @Bean
@@ -13,4 +30,40 @@ public class ControllerTestConfig {
   public HttpUrl spspReceiverUrl() {
     return HttpUrl.parse("http://example.com");
   }
+
+  @Bean
+  @Qualifier(PAYMENT_BATCHES)
+  public BatchLimits paymentBatchLimits() {
+    return new BatchLimits(100, 10, Duration.ofSeconds(30));
+  }
+
+  @Bean
+  @Qualifier(LOOKUP_BATCHES)
+  public BatchLimits lookupBatchLimits() {
+    return new BatchLimits(100, 10, Duration.ofSeconds(30));
+  }
+
+  @Bean
+  @Qualifier(ACCOUNT_BATCHES)
+  public BatchLimits accountBatchLimits() {
+    return new BatchLimits(100, 10, Duration.ofSeconds(30));
+  }
+
+  @Bean
+  public BearerTokenHeaderConverter bearerTokenHeaderConverter() {
+    return new BearerTokenHeaderConverter();
+  }
+
+  @Bean
+  public BuildProperties buildProperties() {
+    Properties entries = new Properties();
+    entries.put("version", "1.0.0");
+    entries.put("ilpOverHttpUrl", "https://hermes.com");
+    return new BuildProperties(entries);
+  }
+
+  @Bean
+  public ExceptionHandlerUtils exceptionHandlerUtils(ObjectMapper objectMapper) {
+    return new ExceptionHandlerUtils(objectMapper);
+  }
 }
@@ -7,8 +7,10 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import org.interledger.connector.accounts.AccountBalanceSettings;
@@ -24,11 +26,8 @@ import org.interledger.spsp.server.controllers.AbstractControllerTest;
 import org.interledger.spsp.server.controllers.AccountController;
 import org.interledger.spsp.server.controllers.BalanceController;
 import org.interledger.spsp.server.controllers.PaymentController;
-import org.interledger.spsp.server.controllers.filters.CookieFilterTests.CookieFilterConfiguration;
 import org.interledger.spsp.server.model.BearerToken;
-import org.interledger.spsp.server.model.BearerTokenHeaderConverter;
 import org.interledger.spsp.server.model.PaymentRequest;
-import org.interledger.spsp.server.util.ExceptionHandlerUtils;
 import org.interledger.stream.SendMoneyResult;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -39,17 +38,14 @@ import org.junit.runner.RunWith;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
-import org.springframework.boot.info.BuildProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Import;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.Duration;
 import java.util.Optional;
-import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 
 import javax.servlet.http.Cookie;
 
@@ -65,7 +61,6 @@ import javax.servlet.http.Cookie;
   },
   excludeAutoConfiguration = {SecurityAutoConfiguration.class}
 )
-@Import(CookieFilterConfiguration.class)
 public class CookieFilterTests extends AbstractControllerTest {
 
   private static final String JWT_VALUE = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9.eyJzdWIiOiIxMjM0NTY3ODkwIn0"
@@ -187,7 +182,7 @@ public class CookieFilterTests extends AbstractControllerTest {
         .prepaidAmount(10000)
         .build())
       .build();
-    when(balanceClient.getBalance(eq(OPT_BEARER_TOKEN), any())).thenReturn(accountBalanceResponseMock);
+    when(balanceCache.getBalance(eq(OPT_BEARER_TOKEN), any())).thenReturn(accountBalanceResponseMock);
 
     this.mvc.perform(get("/accounts/foo/balance")
       .headers(testJsonHeaders())
@@ -195,7 +190,7 @@ public class CookieFilterTests extends AbstractControllerTest {
     )
       .andExpect(status().isOk());
 
-    verify(balanceClient, times(1)).getBalance(eq(OPT_BEARER_TOKEN), any());
+    verify(balanceCache, times(1)).getBalance(eq(OPT_BEARER_TOKEN), any());
   }
 
   @Test
@@ -209,7 +204,7 @@ public class CookieFilterTests extends AbstractControllerTest {
         .prepaidAmount(10000)
         .build())
       .build();
-    when(balanceClient.getBalance(eq(OPT_BEARER_TOKEN), any()))
+    when(balanceCache.getBalance(eq(OPT_BEARER_TOKEN), any()))
       .thenReturn(accountBalanceResponseMock);
 
     this.mvc.perform(get("/accounts/foo/balance")
@@ -218,7 +213,7 @@ public class CookieFilterTests extends AbstractControllerTest {
     )
       .andExpect(status().isOk());
 
-    verify(balanceClient, times(1)).getBalance(eq(OPT_BEARER_TOKEN), any());
+    verify(balanceCache, times(1)).getBalance(eq(OPT_BEARER_TOKEN), any());
   }
 
   @Test
@@ -236,23 +231,27 @@ public class CookieFilterTests extends AbstractControllerTest {
       .successfulPayment(true)
       .build();
 
-    when(sendMoneyService.sendMoney(any(),
+    when(sendMoneyService.sendMoneyAsync(any(),
       eq(OPT_BEARER_TOKEN),
       any(),
-      any())).thenReturn(sendMoneyResultMock);
+      any())).thenReturn(CompletableFuture.completedFuture(sendMoneyResultMock));
 
     PaymentRequest request = PaymentRequest.builder()
       .amount(UnsignedLong.valueOf(10))
       .destinationPaymentPointer("$foo.bar/baz")
       .build();
-    this.mvc.perform(post("/accounts/foo/pay")
+    MvcResult result = this.mvc.perform(post("/accounts/foo/pay")
       .headers(testJsonHeaders())
       .cookie(authCookie)
       .content(objectMapper.writeValueAsString(request))
     )
+      .andExpect(request().asyncStarted())
+      .andReturn();
+
+    this.mvc.perform(asyncDispatch(result))
       .andExpect(status().isOk());
 
-    verify(sendMoneyService, times(1)).sendMoney(any(),
+    verify(sendMoneyService, times(1)).sendMoneyAsync(any(),
       eq(OPT_BEARER_TOKEN),
       any(),
       any());
@@ -271,47 +270,29 @@ public class CookieFilterTests extends AbstractControllerTest {
       .successfulPayment(true)
       .build();
 
-    when(sendMoneyService.sendMoney(any(),
+    when(sendMoneyService.sendMoneyAsync(any(),
       eq(OPT_BEARER_TOKEN),
       any(),
-      any())).thenReturn(sendMoneyResultMock);
+      any())).thenReturn(CompletableFuture.completedFuture(sendMoneyResultMock));
 
     PaymentRequest request = PaymentRequest.builder()
       .amount(UnsignedLong.valueOf(10))
       .destinationPaymentPointer("$foo.bar/baz")
       .build();
-    this.mvc.perform(post("/accounts/foo/pay")
+    MvcResult result = this.mvc.perform(post("/accounts/foo/pay")
       .headers(testJsonHeaders())
       .header(AUTHORIZATION, BEARER_TOKEN.value())
       .content(objectMapper.writeValueAsString(request))
     )
+      .andExpect(request().asyncStarted())
+      .andReturn();
+
+    this.mvc.perform(asyncDispatch(result))
       .andExpect(status().isOk());
 
-    verify(sendMoneyService, times(1)).sendMoney(any(),
+    verify(sendMoneyService, times(1)).sendMoneyAsync(any(),
       eq(OPT_BEARER_TOKEN),
       any(),
       any());
   }
-
-  @Configuration
-  static class CookieFilterConfiguration {
-
-    @Bean
-    public BearerTokenHeaderConverter bearerTokenHeaderConverter() {
-      return new BearerTokenHeaderConverter();
-    }
-
-    @Bean
-    public BuildProperties buildProperties() {
-      Properties entries = new Properties();
-      entries.put("version", "1.0.0");
-      entries.put("ilpOverHttpUrl", "https://hermes.com");
-      return new BuildProperties(entries);
-    }
-
-    @Bean
-    public ExceptionHandlerUtils exceptionHandlerUtils(ObjectMapper objectMapper) {
-      return new ExceptionHandlerUtils(objectMapper);
-    }
-  }
 }
@@ -0,0 +1,77 @@
+package org.interledger.spsp.server.controllers.filters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.ServletException;
+
+/**
+ * Unit tests for {@link LoggingContextFilter}.
+ */
+public class LoggingContextFilterTest {
+
+  private LoggingContextFilter filter;
+  private MockHttpServletRequest request;
+
+  @Before
+  public void setUp() {
+    filter = new LoggingContextFilter();
+    request = new MockHttpServletRequest();
+    MDC.clear();
+  }
+
+  @Test
+  public void setsMdcForTheDurationOfTheRequest() throws IOException, ServletException {
+    request.setRequestURI("/accounts/alice/pay");
+    request.addHeader(LoggingContextFilter.TRACE_CONTEXT_HEADER, "105445aa7843bc8bf206b120001000/1;o=1");
+    Map<String, String> mdcDuringRequest = new HashMap<>();
+
+    filter.doFilter(request, new MockHttpServletResponse(),
+      (req, res) -> mdcDuringRequest.putAll(MDC.getCopyOfContextMap()));
+
+    assertThat(mdcDuringRequest)
+      .containsEntry(LoggingContextFilter.TRACE_ID, "105445aa7843bc8bf206b120001000")
+      .containsEntry(LoggingContextFilter.ACCOUNT_ID, "alice");
+    assertThat(MDC.get(LoggingContextFilter.TRACE_ID)).isNull();
+    assertThat(MDC.get(LoggingContextFilter.ACCOUNT_ID)).isNull();
+  }
+
+  @Test
+  public void restoresPriorMdcValuesAfterTheRequest() throws IOException, ServletException {
+    request.setRequestURI("/accounts/alice/pay");
+    MDC.put(LoggingContextFilter.ACCOUNT_ID, "bob");
+    MDC.put("other", "value");
+
+    filter.doFilter(request, new MockHttpServletResponse(),
+      (req, res) -> assertThat(MDC.get(LoggingContextFilter.ACCOUNT_ID)).isEqualTo("alice"));
+
+    assertThat(MDC.get(LoggingContextFilter.ACCOUNT_ID)).isEqualTo("bob");
+    assertThat(MDC.get("other")).isEqualTo("value");
+  }
+
+  @Test
+  public void parsesAccountIds() {
+    assertThat(LoggingContextFilter.accountId("/accounts/alice")).hasValue("alice");
+    assertThat(LoggingContextFilter.accountId("/accounts/alice/balance")).hasValue("alice");
+    assertThat(LoggingContextFilter.accountId("/accounts/")).isEmpty();
+    assertThat(LoggingContextFilter.accountId("/accounts")).isEmpty();
+    assertThat(LoggingContextFilter.accountId("/gimme-money")).isEmpty();
+  }
+
+  @Test
+  public void parsesTraceIds() {
+    assertThat(LoggingContextFilter.traceId("abc/1;o=1")).hasValue("abc");
+    assertThat(LoggingContextFilter.traceId("abc")).hasValue("abc");
+    assertThat(LoggingContextFilter.traceId("/1")).isEmpty();
+    assertThat(LoggingContextFilter.traceId(null)).isEmpty();
+  }
+}
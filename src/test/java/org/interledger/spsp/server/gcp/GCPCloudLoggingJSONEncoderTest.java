@@ -0,0 +1,106 @@
+package org.interledger.spsp.server.gcp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.interledger.spsp.server.controllers.filters.LoggingContextFilter;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link GCPCloudLoggingJSONEncoder}.
+ */
+public class GCPCloudLoggingJSONEncoderTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private Logger logger;
+  private GCPCloudLoggingJSONEncoder encoder;
+
+  @Before
+  public void setUp() {
+    LoggerContext loggerContext = new LoggerContext();
+    logger = loggerContext.getLogger("org.interledger.spsp.server.services.SendMoneyService");
+    encoder = new GCPCloudLoggingJSONEncoder();
+    encoder.setContext(loggerContext);
+    encoder.start();
+  }
+
+  @Test
+  public void encodesOneLinePerEntry() throws IOException {
+    LoggingEvent event = event(Level.WARN, "Sent {} units\nto {}", null, 1000, "$example.com/bob");
+    event.setTimeStamp(1_573_000_000_123L);
+
+    String encoded = new String(encoder.encode(event), StandardCharsets.UTF_8);
+
+    assertThat(encoded).endsWith("\n");
+    assertThat(encoded.indexOf('\n')).isEqualTo(encoded.length() - 1);
+    JsonNode entry = objectMapper.readTree(encoded);
+    assertThat(entry.get("severity").asText()).isEqualTo("WARNING");
+    assertThat(entry.get("message").asText()).isEqualTo("Sent 1000 units\nto $example.com/bob");
+    assertThat(entry.get("timestamp").get("seconds").asLong()).isEqualTo(1_573_000_000L);
+    assertThat(entry.get("timestamp").get("nanos").asInt()).isEqualTo(123_000_000);
+    assertThat(entry.get("thread").asText()).isEqualTo(Thread.currentThread().getName());
+    assertThat(entry.get("logger").asText()).isEqualTo(logger.getName());
+    assertThat(entry.has(GCPCloudLoggingJSONEncoder.TRACE_FIELD)).isFalse();
+    assertThat(entry.has(GCPCloudLoggingJSONEncoder.LABELS_FIELD)).isFalse();
+  }
+
+  @Test
+  public void appendsStackTraceToMessage() throws IOException {
+    JsonNode entry = objectMapper.readTree(encoder.encode(
+      event(Level.ERROR, "Payment failed", new IllegalStateException("boom"))
+    ));
+
+    assertThat(entry.get("severity").asText()).isEqualTo("ERROR");
+    assertThat(entry.get("message").asText())
+      .startsWith("Payment failed\njava.lang.IllegalStateException: boom")
+      .contains("appendsStackTraceToMessage");
+  }
+
+  @Test
+  public void writesMdcAsTraceAndLabels() throws IOException {
+    encoder.setProjectId("hermes");
+    Map<String, String> mdc = new HashMap<>();
+    mdc.put(LoggingContextFilter.TRACE_ID, "105445aa7843bc8bf206b120001000");
+    mdc.put(LoggingContextFilter.ACCOUNT_ID, "alice");
+    LoggingEvent event = event(Level.INFO, "Sent", null);
+    event.setMDCPropertyMap(mdc);
+
+    JsonNode entry = objectMapper.readTree(encoder.encode(event));
+
+    assertThat(entry.get(GCPCloudLoggingJSONEncoder.TRACE_FIELD).asText())
+      .isEqualTo("projects/hermes/traces/105445aa7843bc8bf206b120001000");
+    assertThat(entry.get(GCPCloudLoggingJSONEncoder.LABELS_FIELD).size()).isEqualTo(1);
+    assertThat(entry.get(GCPCloudLoggingJSONEncoder.LABELS_FIELD).get(LoggingContextFilter.ACCOUNT_ID).asText())
+      .isEqualTo("alice");
+  }
+
+  @Test
+  public void reusesBufferBetweenEntries() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    encoder.encode(event(Level.INFO, "first", null), out);
+    encoder.encode(event(Level.INFO, "second", null), out);
+
+    String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+    assertThat(lines).hasSize(2);
+    assertThat(objectMapper.readTree(lines[0]).get("message").asText()).isEqualTo("first");
+    assertThat(objectMapper.readTree(lines[1]).get("message").asText()).isEqualTo("second");
+  }
+
+  private LoggingEvent event(Level level, String message, Throwable throwable, Object... args) {
+    return new LoggingEvent(Logger.class.getName(), logger, level, message, throwable, args);
+  }
+}
@@ -0,0 +1,213 @@
+package org.interledger.spsp.server.gcp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import io.micrometer.core.instrument.Metrics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link RingBufferConsoleAppender}.
+ */
+public class RingBufferConsoleAppenderTest {
+
+  private LoggerContext loggerContext;
+  private Logger logger;
+  private RingBufferConsoleAppender appender;
+
+  @Before
+  public void setUp() {
+    loggerContext = new LoggerContext();
+    logger = loggerContext.getLogger(RingBufferConsoleAppenderTest.class);
+
+    PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+    encoder.setContext(loggerContext);
+    encoder.setPattern("%msg%n");
+    encoder.start();
+
+    appender = new RingBufferConsoleAppender();
+    appender.setContext(loggerContext);
+    appender.setName("test");
+    appender.setEncoder(encoder);
+  }
+
+  @After
+  public void tearDown() {
+    appender.stop();
+  }
+
+  @Test
+  public void writesEventsInOrderAndDrainsOnStop() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    appender.setConsoleStream(out);
+    appender.start();
+
+    for (int i = 0; i < 1000; i++) {
+      appender.doAppend(event("message " + i));
+    }
+    appender.stop();
+
+    String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+    assertThat(lines).hasSize(1000);
+    assertThat(lines[0]).isEqualTo("message 0");
+    assertThat(lines[999]).isEqualTo("message 999");
+    assertThat(appender.getDroppedCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void dropsAndCountsEventsWhenFull() throws Exception {
+    BlockingOutputStream out = new BlockingOutputStream();
+    appender.setConsoleStream(out);
+    appender.setCapacity(4);
+    appender.setOutputBufferSize(1);
+    appender.start();
+
+    // The writer takes the first event and blocks writing it, leaving 4 slots for the next ones.
+    appender.doAppend(event("first"));
+    assertThat(out.writing.await(5, TimeUnit.SECONDS)).isTrue();
+    for (int i = 0; i < 10; i++) {
+      appender.doAppend(event("message " + i));
+    }
+
+    assertThat(appender.getDroppedCount()).isEqualTo(6);
+    assertThat(Metrics.globalRegistry.get(RingBufferConsoleAppender.DROPPED_METRIC_NAME)
+      .tag("appender", "test")
+      .functionCounter().count()).isEqualTo(6);
+
+    out.release.countDown();
+    appender.stop();
+    assertThat(new String(out.bytes.toByteArray(), StandardCharsets.UTF_8))
+      .isEqualTo("first\nmessage 0\nmessage 1\nmessage 2\nmessage 3\n");
+  }
+
+  @Test
+  public void blocksUntilThereIsRoomWhenFull() throws Exception {
+    BlockingOutputStream out = new BlockingOutputStream();
+    appender.setConsoleStream(out);
+    appender.setCapacity(4);
+    appender.setOutputBufferSize(1);
+    appender.setOverflowPolicy(RingBufferConsoleAppender.OverflowPolicy.BLOCK);
+    appender.start();
+
+    appender.doAppend(event("first"));
+    assertThat(out.writing.await(5, TimeUnit.SECONDS)).isTrue();
+    Thread producer = new Thread(() -> {
+      for (int i = 0; i < 10; i++) {
+        appender.doAppend(event("message " + i));
+      }
+    });
+    producer.start();
+
+    producer.join(200);
+    assertThat(producer.isAlive()).isTrue();
+
+    out.release.countDown();
+    producer.join(5000);
+    assertThat(producer.isAlive()).isFalse();
+    appender.stop();
+
+    String[] lines = new String(out.bytes.toByteArray(), StandardCharsets.UTF_8).split("\n");
+    assertThat(lines).hasSize(11);
+    assertThat(lines[10]).isEqualTo("message 9");
+    assertThat(appender.getDroppedCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void neverDropsWarningsWhenFull() throws Exception {
+    BlockingOutputStream out = new BlockingOutputStream();
+    appender.setConsoleStream(out);
+    appender.setCapacity(4);
+    appender.setOutputBufferSize(1);
+    appender.start();
+
+    appender.doAppend(event("first"));
+    assertThat(out.writing.await(5, TimeUnit.SECONDS)).isTrue();
+    for (int i = 0; i < 10; i++) {
+      appender.doAppend(event("message " + i));
+    }
+    Thread producer = new Thread(() -> {
+      appender.doAppend(event(Level.WARN, "warning"));
+      appender.doAppend(event(Level.ERROR, "error"));
+    });
+    producer.start();
+
+    producer.join(200);
+    assertThat(producer.isAlive()).isTrue();
+
+    out.release.countDown();
+    producer.join(5000);
+    assertThat(producer.isAlive()).isFalse();
+    appender.stop();
+
+    assertThat(appender.getDroppedCount()).isEqualTo(6);
+    assertThat(new String(out.bytes.toByteArray(), StandardCharsets.UTF_8))
+      .isEqualTo("first\nmessage 0\nmessage 1\nmessage 2\nmessage 3\nwarning\nerror\n");
+  }
+
+  @Test
+  public void dropsEventsOfEveryLevelWhenNeverDropLevelIsOff() throws Exception {
+    BlockingOutputStream out = new BlockingOutputStream();
+    appender.setConsoleStream(out);
+    appender.setCapacity(4);
+    appender.setOutputBufferSize(1);
+    appender.setNeverDropLevel(Level.OFF);
+    appender.start();
+
+    appender.doAppend(event("first"));
+    assertThat(out.writing.await(5, TimeUnit.SECONDS)).isTrue();
+    for (int i = 0; i < 10; i++) {
+      appender.doAppend(event(Level.ERROR, "error " + i));
+    }
+
+    assertThat(appender.getDroppedCount()).isEqualTo(6);
+    out.release.countDown();
+  }
+
+  private ILoggingEvent event(String message) {
+    return event(Level.INFO, message);
+  }
+
+  private ILoggingEvent event(Level level, String message) {
+    return new LoggingEvent(Logger.class.getName(), logger, level, message, null, null);
+  }
+
+  /**
+   * Collects what is written to it, but blocks the first write until released.
+   */
+  private static class BlockingOutputStream extends OutputStream {
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final CountDownLatch writing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Override
+    public void write(int b) throws IOException {
+      write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      writing.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        throw new IOException(e);
+      }
+      bytes.write(b, off, len);
+    }
+  }
+}
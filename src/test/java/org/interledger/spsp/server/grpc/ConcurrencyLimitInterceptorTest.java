@@ -0,0 +1,176 @@
+package org.interledger.spsp.server.grpc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.grpc.ManagedChannel;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.grpc.testing.GrpcCleanupRule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link ConcurrencyLimitInterceptor}.
+ */
+public class ConcurrencyLimitInterceptorTest {
+
+  @Rule
+  public final GrpcCleanupRule grpcCleanup = new GrpcCleanupRule();
+
+  private final CountDownLatch handling = new CountDownLatch(1);
+  private final CountDownLatch release = new CountDownLatch(1);
+  // The observers of streaming calls whose handlers have returned, but which haven't been completed yet.
+  private final BlockingQueue<StreamObserver<GetBalanceResponse>> openStreams = new LinkedBlockingQueue<>();
+
+  private ConcurrencyLimitInterceptor interceptor;
+  private SimpleMeterRegistry meterRegistry;
+  private ManagedChannel channel;
+
+  @Before
+  public void setUp() throws Exception {
+    interceptor = new ConcurrencyLimitInterceptor(ImmutableMap.of(
+      BalanceServiceGrpc.SERVICE_NAME, 1,
+      BalanceServiceGrpc.getWatchBalanceMethod().getFullMethodName(), 1
+    ));
+    meterRegistry = new SimpleMeterRegistry();
+    interceptor.bindTo(meterRegistry);
+
+    final String serverName = InProcessServerBuilder.generateName();
+    grpcCleanup.register(InProcessServerBuilder.forName(serverName)
+      .executor(Executors.newCachedThreadPool())
+      .addService(ServerInterceptors.intercept(new BlockingBalanceService(), interceptor))
+      .addService(ServerInterceptors.intercept(new UnlimitedAccountService(), interceptor))
+      .build()
+      .start());
+    channel = grpcCleanup.register(InProcessChannelBuilder.forName(serverName).build());
+  }
+
+  @Test
+  public void rejectsCallsBeyondTheLimitUntilOneFinishes() throws Exception {
+    final ListenableFuture<GetBalanceResponse> first = BalanceServiceGrpc.newFutureStub(channel)
+      .getBalance(GetBalanceRequest.newBuilder().setAccountId("first").build());
+    assertThat(handling.await(5, TimeUnit.SECONDS)).isTrue();
+
+    assertThatThrownBy(() -> BalanceServiceGrpc.newBlockingStub(channel)
+      .getBalance(GetBalanceRequest.newBuilder().setAccountId("second").build()))
+      .isInstanceOfSatisfying(StatusRuntimeException.class,
+        e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.RESOURCE_EXHAUSTED));
+    assertThat(activeCalls()).isEqualTo(1);
+    assertThat(meterRegistry.get(ConcurrencyLimitInterceptor.METRIC_NAME + ".rejected")
+      .tag("service", BalanceServiceGrpc.SERVICE_NAME)
+      .functionCounter().count()).isEqualTo(1);
+
+    release.countDown();
+    assertThat(first.get(5, TimeUnit.SECONDS).getAccountId()).isEqualTo("first");
+    // The response can reach the client just before the server sees the call close and gives its permit back.
+    awaitActiveCalls(0);
+    assertThat(BalanceServiceGrpc.newBlockingStub(channel)
+      .getBalance(GetBalanceRequest.newBuilder().setAccountId("third").build())
+      .getAccountId()).isEqualTo("third");
+    awaitActiveCalls(0);
+    assertThat(activeCalls()).isEqualTo(0);
+  }
+
+  @Test
+  public void streamingCallsCountUntilTheyClose() throws Exception {
+    release.countDown();
+    final Iterator<GetBalanceResponse> watch = BalanceServiceGrpc.newBlockingStub(channel)
+      .watchBalance(GetBalanceRequest.newBuilder().setAccountId("watched").build());
+    final StreamObserver<GetBalanceResponse> stream = openStreams.poll(5, TimeUnit.SECONDS);
+    assertThat(stream).isNotNull();
+
+    // The handler has returned, but the call is still open.
+    assertThatThrownBy(() -> BalanceServiceGrpc.newBlockingStub(channel)
+      .watchBalance(GetBalanceRequest.newBuilder().setAccountId("second").build()).hasNext())
+      .isInstanceOfSatisfying(StatusRuntimeException.class,
+        e -> assertThat(e.getStatus().getCode()).isEqualTo(Status.Code.RESOURCE_EXHAUSTED));
+    // Methods with a limit of their own don't count against their service's.
+    assertThat(BalanceServiceGrpc.newBlockingStub(channel)
+      .getBalance(GetBalanceRequest.newBuilder().setAccountId("unwatched").build())
+      .getAccountId()).isEqualTo("unwatched");
+
+    stream.onNext(GetBalanceResponse.newBuilder().setAccountId("watched").build());
+    stream.onCompleted();
+    assertThat(watch.next().getAccountId()).isEqualTo("watched");
+    assertThat(watch.hasNext()).isFalse();
+    final Iterator<GetBalanceResponse> next = BalanceServiceGrpc.newBlockingStub(channel)
+      .watchBalance(GetBalanceRequest.newBuilder().setAccountId("next").build());
+    final StreamObserver<GetBalanceResponse> nextStream = openStreams.poll(5, TimeUnit.SECONDS);
+    assertThat(nextStream).isNotNull();
+    nextStream.onCompleted();
+    assertThat(next.hasNext()).isFalse();
+  }
+
+  @Test
+  public void doesNotLimitOtherServices() throws Exception {
+    BalanceServiceGrpc.newFutureStub(channel).getBalance(GetBalanceRequest.newBuilder().setAccountId("first").build());
+    assertThat(handling.await(5, TimeUnit.SECONDS)).isTrue();
+
+    assertThat(AccountServiceGrpc.newBlockingStub(channel)
+      .getAccount(GetAccountRequest.newBuilder().setAccountId("account").build())
+      .getAccountId()).isEqualTo("account");
+    release.countDown();
+  }
+
+  private void awaitActiveCalls(final double expected) throws InterruptedException {
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (activeCalls() != expected && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+  }
+
+  private double activeCalls() {
+    return meterRegistry.get(ConcurrencyLimitInterceptor.METRIC_NAME + ".active")
+      .tag("service", BalanceServiceGrpc.SERVICE_NAME)
+      .gauge().value();
+  }
+
+  /**
+   * Holds the first call until released.
+   */
+  private class BlockingBalanceService extends BalanceServiceGrpc.BalanceServiceImplBase {
+
+    @Override
+    public void getBalance(GetBalanceRequest request, StreamObserver<GetBalanceResponse> responseObserver) {
+      handling.countDown();
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      responseObserver.onNext(GetBalanceResponse.newBuilder().setAccountId(request.getAccountId()).build());
+      responseObserver.onCompleted();
+    }
+
+    @Override
+    public void watchBalance(GetBalanceRequest request, StreamObserver<GetBalanceResponse> responseObserver) {
+      // Streams from elsewhere, after this returns.
+      openStreams.add(responseObserver);
+    }
+  }
+
+  private static class UnlimitedAccountService extends AccountServiceGrpc.AccountServiceImplBase {
+
+    @Override
+    public void getAccount(GetAccountRequest request, StreamObserver<GetAccountResponse> responseObserver) {
+      responseObserver.onNext(GetAccountResponse.newBuilder().setAccountId(request.getAccountId()).build());
+      responseObserver.onCompleted();
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package org.interledger.spsp.server.grpc;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -7,6 +8,7 @@ import static org.mockito.MockitoAnnotations.initMocks;
 
 import org.interledger.connector.accounts.AccountId;
 import org.interledger.connector.accounts.AccountNotFoundProblem;
+import org.interledger.spsp.client.InvalidReceiverClientException;
 import org.interledger.spsp.server.config.jackson.ObjectMapperFactory;
 import org.interledger.spsp.server.util.ExceptionHandlerUtils;
 
@@ -24,7 +26,11 @@ import org.mockito.ArgumentMatcher;
 import org.mockito.Mock;
 import org.springframework.security.authentication.BadCredentialsException;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Unit tests for {@link ExceptionHandlerUtils}.
@@ -84,6 +90,27 @@ public class ExceptionHandlerUtilsTest {
     verifyStatusRuntimeException(Status.NOT_FOUND);
   }
 
+  @Test
+  public void rejectedExecutionResourceExhausted() {
+    RejectedExecutionException exception = new RejectedExecutionException("queue full");
+    exceptionHandlerUtils.handleException(exception, responseObserverMock);
+    verifyStatusRuntimeException(Status.RESOURCE_EXHAUSTED);
+  }
+
+  @Test
+  public void timeoutDeadlineExceeded() {
+    CompletionException exception = new CompletionException(new TimeoutException("too slow"));
+    exceptionHandlerUtils.handleException(exception, responseObserverMock);
+    verifyStatusRuntimeException(Status.DEADLINE_EXCEEDED);
+  }
+
+  @Test
+  public void completionExceptionIsUnwrapped() {
+    CompletionException exception = new CompletionException(new AccountNotFoundProblem(AccountId.of("foo")));
+    exceptionHandlerUtils.handleException(exception, responseObserverMock);
+    verifyStatusRuntimeException(Status.NOT_FOUND);
+  }
+
   @Test
   public void feignException404() {
     Response response = Response.builder()
@@ -148,6 +175,36 @@ public class ExceptionHandlerUtilsTest {
     verifyStatusRuntimeException(Status.INTERNAL);
   }
 
+  @Test
+  public void describeNeverReturnsExceptionMessages() {
+    assertThat(ExceptionHandlerUtils.describe(new IllegalStateException("jdbc://user:secret@db/hermes")))
+      .isEqualTo("Internal error");
+    assertThat(ExceptionHandlerUtils.describe(new CompletionException(new RuntimeException("secret"))))
+      .isEqualTo("Internal error");
+    assertThat(ExceptionHandlerUtils.describe(new IllegalArgumentException("secret")))
+      .isEqualTo("Invalid request");
+  }
+
+  @Test
+  public void describeMapsExpectedFailures() {
+    Response response = Response.builder()
+      .status(404)
+      .request(request)
+      .body("{\"detail\":\"secret\"}", StandardCharsets.UTF_8)
+      .build();
+    assertThat(ExceptionHandlerUtils.describe(FeignException.errorStatus("doSomething", response)))
+      .isEqualTo("Connector responded with HTTP 404");
+    assertThat(ExceptionHandlerUtils.describe(new AccountNotFoundProblem(AccountId.of("alice"))))
+      .isEqualTo("Account not found");
+    assertThat(ExceptionHandlerUtils.describe(new BadCredentialsException("secret")))
+      .isEqualTo("Unauthenticated");
+    assertThat(ExceptionHandlerUtils.describe(new InvalidReceiverClientException("https://secret.example/")))
+      .isEqualTo("Receiver not found");
+    assertThat(ExceptionHandlerUtils.describe(new CompletionException(new RejectedExecutionException("secret"))))
+      .isEqualTo("Too many requests");
+    assertThat(ExceptionHandlerUtils.describe(new TimeoutException("secret"))).isEqualTo("Timed out");
+  }
+
   private void verifyStatusRuntimeException(Status expectedStatus) {
     verify(responseObserverMock)
       .onError(argThat(new StatusRuntimeExceptionMatcher(new StatusRuntimeException(expectedStatus))));
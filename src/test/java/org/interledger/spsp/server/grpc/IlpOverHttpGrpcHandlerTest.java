@@ -0,0 +1,261 @@
+package org.interledger.spsp.server.grpc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.spsp.PaymentPointer;
+import org.interledger.spsp.server.config.jackson.ObjectMapperFactory;
+import org.interledger.spsp.server.grpc.auth.IlpGrpcAuthContext;
+import org.interledger.spsp.server.model.BearerToken;
+import org.interledger.spsp.server.model.PaymentProgress;
+import org.interledger.spsp.server.services.SendMoneyService;
+import org.interledger.spsp.server.util.BatchLimits;
+import org.interledger.spsp.server.util.ExceptionHandlerUtils;
+import org.interledger.stream.SendMoneyResult;
+
+import com.google.common.primitives.UnsignedLong;
+import io.grpc.Context;
+import io.grpc.ManagedChannel;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.grpc.testing.GrpcCleanupRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Unit tests for the streaming of payment progress by {@link IlpOverHttpGrpcHandler#sendMoneyStream}.
+ */
+public class IlpOverHttpGrpcHandlerTest {
+
+  private static final BearerToken BEARER_TOKEN = BearerToken.fromRawToken("password");
+  private static final PaymentPointer DESTINATION = PaymentPointer.of("$example.com/bob");
+  private static final Duration BATCH_MAX_DURATION = Duration.ofMinutes(2);
+
+  @Rule
+  public final GrpcCleanupRule grpcCleanup = new GrpcCleanupRule();
+
+  private SendMoneyService sendMoneyService;
+  private CompletableFuture<SendMoneyResult> payment;
+  private ManagedChannel channel;
+
+  @Before
+  public void setUp() throws Exception {
+    sendMoneyService = mock(SendMoneyService.class);
+    payment = new CompletableFuture<>();
+    when(sendMoneyService.sendMoneyAsync(any(), any(), any(), any(), any(), any())).thenReturn(payment);
+
+    final IlpGrpcAuthContext authContext = mock(IlpGrpcAuthContext.class);
+    when(authContext.getBearerToken()).thenReturn(BEARER_TOKEN);
+
+    final IlpOverHttpGrpcHandler handler = new IlpOverHttpGrpcHandler();
+    handler.sendMoneyService = sendMoneyService;
+    handler.ilpGrpcAuthContext = authContext;
+    handler.exceptionHandlerUtils =
+      new ExceptionHandlerUtils(ObjectMapperFactory.createObjectMapperForProblemsJson());
+    handler.paymentBatchLimits = new BatchLimits(10, 10, BATCH_MAX_DURATION);
+
+    final String serverName = InProcessServerBuilder.generateName();
+    grpcCleanup.register(InProcessServerBuilder.forName(serverName)
+      .directExecutor()
+      .addService(handler)
+      .build()
+      .start());
+    channel = grpcCleanup.register(InProcessChannelBuilder.forName(serverName).directExecutor().build());
+  }
+
+  @Test
+  public void streamsProgressInOrderThenTheResultLast() throws Exception {
+    final RecordingObserver responses = sendMoneyStream();
+    final Consumer<PaymentProgress> progressListener = progressListener();
+
+    progressListener.accept(progress(1, 10));
+    progressListener.accept(progress(2, 20));
+    payment.complete(sendMoneyResult());
+    // The progress of a packet that was overtaken by the payment finishing.
+    progressListener.accept(progress(3, 30));
+
+    assertThat(responses.completed.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(responses.error.get()).isNull();
+    final List<SendPaymentStreamResponse> values = responses.values;
+    assertThat(values).hasSizeGreaterThanOrEqualTo(1);
+    for (int i = 0; i < values.size() - 1; i++) {
+      assertThat(values.get(i).hasProgress()).isTrue();
+      if (i > 0) {
+        assertThat(values.get(i).getProgress().getNumFulfilledPackets())
+          .isGreaterThan(values.get(i - 1).getProgress().getNumFulfilledPackets());
+      }
+    }
+    final SendPaymentStreamResponse last = values.get(values.size() - 1);
+    assertThat(last.hasResult()).isTrue();
+    assertThat(last.getResult().getAmountSent()).isEqualTo(100);
+    assertThat(values).noneMatch(value -> value.getProgress().getNumFulfilledPackets() == 3);
+  }
+
+  @Test
+  public void failedPaymentsEndTheStreamWithAnError() throws Exception {
+    final RecordingObserver responses = sendMoneyStream();
+
+    progressListener().accept(progress(1, 10));
+    payment.completeExceptionally(new IllegalStateException("boom"));
+
+    assertThat(responses.completed.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(Status.fromThrowable(responses.error.get()).getCode()).isEqualTo(Status.Code.INTERNAL);
+  }
+
+  @Test
+  public void abandoningABatchCancelsItsPayments() throws Exception {
+    final List<CompletableFuture<SendMoneyResult>> sends =
+      Arrays.asList(new CompletableFuture<>(), new CompletableFuture<>());
+    when(sendMoneyService.sendMoneyBatchAsync(any(), any(), any(), anyInt(), any())).thenReturn(sends);
+
+    final Context.CancellableContext context = Context.current().withCancellation();
+    context.run(() -> IlpOverHttpServiceGrpc.newStub(channel).sendMoneyBatch(batchRequest(), new IgnoringObserver<>()));
+    verify(sendMoneyService, timeout(5000)).sendMoneyBatchAsync(any(), any(), any(), anyInt(), any());
+    context.cancel(null);
+
+    for (CompletableFuture<SendMoneyResult> send : sends) {
+      assertThatThrownBy(() -> send.get(5, TimeUnit.SECONDS)).isInstanceOf(CancellationException.class);
+    }
+  }
+
+  @Test
+  public void batchesTakeNoLongerThanTheCallersDeadline() {
+    when(sendMoneyService.sendMoneyBatchAsync(any(), any(), any(), anyInt(), any()))
+      .thenReturn(Collections.singletonList(CompletableFuture.completedFuture(sendMoneyResult())));
+
+    IlpOverHttpServiceGrpc.newStub(channel)
+      .withDeadlineAfter(10, TimeUnit.SECONDS)
+      .sendMoneyBatch(batchRequest(), new IgnoringObserver<>());
+
+    final ArgumentCaptor<Duration> timeout = ArgumentCaptor.forClass(Duration.class);
+    verify(sendMoneyService, timeout(5000))
+      .sendMoneyBatchAsync(any(), any(), any(), anyInt(), timeout.capture());
+    assertThat(timeout.getValue()).isGreaterThan(Duration.ZERO).isLessThanOrEqualTo(Duration.ofSeconds(10));
+  }
+
+  private static SendPaymentBatchRequest batchRequest() {
+    return SendPaymentBatchRequest.newBuilder()
+      .setAccountId("alice")
+      .addPayments(SendPaymentBatchRequest.Payment.newBuilder()
+        .setAmount(100)
+        .setDestinationPaymentPointer(DESTINATION.toString()))
+      .addPayments(SendPaymentBatchRequest.Payment.newBuilder()
+        .setAmount(200)
+        .setDestinationPaymentPointer(DESTINATION.toString()))
+      .build();
+  }
+
+  private RecordingObserver sendMoneyStream() {
+    final RecordingObserver responses = new RecordingObserver();
+    IlpOverHttpServiceGrpc.newStub(channel).sendMoneyStream(SendPaymentRequest.newBuilder()
+      .setAccountId("alice")
+      .setAmount(100)
+      .setDestinationPaymentPointer(DESTINATION.toString())
+      .build(), responses);
+    return responses;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Consumer<PaymentProgress> progressListener() {
+    final ArgumentCaptor<Consumer<PaymentProgress>> listener = ArgumentCaptor.forClass(Consumer.class);
+    verify(sendMoneyService, timeout(5000)).sendMoneyAsync(
+      eq(AccountId.of("alice")),
+      eq(Optional.of(BEARER_TOKEN)),
+      eq(UnsignedLong.valueOf(100)),
+      eq(DESTINATION),
+      any(Duration.class),
+      listener.capture()
+    );
+    return listener.getValue();
+  }
+
+  private static PaymentProgress progress(long numFulfilledPackets, long amount) {
+    return PaymentProgress.builder()
+      .numFulfilledPackets(numFulfilledPackets)
+      .amountSent(UnsignedLong.valueOf(amount))
+      .amountDelivered(UnsignedLong.valueOf(amount))
+      .build();
+  }
+
+  private static SendMoneyResult sendMoneyResult() {
+    return SendMoneyResult.builder()
+      .originalAmount(UnsignedLong.valueOf(100))
+      .amountDelivered(UnsignedLong.valueOf(100))
+      .amountSent(UnsignedLong.valueOf(100))
+      .amountLeftToSend(UnsignedLong.ZERO)
+      .numFulfilledPackets(3)
+      .numRejectPackets(0)
+      .sendMoneyDuration(Duration.ofSeconds(1))
+      .successfulPayment(true)
+      .build();
+  }
+
+  /**
+   * Ignores what a client receives.
+   */
+  private static class IgnoringObserver<V> implements StreamObserver<V> {
+
+    @Override
+    public void onNext(V value) {
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+    }
+
+    @Override
+    public void onCompleted() {
+    }
+  }
+
+  /**
+   * Records what a client receives.
+   */
+  private static class RecordingObserver implements StreamObserver<SendPaymentStreamResponse> {
+
+    private final List<SendPaymentStreamResponse> values = new CopyOnWriteArrayList<>();
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+    private final CountDownLatch completed = new CountDownLatch(1);
+
+    @Override
+    public void onNext(SendPaymentStreamResponse value) {
+      values.add(value);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      error.set(throwable);
+      completed.countDown();
+    }
+
+    @Override
+    public void onCompleted() {
+      completed.countDown();
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package org.interledger.spsp.server.grpc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import org.interledger.spsp.server.controllers.filters.LoggingContextFilter;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.ServerInterceptors;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.MetadataUtils;
+import io.grpc.stub.StreamObserver;
+import io.grpc.testing.GrpcCleanupRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Unit tests for {@link LoggingContextInterceptor}.
+ */
+public class LoggingContextInterceptorTest {
+
+  @Rule
+  public final GrpcCleanupRule grpcCleanup = new GrpcCleanupRule();
+
+  private final AtomicReference<Map<String, String>> handlerMdc = new AtomicReference<>();
+  private final ExecutorService serverExecutor = Executors.newSingleThreadExecutor();
+
+  private ManagedChannel channel;
+
+  @Before
+  public void setUp() throws Exception {
+    final String serverName = InProcessServerBuilder.generateName();
+    grpcCleanup.register(InProcessServerBuilder.forName(serverName)
+      .executor(serverExecutor)
+      .addService(ServerInterceptors.intercept(new MdcBalanceService(), new LoggingContextInterceptor()))
+      .build()
+      .start());
+    channel = grpcCleanup.register(InProcessChannelBuilder.forName(serverName).directExecutor().build());
+  }
+
+  @After
+  public void tearDown() {
+    serverExecutor.shutdownNow();
+  }
+
+  @Test
+  public void handlersRunWithTheCallsTraceIdAndAccountId() throws Exception {
+    final Metadata metadata = new Metadata();
+    metadata.put(LoggingContextInterceptor.TRACE_CONTEXT_KEY, "105445aa7843bc8bf206b120001000/1;o=1");
+    MetadataUtils.attachHeaders(BalanceServiceGrpc.newBlockingStub(channel), metadata)
+      .getBalance(GetBalanceRequest.newBuilder().setAccountId("alice").build());
+
+    assertThat(handlerMdc.get()).containsOnly(
+      entry(LoggingContextFilter.TRACE_ID, "105445aa7843bc8bf206b120001000"),
+      entry(LoggingContextFilter.ACCOUNT_ID, "alice")
+    );
+    // The executor's thread is left as it was found, ready for the next call.
+    assertThat(serverExecutor.submit(MDC::getCopyOfContextMap).get()).isNullOrEmpty();
+  }
+
+  @Test
+  public void callsWithoutATraceIdOnlyGetTheirAccountId() {
+    BalanceServiceGrpc.newBlockingStub(channel).getBalance(GetBalanceRequest.newBuilder().setAccountId("bob").build());
+
+    assertThat(handlerMdc.get()).containsOnly(entry(LoggingContextFilter.ACCOUNT_ID, "bob"));
+  }
+
+  @Test
+  public void readsAccountIdsFromRequestsThatHaveThem() {
+    assertThat(LoggingContextInterceptor.accountId(GetBalanceRequest.newBuilder().setAccountId("alice").build()))
+      .hasValue("alice");
+    assertThat(LoggingContextInterceptor.accountId(GetBalanceRequest.getDefaultInstance())).isEmpty();
+    assertThat(LoggingContextInterceptor.accountId(GetBalancesRequest.newBuilder().addAccountIds("alice").build()))
+      .isEmpty();
+    assertThat(LoggingContextInterceptor.accountId("alice")).isEmpty();
+  }
+
+  /**
+   * Records the MDC that each call is handled with.
+   */
+  private class MdcBalanceService extends BalanceServiceGrpc.BalanceServiceImplBase {
+
+    @Override
+    public void getBalance(GetBalanceRequest request, StreamObserver<GetBalanceResponse> responseObserver) {
+      handlerMdc.set(MDC.getCopyOfContextMap());
+      responseObserver.onNext(GetBalanceResponse.getDefaultInstance());
+      responseObserver.onCompleted();
+    }
+  }
+}
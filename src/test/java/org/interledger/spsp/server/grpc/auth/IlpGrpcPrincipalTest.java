@@ -0,0 +1,59 @@
+package org.interledger.spsp.server.grpc.auth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.interledger.spsp.server.grpc.auth.IlpGrpcPrincipal.CredentialType;
+import org.interledger.spsp.server.model.BearerToken;
+
+import org.junit.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+
+/**
+ * Unit tests for {@link IlpGrpcPrincipal}.
+ */
+public class IlpGrpcPrincipalTest {
+
+  private final String EXPIRED_TEST_JWT = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCIsImtpZCI6IjEifQ"
+    + ".eyJzdWIiOiIxMjMiLCJpZCI6IjQ1NiIsImdpdGh1YklkIjoiNzg5IiwidHlwZSI6ImF1dGgiLCJpYXQiOjE1ODQ0NTcwMDMsImV4cCI6MTU4NDQ2MDYw"
+    + "MywiYXVkIjoic3RhZ2UueHByaW5nLmlvIiwiaXNzIjoiaHR0cHM6Ly9zdGFnZS54cHJpbmcuaW8vcG9ydGFsLyJ9.UF-1dK6XwqvVkOcPBlhyTFY"
+    + "aniMEGilKBtH272BvFBE";
+
+  private final String TEST_JWT =
+    "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCIsImtpZCI6IjEifQ.eyJzdWIiOiIxMjMiLCJpZCI6IjQ1NiIsImdpdGh1YklkIjoiNzg5IiwidHlwZSI6ImF1dGgiLCJpYXQiOjE1ODQ0NTcwMDMsImV4cCI6MjA4NDQ2MDYwM"
+      + "ywiYXVkIjoic3RhZ2UueHByaW5nLmlvIiwiaXNzIjoiaHR0cHM6Ly9zdGFnZS54cHJpbmcuaW8vcG9ydGFsLyJ9.q7EBJPvN1ofZIE0665Gcnq"
+      + "YMVbxrLoL3KB1okTiqr6E";
+
+  @Test
+  public void classifiesJwts() {
+    IlpGrpcPrincipal principal = IlpGrpcPrincipal.fromAuthorization("Bearer " + TEST_JWT);
+
+    assertThat(principal.credentialType()).isEqualTo(CredentialType.JWT);
+    assertThat(principal.bearerToken()).isEqualTo(BearerToken.fromRawToken(TEST_JWT));
+    assertThat(principal.jwt().get().getSubject()).isEqualTo("123");
+  }
+
+  @Test
+  public void classifiesSimpleTokens() {
+    IlpGrpcPrincipal principal = IlpGrpcPrincipal.fromAuthorization("Bearer password");
+
+    assertThat(principal.credentialType()).isEqualTo(CredentialType.SIMPLE);
+    assertThat(principal.bearerToken().rawToken()).isEqualTo("password");
+    assertThat(principal.jwt()).isEmpty();
+  }
+
+  @Test
+  public void rejectsMalformedTokens() {
+    assertThatThrownBy(() -> IlpGrpcPrincipal.fromAuthorization("Basic password"))
+      .isInstanceOf(BadCredentialsException.class);
+    assertThatThrownBy(() -> IlpGrpcPrincipal.fromAuthorization("Bearer "))
+      .isInstanceOf(BadCredentialsException.class);
+  }
+
+  @Test
+  public void rejectsExpiredJwts() {
+    assertThatThrownBy(() -> IlpGrpcPrincipal.fromAuthorization("Bearer " + EXPIRED_TEST_JWT))
+      .isInstanceOf(BadCredentialsException.class)
+      .hasMessage("JWT is expired");
+  }
+}
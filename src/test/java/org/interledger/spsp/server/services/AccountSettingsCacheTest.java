@@ -0,0 +1,134 @@
+package org.interledger.spsp.server.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.accounts.AccountRelationship;
+import org.interledger.connector.accounts.AccountSettings;
+import org.interledger.connector.client.ConnectorAdminClient;
+import org.interledger.link.http.IlpOverHttpLink;
+import org.interledger.spsp.server.client.AsyncConnectorClient;
+import org.interledger.spsp.server.client.ConnectorBalanceClient;
+import org.interledger.spsp.server.client.ConnectorTokensClient;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link AccountSettingsCache}.
+ */
+public class AccountSettingsCacheTest {
+
+  private static final AccountId ACCOUNT_ID = AccountId.of("alice");
+
+  private ConnectorAdminClient adminClient;
+  private AsyncConnectorClient connectorClient;
+  private AccountSettingsCache cache;
+
+  @Before
+  public void setUp() {
+    adminClient = mock(ConnectorAdminClient.class);
+    connectorClient = new AsyncConnectorClient(adminClient, mock(ConnectorBalanceClient.class),
+      mock(ConnectorTokensClient.class), Executors.newCachedThreadPool());
+    cache = new AccountSettingsCache(
+      connectorClient, 100, Duration.ofMinutes(5), Duration.ofMinutes(1), Duration.ofMillis(100)
+    );
+  }
+
+  @After
+  public void tearDown() {
+    connectorClient.destroy();
+  }
+
+  @Test
+  public void findAccountIsReadThrough() {
+    AccountSettings accountSettings = accountSettings();
+    when(adminClient.findAccount(ACCOUNT_ID.value())).thenReturn(Optional.of(accountSettings));
+
+    assertThat(cache.findAccount(ACCOUNT_ID)).hasValue(accountSettings);
+    assertThat(cache.findAccount(ACCOUNT_ID)).hasValue(accountSettings);
+
+    verify(adminClient, times(1)).findAccount(ACCOUNT_ID.value());
+  }
+
+  @Test
+  public void missingAccountsAreOnlyRememberedBriefly() throws InterruptedException {
+    AccountSettings accountSettings = accountSettings();
+    when(adminClient.findAccount(ACCOUNT_ID.value()))
+      .thenReturn(Optional.empty())
+      .thenReturn(Optional.of(accountSettings));
+
+    assertThat(cache.findAccount(ACCOUNT_ID)).isEmpty();
+    assertThat(cache.findAccount(ACCOUNT_ID)).isEmpty();
+    verify(adminClient, times(1)).findAccount(ACCOUNT_ID.value());
+    assertThat(cache.cachedAccountIds()).isEmpty();
+
+    // Created directly on the Connector, without invalidating.
+    Thread.sleep(200);
+    assertThat(cache.findAccount(ACCOUNT_ID)).hasValue(accountSettings);
+    assertThat(cache.findAccount(ACCOUNT_ID)).hasValue(accountSettings);
+    verify(adminClient, times(2)).findAccount(ACCOUNT_ID.value());
+  }
+
+  @Test
+  public void findAccountAsyncSharesTheCache() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    AccountSettings accountSettings = accountSettings();
+    when(adminClient.findAccount(ACCOUNT_ID.value())).thenAnswer(invocation -> {
+      release.await(5, TimeUnit.SECONDS);
+      return Optional.of(accountSettings);
+    });
+
+    CompletableFuture<Optional<AccountSettings>> found = cache.findAccountAsync(ACCOUNT_ID);
+    assertThat(found).isNotDone();
+    release.countDown();
+
+    assertThat(found.get(5, TimeUnit.SECONDS)).hasValue(accountSettings);
+    assertThat(cache.findAccountAsync(ACCOUNT_ID).getNow(null)).hasValue(accountSettings);
+    assertThat(cache.findAccount(ACCOUNT_ID)).hasValue(accountSettings);
+    verify(adminClient, times(1)).findAccount(ACCOUNT_ID.value());
+  }
+
+  @Test
+  public void findAccountAsyncRemembersMissingAccounts() throws Exception {
+    when(adminClient.findAccount(ACCOUNT_ID.value())).thenReturn(Optional.empty());
+
+    assertThat(cache.findAccountAsync(ACCOUNT_ID).get(5, TimeUnit.SECONDS)).isEmpty();
+    assertThat(cache.findAccountAsync(ACCOUNT_ID).getNow(null)).isEmpty();
+    assertThat(cache.cachedAccountIds()).isEmpty();
+    verify(adminClient, times(1)).findAccount(ACCOUNT_ID.value());
+  }
+
+  @Test
+  public void invalidateForcesReload() {
+    when(adminClient.findAccount(ACCOUNT_ID.value())).thenReturn(Optional.empty());
+
+    assertThat(cache.findAccount(ACCOUNT_ID)).isEmpty();
+    cache.invalidate(ACCOUNT_ID);
+    assertThat(cache.findAccount(ACCOUNT_ID)).isEmpty();
+
+    verify(adminClient, times(2)).findAccount(ACCOUNT_ID.value());
+  }
+
+  private static AccountSettings accountSettings() {
+    return AccountSettings.builder()
+      .accountId(ACCOUNT_ID)
+      .accountRelationship(AccountRelationship.CHILD)
+      .assetCode("XRP")
+      .assetScale(9)
+      .linkType(IlpOverHttpLink.LINK_TYPE)
+      .build();
+  }
+}
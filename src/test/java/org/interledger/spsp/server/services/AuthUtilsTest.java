@@ -5,6 +5,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import org.interledger.spsp.server.model.BearerToken;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import org.junit.Before;
 import org.junit.Rule;
@@ -77,4 +78,59 @@ public class AuthUtilsTest {
     assertThat(actualJwt.getToken()).isEqualTo(expectedJwt.getToken());
   }
 
+  @Test
+  public void getJwtCachesDecodedToken() {
+    Optional<BearerToken> token = Optional.of(BearerToken.fromBearerTokenValue("Bearer " + TEST_JWT));
+    assertThat(AuthUtils.getJwt(token).get()).isSameAs(AuthUtils.getJwt(token).get());
+  }
+
+  @Test
+  public void getJwtWithSimpleToken() {
+    assertThat(AuthUtils.getJwt(Optional.of(BearerToken.fromBearerTokenValue("Bearer password")))).isEmpty();
+  }
+
+  @Test
+  public void getJwtStrictlyWithSimpleToken() {
+    assertThat(AuthUtils.getJwtStrictly(BearerToken.fromRawToken("password"))).isEmpty();
+  }
+
+  @Test
+  public void getJwtStrictlyWithBearerToken() {
+    DecodedJWT expectedJwt = JWT.decode(TEST_JWT);
+    assertThat(AuthUtils.getJwtStrictly(BearerToken.fromRawToken(TEST_JWT)).get().getToken())
+      .isEqualTo(expectedJwt.getToken());
+  }
+
+  @Test
+  public void getJwtStrictlyRejectsTokensThatLookLikeJwtsButDontDecode() {
+    BearerToken notAJwt = BearerToken.fromRawToken("header.payload.signature");
+    assertThat(AuthUtils.getJwt(Optional.of(notAJwt))).isEmpty();
+
+    expectedException.expect(BadCredentialsException.class);
+    AuthUtils.getJwtStrictly(notAJwt);
+  }
+
+  @Test
+  public void getJwtStrictlyRejectsJwtsWithoutAnExpiry() {
+    BearerToken noExpiry = BearerToken.fromRawToken(
+      JWT.create().withSubject("alice").sign(Algorithm.none())
+    );
+    assertThat(AuthUtils.getJwt(Optional.of(noExpiry))).isEmpty();
+
+    expectedException.expect(BadCredentialsException.class);
+    expectedException.expectMessage("JWT has no expiry");
+    AuthUtils.getJwtStrictly(noExpiry);
+  }
+
+  @Test
+  public void looksLikeJwt() {
+    assertThat(AuthUtils.looksLikeJwt(TEST_JWT)).isTrue();
+    assertThat(AuthUtils.looksLikeJwt("header.payload.")).isTrue();
+    assertThat(AuthUtils.looksLikeJwt("password")).isFalse();
+    assertThat(AuthUtils.looksLikeJwt("a.b")).isFalse();
+    assertThat(AuthUtils.looksLikeJwt("a..c")).isFalse();
+    assertThat(AuthUtils.looksLikeJwt("a.b.c.d")).isFalse();
+    assertThat(AuthUtils.looksLikeJwt("a b.c.d")).isFalse();
+  }
+
 }
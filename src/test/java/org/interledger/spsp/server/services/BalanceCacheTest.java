@@ -0,0 +1,195 @@
+package org.interledger.spsp.server.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.client.ConnectorAdminClient;
+import org.interledger.spsp.PaymentPointer;
+import org.interledger.spsp.server.client.AccountBalanceResponse;
+import org.interledger.spsp.server.client.AsyncConnectorClient;
+import org.interledger.spsp.server.client.ConnectorBalanceClient;
+import org.interledger.spsp.server.client.ConnectorTokensClient;
+import org.interledger.spsp.server.model.BearerToken;
+
+import okhttp3.HttpUrl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link BalanceCache}.
+ */
+public class BalanceCacheTest {
+
+  private static final AccountId ALICE = AccountId.of("alice");
+  private static final Optional<BearerToken> ALICE_TOKEN = Optional.of(BearerToken.fromRawToken("alice-token"));
+  private static final Optional<BearerToken> OTHER_TOKEN = Optional.of(BearerToken.fromRawToken("other-token"));
+
+  private ConnectorBalanceClient balanceClient;
+  private AsyncConnectorClient connectorClient;
+  private BalanceCache cache;
+
+  @Before
+  public void setUp() {
+    balanceClient = mock(ConnectorBalanceClient.class);
+    connectorClient = new AsyncConnectorClient(mock(ConnectorAdminClient.class), balanceClient,
+      mock(ConnectorTokensClient.class), Executors.newCachedThreadPool());
+    cache = new BalanceCache(connectorClient, HttpUrl.parse("https://hermes.example.com/p"), 100, Duration.ofMinutes(5));
+  }
+
+  @After
+  public void tearDown() {
+    connectorClient.destroy();
+  }
+
+  @Test
+  public void balancesAreCachedPerCaller() {
+    AccountBalanceResponse balance = mock(AccountBalanceResponse.class);
+    when(balanceClient.getBalance(ALICE_TOKEN, ALICE)).thenReturn(balance);
+    when(balanceClient.getBalance(OTHER_TOKEN, ALICE)).thenThrow(new IllegalStateException("unauthorized"));
+
+    assertThat(cache.getBalance(ALICE_TOKEN, ALICE)).isSameAs(balance);
+    assertThat(cache.getBalance(ALICE_TOKEN, ALICE)).isSameAs(balance);
+    assertThatThrownBy(() -> cache.getBalance(OTHER_TOKEN, ALICE)).isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> cache.getBalance(OTHER_TOKEN, ALICE)).isInstanceOf(IllegalStateException.class);
+
+    verify(balanceClient, times(1)).getBalance(ALICE_TOKEN, ALICE);
+    verify(balanceClient, times(2)).getBalance(OTHER_TOKEN, ALICE);
+  }
+
+  @Test
+  public void concurrentReadsShareOneLoad() throws Exception {
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AccountBalanceResponse balance = mock(AccountBalanceResponse.class);
+    when(balanceClient.getBalance(ALICE_TOKEN, ALICE)).thenAnswer(invocation -> {
+      loading.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      return balance;
+    });
+
+    CompletableFuture<AccountBalanceResponse> first =
+      CompletableFuture.supplyAsync(() -> cache.getBalance(ALICE_TOKEN, ALICE));
+    assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+    CompletableFuture<AccountBalanceResponse> second =
+      CompletableFuture.supplyAsync(() -> cache.getBalance(ALICE_TOKEN, ALICE));
+    release.countDown();
+
+    assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(balance);
+    assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(balance);
+    verify(balanceClient, times(1)).getBalance(ALICE_TOKEN, ALICE);
+  }
+
+  @Test
+  public void asyncReadsDontBlockOnTheConnector() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    AccountBalanceResponse balance = mock(AccountBalanceResponse.class);
+    when(balanceClient.getBalance(ALICE_TOKEN, ALICE)).thenAnswer(invocation -> {
+      release.await(5, TimeUnit.SECONDS);
+      return balance;
+    });
+
+    CompletableFuture<AccountBalanceResponse> first = cache.getBalanceAsync(ALICE_TOKEN, ALICE);
+    CompletableFuture<AccountBalanceResponse> second = cache.getBalanceAsync(ALICE_TOKEN, ALICE);
+    assertThat(first).isNotDone();
+    // Giving up on one read doesn't cancel the load it shares.
+    first.cancel(false);
+    release.countDown();
+
+    assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(balance);
+    assertThat(cache.getBalanceAsync(ALICE_TOKEN, ALICE).getNow(null)).isSameAs(balance);
+    verify(balanceClient, times(1)).getBalance(ALICE_TOKEN, ALICE);
+  }
+
+  @Test
+  public void balancesLoadedAcrossAnInvalidationAreNotCached() throws Exception {
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AccountBalanceResponse stale = mock(AccountBalanceResponse.class);
+    AccountBalanceResponse fresh = mock(AccountBalanceResponse.class);
+    when(balanceClient.getBalance(ALICE_TOKEN, ALICE)).thenAnswer(invocation -> {
+      loading.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      return stale;
+    }).thenReturn(fresh);
+
+    CompletableFuture<AccountBalanceResponse> first = cache.getBalanceAsync(ALICE_TOKEN, ALICE);
+    assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+    cache.invalidate(ALICE);
+    release.countDown();
+
+    assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(stale);
+    assertThat(cache.getBalance(ALICE_TOKEN, ALICE)).isSameAs(fresh);
+    verify(balanceClient, times(2)).getBalance(ALICE_TOKEN, ALICE);
+  }
+
+  @Test
+  public void invalidatingAnAccountOnlyDiscardsItsOwnBalances() {
+    AccountId bob = AccountId.of("bob");
+    when(balanceClient.getBalance(ALICE_TOKEN, ALICE)).thenReturn(mock(AccountBalanceResponse.class));
+    when(balanceClient.getBalance(OTHER_TOKEN, ALICE)).thenReturn(mock(AccountBalanceResponse.class));
+    when(balanceClient.getBalance(OTHER_TOKEN, bob)).thenReturn(mock(AccountBalanceResponse.class));
+
+    cache.getBalance(ALICE_TOKEN, ALICE);
+    cache.getBalance(OTHER_TOKEN, ALICE);
+    cache.getBalance(OTHER_TOKEN, bob);
+    cache.invalidate(ALICE);
+    cache.getBalance(ALICE_TOKEN, ALICE);
+    cache.getBalance(OTHER_TOKEN, ALICE);
+    cache.getBalance(OTHER_TOKEN, bob);
+
+    verify(balanceClient, times(2)).getBalance(ALICE_TOKEN, ALICE);
+    verify(balanceClient, times(2)).getBalance(OTHER_TOKEN, ALICE);
+    verify(balanceClient, times(1)).getBalance(OTHER_TOKEN, bob);
+  }
+
+  @Test
+  public void balancesThatAreNoLongerCachedAreNoLongerIndexed() {
+    cache = new BalanceCache(connectorClient, HttpUrl.parse("https://hermes.example.com/p"), 1, Duration.ofMinutes(5));
+    when(balanceClient.getBalance(ALICE_TOKEN, ALICE)).thenReturn(mock(AccountBalanceResponse.class));
+    when(balanceClient.getBalance(OTHER_TOKEN, AccountId.of("bob"))).thenReturn(mock(AccountBalanceResponse.class));
+    when(balanceClient.getBalance(OTHER_TOKEN, ALICE)).thenThrow(new IllegalStateException("unauthorized"));
+
+    cache.getBalance(ALICE_TOKEN, ALICE);
+    assertThat(cache.indexedAccounts()).isEqualTo(1);
+    // Evicts alice's balance.
+    cache.getBalance(OTHER_TOKEN, AccountId.of("bob"));
+    assertThat(cache.indexedAccounts()).isEqualTo(1);
+    // Failed loads are never cached, so aren't indexed either.
+    assertThatThrownBy(() -> cache.getBalance(OTHER_TOKEN, ALICE)).isInstanceOf(IllegalStateException.class);
+    assertThat(cache.indexedAccounts()).isEqualTo(1);
+
+    cache.invalidate(AccountId.of("bob"));
+    assertThat(cache.indexedAccounts()).isEqualTo(0);
+  }
+
+  @Test
+  public void invalidateByLocalPaymentPointer() {
+    when(balanceClient.getBalance(ALICE_TOKEN, ALICE)).thenReturn(mock(AccountBalanceResponse.class));
+
+    cache.getBalance(ALICE_TOKEN, ALICE);
+    cache.invalidate(PaymentPointer.of("$elsewhere.example.com/alice"));
+    cache.getBalance(ALICE_TOKEN, ALICE);
+    verify(balanceClient, times(1)).getBalance(ALICE_TOKEN, ALICE);
+
+    cache.invalidate(PaymentPointer.of("$hermes.example.com/alice"));
+    cache.getBalance(ALICE_TOKEN, ALICE);
+    verify(balanceClient, times(2)).getBalance(ALICE_TOKEN, ALICE);
+
+    cache.invalidate(ALICE);
+    cache.getBalance(ALICE_TOKEN, ALICE);
+    verify(balanceClient, times(3)).getBalance(ALICE_TOKEN, ALICE);
+  }
+}
@@ -0,0 +1,257 @@
+package org.interledger.spsp.server.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.client.ConnectorAdminClient;
+import org.interledger.spsp.server.client.AccountBalance;
+import org.interledger.spsp.server.client.AccountBalanceResponse;
+import org.interledger.spsp.server.client.AsyncConnectorClient;
+import org.interledger.spsp.server.client.ConnectorBalanceClient;
+import org.interledger.spsp.server.client.ConnectorTokensClient;
+import org.interledger.spsp.server.model.BearerToken;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import feign.FeignException;
+import feign.Request;
+import okhttp3.HttpUrl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link BalanceWatcher}.
+ */
+public class BalanceWatcherTest {
+
+  private static final AccountId ALICE = AccountId.of("alice");
+  private static final Optional<BearerToken> ALICE_TOKEN = Optional.of(BearerToken.fromRawToken("alice-token"));
+  private static final Optional<BearerToken> STALE_TOKEN = Optional.of(BearerToken.fromRawToken("stale-token"));
+
+  private ConnectorBalanceClient balanceClient;
+  private AsyncConnectorClient connectorClient;
+  private BalanceCache balanceCache;
+  private BalanceWatcher balanceWatcher;
+
+  @Before
+  public void setUp() {
+    balanceClient = mock(ConnectorBalanceClient.class);
+    connectorClient = new AsyncConnectorClient(mock(ConnectorAdminClient.class), balanceClient,
+      mock(ConnectorTokensClient.class), Executors.newCachedThreadPool());
+    // No caching, so every read reaches the (mock) Connector.
+    balanceCache = new BalanceCache(connectorClient, HttpUrl.parse("https://hermes.example.com/p"), 0, Duration.ZERO);
+    // Long enough that only payment-triggered refreshes, and no re-checks of credentials, happen during a test.
+    balanceWatcher = new BalanceWatcher(balanceCache, Duration.ofHours(1), 1, Duration.ofHours(1), Duration.ofHours(1));
+  }
+
+  @After
+  public void tearDown() {
+    balanceWatcher.destroy();
+    connectorClient.destroy();
+  }
+
+  @Test
+  public void pushesOnlyChanges() throws Exception {
+    when(balanceClient.getBalance(ALICE_TOKEN, ALICE)).thenReturn(balance(10), balance(10), balance(25));
+    BlockingQueue<AccountBalanceResponse> balances = new LinkedBlockingQueue<>();
+
+    balanceWatcher.watch(ALICE, ALICE_TOKEN, balances::add, error -> { }, () -> { });
+    assertThat(balances.poll(5, TimeUnit.SECONDS)).isEqualTo(balance(10));
+
+    balanceCache.invalidate(ALICE);
+    balanceCache.invalidate(ALICE);
+
+    assertThat(balances.poll(5, TimeUnit.SECONDS)).isEqualTo(balance(25));
+    assertThat(balances).isEmpty();
+  }
+
+  @Test
+  public void watchersOfAnAccountShareRefreshes() throws Exception {
+    when(balanceClient.getBalance(ALICE_TOKEN, ALICE)).thenReturn(balance(10), balance(10), balance(25));
+    BlockingQueue<AccountBalanceResponse> first = new LinkedBlockingQueue<>();
+    BlockingQueue<AccountBalanceResponse> second = new LinkedBlockingQueue<>();
+
+    // One after the other, as concurrent reads with the same credentials would share a single load.
+    balanceWatcher.watch(ALICE, ALICE_TOKEN, first::add, error -> { }, () -> { });
+    assertThat(first.poll(5, TimeUnit.SECONDS)).isEqualTo(balance(10));
+    balanceWatcher.watch(ALICE, ALICE_TOKEN, second::add, error -> { }, () -> { });
+    assertThat(second.poll(5, TimeUnit.SECONDS)).isEqualTo(balance(10));
+
+    balanceCache.invalidate(ALICE);
+
+    assertThat(first.poll(5, TimeUnit.SECONDS)).isEqualTo(balance(25));
+    assertThat(second.poll(5, TimeUnit.SECONDS)).isEqualTo(balance(25));
+    // One read per watcher to authorize it, then one shared refresh.
+    verify(balanceClient, times(3)).getBalance(ALICE_TOKEN, ALICE);
+  }
+
+  @Test
+  public void rejectedCredentialsFailOnlyThatWatcher() throws Exception {
+    when(balanceClient.getBalance(STALE_TOKEN, ALICE)).thenReturn(balance(10)).thenThrow(unauthorized());
+    when(balanceClient.getBalance(ALICE_TOKEN, ALICE)).thenReturn(balance(10), balance(25));
+    BlockingQueue<Throwable> staleErrors = new LinkedBlockingQueue<>();
+    BlockingQueue<AccountBalanceResponse> staleBalances = new LinkedBlockingQueue<>();
+    BlockingQueue<AccountBalanceResponse> aliceBalances = new LinkedBlockingQueue<>();
+
+    balanceWatcher.watch(ALICE, STALE_TOKEN, staleBalances::add, staleErrors::add, () -> { });
+    assertThat(staleBalances.poll(5, TimeUnit.SECONDS)).isEqualTo(balance(10));
+    balanceWatcher.watch(ALICE, ALICE_TOKEN, aliceBalances::add, error -> { }, () -> { });
+    assertThat(aliceBalances.poll(5, TimeUnit.SECONDS)).isEqualTo(balance(10));
+
+    balanceCache.invalidate(ALICE);
+
+    assertThat(staleErrors.poll(5, TimeUnit.SECONDS)).isInstanceOf(FeignException.class);
+    assertThat(aliceBalances.poll(5, TimeUnit.SECONDS)).isEqualTo(balance(25));
+    assertThat(staleBalances).isEmpty();
+  }
+
+  @Test
+  public void slowWatchersDontHoldUpOthers() throws Exception {
+    Optional<BearerToken> slowToken = Optional.of(BearerToken.fromRawToken("slow-token"));
+    when(balanceClient.getBalance(ALICE_TOKEN, ALICE)).thenReturn(balance(10), balance(25));
+    when(balanceClient.getBalance(slowToken, ALICE)).thenReturn(balance(10));
+    CountDownLatch release = new CountDownLatch(1);
+    BlockingQueue<AccountBalanceResponse> aliceBalances = new LinkedBlockingQueue<>();
+    BlockingQueue<AccountBalanceResponse> slowBalances = new LinkedBlockingQueue<>();
+
+    balanceWatcher.watch(ALICE, ALICE_TOKEN, aliceBalances::add, error -> { }, () -> { });
+    assertThat(aliceBalances.poll(5, TimeUnit.SECONDS)).isEqualTo(balance(10));
+    balanceWatcher.watch(ALICE, slowToken, balance -> {
+      slowBalances.add(balance);
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }, error -> { }, () -> { });
+    assertThat(slowBalances.poll(5, TimeUnit.SECONDS)).isEqualTo(balance(10));
+
+    // The slow watcher is still blocked in its first callback.
+    balanceCache.invalidate(ALICE);
+    assertThat(aliceBalances.poll(5, TimeUnit.SECONDS)).isEqualTo(balance(25));
+
+    release.countDown();
+    assertThat(slowBalances.poll(5, TimeUnit.SECONDS)).isEqualTo(balance(25));
+  }
+
+  @Test
+  public void cancelledWatchersStopPolling() throws Exception {
+    when(balanceClient.getBalance(ALICE_TOKEN, ALICE)).thenReturn(balance(10));
+    BlockingQueue<AccountBalanceResponse> balances = new LinkedBlockingQueue<>();
+
+    BalanceWatcher.Subscription subscription =
+      balanceWatcher.watch(ALICE, ALICE_TOKEN, balances::add, error -> { }, () -> { });
+    assertThat(balances.poll(5, TimeUnit.SECONDS)).isEqualTo(balance(10));
+    subscription.cancel();
+    balanceCache.invalidate(ALICE);
+
+    // Let the scheduler drain anything that was (incorrectly) queued.
+    balanceWatcher.watch(AccountId.of("bob"), ALICE_TOKEN, balance -> { }, error -> { }, () -> { });
+    Thread.sleep(100);
+    verify(balanceClient, times(1)).getBalance(eq(ALICE_TOKEN), eq(ALICE));
+    verify(balanceClient, times(2)).getBalance(any(), any());
+  }
+
+  @Test
+  public void watchersWhoseCredentialsAreRevokedAreFailedEvenIfNotPolledWith() throws Exception {
+    balanceWatcher.destroy();
+    // Re-check every watcher's credentials on every refresh.
+    balanceWatcher = new BalanceWatcher(balanceCache, Duration.ofHours(1), 1, Duration.ZERO, Duration.ofHours(1));
+    when(balanceClient.getBalance(ALICE_TOKEN, ALICE)).thenReturn(balance(10), balance(10), balance(25));
+    when(balanceClient.getBalance(STALE_TOKEN, ALICE)).thenReturn(balance(10)).thenThrow(unauthorized());
+    BlockingQueue<AccountBalanceResponse> aliceBalances = new LinkedBlockingQueue<>();
+    BlockingQueue<AccountBalanceResponse> staleBalances = new LinkedBlockingQueue<>();
+    BlockingQueue<Throwable> staleErrors = new LinkedBlockingQueue<>();
+
+    // Alice watches first, so the account is polled with her credentials.
+    balanceWatcher.watch(ALICE, ALICE_TOKEN, aliceBalances::add, error -> { }, () -> { });
+    assertThat(aliceBalances.poll(5, TimeUnit.SECONDS)).isEqualTo(balance(10));
+    balanceWatcher.watch(ALICE, STALE_TOKEN, staleBalances::add, staleErrors::add, () -> { });
+    assertThat(staleBalances.poll(5, TimeUnit.SECONDS)).isEqualTo(balance(10));
+
+    balanceCache.invalidate(ALICE);
+
+    assertThat(staleErrors.poll(5, TimeUnit.SECONDS)).isInstanceOf(FeignException.class);
+    assertThat(aliceBalances.poll(5, TimeUnit.SECONDS)).isEqualTo(balance(25));
+    assertThat(staleBalances).isEmpty();
+  }
+
+  @Test
+  public void watchesEndWhenTheirJwtExpires() throws Exception {
+    Optional<BearerToken> jwt = Optional.of(BearerToken.fromRawToken(JWT.create()
+      .withSubject("alice")
+      .withExpiresAt(new Date(System.currentTimeMillis() + 2500))
+      .sign(Algorithm.HMAC256("secret"))));
+    when(balanceClient.getBalance(jwt, ALICE)).thenReturn(balance(10));
+    BlockingQueue<AccountBalanceResponse> balances = new LinkedBlockingQueue<>();
+    BlockingQueue<Throwable> errors = new LinkedBlockingQueue<>();
+
+    balanceWatcher.watch(ALICE, jwt, balances::add, errors::add, () -> { });
+    assertThat(balances.poll(5, TimeUnit.SECONDS)).isEqualTo(balance(10));
+
+    assertThat(errors.poll(5, TimeUnit.SECONDS)).isInstanceOf(BadCredentialsException.class);
+    balanceCache.invalidate(ALICE);
+    Thread.sleep(100);
+    verify(balanceClient, times(1)).getBalance(any(), any());
+  }
+
+  @Test
+  public void watchesEndAfterTheirMaximumDuration() throws Exception {
+    balanceWatcher.destroy();
+    balanceWatcher = new BalanceWatcher(balanceCache, Duration.ofHours(1), 1, Duration.ofHours(1),
+      Duration.ofMillis(100));
+    when(balanceClient.getBalance(ALICE_TOKEN, ALICE)).thenReturn(balance(10));
+    BlockingQueue<AccountBalanceResponse> balances = new LinkedBlockingQueue<>();
+    CountDownLatch ended = new CountDownLatch(1);
+
+    balanceWatcher.watch(ALICE, ALICE_TOKEN, balances::add, error -> { }, ended::countDown);
+    assertThat(balances.poll(5, TimeUnit.SECONDS)).isEqualTo(balance(10));
+
+    assertThat(ended.await(5, TimeUnit.SECONDS)).isTrue();
+    balanceCache.invalidate(ALICE);
+    Thread.sleep(100);
+    verify(balanceClient, times(1)).getBalance(any(), any());
+  }
+
+  private AccountBalanceResponse balance(long clearingBalance) {
+    return AccountBalanceResponse.builder()
+      .assetCode("XRP")
+      .assetScale(9)
+      .accountBalance(AccountBalance.builder()
+        .accountId(ALICE)
+        .clearingBalance(clearingBalance)
+        .prepaidAmount(0)
+        .build())
+      .build();
+  }
+
+  private FeignException unauthorized() {
+    Request request = Request.create(Request.HttpMethod.GET, "/accounts/alice/balance", Collections.emptyMap(),
+      new byte[0], StandardCharsets.UTF_8);
+    return FeignException.errorStatus("getBalance", feign.Response.builder()
+      .status(401)
+      .reason("Unauthorized")
+      .request(request)
+      .headers(Collections.emptyMap())
+      .build());
+  }
+}
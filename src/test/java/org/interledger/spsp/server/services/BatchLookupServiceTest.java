@@ -0,0 +1,76 @@
+package org.interledger.spsp.server.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.accounts.AccountNotFoundProblem;
+import org.interledger.connector.accounts.AccountSettings;
+import org.interledger.spsp.server.client.AccountBalanceResponse;
+import org.interledger.spsp.server.model.BearerToken;
+
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link BatchLookupService}.
+ */
+public class BatchLookupServiceTest {
+
+  private static final Optional<BearerToken> TOKEN = Optional.of(BearerToken.fromRawToken("token"));
+
+  private BalanceCache balanceCache;
+  private AccountSettingsCache accountSettingsCache;
+  private BatchLookupService batchLookupService;
+
+  @Before
+  public void setUp() {
+    balanceCache = mock(BalanceCache.class);
+    accountSettingsCache = mock(AccountSettingsCache.class);
+    batchLookupService = new BatchLookupService(balanceCache, accountSettingsCache);
+  }
+
+  @Test
+  public void getBalancesReportsFailuresPerAccount() throws Exception {
+    AccountBalanceResponse alice = mock(AccountBalanceResponse.class);
+    CompletableFuture<AccountBalanceResponse> unauthorized = new CompletableFuture<>();
+    unauthorized.completeExceptionally(new IllegalStateException("unauthorized"));
+    when(balanceCache.getBalanceAsync(TOKEN, AccountId.of("alice"))).thenReturn(CompletableFuture.completedFuture(alice));
+    when(balanceCache.getBalanceAsync(TOKEN, AccountId.of("bob"))).thenReturn(unauthorized);
+
+    List<CompletableFuture<AccountBalanceResponse>> results =
+      batchLookupService.getBalances(TOKEN, Lists.newArrayList("alice", "bob"), 2);
+
+    assertThat(results).hasSize(2);
+    assertThat(results.get(0).get(5, TimeUnit.SECONDS)).isSameAs(alice);
+    assertThatThrownBy(() -> results.get(1).get(5, TimeUnit.SECONDS))
+      .isInstanceOf(ExecutionException.class)
+      .hasCauseInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void getAccountsReportsMissingAccounts() throws Exception {
+    AccountSettings alice = mock(AccountSettings.class);
+    when(accountSettingsCache.findAccountAsync(AccountId.of("alice")))
+      .thenReturn(CompletableFuture.completedFuture(Optional.of(alice)));
+    when(accountSettingsCache.findAccountAsync(AccountId.of("bob")))
+      .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+
+    List<CompletableFuture<AccountSettings>> results =
+      batchLookupService.getAccounts(Lists.newArrayList("alice", "bob"), 1);
+
+    assertThat(results.get(0).get(5, TimeUnit.SECONDS)).isSameAs(alice);
+    assertThatThrownBy(() -> results.get(1).get(5, TimeUnit.SECONDS))
+      .isInstanceOf(ExecutionException.class)
+      .hasCauseInstanceOf(AccountNotFoundProblem.class);
+  }
+}
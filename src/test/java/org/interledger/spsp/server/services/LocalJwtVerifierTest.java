@@ -0,0 +1,212 @@
+package org.interledger.spsp.server.services;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.interledger.link.http.JwtAuthSettings;
+import org.interledger.spsp.server.model.BearerToken;
+import org.interledger.spsp.server.util.JwksServer;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.HttpUrl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.net.URL;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link LocalJwtVerifier} and the {@link JwksKeyProvider} it gets keys from.
+ */
+public class LocalJwtVerifierTest {
+
+  private static final String JWKS_PATH = "/.well-known/jwks.json";
+
+  @Rule
+  public WireMockRule wireMock = new WireMockRule(wireMockConfig().dynamicPort());
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final JwksServer jwksServer = new JwksServer();
+
+  private HttpUrl issuer;
+  private JwksKeyProvider keyProvider;
+  private LocalJwtVerifier verifier;
+  private SimpleMeterRegistry meterRegistry;
+
+  @Before
+  public void setUp() throws Exception {
+    issuer = HttpUrl.get(wireMock.baseUrl() + "/");
+    serveJwks();
+    // WireMock answers 500 to requests that arrive while it is still starting up.
+    jwksUrl().openStream().close();
+    // Effectively unlimited, so that each test can force a refetch.
+    keyProvider = new JwksKeyProvider(jwksUrl(), Duration.ofHours(1), Integer.MAX_VALUE);
+    meterRegistry = new SimpleMeterRegistry();
+    keyProvider.bindTo(meterRegistry);
+    // Lets the initial background fetch finish so that it can't race the fetches each test makes.
+    awaitKeys(jwksServer.getKeyCount());
+    verifier = new LocalJwtVerifier(keyProvider, issuer.toString(), Optional.of("hermes"));
+  }
+
+  @After
+  public void tearDown() {
+    keyProvider.destroy();
+  }
+
+  @Test
+  public void verifiesTokensSignedByTheIssuer() {
+    DecodedJWT jwt = decode(jwksServer.createJwtUsingKey(settings(issuer, "hermes"), inAnHour(), 1));
+
+    assertThat(verifier.verify(jwt)).isSameAs(jwt);
+    assertThat(verifier.verify(jwt)).isSameAs(jwt);
+    assertThat(meterRegistry.get(JwksKeyProvider.METRIC_NAME + ".keys").gauge().value()).isEqualTo(3);
+  }
+
+  @Test
+  public void rejectsTokensSignedWithOtherKeys() {
+    JwksServer forger = new JwksServer();
+    DecodedJWT jwt = decode(forger.createJwt(settings(issuer, "hermes"), inAnHour()));
+
+    assertThatThrownBy(() -> verifier.verify(jwt)).isInstanceOf(BadCredentialsException.class);
+  }
+
+  @Test
+  public void rejectsTokensSignedWithASharedSecret() {
+    DecodedJWT jwt = JWT.decode(JWT.create()
+      .withKeyId(JwksServer.KEY_IDS.get(0))
+      .withIssuer(issuer.toString())
+      .withAudience("hermes")
+      .withExpiresAt(Date.from(inAnHour()))
+      .sign(Algorithm.HMAC256("secret")));
+
+    assertThatThrownBy(() -> verifier.verify(jwt)).isInstanceOf(BadCredentialsException.class);
+  }
+
+  @Test
+  public void rejectsTokensForOtherIssuersOrAudiences() {
+    DecodedJWT otherIssuer = decode(
+      jwksServer.createJwt(settings(HttpUrl.get("https://elsewhere.example/"), "hermes"), inAnHour())
+    );
+    DecodedJWT otherAudience = decode(jwksServer.createJwt(settings(issuer, "someone-else"), inAnHour()));
+
+    assertThatThrownBy(() -> verifier.verify(otherIssuer)).isInstanceOf(BadCredentialsException.class);
+    assertThatThrownBy(() -> verifier.verify(otherAudience)).isInstanceOf(BadCredentialsException.class);
+  }
+
+  @Test
+  public void verifiesBearerTokensThatLookLikeJwts() {
+    BearerToken signed = jwksServer.createJwt(settings(issuer, "hermes"), inAnHour());
+    BearerToken forged = BearerToken.fromRawToken(JWT.create()
+      .withIssuer(issuer.toString())
+      .withAudience("hermes")
+      .withExpiresAt(Date.from(inAnHour()))
+      .sign(Algorithm.none()));
+    // Without an expiry, this would pass as a SIMPLE token if it weren't verified.
+    BearerToken forgedWithoutExpiry = BearerToken.fromRawToken(JWT.create()
+      .withIssuer(issuer.toString())
+      .withAudience("hermes")
+      .sign(Algorithm.none()));
+
+    assertThat(verifier.verify(signed)).isNotEmpty();
+    assertThat(verifier.verify(BearerToken.fromRawToken("password"))).isEmpty();
+    assertThatThrownBy(() -> verifier.verify(forged)).isInstanceOf(BadCredentialsException.class);
+    assertThatThrownBy(() -> verifier.verify(forgedWithoutExpiry)).isInstanceOf(BadCredentialsException.class);
+    assertThatThrownBy(() -> verifier.verify(BearerToken.fromRawToken("header.payload.signature")))
+      .isInstanceOf(BadCredentialsException.class);
+  }
+
+  @Test
+  public void refetchesTheJwksWhenKeysAreRotated() throws Exception {
+    DecodedJWT before = decode(jwksServer.createJwt(settings(issuer, "hermes"), inAnHour()));
+    verifier.verify(before);
+
+    jwksServer.resetKeyPairs();
+    serveJwks();
+    DecodedJWT after = decode(jwksServer.createJwtUsingKey(settings(issuer, "hermes"), inAnHour(), 2));
+    // Forces an on-demand refetch by asking for a key the provider hasn't seen.
+    assertThat(keyProvider.getPublicKeyById("rotated")).isNull();
+
+    assertThat(verifier.verify(after)).isSameAs(after);
+    assertThatThrownBy(() -> verifier.verify(before)).isInstanceOf(BadCredentialsException.class);
+  }
+
+  @Test
+  public void keepsKeysWhenTheJwksIsUnavailable() throws Exception {
+    DecodedJWT jwt = decode(jwksServer.createJwt(settings(issuer, "hermes"), inAnHour()));
+    verifier.verify(jwt);
+
+    wireMock.stubFor(get(urlEqualTo(JWKS_PATH)).willReturn(aResponse().withStatus(503)));
+    assertThat(keyProvider.getPublicKeyById("unknown")).isNull();
+
+    assertThat(verifier.verify(jwt)).isSameAs(jwt);
+    assertThat(meterRegistry.get(JwksKeyProvider.METRIC_NAME + ".fetch-failures").functionCounter().count())
+      .isEqualTo(1);
+  }
+
+  @Test
+  public void rateLimitsFetchesForUnknownKeys() throws Exception {
+    wireMock.resetRequests();
+    JwksKeyProvider rateLimited = new JwksKeyProvider(jwksUrl(), Duration.ofHours(1), 1);
+    try {
+      for (int i = 0; i < 10; i++) {
+        rateLimited.getPublicKeyById("unknown-" + i);
+      }
+    } finally {
+      rateLimited.destroy();
+    }
+
+    // The provider's initial fetch, plus a single on-demand fetch at one a minute.
+    assertThat(wireMock.findAll(getRequestedFor(urlEqualTo(JWKS_PATH)))).hasSizeLessThanOrEqualTo(2);
+  }
+
+  private void awaitKeys(final double expected) throws InterruptedException {
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (meterRegistry.get(JwksKeyProvider.METRIC_NAME + ".keys").gauge().value() != expected
+      && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+  }
+
+  private URL jwksUrl() throws Exception {
+    return new URL(wireMock.baseUrl() + JWKS_PATH);
+  }
+
+  private void serveJwks() throws Exception {
+    wireMock.stubFor(get(urlEqualTo(JWKS_PATH)).willReturn(aResponse()
+      .withStatus(200)
+      .withBody(objectMapper.writeValueAsString(jwksServer.getJwks()))));
+  }
+
+  private static JwtAuthSettings settings(HttpUrl issuer, String audience) {
+    return JwtAuthSettings.builder()
+      .tokenIssuer(issuer)
+      .tokenSubject("alice")
+      .tokenAudience(audience)
+      .build();
+  }
+
+  private static DecodedJWT decode(BearerToken bearerToken) {
+    return JWT.decode(bearerToken.rawToken());
+  }
+
+  private static Instant inAnHour() {
+    return Instant.now().plusSeconds(3600);
+  }
+}
@@ -0,0 +1,124 @@
+package org.interledger.spsp.server.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.accounts.AccountSettings;
+import org.interledger.connector.client.ConnectorAdminClient;
+import org.interledger.link.http.IlpOverHttpLinkSettings;
+import org.interledger.link.http.IncomingLinkSettings;
+import org.interledger.link.http.OutgoingLinkSettings;
+import org.interledger.link.http.SimpleAuthSettings;
+import org.interledger.spsp.server.model.BearerToken;
+import org.interledger.spsp.server.model.CreateAccountRestRequest;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.google.common.collect.Lists;
+import okhttp3.HttpUrl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link NewAccountService}.
+ */
+public class NewAccountServiceTest {
+
+  private static final Optional<BearerToken> JWT = Optional.of(BearerToken.fromRawToken("header.claims.signature"));
+  private static final Optional<BearerToken> SIMPLE_TOKEN = Optional.of(BearerToken.fromRawToken("simple-token"));
+
+  private ConnectorAdminClient adminClient;
+  private StaticRouteOutbox staticRouteOutbox;
+  private OutgoingLinkSettings spspLinkSettings;
+  private NewAccountService newAccountService;
+
+  @Before
+  public void setUp() {
+    adminClient = mock(ConnectorAdminClient.class);
+    staticRouteOutbox = mock(StaticRouteOutbox.class);
+    spspLinkSettings = OutgoingLinkSettings.builder()
+      .authType(IlpOverHttpLinkSettings.AuthType.SIMPLE)
+      .url(HttpUrl.parse("https://hermes.example.com/ilp"))
+      .simpleAuthSettings(SimpleAuthSettings.forAuthToken("spsp-token"))
+      .build();
+    LocalJwtVerifier jwtVerifier = mock(LocalJwtVerifier.class);
+    when(jwtVerifier.verify(JWT.get())).thenReturn(Optional.of(mock(DecodedJWT.class)));
+    when(jwtVerifier.verify(SIMPLE_TOKEN.get())).thenReturn(Optional.empty());
+    newAccountService = new NewAccountService(
+      adminClient, mock(AccountSettingsCache.class), spspLinkSettings, staticRouteOutbox, Executors.newFixedThreadPool(2),
+      Optional.of(jwtVerifier)
+    );
+  }
+
+  @After
+  public void tearDown() {
+    newAccountService.destroy();
+  }
+
+  @Test
+  public void createAccountsAsyncReportsFailuresPerAccount() throws Exception {
+    CreateAccountRestRequest alice = CreateAccountRestRequest.builder("XRP", 9).accountId(AccountId.of("alice")).build();
+    CreateAccountRestRequest bob = CreateAccountRestRequest.builder("XRP", 9).accountId(AccountId.of("bob")).build();
+    CreateAccountRestRequest carol = CreateAccountRestRequest.builder("XRP", 9).accountId(AccountId.of("carol")).build();
+    when(adminClient.createAccount(any())).thenAnswer(invocation -> {
+      AccountSettings accountSettings = invocation.getArgument(0);
+      if (accountSettings.accountId().equals(AccountId.of("bob"))) {
+        throw new IllegalStateException("account already exists");
+      }
+      return accountSettings;
+    });
+
+    List<CompletableFuture<AccountSettings>> results =
+      newAccountService.createAccountsAsync(JWT, Lists.newArrayList(alice, bob, carol), 2);
+
+    AccountSettings createdAlice = results.get(0).get(5, TimeUnit.SECONDS);
+    AccountSettings createdCarol = results.get(2).get(5, TimeUnit.SECONDS);
+    assertThatThrownBy(() -> results.get(1).get(5, TimeUnit.SECONDS))
+      .isInstanceOf(ExecutionException.class)
+      .hasCauseInstanceOf(IllegalStateException.class);
+
+    // Each account is given its own credentials
+    assertThat(createdAlice.customSettings().get(IncomingLinkSettings.HTTP_INCOMING_SIMPLE_AUTH_TOKEN))
+      .isNotNull()
+      .isNotEqualTo(createdCarol.customSettings().get(IncomingLinkSettings.HTTP_INCOMING_SIMPLE_AUTH_TOKEN));
+    verify(staticRouteOutbox).enqueue(AccountId.of("alice"));
+    verify(staticRouteOutbox).enqueue(AccountId.of("carol"));
+    verify(staticRouteOutbox, never()).enqueue(AccountId.of("bob"));
+  }
+
+  @Test
+  public void createAccountsAsyncRequiresAVerifiedJwt() {
+    List<CreateAccountRestRequest> requests = Lists.newArrayList(CreateAccountRestRequest.builder("XRP", 9).build());
+
+    assertThatThrownBy(() -> newAccountService.createAccountsAsync(Optional.empty(), requests, 1))
+      .isInstanceOf(BadCredentialsException.class);
+    assertThatThrownBy(() -> newAccountService.createAccountsAsync(SIMPLE_TOKEN, requests, 1))
+      .isInstanceOf(BadCredentialsException.class);
+
+    NewAccountService withoutJwtVerification = new NewAccountService(
+      adminClient, mock(AccountSettingsCache.class), spspLinkSettings, staticRouteOutbox, Executors.newFixedThreadPool(1),
+      Optional.empty()
+    );
+    try {
+      assertThatThrownBy(() -> withoutJwtVerification.createAccountsAsync(JWT, requests, 1))
+        .isInstanceOf(BadCredentialsException.class);
+    } finally {
+      withoutJwtVerification.destroy();
+    }
+    verify(adminClient, never()).createAccount(any());
+  }
+}
@@ -0,0 +1,92 @@
+package org.interledger.spsp.server.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.interledger.spsp.server.model.PaymentProgress;
+import org.interledger.stream.Denomination;
+import org.interledger.stream.PrepareAmounts;
+import org.interledger.stream.sender.FixedSenderAmountPaymentTracker;
+
+import com.google.common.primitives.UnsignedLong;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link ProgressReportingPaymentTracker}.
+ */
+public class ProgressReportingPaymentTrackerTest {
+
+  private static final Denomination XRP = Denomination.builder().assetCode("XRP").assetScale((short) 9).build();
+
+  @Test
+  public void reportsProgressOnEveryFulfill() {
+    List<PaymentProgress> updates = new ArrayList<>();
+    ProgressReportingPaymentTracker tracker = new ProgressReportingPaymentTracker(
+      new FixedSenderAmountPaymentTracker(UnsignedLong.valueOf(100)), updates::add
+    );
+
+    fulfill(tracker, 40, 80);
+    fulfill(tracker, 60, 120);
+
+    assertThat(updates).hasSize(2);
+    assertThat(updates.get(1).numFulfilledPackets()).isEqualTo(2);
+    assertThat(updates.get(1).amountSent()).isEqualTo(UnsignedLong.valueOf(100));
+    assertThat(updates.get(1).amountDelivered()).isEqualTo(UnsignedLong.valueOf(200));
+    assertThat(updates.get(1).exchangeRate()).isEqualTo(2.0);
+    assertThat(tracker.moreToSend()).isFalse();
+  }
+
+  @Test
+  public void onlyReportsProgressBeyondTheLastReport() throws Exception {
+    List<PaymentProgress> updates = new CopyOnWriteArrayList<>();
+    ProgressReportingPaymentTracker tracker = new ProgressReportingPaymentTracker(
+      new FixedSenderAmountPaymentTracker(UnsignedLong.valueOf(1000)), updates::add
+    );
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> fulfills = new ArrayList<>();
+      for (int i = 0; i < 1000; i++) {
+        fulfills.add(executor.submit(() -> fulfill(tracker, 1, 1)));
+      }
+      for (Future<?> fulfill : fulfills) {
+        fulfill.get(5, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(updates).isNotEmpty();
+    for (int i = 1; i < updates.size(); i++) {
+      assertThat(updates.get(i).numFulfilledPackets()).isGreaterThan(updates.get(i - 1).numFulfilledPackets());
+      assertThat(updates.get(i).amountSent()).isGreaterThan(updates.get(i - 1).amountSent());
+    }
+    assertThat(updates.get(updates.size() - 1).numFulfilledPackets()).isEqualTo(1000);
+    assertThat(updates.get(updates.size() - 1).amountSent()).isEqualTo(UnsignedLong.valueOf(1000));
+  }
+
+  @Test
+  public void listenerFailuresDoNotAffectPayment() {
+    ProgressReportingPaymentTracker tracker = new ProgressReportingPaymentTracker(
+      new FixedSenderAmountPaymentTracker(UnsignedLong.valueOf(10)), progress -> {
+      throw new IllegalStateException("boom");
+    });
+
+    fulfill(tracker, 10, 10);
+
+    assertThat(tracker.getDeliveredAmountInSenderUnits()).isEqualTo(UnsignedLong.valueOf(10));
+  }
+
+  private void fulfill(ProgressReportingPaymentTracker tracker, long sent, long delivered) {
+    PrepareAmounts amounts = tracker.getSendPacketAmounts(UnsignedLong.valueOf(sent), XRP);
+    assertThat(tracker.auth(amounts)).isTrue();
+    tracker.commit(amounts, UnsignedLong.valueOf(delivered));
+  }
+}
@@ -0,0 +1,283 @@
+package org.interledger.spsp.server.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.accounts.AccountRelationship;
+import org.interledger.connector.accounts.AccountSettings;
+import org.interledger.core.InterledgerAddressPrefix;
+import org.interledger.link.http.IlpOverHttpLink;
+import org.interledger.spsp.PaymentPointer;
+import org.interledger.spsp.PaymentPointerResolver;
+import org.interledger.spsp.client.SpspClient;
+import org.interledger.spsp.server.client.CachingSpspClient;
+import org.interledger.spsp.server.model.PaymentRequest;
+import org.interledger.spsp.server.util.BoundedExecutors;
+import org.interledger.spsp.server.util.InProcessConnector;
+import org.interledger.stream.SendMoneyResult;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.primitives.UnsignedLong;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.HttpUrl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Unit tests for the deadline handling and executors of {@link SendMoneyService}.
+ */
+public class SendMoneyServiceTest {
+
+  private static final AccountId SENDER = AccountId.of("alice");
+  private static final PaymentPointer DESTINATION = PaymentPointer.of("$example.com/bob");
+  private static final PaymentPointer SLOW_DESTINATION = PaymentPointer.of("$slow.example.com/carol");
+
+  private final InProcessConnector connector = new InProcessConnector();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private ExecutorService executorService;
+  private ExecutorService streamExecutorService;
+  private SpspClient spspClient;
+  private AccountSettingsCache accountSettingsCache;
+  private BalanceCache balanceCache;
+  private SendMoneyService sendMoneyService;
+
+  @Before
+  public void setUp() {
+    executorService = Executors.newFixedThreadPool(2);
+    streamExecutorService = Executors.newCachedThreadPool();
+    spspClient = mock(SpspClient.class);
+    accountSettingsCache = mock(AccountSettingsCache.class);
+    balanceCache = mock(BalanceCache.class);
+    when(accountSettingsCache.findAccount(SENDER)).thenReturn(Optional.of(AccountSettings.builder()
+      .accountId(SENDER)
+      .linkType(IlpOverHttpLink.LINK_TYPE)
+      .assetCode("XRP")
+      .assetScale(9)
+      .accountRelationship(AccountRelationship.PEER)
+      .build()));
+    sendMoneyService = newSendMoneyService(executorService, streamExecutorService);
+  }
+
+  @After
+  public void tearDown() {
+    connector.releasePackets();
+    executorService.shutdownNow();
+    streamExecutorService.shutdownNow();
+  }
+
+  @Test
+  public void timesOutAndInterruptsSlowResolution() throws Exception {
+    CountDownLatch interrupted = new CountDownLatch(1);
+    when(spspClient.getStreamConnectionDetails(any(PaymentPointer.class))).thenAnswer(invocation -> {
+      try {
+        Thread.sleep(10_000);
+      } catch (InterruptedException e) {
+        interrupted.countDown();
+      }
+      throw new IllegalStateException("interrupted");
+    });
+
+    CompletableFuture<SendMoneyResult> payment = send(Duration.ofMillis(100));
+
+    assertThatThrownBy(() -> payment.get(5, TimeUnit.SECONDS))
+      .isInstanceOf(ExecutionException.class)
+      .hasCauseInstanceOf(TimeoutException.class);
+    assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  public void cancellingAbandonsPayment() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch interrupted = new CountDownLatch(1);
+    when(spspClient.getStreamConnectionDetails(any(PaymentPointer.class))).thenAnswer(invocation -> {
+      started.countDown();
+      try {
+        Thread.sleep(10_000);
+      } catch (InterruptedException e) {
+        interrupted.countDown();
+      }
+      throw new IllegalStateException("interrupted");
+    });
+
+    CompletableFuture<SendMoneyResult> payment = send(Duration.ofSeconds(30));
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    payment.cancel(true);
+
+    assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  public void cancellingStopsSendingPacketsOfAPaymentUnderWay() throws Exception {
+    when(spspClient.getStreamConnectionDetails(DESTINATION)).thenReturn(connector.connectionDetails("bob"));
+    connector.holdPackets();
+    CompletableFuture<SendMoneyResult> payment = sendMoneyService.sendMoneyAsync(
+      SENDER, Optional.empty(), UnsignedLong.valueOf(1_000_000), DESTINATION, Duration.ofSeconds(30)
+    );
+    assertThat(connector.awaitHeldPacket(Duration.ofSeconds(5))).isTrue();
+
+    payment.cancel(true);
+    connector.releasePackets();
+
+    // The cache is invalidated once the STREAM send has finished.
+    verify(balanceCache, timeout(10_000)).invalidate(SENDER);
+    assertThat(connector.moneyPackets()).isEqualTo(1);
+  }
+
+  @Test
+  public void paymentsInFlightFinishWhileNewPaymentsAreRejected() throws Exception {
+    // One payment being prepared and one waiting is all these executors admit.
+    ExecutorService payments = BoundedExecutors.newBoundedExecutor("test-payments", 1, 1, meterRegistry);
+    ExecutorService packets = BoundedExecutors.newCallerRunsExecutor("test-packets", 1, 1, meterRegistry);
+    SendMoneyService service = newSendMoneyService(payments, packets);
+    CountDownLatch slowResolutionStarted = new CountDownLatch(1);
+    CountDownLatch releaseSlowResolutions = new CountDownLatch(1);
+    when(spspClient.getStreamConnectionDetails(DESTINATION)).thenReturn(connector.connectionDetails("bob"));
+    when(spspClient.getStreamConnectionDetails(SLOW_DESTINATION)).thenAnswer(invocation -> {
+      slowResolutionStarted.countDown();
+      releaseSlowResolutions.await();
+      return connector.connectionDetails("carol");
+    });
+
+    try {
+      connector.holdPackets();
+      CompletableFuture<SendMoneyResult> inFlight = service.sendMoneyAsync(
+        SENDER, Optional.empty(), UnsignedLong.valueOf(1000), DESTINATION, Duration.ofSeconds(30)
+      );
+      assertThat(connector.awaitHeldPacket(Duration.ofSeconds(5))).isTrue();
+
+      service.sendMoneyAsync(SENDER, Optional.empty(), UnsignedLong.ONE, SLOW_DESTINATION);
+      assertThat(slowResolutionStarted.await(5, TimeUnit.SECONDS)).isTrue();
+      service.sendMoneyAsync(SENDER, Optional.empty(), UnsignedLong.ONE, SLOW_DESTINATION);
+      assertThatThrownBy(() -> service.sendMoneyAsync(SENDER, Optional.empty(), UnsignedLong.ONE, SLOW_DESTINATION))
+        .isInstanceOf(RejectedExecutionException.class);
+
+      connector.releasePackets();
+      SendMoneyResult result = inFlight.get(10, TimeUnit.SECONDS);
+      assertThat(result.successfulPayment()).isTrue();
+      assertThat(result.amountSent()).isEqualTo(UnsignedLong.valueOf(1000));
+    } finally {
+      releaseSlowResolutions.countDown();
+      payments.shutdownNow();
+      packets.shutdownNow();
+    }
+  }
+
+  @Test
+  public void concurrentPaymentsToTheSamePointerUseTheirOwnConnections() throws Exception {
+    SpspClient receiver = mock(SpspClient.class);
+    when(receiver.getStreamConnectionDetails(any(HttpUrl.class)))
+      .thenAnswer(invocation -> connector.connectionDetails("bob"));
+    spspClient = new CachingSpspClient(receiver, PaymentPointerResolver.defaultResolver(), 100, Duration.ofMinutes(1));
+    SendMoneyService service = newSendMoneyService(executorService, streamExecutorService);
+
+    connector.holdPackets();
+    CompletableFuture<SendMoneyResult> first = service.sendMoneyAsync(
+      SENDER, Optional.empty(), UnsignedLong.valueOf(1000), DESTINATION, Duration.ofSeconds(30)
+    );
+    CompletableFuture<SendMoneyResult> second = service.sendMoneyAsync(
+      SENDER, Optional.empty(), UnsignedLong.valueOf(1000), DESTINATION, Duration.ofSeconds(30)
+    );
+    // Both payments are under way at once.
+    assertThat(connector.awaitHeldPacket(Duration.ofSeconds(5))).isTrue();
+    assertThat(connector.awaitHeldPacket(Duration.ofSeconds(5))).isTrue();
+    connector.releasePackets();
+
+    assertThat(first.get(10, TimeUnit.SECONDS).amountDelivered()).isEqualTo(UnsignedLong.valueOf(1000));
+    assertThat(second.get(10, TimeUnit.SECONDS).amountDelivered()).isEqualTo(UnsignedLong.valueOf(1000));
+    assertThat(connector.moneyConnections()).isEqualTo(2);
+  }
+
+  @Test
+  public void batchPaymentsToTheSamePointerUseTheirOwnConnections() throws Exception {
+    SpspClient receiver = mock(SpspClient.class);
+    when(receiver.getStreamConnectionDetails(any(HttpUrl.class)))
+      .thenAnswer(invocation -> connector.connectionDetails("bob"));
+    spspClient = new CachingSpspClient(receiver, PaymentPointerResolver.defaultResolver(), 100, Duration.ofMinutes(1));
+    SendMoneyService service = newSendMoneyService(executorService, streamExecutorService);
+    PaymentRequest payment = PaymentRequest.builder()
+      .destinationPaymentPointer(DESTINATION.toString())
+      .amount(UnsignedLong.valueOf(1000))
+      .build();
+
+    // One at a time, so each payment starts after the last has closed its connection.
+    List<CompletableFuture<SendMoneyResult>> results = service.sendMoneyBatchAsync(
+      SENDER, Optional.empty(), Arrays.asList(payment, payment, payment), 1, Duration.ofSeconds(30)
+    );
+
+    for (CompletableFuture<SendMoneyResult> result : results) {
+      assertThat(result.get(10, TimeUnit.SECONDS).amountDelivered()).isEqualTo(UnsignedLong.valueOf(1000));
+    }
+    assertThat(connector.moneyConnections()).isEqualTo(3);
+    verify(receiver, times(3)).getStreamConnectionDetails(any(HttpUrl.class));
+  }
+
+  @Test
+  public void batchPaymentsNotStartedByTheBatchDeadlineTimeOut() throws Exception {
+    when(spspClient.getStreamConnectionDetails(DESTINATION)).thenReturn(connector.connectionDetails("bob"));
+    PaymentRequest payment = PaymentRequest.builder()
+      .destinationPaymentPointer(DESTINATION.toString())
+      .amount(UnsignedLong.valueOf(1000))
+      .build();
+
+    connector.holdPackets();
+    List<CompletableFuture<SendMoneyResult>> results = sendMoneyService.sendMoneyBatchAsync(
+      SENDER, Optional.empty(), Arrays.asList(payment, payment), 1, Duration.ofMillis(500)
+    );
+    assertThat(connector.awaitHeldPacket(Duration.ofSeconds(5))).isTrue();
+    Thread.sleep(600);
+    connector.releasePackets();
+
+    // The first payment finishes once its packet does, but by then it is too late to start the second.
+    results.get(0).get(10, TimeUnit.SECONDS);
+    assertThatThrownBy(() -> results.get(1).get(10, TimeUnit.SECONDS))
+      .isInstanceOf(ExecutionException.class)
+      .hasCauseInstanceOf(TimeoutException.class);
+    assertThat(connector.moneyConnections()).isEqualTo(1);
+  }
+
+  private SendMoneyService newSendMoneyService(
+    ExecutorService executorService, ExecutorService streamExecutorService
+  ) {
+    return new SendMoneyService(
+      HttpUrl.parse("http://localhost:8080"),
+      new ObjectMapper(),
+      accountSettingsCache,
+      balanceCache,
+      connector.okHttpClient(),
+      spspClient,
+      InterledgerAddressPrefix.of("test.spsp"),
+      new StreamSenderPool(10, Duration.ofMinutes(5)),
+      executorService,
+      streamExecutorService,
+      meterRegistry
+    );
+  }
+
+  private CompletableFuture<SendMoneyResult> send(Duration timeout) {
+    return sendMoneyService.sendMoneyAsync(
+      SENDER, Optional.empty(), UnsignedLong.valueOf(10), DESTINATION, timeout
+    );
+  }
+}
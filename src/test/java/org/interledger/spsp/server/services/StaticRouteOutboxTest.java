@@ -0,0 +1,147 @@
+package org.interledger.spsp.server.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.client.ConnectorAdminClient;
+import org.interledger.connector.routing.StaticRoute;
+import org.interledger.core.InterledgerAddressPrefix;
+
+import com.google.common.collect.Lists;
+import feign.FeignException;
+import feign.Request;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link StaticRouteOutbox}.
+ */
+public class StaticRouteOutboxTest {
+
+  private static final AccountId ALICE = AccountId.of("alice");
+  private static final String ALICE_PREFIX = "test.hermes.alice";
+
+  private ConnectorAdminClient adminClient;
+  private StaticRouteOutbox outbox;
+
+  @Before
+  public void setUp() {
+    adminClient = mock(ConnectorAdminClient.class);
+    outbox = new StaticRouteOutbox(
+      adminClient, InterledgerAddressPrefix.of("test.hermes"), Duration.ofMillis(10), Duration.ofMillis(50), 3
+    );
+  }
+
+  @After
+  public void tearDown() {
+    outbox.destroy();
+  }
+
+  @Test
+  public void retriesUntilRouteIsCreated() {
+    when(adminClient.createStaticRoute(eq(ALICE_PREFIX), any()))
+      .thenThrow(new IllegalStateException("connector unavailable"))
+      .thenThrow(new IllegalStateException("connector unavailable"))
+      .thenReturn(StaticRoute.builder()
+        .routePrefix(InterledgerAddressPrefix.of(ALICE_PREFIX))
+        .nextHopAccountId(ALICE)
+        .build());
+
+    outbox.enqueue(ALICE);
+
+    verify(adminClient, timeout(5000).times(3)).createStaticRoute(eq(ALICE_PREFIX), any());
+    verify(adminClient, after(200).times(3)).createStaticRoute(eq(ALICE_PREFIX), any());
+    assertThat(outbox.pending()).isZero();
+  }
+
+  @Test
+  public void abandonsRoutesTheConnectorKeepsRejecting() throws Exception {
+    when(adminClient.createStaticRoute(eq(ALICE_PREFIX), any()))
+      .thenThrow(new IllegalStateException("connector unavailable"))
+      .thenThrow(clientError(422));
+
+    outbox.enqueue(ALICE);
+
+    // Only client errors count towards abandoning a route.
+    verify(adminClient, timeout(5000).times(4)).createStaticRoute(eq(ALICE_PREFIX), any());
+    verify(adminClient, after(200).times(4)).createStaticRoute(eq(ALICE_PREFIX), any());
+    assertThat(outbox.pending()).isZero();
+    assertThat(outbox.abandoned()).isEqualTo(1);
+
+    outbox.reconcile(Lists.newArrayList(ALICE));
+    assertThat(outbox.pending()).isZero();
+  }
+
+  @Test
+  public void keepsRetryingRoutesThatAreRateLimited() {
+    when(adminClient.createStaticRoute(eq(ALICE_PREFIX), any()))
+      .thenThrow(clientError(429), clientError(429), clientError(429))
+      .thenAnswer(invocation -> invocation.getArgument(1));
+
+    outbox.enqueue(ALICE);
+
+    verify(adminClient, timeout(5000).times(4)).createStaticRoute(eq(ALICE_PREFIX), any());
+    assertThat(outbox.abandoned()).isZero();
+  }
+
+  @Test
+  public void pendingRoutesAreNotDuplicated() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    when(adminClient.createStaticRoute(eq(ALICE_PREFIX), any())).thenAnswer(invocation -> {
+      release.await(5, TimeUnit.SECONDS);
+      return invocation.getArgument(1);
+    });
+
+    outbox.enqueue(ALICE);
+    outbox.enqueue(ALICE);
+    outbox.reconcile(Lists.newArrayList(ALICE));
+    assertThat(outbox.pending()).isEqualTo(1);
+    release.countDown();
+
+    verify(adminClient, timeout(5000)).createStaticRoute(eq(ALICE_PREFIX), any());
+    verify(adminClient, after(200).times(1)).createStaticRoute(eq(ALICE_PREFIX), any());
+  }
+
+  @Test
+  public void reconcileSkipsConfirmedRoutes() throws Exception {
+    AccountId bob = AccountId.of("bob");
+    when(adminClient.createStaticRoute(any(), any())).thenAnswer(invocation -> invocation.getArgument(1));
+
+    outbox.enqueue(ALICE);
+    verify(adminClient, timeout(5000)).createStaticRoute(eq(ALICE_PREFIX), any());
+    while (outbox.pending() > 0) {
+      Thread.sleep(10);
+    }
+
+    outbox.reconcile(Lists.newArrayList(ALICE, bob));
+
+    verify(adminClient, timeout(5000)).createStaticRoute(eq("test.hermes.bob"), any());
+    verify(adminClient, times(1)).createStaticRoute(eq(ALICE_PREFIX), any());
+  }
+
+  private FeignException clientError(int status) {
+    Request request = Request.create(Request.HttpMethod.PUT, "/routes/static/" + ALICE_PREFIX, Collections.emptyMap(),
+      new byte[0], StandardCharsets.UTF_8);
+    return FeignException.errorStatus("createStaticRoute", feign.Response.builder()
+      .status(status)
+      .reason("Rejected")
+      .request(request)
+      .headers(Collections.emptyMap())
+      .build());
+  }
+}
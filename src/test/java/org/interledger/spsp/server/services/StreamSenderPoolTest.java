@@ -0,0 +1,77 @@
+package org.interledger.spsp.server.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.spsp.server.model.BearerToken;
+import org.interledger.stream.sender.StreamSender;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Unit tests for {@link StreamSenderPool}.
+ */
+public class StreamSenderPoolTest {
+
+  private static final AccountId ALICE = AccountId.of("alice");
+  private static final AccountId BOB = AccountId.of("bob");
+
+  private StreamSenderPool pool;
+  private AtomicInteger creations;
+  private Supplier<StreamSender> senderFactory;
+
+  @Before
+  public void setUp() {
+    pool = new StreamSenderPool(10, Duration.ofMinutes(5));
+    creations = new AtomicInteger();
+    senderFactory = () -> {
+      creations.incrementAndGet();
+      return mock(StreamSender.class);
+    };
+  }
+
+  @Test
+  public void reusesSenderForSameAccountAndToken() {
+    Optional<BearerToken> token = Optional.of(BearerToken.fromRawToken("password"));
+
+    StreamSender first = pool.getOrCreate(ALICE, token, senderFactory);
+    StreamSender second = pool.getOrCreate(ALICE, token, senderFactory);
+
+    assertThat(second).isSameAs(first);
+    assertThat(creations).hasValue(1);
+    assertThat(pool.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void separatesSendersByAccountAndToken() {
+    StreamSender alice = pool.getOrCreate(ALICE, Optional.of(BearerToken.fromRawToken("password")), senderFactory);
+    StreamSender aliceOtherToken =
+      pool.getOrCreate(ALICE, Optional.of(BearerToken.fromRawToken("other")), senderFactory);
+    StreamSender bob = pool.getOrCreate(BOB, Optional.of(BearerToken.fromRawToken("password")), senderFactory);
+
+    assertThat(alice).isNotSameAs(aliceOtherToken).isNotSameAs(bob);
+    assertThat(creations).hasValue(3);
+  }
+
+  @Test
+  public void bindsCacheMetrics() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    pool.bindTo(registry);
+
+    pool.getOrCreate(ALICE, Optional.empty(), senderFactory);
+    pool.getOrCreate(ALICE, Optional.empty(), senderFactory);
+
+    assertThat(registry.get("cache.gets").tag("cache", StreamSenderPool.METRIC_NAME).tag("result", "hit")
+      .functionCounter().count()).isEqualTo(1);
+    assertThat(registry.get("cache.size").tag("cache", StreamSenderPool.METRIC_NAME).gauge().value())
+      .isEqualTo(1);
+  }
+}
@@ -0,0 +1,71 @@
+package org.interledger.spsp.server.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.grpc.Context;
+import io.grpc.stub.ServerCallStreamObserver;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Unit tests for {@link BatchStreams}.
+ */
+public class BatchStreamsTest {
+
+  private ServerCallStreamObserver<String> call;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    call = mock(ServerCallStreamObserver.class);
+    when(call.isReady()).thenReturn(true);
+  }
+
+  @Test
+  public void streamsEachResultAsItFinishesThenCompletes() {
+    List<CompletableFuture<Integer>> work = Arrays.asList(new CompletableFuture<>(), new CompletableFuture<>());
+
+    stream(work);
+    work.get(1).completeExceptionally(new IllegalStateException("secret"));
+    verify(call, never()).onCompleted();
+    work.get(0).complete(42);
+
+    InOrder inOrder = inOrder(call);
+    inOrder.verify(call).onNext("1: Internal error");
+    inOrder.verify(call).onNext("0: 42");
+    inOrder.verify(call).onCompleted();
+  }
+
+  @Test
+  public void cancelsEveryItemWhenTheCallIsCancelled() {
+    List<CompletableFuture<Integer>> work = Arrays.asList(new CompletableFuture<>(), new CompletableFuture<>());
+    work.get(0).complete(42);
+
+    Context.CancellableContext context = Context.current().withCancellation();
+    context.run(() -> stream(work));
+    context.cancel(null);
+
+    assertThat(work.get(1).isCancelled()).isTrue();
+    verify(call).onNext("1: Cancelled");
+    verify(call).onCompleted();
+  }
+
+  private void stream(List<CompletableFuture<Integer>> work) {
+    BatchStreams.stream(
+      work,
+      FlowControlledStreamObserver.buffering(call),
+      (index, value) -> index + ": " + value,
+      (index, error) -> index + ": " + error
+    );
+  }
+}
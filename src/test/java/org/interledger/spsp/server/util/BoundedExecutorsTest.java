@@ -0,0 +1,111 @@
+package org.interledger.spsp.server.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.MDC;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Unit tests for {@link BoundedExecutors}.
+ */
+public class BoundedExecutorsTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private ExecutorService executor;
+  private CountDownLatch release;
+
+  @Before
+  public void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    executor = BoundedExecutors.newBoundedExecutor("test", 1, 1, meterRegistry);
+    release = new CountDownLatch(1);
+  }
+
+  @After
+  public void tearDown() {
+    release.countDown();
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void rejectsWhenPoolAndQueueAreFull() throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(1);
+    executor.execute(() -> {
+      started.countDown();
+      awaitRelease();
+    });
+    started.await();
+    executor.execute(this::awaitRelease);
+
+    assertThatThrownBy(() -> executor.execute(this::awaitRelease))
+      .isInstanceOf(RejectedExecutionException.class);
+  }
+
+  @Test
+  public void reportsQueueDepth() throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(1);
+    executor.execute(() -> {
+      started.countDown();
+      awaitRelease();
+    });
+    started.await();
+    executor.execute(this::awaitRelease);
+
+    assertThat(meterRegistry.get("executor.queued").tag("name", "test").gauge().value()).isEqualTo(1);
+    assertThat(meterRegistry.get("executor.active").tag("name", "test").gauge().value()).isEqualTo(1);
+  }
+
+  @Test
+  public void callerRunsExecutorRunsOnTheSubmitterWhenPoolAndQueueAreFull() throws InterruptedException {
+    ExecutorService callerRuns = BoundedExecutors.newCallerRunsExecutor("caller-runs", 1, 1, meterRegistry);
+    try {
+      CountDownLatch started = new CountDownLatch(1);
+      callerRuns.execute(() -> {
+        started.countDown();
+        awaitRelease();
+      });
+      started.await();
+      callerRuns.execute(this::awaitRelease);
+
+      AtomicReference<Thread> ranOn = new AtomicReference<>();
+      callerRuns.execute(() -> ranOn.set(Thread.currentThread()));
+      assertThat(ranOn.get()).isSameAs(Thread.currentThread());
+
+      callerRuns.shutdown();
+      assertThatThrownBy(() -> callerRuns.execute(() -> ranOn.set(null)))
+        .isInstanceOf(RejectedExecutionException.class);
+    } finally {
+      release.countDown();
+      callerRuns.shutdownNow();
+    }
+  }
+
+  @Test
+  public void runsTasksWithTheSubmittersLoggingContext() throws Exception {
+    MDC.put("traceId", "abc");
+    try {
+      assertThat(executor.submit(() -> MDC.get("traceId")).get(5, TimeUnit.SECONDS)).isEqualTo("abc");
+    } finally {
+      MDC.remove("traceId");
+    }
+    assertThat(executor.submit(() -> MDC.get("traceId")).get(5, TimeUnit.SECONDS)).isNull();
+  }
+
+  private void awaitRelease() {
+    try {
+      release.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
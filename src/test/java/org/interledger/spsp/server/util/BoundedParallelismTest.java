@@ -0,0 +1,76 @@
+package org.interledger.spsp.server.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Unit tests for {@link BoundedParallelism}.
+ */
+public class BoundedParallelismTest {
+
+  @Test
+  public void neverExceedsParallelism() {
+    List<Integer> items = IntStream.range(0, 10).boxed().collect(Collectors.toList());
+    List<CompletableFuture<Integer>> started = new ArrayList<>();
+
+    List<CompletableFuture<Integer>> results = BoundedParallelism.apply(items, 3, item -> {
+      CompletableFuture<Integer> future = new CompletableFuture<>();
+      started.add(future);
+      return future;
+    });
+
+    assertThat(started).hasSize(3);
+    started.get(0).complete(0);
+    assertThat(started).hasSize(4);
+    assertThat(results.get(0)).isCompletedWithValue(0);
+    assertThat(results.get(1)).isNotDone();
+  }
+
+  @Test
+  public void completesEveryItemInOrderWithPerItemFailures() {
+    List<Integer> items = IntStream.range(0, 10_000).boxed().collect(Collectors.toList());
+    AtomicInteger calls = new AtomicInteger();
+
+    // Tasks that complete synchronously must not recurse once per item.
+    List<CompletableFuture<Integer>> results = BoundedParallelism.apply(items, 2, item -> {
+      calls.incrementAndGet();
+      if (item == 5) {
+        throw new IllegalStateException("boom");
+      }
+      return CompletableFuture.completedFuture(item * 2);
+    });
+
+    assertThat(calls).hasValue(10_000);
+    assertThat(results.get(4)).isCompletedWithValue(8);
+    assertThat(results.get(5)).isCompletedExceptionally();
+    assertThat(results.get(9_999)).isCompletedWithValue(19_998);
+  }
+
+  @Test
+  public void neverStartsItemsCancelledBeforeTheyStart() {
+    List<Integer> items = IntStream.range(0, 5).boxed().collect(Collectors.toList());
+    List<Integer> started = new ArrayList<>();
+    List<CompletableFuture<Integer>> running = new ArrayList<>();
+
+    List<CompletableFuture<Integer>> results = BoundedParallelism.apply(items, 1, item -> {
+      CompletableFuture<Integer> future = new CompletableFuture<>();
+      started.add(item);
+      running.add(future);
+      return future;
+    });
+
+    results.get(1).cancel(true);
+    results.get(2).cancel(true);
+    running.get(0).complete(0);
+
+    assertThat(started).containsExactly(0, 3);
+  }
+}
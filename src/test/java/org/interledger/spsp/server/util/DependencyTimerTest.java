@@ -0,0 +1,81 @@
+package org.interledger.spsp.server.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Unit tests for {@link DependencyTimer}.
+ */
+public class DependencyTimerTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private DependencyTimer timer;
+
+  @Before
+  public void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    timer = DependencyTimer.of(meterRegistry, "connector", "findAccount");
+  }
+
+  @Test
+  public void recordsSuccessfulCalls() {
+    assertThat(timer.record(() -> "account")).isEqualTo("account");
+
+    assertThat(count(DependencyTimer.SUCCESS)).isEqualTo(1);
+    assertThat(count(DependencyTimer.FAILURE)).isEqualTo(0);
+  }
+
+  @Test
+  public void recordsAndRethrowsFailedCalls() {
+    assertThatThrownBy(() -> timer.record(() -> {
+      throw new IllegalStateException("boom");
+    })).isInstanceOf(IllegalStateException.class);
+
+    assertThat(count(DependencyTimer.FAILURE)).isEqualTo(1);
+    assertThat(meterRegistry.get(DependencyTimer.ERRORS_METRIC_NAME)
+      .tag("operation", "findAccount")
+      .tag("exception", "IllegalStateException")
+      .counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  public void recordsAsyncCallsWhenTheyComplete() {
+    CompletableFuture<Boolean> call = new CompletableFuture<>();
+    CompletableFuture<Boolean> result = timer.recordAsync(() -> call, Boolean::booleanValue);
+    assertThat(count(DependencyTimer.SUCCESS) + count(DependencyTimer.UNSUCCESSFUL)).isEqualTo(0);
+
+    call.complete(false);
+
+    assertThat(result).isCompletedWithValue(false);
+    assertThat(count(DependencyTimer.UNSUCCESSFUL)).isEqualTo(1);
+    assertThat(count(DependencyTimer.SUCCESS)).isEqualTo(0);
+  }
+
+  @Test
+  public void countsAsyncFailuresByCause() {
+    CompletableFuture<Boolean> call = new CompletableFuture<>();
+    timer.recordAsync(() -> call.thenApply(value -> value), Boolean::booleanValue);
+
+    call.completeExceptionally(new TimeoutException());
+
+    assertThat(count(DependencyTimer.FAILURE)).isEqualTo(1);
+    assertThat(meterRegistry.get(DependencyTimer.ERRORS_METRIC_NAME)
+      .tag("exception", "TimeoutException")
+      .counter().count()).isEqualTo(1);
+  }
+
+  private long count(String outcome) {
+    return meterRegistry.get(DependencyTimer.METRIC_NAME)
+      .tag("dependency", "connector")
+      .tag("operation", "findAccount")
+      .tag("outcome", outcome)
+      .timer().count();
+  }
+}
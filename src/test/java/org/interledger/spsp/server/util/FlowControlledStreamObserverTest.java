@@ -0,0 +1,125 @@
+package org.interledger.spsp.server.util;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.grpc.stub.ServerCallStreamObserver;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+/**
+ * Unit tests for {@link FlowControlledStreamObserver}.
+ */
+public class FlowControlledStreamObserverTest {
+
+  private ServerCallStreamObserver<String> call;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    call = mock(ServerCallStreamObserver.class);
+  }
+
+  @Test
+  public void writesValuesImmediatelyWhileReady() {
+    when(call.isReady()).thenReturn(true);
+    FlowControlledStreamObserver<String> observer = FlowControlledStreamObserver.buffering(call);
+
+    observer.onNext("one");
+    observer.onNext("two");
+    observer.onCompleted();
+
+    InOrder inOrder = inOrder(call);
+    inOrder.verify(call).onNext("one");
+    inOrder.verify(call).onNext("two");
+    inOrder.verify(call).onCompleted();
+  }
+
+  @Test
+  public void bufferingWaitsUntilReadyToWriteEveryValueAndComplete() {
+    FlowControlledStreamObserver<String> observer = FlowControlledStreamObserver.buffering(call);
+    Runnable onReady = onReadyHandler();
+
+    observer.onNext("one");
+    observer.onNext("two");
+    observer.onCompleted();
+    verify(call, never()).onNext(any());
+    verify(call, never()).onCompleted();
+
+    when(call.isReady()).thenReturn(true, false);
+    onReady.run();
+    verify(call).onNext("one");
+    verify(call, never()).onNext("two");
+    verify(call, never()).onCompleted();
+
+    when(call.isReady()).thenReturn(true);
+    onReady.run();
+    InOrder inOrder = inOrder(call);
+    inOrder.verify(call).onNext("two");
+    inOrder.verify(call).onCompleted();
+  }
+
+  @Test
+  public void conflatingOnlyWritesTheLatestValueOnceReady() {
+    FlowControlledStreamObserver<String> observer = FlowControlledStreamObserver.conflating(call);
+    Runnable onReady = onReadyHandler();
+
+    observer.onNext("one");
+    observer.onNext("two");
+    observer.onNext("three");
+
+    when(call.isReady()).thenReturn(true);
+    onReady.run();
+    verify(call, never()).onNext("one");
+    verify(call, never()).onNext("two");
+    verify(call).onNext("three");
+  }
+
+  @Test
+  public void nothingFollowsTheLastValue() {
+    FlowControlledStreamObserver<String> observer = FlowControlledStreamObserver.conflating(call);
+    Runnable onReady = onReadyHandler();
+
+    observer.onNext("progress");
+    observer.onLast("result");
+    observer.onNext("late progress");
+
+    when(call.isReady()).thenReturn(true);
+    onReady.run();
+    InOrder inOrder = inOrder(call);
+    inOrder.verify(call).onNext("result");
+    inOrder.verify(call).onCompleted();
+    verify(call, never()).onNext("progress");
+    verify(call, never()).onNext("late progress");
+  }
+
+  @Test
+  public void errorsAreWrittenImmediatelyAndDiscardPendingValues() {
+    FlowControlledStreamObserver<String> observer = FlowControlledStreamObserver.buffering(call);
+    Runnable onReady = onReadyHandler();
+    RuntimeException error = new RuntimeException("boom");
+
+    observer.onNext("one");
+    observer.onError(error);
+    observer.onNext("two");
+    observer.onCompleted();
+
+    when(call.isReady()).thenReturn(true);
+    onReady.run();
+    verify(call).onError(error);
+    verify(call, never()).onNext(any());
+    verify(call, never()).onCompleted();
+  }
+
+  private Runnable onReadyHandler() {
+    ArgumentCaptor<Runnable> onReady = ArgumentCaptor.forClass(Runnable.class);
+    verify(call).setOnReadyHandler(onReady.capture());
+    return onReady.getValue();
+  }
+}
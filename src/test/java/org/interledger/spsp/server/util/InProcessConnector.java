@@ -0,0 +1,172 @@
+package org.interledger.spsp.server.util;
+
+import org.interledger.codecs.ilp.InterledgerCodecContextFactory;
+import org.interledger.codecs.stream.StreamCodecContextFactory;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerAddressPrefix;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.encoding.asn.framework.CodecContext;
+import org.interledger.spsp.StreamConnectionDetails;
+import org.interledger.stream.Denomination;
+import org.interledger.stream.crypto.JavaxStreamEncryptionService;
+import org.interledger.stream.receiver.ServerSecretSupplier;
+import org.interledger.stream.receiver.SpspStreamConnectionGenerator;
+import org.interledger.stream.receiver.StatelessStreamReceiver;
+import org.interledger.stream.receiver.StreamConnectionGenerator;
+import org.interledger.stream.receiver.StreamReceiver;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * For testing purposes to stand in for a Connector, and the STREAM receiver behind it, without any network. This is an
+ * OkHttp {@link Interceptor} that answers every ILP-over-HTTP request made with {@link #okHttpClient()} with the
+ * response of an in-memory STREAM receiver. Packets that carry money can be held until released, to simulate payments
+ * that are in flight.
+ */
+public class InProcessConnector implements Interceptor {
+
+  public static final InterledgerAddressPrefix RECEIVER_PREFIX = InterledgerAddressPrefix.of("test.receiver");
+
+  private static final MediaType OCTET_STREAM = MediaType.get("application/octet-stream");
+
+  private final CodecContext ilpCodecContext = InterledgerCodecContextFactory.oer();
+  private final Denomination denomination = Denomination.builder().assetCode("XRP").assetScale((short) 9).build();
+  private final byte[] serverSecret = new byte[32];
+  private final ServerSecretSupplier serverSecretSupplier = () -> serverSecret.clone();
+  private final StreamConnectionGenerator connectionGenerator = new SpspStreamConnectionGenerator();
+  private final StreamReceiver streamReceiver = new StatelessStreamReceiver(
+    serverSecretSupplier, connectionGenerator, new JavaxStreamEncryptionService(), StreamCodecContextFactory.oer()
+  );
+
+  private final AtomicInteger moneyPackets = new AtomicInteger();
+  private final Set<InterledgerAddress> connections = ConcurrentHashMap.newKeySet();
+  private final Semaphore heldPackets = new Semaphore(0);
+  private volatile CountDownLatch release = new CountDownLatch(0);
+
+  public InProcessConnector() {
+    new SecureRandom().nextBytes(serverSecret);
+  }
+
+  /**
+   * An {@link OkHttpClient} whose requests are all answered by this Connector.
+   *
+   * @return An {@link OkHttpClient}.
+   */
+  public OkHttpClient okHttpClient() {
+    return new OkHttpClient.Builder().addInterceptor(this).build();
+  }
+
+  /**
+   * Generate connection details for a receiving account, as an SPSP server would.
+   *
+   * @param accountId The receiving account.
+   *
+   * @return A new {@link StreamConnectionDetails}.
+   */
+  public StreamConnectionDetails connectionDetails(final String accountId) {
+    return connectionGenerator.generateConnectionDetails(
+      serverSecretSupplier, InterledgerAddress.of(RECEIVER_PREFIX.with(accountId).getValue())
+    );
+  }
+
+  /**
+   * Hold every packet that carries money until {@link #releasePackets()} is called.
+   */
+  public void holdPackets() {
+    release = new CountDownLatch(1);
+  }
+
+  /**
+   * Answer held packets, and stop holding new ones.
+   */
+  public void releasePackets() {
+    release.countDown();
+  }
+
+  /**
+   * Wait for a packet to be held.
+   *
+   * @param timeout The maximum time to wait.
+   *
+   * @return {@code true} if a packet was held, otherwise {@code false}.
+   *
+   * @throws InterruptedException If interrupted while waiting.
+   */
+  public boolean awaitHeldPacket(final Duration timeout) throws InterruptedException {
+    return heldPackets.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * The number of packets carrying money that this Connector has received.
+   *
+   * @return A count of packets.
+   */
+  public int moneyPackets() {
+    return moneyPackets.get();
+  }
+
+  /**
+   * The number of distinct STREAM connections (i.e., destination addresses) that packets carrying money were sent on.
+   *
+   * @return A count of connections.
+   */
+  public int moneyConnections() {
+    return connections.size();
+  }
+
+  @Override
+  public Response intercept(final Chain chain) throws IOException {
+    final Request request = chain.request();
+    final Buffer requestBody = new Buffer();
+    request.body().writeTo(requestBody);
+    final InterledgerPreparePacket preparePacket =
+      ilpCodecContext.read(InterledgerPreparePacket.class, requestBody.inputStream());
+
+    final CountDownLatch release = this.release;
+    if (preparePacket.getAmount().longValue() > 0) {
+      moneyPackets.incrementAndGet();
+      connections.add(preparePacket.getDestination());
+    }
+    if (preparePacket.getAmount().longValue() > 0 && release.getCount() > 0) {
+      heldPackets.release();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while holding a packet");
+      }
+    }
+
+    final InterledgerResponsePacket responsePacket =
+      streamReceiver.receiveMoney(preparePacket, preparePacket.getDestination(), denomination);
+    final ByteArrayOutputStream responseBody = new ByteArrayOutputStream();
+    ilpCodecContext.write(responsePacket, responseBody);
+    return new Response.Builder()
+      .request(request)
+      .protocol(Protocol.HTTP_1_1)
+      .code(200)
+      .message("OK")
+      .body(ResponseBody.create(responseBody.toByteArray(), OCTET_STREAM))
+      .build();
+  }
+}
@@ -129,6 +129,31 @@ public class JwksServer {
         .collect(Collectors.toList()));
   }
 
+  /**
+   * An {@link RSAKeyProvider} for this server's public keys, to verify JWTs with without serving the JWKS.
+   *
+   * @return An {@link RSAKeyProvider} that can't sign.
+   */
+  public RSAKeyProvider keyProvider() {
+    return new RSAKeyProvider() {
+      @Override
+      public RSAPublicKey getPublicKeyById(String keyId) {
+        final int index = KEY_IDS.indexOf(keyId);
+        return index < 0 ? null : (RSAPublicKey) keyPairs.get(index).getPublic();
+      }
+
+      @Override
+      public RSAPrivateKey getPrivateKey() {
+        return null;
+      }
+
+      @Override
+      public String getPrivateKeyId() {
+        return null;
+      }
+    };
+  }
+
   public int getKeyCount() {
     return keyPairs.size();
   }
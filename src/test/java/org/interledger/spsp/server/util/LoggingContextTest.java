@@ -0,0 +1,60 @@
+package org.interledger.spsp.server.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.MDC;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link LoggingContext}.
+ */
+public class LoggingContextTest {
+
+  @Before
+  public void setUp() {
+    MDC.clear();
+  }
+
+  @Test
+  public void closingAScopeRestoresPriorValues() {
+    MDC.put("traceId", "outer");
+
+    try (LoggingContext.Scope ignored = LoggingContext.put(ImmutableMap.of("traceId", "inner", "accountId", "alice"))) {
+      assertThat(MDC.get("traceId")).isEqualTo("inner");
+      assertThat(MDC.get("accountId")).isEqualTo("alice");
+    }
+
+    assertThat(MDC.get("traceId")).isEqualTo("outer");
+    assertThat(MDC.get("accountId")).isNull();
+  }
+
+  @Test
+  public void propagatedTasksRunWithTheSubmittersContextAndRestoreTheirOwn() {
+    MDC.put("traceId", "submitter");
+    Runnable task = LoggingContext.propagate(() -> assertThat(MDC.get("traceId")).isEqualTo("submitter"));
+    Map<String, String> seen = new HashMap<>();
+    Runnable otherTask = LoggingContext.propagate(() -> seen.putAll(MDC.getCopyOfContextMap()));
+
+    MDC.clear();
+    MDC.put("accountId", "runner");
+    task.run();
+    otherTask.run();
+
+    assertThat(seen).containsOnly(entry("traceId", "submitter"));
+    assertThat(MDC.getCopyOfContextMap()).containsOnlyKeys("accountId");
+  }
+
+  @Test
+  public void tasksSubmittedWithoutAContextAreNotWrapped() {
+    Runnable task = () -> {
+    };
+
+    assertThat(LoggingContext.propagate(task)).isSameAs(task);
+  }
+}